@@ -0,0 +1,254 @@
+package com.scratchgame;
+
+import com.scratchgame.evaluation.EvaluationCache;
+import com.scratchgame.evaluation.PayoutTable;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.evaluation.TiledBoardEvaluator;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.BonusImpact;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.model.runtime.GameModel;
+import com.scratchgame.money.RewardCalculator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Everything a {@link ScratchGame} derives from its config, compiled once: the model, rule
+ * index, reward calculator, generator alias tables, payout table, evaluation cache and tiled
+ * evaluator. All of it is read-only or thread-safe, so one instance serves the games of
+ * every thread, and each game adds only its own random source.
+ */
+public final class CompiledGame {
+    // Lookups per hit-rate check of the evaluation cache
+    private static final long CACHE_WINDOW_LOOKUPS = 10_000;
+
+    private final GameConfig config;
+    private final GameModel model;
+    private final RuleIndex ruleIndex;
+    private final RewardCalculator rewardCalculator;
+    private final ReelStripGenerator reelStrips;
+    private final WeightedRandomGenerator[] cellGenerators;
+    private final int[][] cellSymbolIds;
+    private final WeightedRandomGenerator bonusGenerator;
+    private final CompiledSymbol[] bonusSymbols;
+    private final BonusImpact[] bonusImpacts;
+    private final PayoutTable payoutTable;
+    private final EvaluationCache evaluationCache;
+    private final TiledBoardEvaluator tiledEvaluator;
+
+    /**
+     * @throws IllegalArgumentException for an invalid board, symbol or win combination
+     * @throws IllegalStateException for an invalid covered area position, bonus symbol or
+     *                               probability distribution
+     */
+    public CompiledGame(GameConfig config) {
+        this.model = new GameModel(config);
+        this.config = config;
+        this.ruleIndex = new RuleIndex(model);
+        this.rewardCalculator = new RewardCalculator(config, ruleIndex);
+
+        // Reel strips replace the per-cell generators for the board
+        this.reelStrips = model.hasReelStrips() ? new ReelStripGenerator(model) : null;
+
+        // Bonus draws resolved to compiled symbols; an unconfigured MISS is a plain miss
+        GameConfig.BonusSymbolProbability bonus = config.getProbabilities().getBonusSymbols();
+        this.bonusGenerator = bonus != null ? new WeightedRandomGenerator(bonus.getSymbols()) : null;
+        int bonusCount = bonusGenerator == null ? 0 : bonusGenerator.size();
+        this.bonusSymbols = new CompiledSymbol[bonusCount];
+        this.bonusImpacts = new BonusImpact[bonusCount];
+        for (int i = 0; i < bonusCount; i++) {
+            bonusSymbols[i] = model.findSymbol(bonusGenerator.getSymbol(i));
+            if (bonusSymbols[i] != null) {
+                bonusImpacts[i] = bonusSymbols[i].getImpact();
+            } else if (BonusImpact.MISS.name().equals(bonusGenerator.getSymbol(i))) {
+                bonusImpacts[i] = BonusImpact.MISS;
+            }
+        }
+
+        // Per-cell generators and their symbol ids; cells sharing weights share both
+        int cellCount = model.getCellCount();
+        this.cellGenerators = new WeightedRandomGenerator[cellCount];
+        this.cellSymbolIds = new int[cellCount][];
+        Map<Map<String, Integer>, WeightedRandomGenerator> generators = new IdentityHashMap<>();
+        Map<Map<String, Integer>, int[]> generatorIds = new IdentityHashMap<>();
+        for (int cell = 0; cell < cellCount && reelStrips == null; cell++) {
+            Map<String, Integer> weights = model.getCellWeights(cell);
+            if (weights == null) {
+                continue;
+            }
+            WeightedRandomGenerator generator = generators.get(weights);
+            if (generator == null) {
+                generator = new WeightedRandomGenerator(weights);
+                int[] ids = new int[generator.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    // -1 marks symbols missing from the configuration; drawing one is an error
+                    CompiledSymbol symbol = model.findSymbol(generator.getSymbol(i));
+                    ids[i] = symbol != null ? symbol.getId() : -1;
+                }
+                generators.put(weights, generator);
+                generatorIds.put(weights, ids);
+            }
+            cellGenerators[cell] = generator;
+            cellSymbolIds[cell] = generatorIds.get(weights);
+        }
+
+        this.payoutTable = buildPayoutTable(config);
+        this.evaluationCache = payoutTable == null ? buildEvaluationCache(config) : null;
+        this.tiledEvaluator = buildTiledEvaluator(config);
+    }
+
+    private EvaluationCache buildEvaluationCache(GameConfig config) {
+        GameConfig.EngineSettings engine = config.getEngine();
+        if (engine == null || !engine.isEvaluationCache()) {
+            return null;
+        }
+        return new EvaluationCache(ruleIndex.getSymbolCount(), ruleIndex.getCellCount(),
+                engine.getEvaluationCacheEntries(), engine.getEvaluationCacheMinHitRate(), CACHE_WINDOW_LOOKUPS);
+    }
+
+    /**
+     * Builds the tiled evaluator for boards of at least the configured cell count, which
+     * apply even without an engine block. Returns null for smaller boards.
+     */
+    private TiledBoardEvaluator buildTiledEvaluator(GameConfig config) {
+        GameConfig.EngineSettings engine = config.getEngine() != null ? config.getEngine() : new GameConfig.EngineSettings();
+        int minCells = engine.getTiledEvaluationMinCells();
+        if (minCells <= 0 || model.getCellCount() < minCells) {
+            return null;
+        }
+        return new TiledBoardEvaluator(model.getRows(), model.getColumns(), model.getSymbolCount(),
+                engine.getTileSize(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the payout table when the engine settings ask for it and every board the
+     * cells can draw fits the memory budget. Returns null otherwise.
+     */
+    private PayoutTable buildPayoutTable(GameConfig config) {
+        GameConfig.EngineSettings engine = config.getEngine();
+        if (engine == null || !engine.isPayoutTable()) {
+            return null;
+        }
+
+        boolean[] drawable = new boolean[ruleIndex.getSymbolCount()];
+        if (reelStrips != null) {
+            for (int column = 0; column < model.getColumns(); column++) {
+                for (int position = 0; position < model.getReelStripLength(column); position++) {
+                    drawable[model.getReelSymbol(column, position)] = true;
+                }
+            }
+        }
+        for (int cell = 0; cell < cellGenerators.length && reelStrips == null; cell++) {
+            if (cellGenerators[cell] == null) {
+                return null;
+            }
+            for (int id : cellSymbolIds[cell]) {
+                if (id < 0) {
+                    return null;
+                }
+                drawable[id] = true;
+            }
+        }
+        int digits = 0;
+        for (boolean symbolDrawable : drawable) {
+            digits += symbolDrawable ? 1 : 0;
+        }
+        int[] digitSymbols = new int[digits];
+        int digit = 0;
+        for (int id = 0; id < drawable.length; id++) {
+            if (drawable[id]) {
+                digitSymbols[digit++] = id;
+            }
+        }
+
+        long budgetBytes = engine.getPayoutTableMemoryMb() * 1024 * 1024;
+        if (PayoutTable.requiredBytes(digitSymbols.length, cellGenerators.length) > budgetBytes) {
+            return null;
+        }
+        return PayoutTable.build(ruleIndex, digitSymbols, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * A new game on this compiled config with its own unseeded random sources.
+     */
+    public ScratchGame newGame() {
+        return new ScratchGame(this, null);
+    }
+
+    /**
+     * A new game drawing from one {@link Random} seeded with {@code seed}, replaying the
+     * rounds of {@link ScratchGame#ScratchGame(GameConfig, long)}.
+     */
+    public ScratchGame newGame(long seed) {
+        return new ScratchGame(this, new Random(seed));
+    }
+
+    /**
+     * The config this game was compiled from. Games cross-check their rewards against it,
+     * so an edit after compiling is reported rather than paid.
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public GameModel getModel() {
+        return model;
+    }
+
+    public RuleIndex getRuleIndex() {
+        return ruleIndex;
+    }
+
+    public RewardCalculator getRewardCalculator() {
+        return rewardCalculator;
+    }
+
+    /**
+     * The precomputed payout table, or null when games evaluate boards directly.
+     */
+    public PayoutTable getPayoutTable() {
+        return payoutTable;
+    }
+
+    /**
+     * The evaluation cache shared by every game, or null when it is not configured.
+     */
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    TiledBoardEvaluator getTiledEvaluator() {
+        return tiledEvaluator;
+    }
+
+    ReelStripGenerator getReelStrips() {
+        return reelStrips;
+    }
+
+    /**
+     * Shared alias tables of each cell's generator, null for cells without weights and in
+     * reel-strip mode; games draw from them through {@link WeightedRandomGenerator#withRandom}.
+     */
+    WeightedRandomGenerator[] getCellGenerators() {
+        return cellGenerators;
+    }
+
+    int[][] getCellSymbolIds() {
+        return cellSymbolIds;
+    }
+
+    WeightedRandomGenerator getBonusGenerator() {
+        return bonusGenerator;
+    }
+
+    CompiledSymbol[] getBonusSymbols() {
+        return bonusSymbols;
+    }
+
+    BonusImpact[] getBonusImpacts() {
+        return bonusImpacts;
+    }
+}
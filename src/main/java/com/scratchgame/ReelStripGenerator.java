@@ -0,0 +1,85 @@
+package com.scratchgame;
+
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.model.runtime.GameModel;
+
+import java.util.Random;
+
+/**
+ * Fills boards from the reel strips of a {@link GameModel}: one uniformly drawn stop per
+ * column, with row r of the column showing the strip symbol r positions below the stop.
+ *
+ * A board costs one random draw per column instead of the two per cell of
+ * {@link WeightedRandomGenerator}. The generator holds no state of its own, so one
+ * instance can serve every thread, each passing its own {@link Random}.
+ */
+public final class ReelStripGenerator {
+    private final GameModel model;
+    private final int rows;
+    private final int columns;
+
+    public ReelStripGenerator(GameModel model) {
+        if (!model.hasReelStrips()) {
+            throw new IllegalArgumentException("Game has no reel strips");
+        }
+        this.model = model;
+        this.rows = model.getRows();
+        this.columns = model.getColumns();
+    }
+
+    /**
+     * Spins every reel, writing the stops and the row-major symbol ids of the board.
+     */
+    public void spin(Random random, int[] stops, int[] cells) {
+        for (int column = 0; column < columns; column++) {
+            stops[column] = random.nextInt(model.getReelStripLength(column));
+        }
+        fill(stops, cells);
+    }
+
+    /**
+     * Writes the board shown by the given stops.
+     */
+    public void fill(int[] stops, int[] cells) {
+        for (int column = 0; column < columns; column++) {
+            for (int row = 0; row < rows; row++) {
+                cells[row * columns + column] = model.getReelSymbol(column, stops[column] + row);
+            }
+        }
+    }
+
+    /**
+     * Spins {@code count} boards into the batch and sets the batch size.
+     */
+    public void drawBoards(Random random, BoardBatch batch, int count) {
+        if (batch.getCellCount() != rows * columns) {
+            throw new IllegalArgumentException("Batch has " + batch.getCellCount() + " cells, expected " + rows * columns);
+        }
+        batch.setSize(count);
+        for (int column = 0; column < columns; column++) {
+            int length = model.getReelStripLength(column);
+            for (int board = 0; board < count; board++) {
+                int stop = random.nextInt(length);
+                for (int row = 0; row < rows; row++) {
+                    batch.getColumn(row * columns + column)[board] = (byte) model.getReelSymbol(column, stop + row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of distinct stop combinations, the product of the strip lengths, or
+     * {@link Long#MAX_VALUE} when it does not fit a long.
+     */
+    public long getStopCombinations() {
+        long combinations = 1;
+        for (int column = 0; column < columns; column++) {
+            try {
+                combinations = Math.multiplyExact(combinations, model.getReelStripLength(column));
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return combinations;
+    }
+}
@@ -1,15 +1,45 @@
 package com.scratchgame;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.evaluation.EvaluationCache;
+import com.scratchgame.evaluation.IncrementalEvaluator;
+import com.scratchgame.evaluation.LineDirection;
+import com.scratchgame.evaluation.LineRunDetector;
+import com.scratchgame.evaluation.PayoutTable;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.evaluation.TiledBoardEvaluator;
 import com.scratchgame.model.*;
+import com.scratchgame.model.runtime.BonusImpact;
+import com.scratchgame.model.runtime.CompiledRule;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.model.runtime.GameModel;
+import com.scratchgame.money.ProgressiveJackpot;
+import com.scratchgame.money.RewardCalculator;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
 public class ScratchGame {
+    private static final int DEFAULT_MAX_CASCADE_STEPS = 100;
+    
     private final GameConfig config;
-    private final Random random;
-    private final Map<String, WeightedRandomGenerator> symbolGenerators = new HashMap<>();
+    private final GameModel model;
+    private final RuleIndex ruleIndex;
+    private final RewardCalculator rewardCalculator;
+    private final WeightedRandomGenerator[] cellGenerators;
+    private final int[][] cellSymbolIds;
+    private final WeightedRandomGenerator bonusGenerator;
+    private final CompiledSymbol[] bonusSymbols;
+    private final BonusImpact[] bonusImpacts;
+    // Reel-strip mode: the strips and the source of their stops
+    private final ReelStripGenerator reelStrips;
+    private final Random reelRandom;
+    private final PayoutTable payoutTable;
+    private final EvaluationCache evaluationCache;
+    private final TiledBoardEvaluator tiledEvaluator;
+    private int maxCascadeSteps = DEFAULT_MAX_CASCADE_STEPS;
+    private ProgressiveJackpot jackpot;
     private List<List<String>> testMatrix = null;
 
     // To improve testing, allows injecting a test matrix. In game, this is not used.
@@ -18,43 +48,103 @@ public class ScratchGame {
     }
     
     public ScratchGame(GameConfig config) {
-        validateConfig(config);
-        this.config = config;
-        this.random = new Random();
-        
-        // Precompute WeightedRandomGenerators for each position
-        for (GameConfig.StandardSymbolProbability probability : config.getProbabilities().getStandardSymbols()) {
-            String key = probability.getRow() + ":" + probability.getColumn();
-            symbolGenerators.put(key, new WeightedRandomGenerator(probability.getSymbols()));
-        }
+        this(new CompiledGame(config), null);
+    }
+    
+    /**
+     * A game whose generators all draw from one {@link Random} seeded with {@code seed}, so
+     * the same config, seed and sequence of calls replay the same rounds.
+     */
+    public ScratchGame(GameConfig config, long seed) {
+        this(new CompiledGame(config), new Random(seed));
+    }
+    
+    /**
+     * A game on an already compiled config, drawing from {@code random}, or from unseeded
+     * sources when it is null. See {@link CompiledGame#newGame()}.
+     */
+    ScratchGame(CompiledGame compiled, Random random) {
+        this.config = compiled.getConfig();
+        this.model = compiled.getModel();
+        this.ruleIndex = compiled.getRuleIndex();
+        this.rewardCalculator = compiled.getRewardCalculator();
+        this.reelStrips = compiled.getReelStrips();
+        this.reelRandom = reelStrips == null ? null : random != null ? random : new Random();
+        this.payoutTable = compiled.getPayoutTable();
+        this.evaluationCache = compiled.getEvaluationCache();
+        this.tiledEvaluator = compiled.getTiledEvaluator();
+        this.bonusSymbols = compiled.getBonusSymbols();
+        this.bonusImpacts = compiled.getBonusImpacts();
+        this.cellSymbolIds = compiled.getCellSymbolIds();
         
-        // Also create one for bonus symbols if they exist
-        if (config.getProbabilities().getBonusSymbols() != null) {
-            symbolGenerators.put("bonus", new WeightedRandomGenerator(
-                config.getProbabilities().getBonusSymbols().getSymbols()));
+        // Only the random sources are the game's own; the alias tables are shared
+        WeightedRandomGenerator bonus = compiled.getBonusGenerator();
+        this.bonusGenerator = bonus == null ? null : bonus.withRandom(random != null ? random : new Random());
+        WeightedRandomGenerator[] compiledCells = compiled.getCellGenerators();
+        this.cellGenerators = new WeightedRandomGenerator[compiledCells.length];
+        Map<WeightedRandomGenerator, WeightedRandomGenerator> own = new IdentityHashMap<>();
+        for (int cell = 0; cell < compiledCells.length; cell++) {
+            if (compiledCells[cell] != null) {
+                cellGenerators[cell] = own.computeIfAbsent(compiledCells[cell],
+                        generator -> generator.withRandom(random != null ? random : new Random()));
+            }
         }
     }
 
-    private void validateConfig(GameConfig config) {
-        if (config == null) {
-            throw new IllegalArgumentException("Game configuration cannot be null");
-        }
-        if (config.getRows() <= 0 || config.getColumns() <= 0) {
-            throw new IllegalArgumentException("Matrix dimensions must be positive");
-        }
-        if (config.getSymbols() == null || config.getSymbols().isEmpty()) {
-            throw new IllegalArgumentException("Game must have at least one symbol");
-        }
-        if (config.getWinCombinations() == null || config.getWinCombinations().isEmpty()) {
-            throw new IllegalArgumentException("Game must have at least one winning combination");
+    /**
+     * The evaluation cache in front of the win detector, or null when it is not configured.
+     */
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    /**
+     * The precomputed payout table, or null when play evaluates boards directly.
+     */
+    public PayoutTable getPayoutTable() {
+        return payoutTable;
+    }
+
+    /**
+     * Win combinations compiled at load time, with the cell to area index used by
+     * {@link com.scratchgame.evaluation.IncrementalEvaluator}.
+     */
+    public RuleIndex getRuleIndex() {
+        return ruleIndex;
+    }
+
+    /**
+     * Upper bound on paid steps in {@link #playCascade(double)}, so configurations that
+     * keep producing wins still end the round.
+     */
+    public void setMaxCascadeSteps(int maxCascadeSteps) {
+        if (maxCascadeSteps <= 0) {
+            throw new IllegalArgumentException("Max cascade steps must be positive");
         }
-        if (config.getProbabilities() == null || 
-            config.getProbabilities().getStandardSymbols() == null || 
-            config.getProbabilities().getStandardSymbols().isEmpty()) {
-            throw new IllegalArgumentException("Game must have probability configurations");
+        this.maxCascadeSteps = maxCascadeSteps;
+    }
+
+    /**
+     * Pool that every paid round contributes to and that a triggering round wins, usually
+     * shared by all games of a server; null for none.
+     *
+     * @throws IllegalArgumentException if the jackpot keeps money at another scale than this game
+     */
+    public void setJackpot(ProgressiveJackpot jackpot) {
+        if (jackpot != null && jackpot.getMinorDigits() != rewardCalculator.getMinorDigits()) {
+            throw new IllegalArgumentException("Jackpot money scale differs from the game's");
         }
+        this.jackpot = jackpot;
+    }
+
+    public ProgressiveJackpot getJackpot() {
+        return jackpot;
     }
 
+    /**
+     * Plays one round. The bonus symbol is drawn and reported, but it leaves the reward
+     * unchanged, so analyses and simulators of the reward need not draw it.
+     */
     public GameResult play(double betAmount) {
         // Handle invalid bet amounts
         if (betAmount <= 0) {
@@ -66,11 +156,22 @@ public class ScratchGame {
             return result;
         }
 
-        // Generate matrix
-        List<List<String>> matrix = generateMatrix();
+        // Generate symbol ids directly; the matrix is only built for the result
+        int[] cells = testMatrix != null ? ruleIndex.encode(testMatrix) : generateCells();
+        List<List<String>> matrix = testMatrix != null ? testMatrix : ruleIndex.decode(cells);
         
         // Find winning combinations
-        Map<String, List<String>> winningCombinations = findWinningCombinations(matrix);
+        Map<String, List<String>> winningCombinations;
+        if (payoutTable != null) {
+            long code = payoutTable.encode(cells);
+            winningCombinations = code < 0
+                    ? findWinningCombinations(cells)
+                    : payoutTable.toWinningCombinations(payoutTable.outcomeOf(code));
+        } else if (evaluationCache != null && evaluationCache.isEnabled()) {
+            winningCombinations = findCachedWinningCombinations(cells);
+        } else {
+            winningCombinations = findWinningCombinations(cells);
+        }
         
         // Calculate reward
         double reward = calculateReward(matrix, winningCombinations, betAmount);
@@ -88,63 +189,286 @@ public class ScratchGame {
         result.setAppliedWinningCombinations(winningCombinations);
         result.setAppliedBonusSymbol(bonusSymbol);
         
+        if (jackpot != null) {
+            settleJackpot(result, betAmount, jackpot.isTriggeredBy(winningCombinations, bonusSymbol));
+        }
         return result;
     }
 
-    private List<List<String>> generateMatrix() {
-        if (testMatrix != null) {
-            return testMatrix;
+    /**
+     * Adds the round's contribution to the jackpot and, when triggered, adds the pool to
+     * the reward.
+     */
+    private void settleJackpot(GameResult result, double betAmount, boolean triggered) {
+        jackpot.contribute(rewardCalculator.toMinor(betAmount));
+        if (triggered) {
+            long won = jackpot.payOut();
+            result.setJackpot(rewardCalculator.toMajor(won));
+            result.setReward(rewardCalculator.toMajor(Math.addExact(rewardCalculator.toMinor(result.getReward()), won)));
         }
-        
-        List<List<String>> matrix = new ArrayList<>();
-        
-        for (int row = 0; row < config.getRows(); row++) {
-            List<String> rowList = new ArrayList<>();
-            for (int col = 0; col < config.getColumns(); col++) {
-                String symbol = generateSymbolForPosition(row, col);
-                rowList.add(symbol);
+    }
+
+    /**
+     * Looks the board up in the evaluation cache and evaluates it on a miss.
+     */
+    private Map<String, List<String>> findCachedWinningCombinations(int[] cells) {
+        EvaluationCache.Signature signature = evaluationCache.signature(cells);
+        EvaluationCache.Evaluation cached = evaluationCache.get(signature);
+        if (cached != null) {
+            return ruleIndex.toWinningCombinations(cached.getFiredRules());
+        }
+        Map<String, List<String>> winningCombinations = findWinningCombinations(cells);
+        long[] firedRules = ruleIndex.toFiredRules(winningCombinations);
+        double multiplier = 0;
+        for (int symbol = 0; symbol < firedRules.length; symbol++) {
+            if (firedRules[symbol] != 0) {
+                multiplier += ruleIndex.rewardMultiplier(symbol, firedRules[symbol]);
             }
-            matrix.add(rowList);
         }
-        
-        return matrix;
+        evaluationCache.put(signature, new EvaluationCache.Evaluation(firedRules, multiplier));
+        return winningCombinations;
     }
 
-    private String generateSymbolForPosition(int row, int col) {
-        String key = row + ":" + col;
-        WeightedRandomGenerator generator = symbolGenerators.get(key);
+    /**
+     * Plays a cascading round: every winning cell is cleared, the cells above fall down,
+     * the emptied top cells are refilled from their own generators, and the new board is
+     * paid again until it stops winning. Step rewards are summed and the bonus symbol is
+     * drawn once for the total.
+     *
+     * Each step updates an {@link IncrementalEvaluator} with the cells of the collapsed
+     * columns only, instead of evaluating the whole board again.
+     */
+    public CascadeResult playCascade(double betAmount) {
+        CascadeResult result = new CascadeResult();
+        // Stops of this round's reels, moved on as cells are cleared; per call so rounds on
+        // different threads never share them
+        int[] reelStops = reelStrips != null ? new int[model.getColumns()] : null;
+        List<List<String>> matrix = testMatrix != null ? testMatrix : ruleIndex.decode(generateCells(reelStops));
+        result.setMatrix(matrix);
+        result.setCascadeSteps(new ArrayList<>());
+        if (betAmount <= 0) {
+            result.setReward(0);
+            result.setAppliedWinningCombinations(new HashMap<>());
+            result.setAppliedBonusSymbol(null);
+            return result;
+        }
+
+        int[] board = ruleIndex.encode(matrix);
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(ruleIndex);
+        evaluator.reset(board);
+        boolean[] winning = new boolean[board.length];
+        int[] changedCells = new int[board.length];
+        int[] changedSymbols = new int[board.length];
         
+        long betMinor = rewardCalculator.toMinor(betAmount);
+        long totalReward = 0;
+        while (evaluator.hasWin() && result.getCascadeSteps().size() < maxCascadeSteps) {
+            long stepReward = 0;
+            for (int symbol = 0; symbol < ruleIndex.getSymbolCount(); symbol++) {
+                long firedRules = evaluator.getFiredRules(symbol);
+                if (firedRules != 0) {
+                    stepReward = Math.addExact(stepReward, rewardCalculator.reward(betMinor, symbol, firedRules));
+                }
+            }
+            
+            CascadeStep step = new CascadeStep();
+            step.setMatrix(ruleIndex.decode(board));
+            step.setReward(rewardCalculator.toMajor(stepReward));
+            step.setAppliedWinningCombinations(evaluator.toWinningCombinations());
+            result.getCascadeSteps().add(step);
+            totalReward = Math.addExact(totalReward, stepReward);
+
+            evaluator.markWinningCells(winning);
+            int changed = collapse(board, winning, changedCells, changedSymbols, reelStops);
+            evaluator.update(changedCells, changedSymbols, changed);
+        }
+        result.setReward(rewardCalculator.toMajor(totalReward));
+        result.setAppliedWinningCombinations(result.getCascadeSteps().isEmpty()
+                ? new HashMap<>() : result.getCascadeSteps().get(0).getAppliedWinningCombinations());
+        result.setAppliedBonusSymbol(totalReward > 0 ? applyBonusSymbol(matrix, result.getReward()) : null);
+        if (jackpot != null) {
+            boolean triggered = jackpot.isTriggeredBy(null, result.getAppliedBonusSymbol());
+            for (CascadeStep step : result.getCascadeSteps()) {
+                triggered |= jackpot.isTriggeredBy(step.getAppliedWinningCombinations(), null);
+            }
+            settleJackpot(result, betAmount, triggered);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the surviving cells of every column with cleared cells to the bottom and
+     * refills the top. Records the cells from the top of each such column down to its
+     * lowest cleared cell, which are the only ones whose symbol can have changed.
+     */
+    private int collapse(int[] board, boolean[] cleared, int[] changedCells, int[] changedSymbols, int[] reelStops) {
+        int rows = ruleIndex.getRows();
+        int columns = ruleIndex.getColumns();
+        int changed = 0;
+        for (int col = 0; col < columns; col++) {
+            int lowest = rows - 1;
+            while (lowest >= 0 && !cleared[lowest * columns + col]) {
+                lowest--;
+            }
+            if (lowest < 0) {
+                continue;
+            }
+            
+            int write = lowest;
+            for (int row = lowest; row >= 0; row--) {
+                int cell = row * columns + col;
+                if (!cleared[cell]) {
+                    board[write * columns + col] = board[cell];
+                    write--;
+                }
+            }
+            if (reelStrips != null) {
+                // The reel moves on past the cleared cells, so new symbols come from above the stop
+                reelStops[col] -= write + 1;
+            }
+            for (int row = write; row >= 0; row--) {
+                int cell = row * columns + col;
+                board[cell] = reelStrips != null ? model.getReelSymbol(col, reelStops[col] + row) : drawSymbolId(cell);
+            }
+            for (int row = 0; row <= lowest; row++) {
+                int cell = row * columns + col;
+                changedCells[changed] = cell;
+                changedSymbols[changed] = board[cell];
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Draws {@code count} boards into the batch one cell column at a time, so each cell's
+     * generator stays hot, and sets the batch size. With reel strips, each board takes
+     * one stop per column instead.
+     */
+    public void drawBoards(BoardBatch batch, int count) {
+        if (batch.getCellCount() != cellGenerators.length) {
+            throw new IllegalArgumentException("Batch has " + batch.getCellCount() + " cells, expected " + cellGenerators.length);
+        }
+        if (model.getSymbolCount() > BoardBatch.MAX_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + BoardBatch.MAX_SYMBOLS + " symbols fit a board batch");
+        }
+        if (reelStrips != null) {
+            reelStrips.drawBoards(reelRandom, batch, count);
+            return;
+        }
+        batch.setSize(count);
+        for (int cell = 0; cell < cellGenerators.length; cell++) {
+            byte[] column = batch.getColumn(cell);
+            for (int board = 0; board < count; board++) {
+                column[board] = (byte) drawSymbolId(cell);
+            }
+        }
+    }
+
+    /**
+     * Draws a bonus symbol and returns its position in the bonus probabilities, or -1 when
+     * no bonus symbols are configured.
+     */
+    public int drawBonusIndex() {
+        if (bonusGenerator == null) {
+            return -1;
+        }
+        int index = bonusGenerator.nextIndex();
+        if (bonusImpacts[index] == null) {
+            String symbol = bonusGenerator.getSymbol(index);
+            if (bonusSymbols[index] == null) {
+                throw new IllegalStateException("Bonus symbol configuration not found: " + symbol);
+            }
+            throw new IllegalStateException("Bonus symbol impact not defined: " + symbol);
+        }
+        return index;
+    }
+
+    public int getBonusSymbolCount() {
+        return bonusSymbols.length;
+    }
+
+    public String getBonusSymbolName(int index) {
+        return bonusGenerator.getSymbol(index);
+    }
+
+    public RewardCalculator getRewardCalculator() {
+        return rewardCalculator;
+    }
+
+    private int[] generateCells() {
+        return generateCells(reelStrips != null ? new int[model.getColumns()] : null);
+    }
+
+    /**
+     * @param reelStops receives the stop of each reel in reel-strip mode
+     */
+    private int[] generateCells(int[] reelStops) {
+        int[] cells = new int[cellGenerators.length];
+        if (reelStrips != null) {
+            reelStrips.spin(reelRandom, reelStops, cells);
+            return cells;
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = drawSymbolId(cell);
+        }
+        return cells;
+    }
+
+    private int drawSymbolId(int cell) {
+        WeightedRandomGenerator generator = cellGenerators[cell];
         if (generator == null) {
-            // Fallback to default if specific position doesn't have a configuration
-            generator = symbolGenerators.get("0:0");
+            throw new IllegalStateException("No symbol probabilities for cell " + cell / model.getColumns() + ":" + cell % model.getColumns());
         }
-        
-        String symbol = generator.nextSymbol();
-        if (!config.getSymbols().containsKey(symbol)) {
-            throw new IllegalStateException("Symbol " + symbol + " not found in configuration");
+        int index = generator.nextIndex();
+        int id = cellSymbolIds[cell][index];
+        if (id < 0) {
+            throw new IllegalStateException("Symbol " + generator.getSymbol(index) + " not found in configuration");
         }
-        
-        return symbol;
+        return id;
+    }
+
+    private List<List<String>> generateMatrix() {
+        if (testMatrix != null) {
+            return testMatrix;
+        }
+        return ruleIndex.decode(generateCells());
     }
 
     private Map<String, List<String>> findWinningCombinations(List<List<String>> matrix) {
+        return findWinningCombinations(ruleIndex.encode(matrix));
+    }
+
+    /**
+     * Evaluates a board of row-major symbol ids against the compiled win combinations.
+     */
+    private Map<String, List<String>> findWinningCombinations(int[] cells) {
         Map<String, List<String>> winningCombinations = new HashMap<>();
-        Set<String> usedPositions = new HashSet<>();
         
-        // Check each symbol in the matrix
-        for (int row = 0; row < matrix.size(); row++) {
-            for (int col = 0; col < matrix.get(row).size(); col++) {
-                String symbol = matrix.get(row).get(col);
-                System.out.println("Checking symbol at [" + row + "," + col + "]: " + symbol);
-                if (!config.getSymbols().containsKey(symbol)) {
-                    throw new IllegalStateException("Invalid symbol found in matrix: " + symbol);
-                }
-                if (config.getSymbols().get(symbol).getType().equals("standard")) {
-                    List<String> combinations = findWinningCombinationsForSymbol(matrix, symbol, usedPositions);
-                    if (!combinations.isEmpty()) {
-                        System.out.println("Found winning combinations for symbol " + symbol + ": " + combinations);
-                        winningCombinations.put(symbol, combinations);
-                    }
+        int[] symbolCounts = new int[model.getSymbolCount()];
+        int[][] longestRuns = null;
+        if (tiledEvaluator != null) {
+            // Giant boards are counted and swept tile by tile in parallel
+            longestRuns = model.hasLineTemplates() ? new int[LineDirection.values().length][model.getSymbolCount()] : null;
+            tiledEvaluator.evaluate(cells, symbolCounts, longestRuns);
+        } else {
+            // Count every symbol in a single pass over the board
+            for (int symbol : cells) {
+                symbolCounts[symbol]++;
+            }
+            
+            // Run templates are answered from one sweep per direction instead of enumerated areas
+            if (model.hasLineTemplates()) {
+                longestRuns = LineRunDetector.longestRuns(cells, model.getRows(), model.getColumns(), model.getSymbolCount());
+            }
+        }
+        
+        for (int id = 0; id < symbolCounts.length; id++) {
+            CompiledSymbol symbol = model.getSymbol(id);
+            if (symbolCounts[id] > 0 && symbol.isStandard()) {
+                List<String> combinations = findWinningCombinationsForSymbol(cells, id, symbolCounts[id], longestRuns);
+                if (!combinations.isEmpty()) {
+                    winningCombinations.put(symbol.getName(), combinations);
                 }
             }
         }
@@ -152,78 +476,61 @@ public class ScratchGame {
         return winningCombinations;
     }
 
-    private List<String> findWinningCombinationsForSymbol(List<List<String>> matrix, String symbol, Set<String> usedPositions) {
+    private List<String> findWinningCombinationsForSymbol(int[] cells, int symbol, int count, int[][] longestRuns) {
         List<String> combinations = new ArrayList<>();
         
         // Check each win combination
-        for (Map.Entry<String, WinCombination> entry : config.getWinCombinations().entrySet()) {
-            String combinationName = entry.getKey();
-            WinCombination combination = entry.getValue();
-            
-            if (combination.getWhen().equals("same_symbols")) {
-                // Count occurrences of the symbol
-                int count = 0;
-                for (List<String> row : matrix) {
-                    for (String s : row) {
-                        if (s.equals(symbol)) {
-                            count++;
-                        }
+        for (int id = 0; id < model.getRuleCount(); id++) {
+            CompiledRule rule = model.getRule(id);
+            switch (rule.getKind()) {
+                case SAME_SYMBOLS:
+                    if (count >= rule.getThreshold()) {
+                        combinations.add(rule.getName());
                     }
-                }
-                System.out.println("Found " + count + " occurrences of symbol " + symbol);
-                
-                if (count >= combination.getCount()) {
-                    combinations.add(combinationName);
-                }
-            } else if (combination.getWhen().equals("linear_symbols")) {
-                // Check each covered area for linear combinations
-                if (combination.getCoveredAreas() != null) {
-                    for (List<String> area : combination.getCoveredAreas()) {
-                        boolean isValid = true;
-                        for (String position : area) {
-                            try {
-                                String[] coords = position.split(":");
-                                if (coords.length != 2) {
-                                    throw new IllegalStateException("Invalid position format: " + position);
-                                }
-                                int row = Integer.parseInt(coords[0]);
-                                int col = Integer.parseInt(coords[1]);
-                                
-                                if (row < 0 || row >= matrix.size() || col < 0 || col >= matrix.get(0).size()) {
-                                    throw new IllegalStateException("Position out of bounds: " + position);
-                                }
-                                
-                                if (!matrix.get(row).get(col).equals(symbol)) {
-                                    isValid = false;
-                                    break;
-                                }
-                            } catch (NumberFormatException e) {
-                                throw new IllegalStateException("Invalid position format: " + position);
-                            }
-                        }
-                        if (isValid) {
-                            combinations.add(combinationName);
+                    break;
+                case LINE_RUN:
+                    if (longestRuns[rule.getDirection().ordinal()][symbol] >= rule.getThreshold()) {
+                        combinations.add(rule.getName());
+                    }
+                    break;
+                case COVERED_AREAS:
+                    // One filled area is enough
+                    for (int area = 0; area < rule.getAreaCount(); area++) {
+                        if (isAreaFilled(cells, rule.getAreaCells(area), symbol)) {
+                            combinations.add(rule.getName());
                             break;
                         }
                     }
-                }
+                    break;
             }
         }
         
         return combinations;
     }
 
+    private static boolean isAreaFilled(int[] cells, int[] area, int symbol) {
+        for (int cell : area) {
+            if (cells[cell] != symbol) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private double calculateReward(List<List<String>> matrix, Map<String, List<String>> winningCombinations, double betAmount) {
         if (betAmount <= 0) {
             return 0;
         }
 
-        // Validate that win combinations exist in configuration
+        // Applied combinations are cross-checked against the parsed configuration, so
+        // a configuration edited after construction is reported instead of silently
+        // paid from the compiled model
         if (config.getWinCombinations() == null || config.getWinCombinations().isEmpty()) {
             throw new IllegalStateException("Win combinations configuration is missing");
         }
 
-        double totalReward = 0;
+        long betMinor = rewardCalculator.toMinor(betAmount);
+        long totalReward = 0;
         
         for (Map.Entry<String, List<String>> entry : winningCombinations.entrySet()) {
             String symbol = entry.getKey();
@@ -231,98 +538,52 @@ public class ScratchGame {
             
             Symbol symbolConfig = config.getSymbols().get(symbol);
             if (symbolConfig == null) {
-                //System.out.println("Symbol configuration not found for: " + symbol);
                 throw new IllegalStateException("Symbol configuration not found: " + symbol);
             }
             
-            double symbolReward = betAmount * symbolConfig.getRewardMultiplier();
-            
+            long firedRules = 0;
             for (String combination : combinations) {
                 WinCombination winConfig = config.getWinCombinations().get(combination);
                 if (winConfig == null) {
-                    //System.out.println("Win combination configuration not found for: " + combination);
                     throw new IllegalStateException("Win combination configuration not found: " + combination);
                 }
-                symbolReward *= winConfig.getRewardMultiplier();
-                
-                // Check for overflow
-                if (Double.isInfinite(symbolReward) || Double.isNaN(symbolReward)) {
-                    throw new ArithmeticException("Reward calculation overflow for symbol: " + symbol);
-                }
+                firedRules |= 1L << ruleIndex.ruleId(combination);
             }
             
-            totalReward += symbolReward;
+            // Fixed-point multiplication throws ArithmeticException on overflow
+            try {
+                totalReward = Math.addExact(totalReward, rewardCalculator.reward(betMinor, ruleIndex.symbolId(symbol), firedRules));
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("Reward calculation overflow for symbol: " + symbol);
+            }
         }
         
-        return totalReward;
+        return rewardCalculator.toMajor(totalReward);
     }
 
     private String applyBonusSymbol(List<List<String>> matrix, double currentReward) {
-        GameConfig.BonusSymbolProbability bonusConfig = config.getProbabilities().getBonusSymbols();
-        if (bonusConfig == null || bonusConfig.getSymbols() == null || bonusConfig.getSymbols().isEmpty()) {
+        if (bonusGenerator == null) {
             return null;
         }
 
         // Generate random bonus symbol based on probabilities
-        Map<String, Integer> bonusSymbols = bonusConfig.getSymbols();
-        int totalProbability = bonusSymbols.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalProbability <= 0) {
-            return null;
-        }
-
-        int randomValue = random.nextInt(totalProbability);
-        
-        int currentSum = 0;
-        String selectedSymbol = null;
-        for (Map.Entry<String, Integer> entry : bonusSymbols.entrySet()) {
-            currentSum += entry.getValue();
-            if (randomValue < currentSum) {
-                selectedSymbol = entry.getKey();
-                break;
-            }
-        }
+        int index = drawBonusIndex();
+        String selectedSymbol = bonusGenerator.getSymbol(index);
+        BonusImpact impact = bonusImpacts[index];
         
-        if (selectedSymbol != null && !selectedSymbol.equals("MISS")) {
-            Symbol symbol = config.getSymbols().get(selectedSymbol);
-            if (symbol == null) {
-                throw new IllegalStateException("Bonus symbol configuration not found: " + selectedSymbol);
-            }
-            
-            if (symbol.getImpact() == null) {
-                throw new IllegalStateException("Bonus symbol impact not defined: " + selectedSymbol);
-            }
-            
-            if (symbol.getImpact().equals("multiply_reward")) {
-                if (symbol.getRewardMultiplier() <= 0) {
-                    throw new IllegalStateException("Invalid bonus multiplier for symbol: " + selectedSymbol);
-                }
-                currentReward *= symbol.getRewardMultiplier();
-                
-                // Check for overflow
-                if (Double.isInfinite(currentReward) || Double.isNaN(currentReward)) {
-                    throw new ArithmeticException("Bonus reward calculation overflow");
-                }
-            } else if (symbol.getImpact().equals("extra_bonus")) {
-                if (symbol.getExtra() < 0) {
-                    throw new IllegalStateException("Invalid extra bonus for symbol: " + selectedSymbol);
-                }
-                currentReward += symbol.getExtra();
-                
-                // Check for overflow
-                if (Double.isInfinite(currentReward) || Double.isNaN(currentReward)) {
-                    throw new ArithmeticException("Bonus reward calculation overflow");
-                }
-            } else {
-                throw new IllegalStateException("Unknown bonus impact type: " + symbol.getImpact());
-            }
+        // Reported, not paid (see play); a bonus that would overflow the reward still fails the round
+        if (impact != BonusImpact.MISS && !rewardCalculator.bonusFits(rewardCalculator.toMinor(currentReward),
+                bonusSymbols[index].getId(), impact)) {
+            throw new ArithmeticException("Bonus reward calculation overflow");
         }
-        
+
         return selectedSymbol;
     }
 
     public static void main(String[] args) {
-        if (args.length != 4 || !args[0].equals("--config") || !args[2].equals("--betting-amount")) {
-            System.out.println("Usage: java -jar scratch-game.jar --config <config-file> --betting-amount <amount>");
+        boolean cascade = args.length == 5 && args[4].equals("--cascade");
+        if ((args.length != 4 && !cascade) || !args[0].equals("--config") || !args[2].equals("--betting-amount")) {
+            System.out.println("Usage: java -jar scratch-game.jar --config <config-file> --betting-amount <amount> [--cascade]");
             System.exit(1);
         }
 
@@ -332,7 +593,7 @@ public class ScratchGame {
             double betAmount = Double.parseDouble(args[3]);
 
             ScratchGame game = new ScratchGame(config);
-            GameResult result = game.play(betAmount);
+            GameResult result = cascade ? game.playCascade(betAmount) : game.play(betAmount);
 
             System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
         } catch (IOException e) {
@@ -0,0 +1,23 @@
+package com.scratchgame;
+
+/**
+ * Derives the seeds of independent games from one run seed, so a seeded run of many games
+ * (simulation shards, engine shards, player blocks) replays exactly.
+ */
+public final class SeedSequence {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SeedSequence() {
+    }
+
+    /**
+     * SplitMix64 finalizer of the seed and index, so neighbouring indices get unrelated
+     * generator seeds.
+     */
+    public static long derive(long seed, int index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -13,7 +13,15 @@ public class WeightedRandomGenerator {
     private final String[] symbols;
     
     public WeightedRandomGenerator(Map<String, Integer> symbols) {
-        this.random = new Random();
+        this(symbols, new Random());
+    }
+    
+    /**
+     * Draws from the given source, so generators sharing a seeded {@link Random} replay
+     * the same sequence.
+     */
+    public WeightedRandomGenerator(Map<String, Integer> symbols, Random random) {
+        this.random = random;
         int n = symbols.size();
         this.symbols = symbols.keySet().toArray(new String[0]);
         this.alias = new int[n];
@@ -69,9 +77,40 @@ public class WeightedRandomGenerator {
         }
     }
     
+    private WeightedRandomGenerator(WeightedRandomGenerator tables, Random random) {
+        this.random = random;
+        this.alias = tables.alias;
+        this.probability = tables.probability;
+        this.symbols = tables.symbols;
+    }
+    
+    /**
+     * A generator over the same symbols that draws from {@code random}. The alias tables are
+     * read-only and shared, so any number of games can draw from one compiled set.
+     */
+    public WeightedRandomGenerator withRandom(Random random) {
+        return new WeightedRandomGenerator(this, random);
+    }
+    
     public String nextSymbol() {
+        return symbols[nextIndex()];
+    }
+    
+    /**
+     * Draws a symbol and returns its position in {@link #getSymbol(int)} order, so callers
+     * holding their own per-symbol tables can skip the string lookup.
+     */
+    public int nextIndex() {
         int column = random.nextInt(probability.length);
         boolean coinToss = random.nextDouble() < probability[column];
-        return symbols[coinToss ? column : alias[column]];
+        return coinToss ? column : alias[column];
+    }
+    
+    public int size() {
+        return symbols.length;
+    }
+    
+    public String getSymbol(int index) {
+        return symbols[index];
     }
 } 
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.scratchgame.analysis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histogram of payouts in multiples of the bet, with logarithmic 1-2-5 buckets from
+ * 0.01x to 10^9x.
+ *
+ * Bucket 0 counts zero payouts; bucket i counts payouts above the previous bound up to
+ * and including {@link #getUpperBound(int) its bound}; the last bucket is open. The
+ * bucket count is fixed, so memory does not grow with the number of rounds, and counts at
+ * the bounds are exact, so {@link #countAbove} answers "more than k times the bet" exactly
+ * for every bound k.
+ */
+public final class PayoutHistogram {
+    private static final double[] BOUNDS = bounds();
+
+    private final long[] counts = new long[BOUNDS.length + 2];
+
+    private static double[] bounds() {
+        int[] steps = {1, 2, 5};
+        double[] bounds = new double[(9 - (-2)) * steps.length + 1];
+        int i = 0;
+        for (int exponent = -2; exponent < 9; exponent++) {
+            for (int step : steps) {
+                bounds[i++] = Double.parseDouble(step + "e" + exponent);
+            }
+        }
+        bounds[i] = 1e9;
+        return bounds;
+    }
+
+    public void add(double multiple) {
+        add(multiple, 1);
+    }
+
+    /**
+     * Adds {@code times} payouts of {@code multiple} times the bet.
+     */
+    public void add(double multiple, long times) {
+        counts[bucketOf(multiple)] += times;
+    }
+
+    private static int bucketOf(double multiple) {
+        if (multiple <= 0) {
+            return 0;
+        }
+        int position = Arrays.binarySearch(BOUNDS, multiple);
+        // An exact bound belongs to the bucket it closes
+        return (position >= 0 ? position : -position - 1) + 1;
+    }
+
+    /**
+     * Payouts of more than {@code multiple} times the bet; exact when the multiple is a bucket bound.
+     */
+    public long countAbove(double multiple) {
+        long above = 0;
+        for (int bucket = bucketOf(multiple) + 1; bucket < counts.length; bucket++) {
+            above += counts[bucket];
+        }
+        return above;
+    }
+
+    public void merge(PayoutHistogram other) {
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(counts.length);
+        for (long count : counts) {
+            out.writeLong(count);
+        }
+    }
+
+    public static PayoutHistogram readFrom(DataInput in) throws IOException {
+        PayoutHistogram histogram = new PayoutHistogram();
+        if (in.readInt() != histogram.counts.length) {
+            throw new IOException("Corrupt payout histogram");
+        }
+        for (int bucket = 0; bucket < histogram.counts.length; bucket++) {
+            histogram.counts[bucket] = in.readLong();
+        }
+        return histogram;
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Inclusive upper bound of the bucket in multiples of the bet: 0 for the zero bucket
+     * and infinity for the last.
+     */
+    public double getUpperBound(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return bucket <= BOUNDS.length ? BOUNDS[bucket - 1] : Double.POSITIVE_INFINITY;
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+}
@@ -0,0 +1,151 @@
+package com.scratchgame.analysis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Mergeable quantile sketch with relative error guarantees (DDSketch).
+ *
+ * A positive value x falls in bucket ceil(log_gamma(x)) with gamma = (1 + a) / (1 - a),
+ * so every quantile is answered within relative accuracy a. Buckets cover a fixed range
+ * of values (smaller and larger values are clamped into the end buckets), which keeps
+ * memory constant however many values are added. Zero is counted on its own. Sketches
+ * with the same accuracy merge exactly by adding their bucket counts.
+ */
+public final class QuantileSketch {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final double MIN_VALUE = 1e-6;
+    public static final double MAX_VALUE = 1e12;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int minKey;
+    private final long[] counts;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.minKey = keyOf(MIN_VALUE);
+        this.counts = new long[keyOf(MAX_VALUE) - minKey + 1];
+    }
+
+    private int keyOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds {@code times} occurrences of a non-negative value.
+     */
+    public void add(double value, long times) {
+        if (value < 0 || Double.isNaN(value)) {
+            throw new IllegalArgumentException("Sketch values must be non-negative: " + value);
+        }
+        if (value == 0) {
+            zeroCount += times;
+        } else {
+            double clamped = Math.min(MAX_VALUE, Math.max(MIN_VALUE, value));
+            counts[keyOf(clamped) - minKey] += times;
+        }
+        count += times;
+    }
+
+    /**
+     * Estimated value at quantile {@code q} (0 to 1), within the relative accuracy, or 0
+     * for an empty sketch.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Midpoint of the bucket in relative terms
+                return 2 * Math.pow(gamma, i + minKey) / (gamma + 1);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Sketches with different accuracy cannot be merged");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * Writes the accuracy and the non-empty buckets only.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(relativeAccuracy);
+        out.writeLong(zeroCount);
+        int nonEmpty = 0;
+        for (long bucket : counts) {
+            nonEmpty += bucket != 0 ? 1 : 0;
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch;
+        try {
+            sketch = new QuantileSketch(in.readDouble());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt quantile sketch", e);
+        }
+        sketch.zeroCount = sketch.count = in.readLong();
+        int nonEmpty = in.readInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int bucket = in.readInt();
+            if (bucket < 0 || bucket >= sketch.counts.length) {
+                throw new IOException("Corrupt quantile sketch");
+            }
+            sketch.counts[bucket] = in.readLong();
+            sketch.count += sketch.counts[bucket];
+        }
+        return sketch;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+}
@@ -0,0 +1,144 @@
+package com.scratchgame.analysis;
+
+import com.scratchgame.ReelStripGenerator;
+import com.scratchgame.evaluation.BatchEvaluator;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.CompiledRule;
+import com.scratchgame.model.runtime.GameModel;
+import com.scratchgame.money.FixedPoint;
+import com.scratchgame.money.RewardCalculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Exact RTP, hit frequency and win combination probabilities of a reel-strip game.
+ *
+ * Every combination of reel stops is equally likely, so the game's figures are plain
+ * averages over all of them: the product of the strip lengths. Boards are built stop
+ * combination by stop combination into batches and paid by the same evaluator and
+ * reward calculator as simulation, so the result covers every rule kind.
+ */
+public final class ReelStripAnalysis {
+    public static final long DEFAULT_MAX_COMBINATIONS = 100_000_000L;
+    private static final int BATCH_SIZE = 1024;
+    // A bet of one multiplier unit pays each board's multiple without money rounding
+    private static final long REFERENCE_BET = FixedPoint.scaleOf(RewardCalculator.MULTIPLIER_DIGITS);
+
+    private final GameModel model;
+    private final long combinations;
+    private final double rtp;
+    private final double hitFrequency;
+    private final long[] ruleHits;
+
+    public ReelStripAnalysis(GameConfig config) {
+        this(config, DEFAULT_MAX_COMBINATIONS);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the game has no reel strips or more than
+     *         {@code maxCombinations} stop combinations
+     */
+    public ReelStripAnalysis(GameConfig config, long maxCombinations) {
+        RuleIndex index = new RuleIndex(config);
+        this.model = index.getModel();
+        ReelStripGenerator strips = new ReelStripGenerator(model);
+        this.combinations = strips.getStopCombinations();
+        if (combinations > maxCombinations) {
+            throw new IllegalArgumentException("Reel strips have " + (combinations == Long.MAX_VALUE ? "too many" : combinations)
+                    + " stop combinations, more than the limit of " + maxCombinations);
+        }
+        RewardCalculator calculator = new RewardCalculator(config, index);
+        BatchEvaluator evaluator = BatchEvaluator.create(index);
+        int columns = model.getColumns();
+        int symbolCount = index.getSymbolCount();
+        BoardBatch boards = new BoardBatch(model.getCellCount(), BATCH_SIZE);
+        long[] firedRules = new long[BATCH_SIZE * symbolCount];
+        this.ruleHits = new long[model.getRuleCount()];
+
+        // Odometer over the stops, last column fastest
+        int[] stops = new int[columns];
+        int[] cells = new int[model.getCellCount()];
+        // Rewards at the reference bet, summed exactly: a long that spills into a BigInteger
+        long paid = 0;
+        BigInteger paidOverflow = BigInteger.ZERO;
+        long wins = 0;
+        long remaining = combinations;
+        while (remaining > 0) {
+            int count = (int) Math.min(BATCH_SIZE, remaining);
+            boards.setSize(count);
+            for (int board = 0; board < count; board++) {
+                strips.fill(stops, cells);
+                boards.setBoard(board, cells);
+                for (int column = columns - 1; column >= 0; column--) {
+                    if (++stops[column] < model.getReelStripLength(column)) {
+                        break;
+                    }
+                    stops[column] = 0;
+                }
+            }
+            evaluator.evaluate(boards, firedRules);
+
+            for (int board = 0; board < count; board++) {
+                int offset = board * symbolCount;
+                long rules = 0;
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    rules |= firedRules[offset + symbol];
+                }
+                if (rules == 0) {
+                    continue;
+                }
+                long reward = calculator.reward(REFERENCE_BET, firedRules, offset);
+                if (reward > 0) {
+                    if (paid > Long.MAX_VALUE - reward) {
+                        paidOverflow = paidOverflow.add(BigInteger.valueOf(paid));
+                        paid = 0;
+                    }
+                    paid += reward;
+                    wins++;
+                }
+                while (rules != 0) {
+                    ruleHits[Long.numberOfTrailingZeros(rules)]++;
+                    rules &= rules - 1;
+                }
+            }
+            remaining -= count;
+        }
+        BigInteger total = paidOverflow.add(BigInteger.valueOf(paid));
+        this.rtp = new BigDecimal(total).divide(BigDecimal.valueOf(REFERENCE_BET).multiply(BigDecimal.valueOf(combinations)),
+                MathContext.DECIMAL64).doubleValue();
+        this.hitFrequency = (double) wins / combinations;
+    }
+
+    /**
+     * Number of equally likely stop combinations enumerated.
+     */
+    public long getCombinations() {
+        return combinations;
+    }
+
+    /**
+     * Expected payout in multiples of the bet.
+     */
+    public double getRtp() {
+        return rtp;
+    }
+
+    public double getHitFrequency() {
+        return hitFrequency;
+    }
+
+    /**
+     * Probability that the win combination fires for some symbol.
+     */
+    public double getWinCombinationProbability(String rule) {
+        CompiledRule compiled = model.findRule(rule);
+        if (compiled == null) {
+            throw new IllegalArgumentException("Unknown win combination: " + rule);
+        }
+        return (double) ruleHits[compiled.getId()] / combinations;
+    }
+}
@@ -0,0 +1,207 @@
+package com.scratchgame.analysis;
+
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.CompiledRule;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.model.runtime.GameModel;
+import com.scratchgame.model.runtime.RuleKind;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Exact payout analysis of the {@code same_symbols} rules without enumerating boards.
+ *
+ * Cells are drawn independently, so the number of times a symbol appears on the board
+ * follows a Poisson binomial distribution over the per-cell probabilities from
+ * {@link GameModel#getCellWeights(int)}. It is built for every standard symbol by
+ * convolving one cell at a time, in O(cells^2) per symbol, which stays instant on 20x20
+ * boards. Since every {@code same_symbols} rule whose count is reached fires and their
+ * multipliers multiply, a symbol's payout depends only on its count, and the expected
+ * payout follows exactly from the count distribution.
+ *
+ * Expectations are in multiples of the bet. When the game has line or area rules too,
+ * they are the part of the RTP paid by {@code same_symbols} rules alone, and
+ * {@link #isCompleteRtp()} is false.
+ */
+public final class SameSymbolsAnalysis {
+    private final GameModel model;
+    private final int cellCount;
+    private final double[][] countDistributions;
+    private final double[] symbolExpectations;
+    private final double[] ruleContributions;
+    private final boolean completeRtp;
+
+    /**
+     * @throws IllegalArgumentException for an invalid config, cell probabilities naming unknown symbols
+     *         or a reel-strip config
+     */
+    public SameSymbolsAnalysis(GameConfig config) {
+        this.model = new GameModel(config);
+        if (model.hasReelStrips()) {
+            throw new IllegalArgumentException("Reel strip cells are not drawn independently; use ReelStripAnalysis");
+        }
+        this.cellCount = model.getCellCount();
+        double[][] cellProbabilities = cellProbabilities();
+
+        // same_symbols rules by threshold, so the fired set grows with the count
+        int[] rules = sameSymbolsRules();
+        boolean onlySameSymbols = rules.length == model.getRuleCount();
+        this.completeRtp = onlySameSymbols;
+
+        int symbolCount = model.getSymbolCount();
+        this.countDistributions = new double[symbolCount][];
+        this.symbolExpectations = new double[symbolCount];
+        this.ruleContributions = new double[model.getRuleCount()];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            double[] distribution = countDistribution(cellProbabilities, symbol);
+            countDistributions[symbol] = distribution;
+            CompiledSymbol compiled = model.getSymbol(symbol);
+            if (!compiled.isStandard() || rules.length == 0) {
+                continue;
+            }
+
+            // Walk the counts upwards, multiplying in each rule as its threshold is reached;
+            // the expected payout at each count goes to the highest rule fired
+            double multiplier = compiled.getRewardMultiplier();
+            int next = 0;
+            int highest = -1;
+            for (int count = 1; count <= cellCount; count++) {
+                while (next < rules.length && Math.max(1, model.getRule(rules[next]).getThreshold()) <= count) {
+                    multiplier *= model.getRule(rules[next]).getRewardMultiplier();
+                    highest = rules[next];
+                    next++;
+                }
+                if (highest >= 0) {
+                    double expected = distribution[count] * multiplier;
+                    symbolExpectations[symbol] += expected;
+                    ruleContributions[highest] += expected;
+                }
+            }
+        }
+    }
+
+    private double[][] cellProbabilities() {
+        double[][] probabilities = new double[cellCount][model.getSymbolCount()];
+        for (int cell = 0; cell < cellCount; cell++) {
+            Map<String, Integer> weights = model.getCellWeights(cell);
+            if (weights == null) {
+                throw new IllegalArgumentException("No symbol probabilities for cell " + cell);
+            }
+            long total = 0;
+            for (int weight : weights.values()) {
+                total += weight;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Invalid probability distribution: total weight must be positive");
+            }
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                CompiledSymbol symbol = model.findSymbol(entry.getKey());
+                if (symbol == null) {
+                    throw new IllegalArgumentException("Symbol configuration not found: " + entry.getKey());
+                }
+                probabilities[cell][symbol.getId()] += (double) entry.getValue() / total;
+            }
+        }
+        return probabilities;
+    }
+
+    private int[] sameSymbolsRules() {
+        return IntStream.range(0, model.getRuleCount())
+                .mapToObj(model::getRule)
+                .filter(rule -> rule.getKind() == RuleKind.SAME_SYMBOLS)
+                .sorted(Comparator.comparingInt(CompiledRule::getThreshold))
+                .mapToInt(CompiledRule::getId)
+                .toArray();
+    }
+
+    /**
+     * Poisson binomial distribution of the symbol's count, adding one cell at a time.
+     */
+    private double[] countDistribution(double[][] cellProbabilities, int symbol) {
+        double[] distribution = new double[cellCount + 1];
+        distribution[0] = 1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            double p = cellProbabilities[cell][symbol];
+            if (p == 0) {
+                continue;
+            }
+            for (int count = cell + 1; count > 0; count--) {
+                distribution[count] = distribution[count] * (1 - p) + distribution[count - 1] * p;
+            }
+            distribution[0] *= 1 - p;
+        }
+        return distribution;
+    }
+
+    private CompiledSymbol symbol(String name) {
+        CompiledSymbol symbol = model.findSymbol(name);
+        if (symbol == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + name);
+        }
+        return symbol;
+    }
+
+    /**
+     * Probability of each count 0..cells of the symbol on a board.
+     */
+    public double[] getCountDistribution(String symbol) {
+        return countDistributions[symbol(symbol).getId()].clone();
+    }
+
+    /**
+     * Probability that the rule fires for the symbol.
+     */
+    public double getFiringProbability(String symbol, String rule) {
+        CompiledRule compiled = model.findRule(rule);
+        if (compiled == null || compiled.getKind() != RuleKind.SAME_SYMBOLS) {
+            throw new IllegalArgumentException("Not a same_symbols win combination: " + rule);
+        }
+        double[] distribution = countDistributions[symbol(symbol).getId()];
+        double probability = 0;
+        for (int count = Math.max(1, compiled.getThreshold()); count <= cellCount; count++) {
+            probability += distribution[count];
+        }
+        return probability;
+    }
+
+    /**
+     * Expected payout of the symbol from same_symbols rules, in multiples of the bet.
+     */
+    public double getExpectedMultiplier(String symbol) {
+        return symbolExpectations[symbol(symbol).getId()];
+    }
+
+    /**
+     * Expected payout of rounds where this is the highest-count same_symbols rule fired,
+     * summed over symbols; the contributions of all rules add up to
+     * {@link #getExpectedMultiplier()}.
+     */
+    public double getRuleContribution(String rule) {
+        CompiledRule compiled = model.findRule(rule);
+        if (compiled == null) {
+            throw new IllegalArgumentException("Unknown win combination: " + rule);
+        }
+        return ruleContributions[compiled.getId()];
+    }
+
+    /**
+     * Expected payout per round from same_symbols rules, in multiples of the bet.
+     */
+    public double getExpectedMultiplier() {
+        double total = 0;
+        for (double expected : symbolExpectations) {
+            total += expected;
+        }
+        return total;
+    }
+
+    /**
+     * True when every win combination is same_symbols, so {@link #getExpectedMultiplier()}
+     * is the game's whole RTP.
+     */
+    public boolean isCompleteRtp() {
+        return completeRtp;
+    }
+}
@@ -0,0 +1,34 @@
+package com.scratchgame.evaluation;
+
+/**
+ * Evaluates every board of a {@link BoardBatch} at once.
+ *
+ * Results are written to {@code firedRules[board * symbolCount + symbol]}, the same
+ * per-symbol rule masks {@link IncrementalEvaluator#getFiredRules(int)} reports.
+ * Implementations keep scratch state and are not thread-safe; use one per thread.
+ */
+public interface BatchEvaluator {
+    /**
+     * System property that forces an implementation: {@code scalar} or {@code bitsliced}.
+     */
+    String IMPLEMENTATION_PROPERTY = "scratchgame.batchEvaluator";
+
+    void evaluate(BoardBatch batch, long[] firedRules);
+
+    String getName();
+
+    /**
+     * The bit-sliced evaluator unless the system property asks for the scalar one or the
+     * game has more symbols than a batch can store.
+     */
+    static BatchEvaluator create(RuleIndex index) {
+        String implementation = System.getProperty(IMPLEMENTATION_PROPERTY, "bitsliced");
+        if ("scalar".equals(implementation) || index.getSymbolCount() > BoardBatch.MAX_SYMBOLS) {
+            return new ScalarBatchEvaluator(index);
+        }
+        if (!"bitsliced".equals(implementation)) {
+            throw new IllegalArgumentException("Unknown batch evaluator: " + implementation);
+        }
+        return new BitSlicedBatchEvaluator(index);
+    }
+}
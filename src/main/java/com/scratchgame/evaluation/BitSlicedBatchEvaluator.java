@@ -0,0 +1,243 @@
+package com.scratchgame.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates 64 boards per step with bit-sliced {@code long} lanes: bit b of a lane
+ * belongs to board b of the group.
+ *
+ * The group is transposed into one lane per (cell, symbol), set where that board holds
+ * the symbol in that cell. A covered area is then the AND of its cells' lanes, a line
+ * run the AND of the lanes in a window, and same_symbols counts are kept in bit-sliced
+ * vertical counters (one lane per counter bit) and compared with each threshold by a
+ * bitwise comparator. Every operation handles all 64 boards at once, without branching
+ * per board.
+ */
+public final class BitSlicedBatchEvaluator implements BatchEvaluator {
+    private static final int LANES = Long.SIZE;
+
+    private final RuleIndex index;
+    private final int cellCount;
+    private final int symbolCount;
+    private final int counterBits;
+    private final boolean[] standard;
+    private final int[] countRules;
+    private final int[] countThresholds;
+    private final int[][] areaRuleAreas;
+    private final int[] areaRules;
+    private final int[] runRules;
+    private final int[] runLengths;
+    private final int[][][] runLines;
+
+    // Per (cell, symbol) lane, per counter bit lane, per rule result lane
+    private final long[] planes;
+    private final long[] counter;
+    private final long[] ruleLanes;
+
+    public BitSlicedBatchEvaluator(RuleIndex index) {
+        if (index.getSymbolCount() > BoardBatch.MAX_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + BoardBatch.MAX_SYMBOLS + " symbols fit a board batch");
+        }
+        this.index = index;
+        this.cellCount = index.getCellCount();
+        this.symbolCount = index.getSymbolCount();
+        this.counterBits = 32 - Integer.numberOfLeadingZeros(cellCount);
+        this.standard = new boolean[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            standard[symbol] = index.isStandard(symbol);
+        }
+
+        this.countRules = index.getCountRules();
+        this.countThresholds = new int[countRules.length];
+        for (int i = 0; i < countRules.length; i++) {
+            countThresholds[i] = index.getRuleThreshold(countRules[i]);
+        }
+
+        // Covered areas grouped by their rule
+        List<Integer> rulesWithAreas = new ArrayList<>();
+        List<List<Integer>> areasByRule = new ArrayList<>();
+        for (int area = 0; area < index.getAreaCount(); area++) {
+            int rule = index.getAreaRule(area);
+            int position = rulesWithAreas.indexOf(rule);
+            if (position < 0) {
+                position = rulesWithAreas.size();
+                rulesWithAreas.add(rule);
+                areasByRule.add(new ArrayList<>());
+            }
+            areasByRule.get(position).add(area);
+        }
+        this.areaRules = new int[rulesWithAreas.size()];
+        this.areaRuleAreas = new int[rulesWithAreas.size()][];
+        for (int i = 0; i < areaRules.length; i++) {
+            areaRules[i] = rulesWithAreas.get(i);
+            areaRuleAreas[i] = areasByRule.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Cells of every line long enough to hold each template's run
+        this.runRules = index.getRunRules();
+        this.runLengths = new int[runRules.length];
+        this.runLines = new int[runRules.length][][];
+        for (int i = 0; i < runRules.length; i++) {
+            runLengths[i] = index.getRuleThreshold(runRules[i]);
+            runLines[i] = linesOf(index.getRuleDirection(runRules[i]), runLengths[i]);
+        }
+
+        this.planes = new long[cellCount * symbolCount];
+        this.counter = new long[counterBits];
+        this.ruleLanes = new long[index.getRuleCount()];
+    }
+
+    private int[][] linesOf(LineDirection direction, int minLength) {
+        int rows = index.getRows();
+        int columns = index.getColumns();
+        List<int[]> lines = new ArrayList<>();
+        for (int line = 0; line < direction.lineCount(rows, columns); line++) {
+            int start = direction.lineStart(line, rows, columns);
+            int row = start / columns;
+            int col = start % columns;
+            List<Integer> cells = new ArrayList<>();
+            while (row >= 0 && row < rows && col >= 0 && col < columns) {
+                cells.add(row * columns + col);
+                row += direction.getRowStep();
+                col += direction.getColumnStep();
+            }
+            if (cells.size() >= minLength) {
+                lines.add(cells.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return lines.toArray(new int[0][]);
+    }
+
+    @Override
+    public void evaluate(BoardBatch batch, long[] firedRules) {
+        if (batch.getCellCount() != cellCount) {
+            throw new IllegalArgumentException("Batch has " + batch.getCellCount() + " cells, expected " + cellCount);
+        }
+        Arrays.fill(firedRules, 0, batch.size() * symbolCount, 0);
+        for (int base = 0; base < batch.size(); base += LANES) {
+            evaluateGroup(batch, base, Math.min(LANES, batch.size() - base), firedRules);
+        }
+    }
+
+    private void evaluateGroup(BoardBatch batch, int base, int boards, long[] firedRules) {
+        // Transpose the group into (cell, symbol) lanes
+        Arrays.fill(planes, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            byte[] column = batch.getColumn(cell);
+            int offset = cell * symbolCount;
+            for (int lane = 0; lane < boards; lane++) {
+                planes[offset + (column[base + lane] & 0xFF)] |= 1L << lane;
+            }
+        }
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            // Like the scalar evaluators, only standard symbols present on the board win
+            if (!standard[symbol]) {
+                continue;
+            }
+            long present = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                present |= planes[cell * symbolCount + symbol];
+            }
+            if (present == 0) {
+                continue;
+            }
+            Arrays.fill(ruleLanes, 0);
+
+            if (countRules.length > 0) {
+                countSymbol(symbol);
+                for (int i = 0; i < countRules.length; i++) {
+                    ruleLanes[countRules[i]] = atLeast(countThresholds[i]) & present;
+                }
+            }
+
+            for (int i = 0; i < areaRules.length; i++) {
+                long lanes = 0;
+                for (int area : areaRuleAreas[i]) {
+                    long filled = present;
+                    for (int cell : index.getAreaCells(area)) {
+                        filled &= planes[cell * symbolCount + symbol];
+                        if (filled == 0) {
+                            break;
+                        }
+                    }
+                    lanes |= filled;
+                }
+                ruleLanes[areaRules[i]] = lanes;
+            }
+
+            for (int i = 0; i < runRules.length; i++) {
+                ruleLanes[runRules[i]] = runsOf(symbol, runLines[i], runLengths[i]) & present;
+            }
+
+            // Scatter the rule lanes back to per-board masks
+            for (int rule = 0; rule < ruleLanes.length; rule++) {
+                long lanes = ruleLanes[rule];
+                while (lanes != 0) {
+                    int lane = Long.numberOfTrailingZeros(lanes);
+                    firedRules[(base + lane) * symbolCount + symbol] |= 1L << rule;
+                    lanes &= lanes - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds every cell lane of the symbol into the bit-sliced counter with ripple carries.
+     */
+    private void countSymbol(int symbol) {
+        Arrays.fill(counter, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            long carry = planes[cell * symbolCount + symbol];
+            for (int bit = 0; bit < counterBits && carry != 0; bit++) {
+                long next = counter[bit] & carry;
+                counter[bit] ^= carry;
+                carry = next;
+            }
+        }
+    }
+
+    /**
+     * Lanes whose counter is at least the threshold, compared from the most significant bit.
+     */
+    private long atLeast(int threshold) {
+        if (threshold <= 0) {
+            return -1L;
+        }
+        if (threshold >= 1 << counterBits) {
+            return 0;
+        }
+        long greater = 0;
+        long equal = -1L;
+        for (int bit = counterBits - 1; bit >= 0; bit--) {
+            if ((threshold >>> bit & 1) != 0) {
+                equal &= counter[bit];
+            } else {
+                greater |= equal & counter[bit];
+                equal &= ~counter[bit];
+            }
+        }
+        return greater | equal;
+    }
+
+    private long runsOf(int symbol, int[][] lines, int length) {
+        long lanes = 0;
+        for (int[] line : lines) {
+            for (int start = 0; start + length <= line.length; start++) {
+                long window = -1L;
+                for (int i = 0; i < length && window != 0; i++) {
+                    window &= planes[line[start + i] * symbolCount + symbol];
+                }
+                lanes |= window;
+            }
+        }
+        return lanes;
+    }
+
+    @Override
+    public String getName() {
+        return "bitsliced";
+    }
+}
@@ -0,0 +1,76 @@
+package com.scratchgame.evaluation;
+
+/**
+ * A batch of boards in structure-of-arrays layout: one {@code byte[]} column per cell,
+ * indexed by board. Evaluators read a cell of many consecutive boards from one array
+ * instead of chasing one object per board.
+ *
+ * Symbol ids are stored as unsigned bytes, so at most 256 symbols are supported.
+ */
+public final class BoardBatch {
+    public static final int MAX_SYMBOLS = 256;
+
+    private final byte[][] cells;
+    private final int capacity;
+    private int size;
+
+    public BoardBatch(int cellCount, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive");
+        }
+        this.cells = new byte[cellCount][capacity];
+        this.capacity = capacity;
+    }
+
+    /**
+     * Column of one cell across the batch; writers fill it directly.
+     */
+    public byte[] getColumn(int cell) {
+        return cells[cell];
+    }
+
+    public int get(int board, int cell) {
+        return cells[cell][board] & 0xFF;
+    }
+
+    public void set(int board, int cell, int symbol) {
+        cells[cell][board] = (byte) symbol;
+    }
+
+    /**
+     * Stores a row-major board of symbol ids at the given position.
+     */
+    public void setBoard(int board, int[] symbols) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell][board] = (byte) symbols[cell];
+        }
+    }
+
+    public void copyBoard(int board, int[] target) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            target[cell] = cells[cell][board] & 0xFF;
+        }
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of boards in use, from index 0.
+     */
+    public int size() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("Batch size " + size + " outside 0.." + capacity);
+        }
+        this.size = size;
+    }
+}
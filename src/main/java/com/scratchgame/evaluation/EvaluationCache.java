@@ -0,0 +1,232 @@
+package com.scratchgame.evaluation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of board evaluations keyed by the packed symbol ids of the board.
+ *
+ * Entries are spread over lock-striped segments, each an access-ordered
+ * {@link LinkedHashMap} that evicts its least recently used entry when full. Hits, misses
+ * and evictions are counted so the cache can be sized. Every {@code windowLookups}
+ * lookups the hit rate of that window is checked, and the cache switches itself off for
+ * good (dropping its entries) after {@value #LOW_WINDOWS_TO_DISABLE} windows in a row
+ * below {@code minHitRate}: past that point hashing and locking cost more than the
+ * evaluations they save. The first window fills a cold cache and is not judged.
+ */
+public final class EvaluationCache {
+    private static final int SEGMENTS = 16;
+    // Rough per-entry overhead: map entry, key and value objects and the table slot
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+    static final int LOW_WINDOWS_TO_DISABLE = 3;
+
+    private final int bitsPerSymbol;
+    private final int symbolsPerWord;
+    private final int words;
+    private final int symbolCount;
+    private final double minHitRate;
+    private final long windowLookups;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong windowCount = new AtomicLong();
+    private final LongAdder windowHits = new LongAdder();
+    private final AtomicInteger lowWindows = new AtomicInteger();
+    private volatile boolean enabled = true;
+
+    public EvaluationCache(int symbolCount, int cellCount, int maxEntries, double minHitRate, long windowLookups) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Evaluation cache needs a positive size");
+        }
+        this.symbolCount = symbolCount;
+        this.bitsPerSymbol = Math.max(1, 32 - Integer.numberOfLeadingZeros(symbolCount - 1));
+        this.symbolsPerWord = Long.SIZE / bitsPerSymbol;
+        this.words = (cellCount + symbolsPerWord - 1) / symbolsPerWord;
+        this.minHitRate = minHitRate;
+        this.windowLookups = windowLookups;
+        int perSegment = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Evaluation of one board: fired rules per symbol id and the bet-independent multiplier.
+     */
+    public static final class Evaluation {
+        private final long[] firedRules;
+        private final double multiplier;
+
+        public Evaluation(long[] firedRules, double multiplier) {
+            this.firedRules = firedRules;
+            this.multiplier = multiplier;
+        }
+
+        /**
+         * Shared with the cache; callers must not modify it.
+         */
+        public long[] getFiredRules() {
+            return firedRules;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+    }
+
+    /**
+     * Packs a board of symbol ids into the cache key, {@code bitsPerSymbol} bits per cell.
+     */
+    public Signature signature(int[] cells) {
+        long[] packed = new long[words];
+        for (int cell = 0; cell < cells.length; cell++) {
+            packed[cell / symbolsPerWord] |= (long) cells[cell] << (cell % symbolsPerWord * bitsPerSymbol);
+        }
+        return new Signature(packed);
+    }
+
+    /**
+     * @return the cached evaluation, or null on a miss or when the cache is disabled
+     */
+    public Evaluation get(Signature signature) {
+        if (!enabled) {
+            return null;
+        }
+        Segment segment = segmentFor(signature);
+        Evaluation evaluation;
+        synchronized (segment) {
+            evaluation = segment.get(signature);
+        }
+        if (evaluation != null) {
+            hits.increment();
+            windowHits.increment();
+        } else {
+            misses.increment();
+        }
+        long lookups = windowCount.incrementAndGet();
+        if (lookups % windowLookups == 0) {
+            checkHitRate(lookups == windowLookups);
+        }
+        return evaluation;
+    }
+
+    public void put(Signature signature, Evaluation evaluation) {
+        if (!enabled) {
+            return;
+        }
+        Segment segment = segmentFor(signature);
+        synchronized (segment) {
+            segment.put(signature, evaluation);
+        }
+    }
+
+    private void checkHitRate(boolean warmUp) {
+        double windowRate = windowHits.sumThenReset() / (double) windowLookups;
+        if (warmUp) {
+            return;
+        }
+        if (windowRate >= minHitRate) {
+            lowWindows.set(0);
+        } else if (lowWindows.incrementAndGet() >= LOW_WINDOWS_TO_DISABLE) {
+            enabled = false;
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                }
+            }
+        }
+    }
+
+    private Segment segmentFor(Signature signature) {
+        int hash = signature.hash;
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimated heap held by the cached entries.
+     */
+    public long getEstimatedMemoryBytes() {
+        return getSize() * (ENTRY_OVERHEAD_BYTES + Long.BYTES * (words + symbolCount));
+    }
+
+    /**
+     * Packed board used as cache key.
+     */
+    public static final class Signature {
+        private final long[] packed;
+        private final int hash;
+
+        private Signature(long[] packed) {
+            this.packed = packed;
+            this.hash = Arrays.hashCode(packed);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature && Arrays.equals(packed, ((Signature) other).packed);
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<Signature, Evaluation> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Signature, Evaluation> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
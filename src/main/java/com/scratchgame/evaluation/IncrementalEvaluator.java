@@ -0,0 +1,440 @@
+package com.scratchgame.evaluation;
+
+import com.scratchgame.model.runtime.RuleKind;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the fired-rule set of one board up to date while individual cells change, for
+ * mechanics such as re-spins, holds and cascades.
+ *
+ * After a full {@link #reset(int[])}, {@link #update(int[], int[], int)} only touches the
+ * histogram entries, covered areas and run-template lines of the changed cells, and only
+ * recomputes the fired rules of the symbols that left or entered those cells. Instances
+ * are not thread-safe; use one per board.
+ */
+public final class IncrementalEvaluator {
+    private static final LineDirection[] DIRECTIONS = LineDirection.values();
+
+    private final RuleIndex index;
+    private final int rows;
+    private final int columns;
+    private final int symbolCount;
+
+    private final int[] board;
+    private final int[] histogram;
+    private final long[] firedRules;
+
+    // Per (area, symbol): how many cells of the area hold the symbol
+    private final int[] areaSymbolCounts;
+    // Per (rule, symbol): how many of the rule's areas are filled entirely by the symbol
+    private final int[] matchedAreas;
+
+    // Per direction, per (line, symbol): longest run in that line; null when no template uses the direction
+    private final int[][] lineLongest;
+    private final int[][] runRulesByDirection;
+    // Per (rule, symbol): number of lines holding a run at least as long as the template requires
+    private final int[] qualifyingLines;
+
+    private final boolean[][] dirtyLine;
+    private final int[][] dirtyLines;
+    private final int[] dirtyLineCounts;
+    private final boolean[] dirtySymbol;
+    private final int[] dirtySymbols;
+    private int dirtySymbolCount;
+    private final int[] lineScratch;
+    private final boolean[] wholeSymbol;
+    private final int[] shortestRun;
+
+    public IncrementalEvaluator(RuleIndex index) {
+        this.index = index;
+        this.rows = index.getRows();
+        this.columns = index.getColumns();
+        this.symbolCount = index.getSymbolCount();
+        int ruleCount = index.getRuleCount();
+
+        this.board = new int[index.getCellCount()];
+        this.histogram = new int[symbolCount];
+        this.firedRules = new long[symbolCount];
+        this.areaSymbolCounts = new int[index.getAreaCount() * symbolCount];
+        this.matchedAreas = new int[ruleCount * symbolCount];
+        this.qualifyingLines = new int[ruleCount * symbolCount];
+
+        int[] perDirection = new int[DIRECTIONS.length];
+        for (int rule : index.getRunRules()) {
+            perDirection[index.getRuleDirection(rule).ordinal()]++;
+        }
+        this.runRulesByDirection = new int[DIRECTIONS.length][];
+        this.lineLongest = new int[DIRECTIONS.length][];
+        this.dirtyLine = new boolean[DIRECTIONS.length][];
+        this.dirtyLines = new int[DIRECTIONS.length][];
+        this.dirtyLineCounts = new int[DIRECTIONS.length];
+        for (LineDirection direction : DIRECTIONS) {
+            int d = direction.ordinal();
+            runRulesByDirection[d] = new int[perDirection[d]];
+            if (perDirection[d] > 0) {
+                int lines = direction.lineCount(rows, columns);
+                lineLongest[d] = new int[lines * symbolCount];
+                dirtyLine[d] = new boolean[lines];
+                dirtyLines[d] = new int[lines];
+            }
+            perDirection[d] = 0;
+        }
+        for (int rule : index.getRunRules()) {
+            int d = index.getRuleDirection(rule).ordinal();
+            runRulesByDirection[d][perDirection[d]++] = rule;
+        }
+
+        this.dirtySymbol = new boolean[symbolCount];
+        this.dirtySymbols = new int[symbolCount];
+        this.lineScratch = new int[symbolCount];
+        this.wholeSymbol = new boolean[symbolCount];
+        this.shortestRun = new int[symbolCount];
+    }
+
+    /**
+     * Loads a whole board and evaluates it from scratch.
+     */
+    public void reset(int[] cells) {
+        if (cells.length != board.length) {
+            throw new IllegalArgumentException("Board has " + cells.length + " cells, expected " + board.length);
+        }
+        System.arraycopy(cells, 0, board, 0, board.length);
+        Arrays.fill(histogram, 0);
+        Arrays.fill(areaSymbolCounts, 0);
+        Arrays.fill(matchedAreas, 0);
+        Arrays.fill(qualifyingLines, 0);
+
+        for (int symbol : board) {
+            histogram[symbol]++;
+        }
+        for (int area = 0; area < index.getAreaCount(); area++) {
+            int[] cellsOfArea = index.getAreaCells(area);
+            int base = area * symbolCount;
+            for (int cell : cellsOfArea) {
+                areaSymbolCounts[base + board[cell]]++;
+            }
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                if (areaSymbolCounts[base + symbol] == cellsOfArea.length) {
+                    matchedAreas[index.getAreaRule(area) * symbolCount + symbol]++;
+                }
+            }
+        }
+        for (LineDirection direction : DIRECTIONS) {
+            int d = direction.ordinal();
+            if (lineLongest[d] == null) {
+                continue;
+            }
+            Arrays.fill(lineLongest[d], 0);
+            for (int line = 0; line < dirtyLine[d].length; line++) {
+                rescanLine(direction, line);
+            }
+        }
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            firedRules[symbol] = computeFiredRules(symbol);
+            dirtySymbol[symbol] = false;
+        }
+        dirtySymbolCount = 0;
+    }
+
+    /**
+     * Replaces a single cell.
+     */
+    public void set(int cell, int symbol) {
+        applyChange(cell, symbol);
+        flush();
+    }
+
+    /**
+     * Replaces {@code count} cells: {@code cells[i]} receives {@code symbols[i]}.
+     * Cost is proportional to the changed cells and the areas and lines through them.
+     */
+    public void update(int[] cells, int[] symbols, int count) {
+        for (int i = 0; i < count; i++) {
+            applyChange(cells[i], symbols[i]);
+        }
+        flush();
+    }
+
+    private void applyChange(int cell, int symbol) {
+        if (symbol < 0 || symbol >= symbolCount) {
+            throw new IllegalArgumentException("Unknown symbol id: " + symbol);
+        }
+        int previous = board[cell];
+        if (previous == symbol) {
+            return;
+        }
+        board[cell] = symbol;
+        histogram[previous]--;
+        histogram[symbol]++;
+        markSymbol(previous);
+        markSymbol(symbol);
+
+        for (int area : index.getCellAreas(cell)) {
+            int size = index.getAreaCells(area).length;
+            int ruleBase = index.getAreaRule(area) * symbolCount;
+            int base = area * symbolCount;
+            if (areaSymbolCounts[base + previous]-- == size) {
+                matchedAreas[ruleBase + previous]--;
+            }
+            if (++areaSymbolCounts[base + symbol] == size) {
+                matchedAreas[ruleBase + symbol]++;
+            }
+        }
+
+        int row = cell / columns;
+        int col = cell % columns;
+        for (LineDirection direction : DIRECTIONS) {
+            int d = direction.ordinal();
+            if (lineLongest[d] == null) {
+                continue;
+            }
+            int line = direction.lineOf(row, col, rows, columns);
+            if (!dirtyLine[d][line]) {
+                dirtyLine[d][line] = true;
+                dirtyLines[d][dirtyLineCounts[d]++] = line;
+            }
+        }
+    }
+
+    private void flush() {
+        for (LineDirection direction : DIRECTIONS) {
+            int d = direction.ordinal();
+            for (int i = 0; i < dirtyLineCounts[d]; i++) {
+                int line = dirtyLines[d][i];
+                dirtyLine[d][line] = false;
+                rescanLine(direction, line);
+            }
+            dirtyLineCounts[d] = 0;
+        }
+        for (int i = 0; i < dirtySymbolCount; i++) {
+            int symbol = dirtySymbols[i];
+            dirtySymbol[symbol] = false;
+            firedRules[symbol] = computeFiredRules(symbol);
+        }
+        dirtySymbolCount = 0;
+    }
+
+    private void rescanLine(LineDirection direction, int line) {
+        int d = direction.ordinal();
+        int rowStep = direction.getRowStep();
+        int colStep = direction.getColumnStep();
+        int start = direction.lineStart(line, rows, columns);
+        int row = start / columns;
+        int col = start % columns;
+        int previous = -1;
+        int run = 0;
+        while (row < rows && col >= 0 && col < columns) {
+            int symbol = board[row * columns + col];
+            run = symbol == previous ? run + 1 : 1;
+            previous = symbol;
+            if (run > lineScratch[symbol]) {
+                lineScratch[symbol] = run;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+
+        int[] longest = lineLongest[d];
+        int base = line * symbolCount;
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int before = longest[base + symbol];
+            int after = lineScratch[symbol];
+            lineScratch[symbol] = 0;
+            if (before == after) {
+                continue;
+            }
+            longest[base + symbol] = after;
+            for (int rule : runRulesByDirection[d]) {
+                int threshold = index.getRuleThreshold(rule);
+                boolean was = before >= threshold;
+                boolean is = after >= threshold;
+                if (was != is) {
+                    qualifyingLines[rule * symbolCount + symbol] += is ? 1 : -1;
+                    markSymbol(symbol);
+                }
+            }
+        }
+    }
+
+    private void markSymbol(int symbol) {
+        if (!dirtySymbol[symbol]) {
+            dirtySymbol[symbol] = true;
+            dirtySymbols[dirtySymbolCount++] = symbol;
+        }
+    }
+
+    private long computeFiredRules(int symbol) {
+        // Like ScratchGame, only standard symbols present on the board can win
+        if (!index.isStandard(symbol) || histogram[symbol] == 0) {
+            return 0;
+        }
+        long mask = 0;
+        for (int rule = 0; rule < index.getRuleCount(); rule++) {
+            boolean fired;
+            switch (index.getRuleKind(rule)) {
+                case SAME_SYMBOLS:
+                    fired = histogram[symbol] >= index.getRuleThreshold(rule);
+                    break;
+                case COVERED_AREAS:
+                    fired = matchedAreas[rule * symbolCount + symbol] > 0;
+                    break;
+                default:
+                    fired = qualifyingLines[rule * symbolCount + symbol] > 0;
+                    break;
+            }
+            if (fired) {
+                mask |= 1L << rule;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Marks every cell that takes part in a fired rule: all cells of a symbol whose
+     * same_symbols rule fired, every covered area filled by a winning symbol, and every
+     * template run long enough to qualify.
+     *
+     * @return number of cells marked
+     */
+    public int markWinningCells(boolean[] winning) {
+        Arrays.fill(winning, false);
+        int marked = 0;
+
+        long countMask = 0;
+        for (int rule : index.getCountRules()) {
+            countMask |= 1L << rule;
+        }
+        boolean anyWholeSymbol = false;
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            wholeSymbol[symbol] = (firedRules[symbol] & countMask) != 0;
+            anyWholeSymbol |= wholeSymbol[symbol];
+        }
+        if (anyWholeSymbol) {
+            for (int cell = 0; cell < board.length; cell++) {
+                if (wholeSymbol[board[cell]]) {
+                    winning[cell] = true;
+                    marked++;
+                }
+            }
+        }
+
+        for (int area = 0; area < index.getAreaCount(); area++) {
+            int[] cells = index.getAreaCells(area);
+            if (cells.length == 0) {
+                continue;
+            }
+            int symbol = board[cells[0]];
+            boolean filled = areaSymbolCounts[area * symbolCount + symbol] == cells.length;
+            if (filled && (firedRules[symbol] & (1L << index.getAreaRule(area))) != 0) {
+                for (int cell : cells) {
+                    if (!winning[cell]) {
+                        winning[cell] = true;
+                        marked++;
+                    }
+                }
+            }
+        }
+
+        for (LineDirection direction : DIRECTIONS) {
+            int d = direction.ordinal();
+            if (lineLongest[d] == null) {
+                continue;
+            }
+            // Shortest qualifying run per symbol among the templates that fired in this direction
+            boolean anyFired = false;
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                shortestRun[symbol] = Integer.MAX_VALUE;
+                for (int rule : runRulesByDirection[d]) {
+                    if ((firedRules[symbol] & (1L << rule)) != 0) {
+                        shortestRun[symbol] = Math.min(shortestRun[symbol], index.getRuleThreshold(rule));
+                        anyFired = true;
+                    }
+                }
+            }
+            if (anyFired) {
+                for (int line = 0; line < dirtyLine[d].length; line++) {
+                    marked += markRuns(direction, line, winning);
+                }
+            }
+        }
+        return marked;
+    }
+
+    private int markRuns(LineDirection direction, int line, boolean[] winning) {
+        int step = direction.getRowStep() * columns + direction.getColumnStep();
+        int start = direction.lineStart(line, rows, columns);
+        int row = start / columns;
+        int col = start % columns;
+        int length = 0;
+        while (row < rows && col >= 0 && col < columns) {
+            length++;
+            row += direction.getRowStep();
+            col += direction.getColumnStep();
+        }
+
+        int marked = 0;
+        int runStart = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i < length && board[start + i * step] == board[start + runStart * step]) {
+                continue;
+            }
+            int symbol = board[start + runStart * step];
+            if (i - runStart >= shortestRun[symbol]) {
+                for (int j = runStart; j < i; j++) {
+                    int cell = start + j * step;
+                    if (!winning[cell]) {
+                        winning[cell] = true;
+                        marked++;
+                    }
+                }
+            }
+            runStart = i;
+        }
+        return marked;
+    }
+
+    public int getSymbol(int cell) {
+        return board[cell];
+    }
+
+    /**
+     * Number of cells currently holding the symbol.
+     */
+    public int getCount(int symbol) {
+        return histogram[symbol];
+    }
+
+    /**
+     * Bit {@code r} is set when rule {@code r} of the {@link RuleIndex} fires for the symbol.
+     */
+    public long getFiredRules(int symbol) {
+        return firedRules[symbol];
+    }
+
+    public boolean hasWin() {
+        for (long mask : firedRules) {
+            if (mask != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the current board into {@code target}.
+     */
+    public void copyBoard(int[] target) {
+        System.arraycopy(board, 0, target, 0, board.length);
+    }
+
+    public Map<String, List<String>> toWinningCombinations() {
+        return index.toWinningCombinations(firedRules);
+    }
+
+    public RuleIndex getIndex() {
+        return index;
+    }
+}
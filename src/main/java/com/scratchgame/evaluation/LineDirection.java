@@ -0,0 +1,89 @@
+package com.scratchgame.evaluation;
+
+/**
+ * Directions a linear run template can be checked in. The config value is the
+ * string used in the "direction" field of a linear_symbols win combination.
+ */
+public enum LineDirection {
+    HORIZONTAL("horizontal", 0, 1),
+    VERTICAL("vertical", 1, 0),
+    DIAGONAL_LTR("diagonal_ltr", 1, 1),
+    DIAGONAL_RTL("diagonal_rtl", 1, -1);
+
+    private final String configValue;
+    private final int rowStep;
+    private final int columnStep;
+
+    LineDirection(String configValue, int rowStep, int columnStep) {
+        this.configValue = configValue;
+        this.rowStep = rowStep;
+        this.columnStep = columnStep;
+    }
+
+    public String getConfigValue() {
+        return configValue;
+    }
+
+    public int getRowStep() {
+        return rowStep;
+    }
+
+    public int getColumnStep() {
+        return columnStep;
+    }
+
+    /**
+     * Number of distinct lines running in this direction on a rows x columns board.
+     */
+    public int lineCount(int rows, int columns) {
+        switch (this) {
+            case HORIZONTAL:
+                return rows;
+            case VERTICAL:
+                return columns;
+            default:
+                return rows + columns - 1;
+        }
+    }
+
+    /**
+     * Index of the line in this direction that passes through the given cell.
+     */
+    public int lineOf(int row, int column, int rows, int columns) {
+        switch (this) {
+            case HORIZONTAL:
+                return row;
+            case VERTICAL:
+                return column;
+            case DIAGONAL_LTR:
+                return column - row + rows - 1;
+            default:
+                return row + column;
+        }
+    }
+
+    /**
+     * Row-major index of the first cell of a line; following cells are one step away each.
+     */
+    public int lineStart(int line, int rows, int columns) {
+        switch (this) {
+            case HORIZONTAL:
+                return line * columns;
+            case VERTICAL:
+                return line;
+            case DIAGONAL_LTR:
+                return line >= rows - 1 ? line - (rows - 1) : (rows - 1 - line) * columns;
+            default:
+                return line < columns ? line : (line - columns + 1) * columns + columns - 1;
+        }
+    }
+
+    public static LineDirection fromConfig(String value) {
+        for (LineDirection direction : values()) {
+            if (direction.configValue.equals(value)) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Unknown line direction: " + value);
+    }
+}
@@ -0,0 +1,80 @@
+package com.scratchgame.evaluation;
+
+/**
+ * Finds the longest run of every symbol along each {@link LineDirection} with a single
+ * row-major sweep over the board. Each cell extends the run ending at its left, upper,
+ * upper-left and upper-right neighbour, so the cost is O(rows x columns) no matter how
+ * many lines the board has.
+ */
+public final class LineRunDetector {
+    private static final int DIRECTIONS = LineDirection.values().length;
+
+    private LineRunDetector() {
+    }
+
+    /**
+     * @param cells       row-major symbol ids, {@code cells[row * columns + column]}
+     * @param symbolCount number of distinct symbol ids; every id must be below it
+     * @return longest runs indexed by {@code [direction.ordinal()][symbolId]}
+     */
+    public static int[][] longestRuns(int[] cells, int rows, int columns, int symbolCount) {
+        if (cells.length != rows * columns) {
+            throw new IllegalArgumentException("Board has " + cells.length + " cells, expected " + rows * columns);
+        }
+        int[][] longest = new int[DIRECTIONS][symbolCount];
+        int[] horizontalLongest = longest[LineDirection.HORIZONTAL.ordinal()];
+        int[] verticalLongest = longest[LineDirection.VERTICAL.ordinal()];
+        int[] ltrLongest = longest[LineDirection.DIAGONAL_LTR.ordinal()];
+        int[] rtlLongest = longest[LineDirection.DIAGONAL_RTL.ordinal()];
+
+        // Run lengths ending in the previous row and in the current row, per column
+        int[] vertical = new int[columns];
+        int[] ltr = new int[columns];
+        int[] rtl = new int[columns];
+        int[] nextVertical = new int[columns];
+        int[] nextLtr = new int[columns];
+        int[] nextRtl = new int[columns];
+
+        for (int row = 0; row < rows; row++) {
+            int base = row * columns;
+            int above = base - columns;
+            int horizontal = 0;
+            for (int col = 0; col < columns; col++) {
+                int symbol = cells[base + col];
+
+                horizontal = col > 0 && cells[base + col - 1] == symbol ? horizontal + 1 : 1;
+                int v = row > 0 && cells[above + col] == symbol ? vertical[col] + 1 : 1;
+                int l = row > 0 && col > 0 && cells[above + col - 1] == symbol ? ltr[col - 1] + 1 : 1;
+                int r = row > 0 && col < columns - 1 && cells[above + col + 1] == symbol ? rtl[col + 1] + 1 : 1;
+                nextVertical[col] = v;
+                nextLtr[col] = l;
+                nextRtl[col] = r;
+
+                if (horizontal > horizontalLongest[symbol]) {
+                    horizontalLongest[symbol] = horizontal;
+                }
+                if (v > verticalLongest[symbol]) {
+                    verticalLongest[symbol] = v;
+                }
+                if (l > ltrLongest[symbol]) {
+                    ltrLongest[symbol] = l;
+                }
+                if (r > rtlLongest[symbol]) {
+                    rtlLongest[symbol] = r;
+                }
+            }
+
+            int[] swap = vertical;
+            vertical = nextVertical;
+            nextVertical = swap;
+            swap = ltr;
+            ltr = nextLtr;
+            nextLtr = swap;
+            swap = rtl;
+            rtl = nextRtl;
+            nextRtl = swap;
+        }
+
+        return longest;
+    }
+}
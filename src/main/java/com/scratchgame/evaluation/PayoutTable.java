@@ -0,0 +1,285 @@
+package com.scratchgame.evaluation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Precomputed win evaluation of every possible board of a tiny game.
+ *
+ * Each of the k symbols that can appear in a cell gets a digit, and a board is encoded
+ * as the base-k number {@code sum(digit[cell] * k^cell)}. The off-heap table holds one
+ * int per board: the id of its outcome. Outcomes are deduplicated (a 3x3 board with six
+ * symbols has about ten million boards but only a few hundred distinct outcomes), and
+ * each outcome keeps the fired rules of every symbol, their union and the bet-independent
+ * reward multiplier. Evaluating a board is then one table read.
+ */
+public final class PayoutTable {
+    private static final int ENTRY_BYTES = Integer.BYTES;
+    // Direct buffers are int-indexed
+    private static final long MAX_ENTRIES = Integer.MAX_VALUE / ENTRY_BYTES;
+
+    private final RuleIndex index;
+    private final int[] digitSymbols;
+    private final int[] symbolDigits;
+    private final int cellCount;
+    private final long entries;
+    private final IntBuffer table;
+
+    private final long[][] outcomeRules;
+    private final long[] outcomeUnion;
+    private final double[] outcomeMultipliers;
+
+    private PayoutTable(RuleIndex index, int[] digitSymbols, IntBuffer table, long entries, List<long[]> outcomes) {
+        this.index = index;
+        this.digitSymbols = digitSymbols;
+        this.cellCount = index.getCellCount();
+        this.entries = entries;
+        this.table = table;
+        this.symbolDigits = new int[index.getSymbolCount()];
+        Arrays.fill(symbolDigits, -1);
+        for (int digit = 0; digit < digitSymbols.length; digit++) {
+            symbolDigits[digitSymbols[digit]] = digit;
+        }
+
+        this.outcomeRules = outcomes.toArray(new long[0][]);
+        this.outcomeUnion = new long[outcomeRules.length];
+        this.outcomeMultipliers = new double[outcomeRules.length];
+        for (int outcome = 0; outcome < outcomeRules.length; outcome++) {
+            for (int digit = 0; digit < digitSymbols.length; digit++) {
+                long rules = outcomeRules[outcome][digit];
+                if (rules != 0) {
+                    outcomeUnion[outcome] |= rules;
+                    outcomeMultipliers[outcome] += index.rewardMultiplier(digitSymbols[digit], rules);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bytes the table needs for boards over {@code symbolCount} symbols, or
+     * {@link Long#MAX_VALUE} when it cannot be built at all.
+     */
+    public static long requiredBytes(int symbolCount, int cellCount) {
+        long entries = 1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (entries > MAX_ENTRIES / Math.max(symbolCount, 1)) {
+                return Long.MAX_VALUE;
+            }
+            entries *= symbolCount;
+        }
+        return entries * ENTRY_BYTES;
+    }
+
+    /**
+     * Evaluates every board over the given symbols on the pool. Boards are split into
+     * contiguous code ranges; within a range consecutive codes usually differ in the lowest
+     * cell only, so each worker walks its range with an {@link IncrementalEvaluator}.
+     *
+     * @param digitSymbols symbol ids that can appear in cells, in digit order
+     */
+    public static PayoutTable build(RuleIndex index, int[] digitSymbols, ForkJoinPool pool) {
+        long bytes = requiredBytes(digitSymbols.length, index.getCellCount());
+        if (bytes == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Payout table for " + digitSymbols.length + "^" + index.getCellCount() + " boards is too large");
+        }
+        long entries = bytes / ENTRY_BYTES;
+        IntBuffer table = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+
+        int chunks = (int) Math.min(entries, pool.getParallelism() * 8L);
+        BuildRange[] ranges = new BuildRange[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            ranges[chunk] = new BuildRange(index, digitSymbols, table, entries * chunk / chunks, entries * (chunk + 1) / chunks);
+        }
+        pool.submit(() -> Arrays.stream(ranges).parallel().forEach(BuildRange::evaluate)).join();
+
+        // Merge the per-range outcome dictionaries and rewrite local ids as global ones
+        Map<OutcomeKey, Integer> global = new HashMap<>();
+        List<long[]> outcomes = new ArrayList<>();
+        long[] none = new long[digitSymbols.length];
+        global.put(new OutcomeKey(none), 0);
+        outcomes.add(none);
+        for (BuildRange range : ranges) {
+            range.remap = new int[range.outcomes.size()];
+            for (int local = 0; local < range.outcomes.size(); local++) {
+                OutcomeKey key = new OutcomeKey(range.outcomes.get(local));
+                Integer id = global.get(key);
+                if (id == null) {
+                    id = outcomes.size();
+                    global.put(key, id);
+                    outcomes.add(key.rules);
+                }
+                range.remap[local] = id;
+            }
+        }
+        pool.submit(() -> Arrays.stream(ranges).parallel().forEach(BuildRange::remap)).join();
+
+        return new PayoutTable(index, digitSymbols, table, entries, outcomes);
+    }
+
+    /**
+     * Base-k code of a board of symbol ids, or -1 when a cell holds a symbol without a digit.
+     */
+    public long encode(int[] cells) {
+        long code = 0;
+        for (int cell = cellCount - 1; cell >= 0; cell--) {
+            int digit = symbolDigits[cells[cell]];
+            if (digit < 0) {
+                return -1;
+            }
+            code = code * digitSymbols.length + digit;
+        }
+        return code;
+    }
+
+    public int outcomeOf(long code) {
+        if (code < 0 || code >= entries) {
+            throw new IllegalArgumentException("Board code out of range: " + code);
+        }
+        return table.get((int) code);
+    }
+
+    public int getOutcomeCount() {
+        return outcomeRules.length;
+    }
+
+    /**
+     * Sum over winning symbols of symbol multiplier times fired combination multipliers.
+     */
+    public double getMultiplier(int outcome) {
+        return outcomeMultipliers[outcome];
+    }
+
+    /**
+     * Union of the rules fired by any symbol.
+     */
+    public long getFiredRules(int outcome) {
+        return outcomeUnion[outcome];
+    }
+
+    public long getFiredRules(int outcome, int symbol) {
+        int digit = symbolDigits[symbol];
+        return digit < 0 ? 0 : outcomeRules[outcome][digit];
+    }
+
+    public Map<String, List<String>> toWinningCombinations(int outcome) {
+        long[] firedRules = new long[index.getSymbolCount()];
+        for (int digit = 0; digit < digitSymbols.length; digit++) {
+            firedRules[digitSymbols[digit]] = outcomeRules[outcome][digit];
+        }
+        return index.toWinningCombinations(firedRules);
+    }
+
+    public long getEntryCount() {
+        return entries;
+    }
+
+    public long getMemoryBytes() {
+        return entries * ENTRY_BYTES;
+    }
+
+    private static final class BuildRange {
+        private final RuleIndex index;
+        private final int[] digitSymbols;
+        private final IntBuffer table;
+        private final long start;
+        private final long end;
+        private final List<long[]> outcomes = new ArrayList<>();
+        private int[] remap;
+
+        BuildRange(RuleIndex index, int[] digitSymbols, IntBuffer table, long start, long end) {
+            this.index = index;
+            this.digitSymbols = digitSymbols;
+            this.table = table;
+            this.start = start;
+            this.end = end;
+        }
+
+        void remap() {
+            for (long code = start; code < end; code++) {
+                table.put((int) code, remap[table.get((int) code)]);
+            }
+        }
+
+        void evaluate() {
+            int k = digitSymbols.length;
+            int cellCount = index.getCellCount();
+            int[] digits = new int[cellCount];
+            int[] cells = new int[cellCount];
+            long remaining = start;
+            for (int cell = 0; cell < cellCount; cell++) {
+                digits[cell] = (int) (remaining % k);
+                cells[cell] = digitSymbols[digits[cell]];
+                remaining /= k;
+            }
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(index);
+            evaluator.reset(cells);
+
+            // Local id 0 is the outcome without wins, as in the global dictionary
+            Map<OutcomeKey, Integer> local = new HashMap<>();
+            OutcomeKey probe = new OutcomeKey(new long[k]);
+            outcomes.add(new long[k]);
+            local.put(new OutcomeKey(outcomes.get(0)), 0);
+            int[] changedCells = new int[cellCount];
+            int[] changedSymbols = new int[cellCount];
+
+            for (long code = start; code < end; code++) {
+                int id = 0;
+                if (evaluator.hasWin()) {
+                    for (int digit = 0; digit < k; digit++) {
+                        probe.rules[digit] = evaluator.getFiredRules(digitSymbols[digit]);
+                    }
+                    probe.rehash();
+                    Integer existing = local.get(probe);
+                    if (existing == null) {
+                        existing = outcomes.size();
+                        long[] rules = probe.rules.clone();
+                        outcomes.add(rules);
+                        local.put(new OutcomeKey(rules), existing);
+                    }
+                    id = existing;
+                }
+                table.put((int) code, id);
+
+                // Odometer step to code + 1
+                int changed = 0;
+                for (int cell = 0; cell < cellCount; cell++) {
+                    digits[cell] = digits[cell] + 1 == k ? 0 : digits[cell] + 1;
+                    changedCells[changed] = cell;
+                    changedSymbols[changed] = digitSymbols[digits[cell]];
+                    changed++;
+                    if (digits[cell] != 0) {
+                        break;
+                    }
+                }
+                evaluator.update(changedCells, changedSymbols, changed);
+            }
+        }
+    }
+
+    private static final class OutcomeKey {
+        private final long[] rules;
+        private int hash;
+
+        OutcomeKey(long[] rules) {
+            this.rules = rules;
+            rehash();
+        }
+
+        void rehash() {
+            hash = Arrays.hashCode(rules);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OutcomeKey && Arrays.equals(rules, ((OutcomeKey) other).rules);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.scratchgame.evaluation;
+
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.CompiledRule;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.model.runtime.GameModel;
+import com.scratchgame.model.runtime.RuleKind;
+
+import java.util.*;
+
+/**
+ * Win combinations compiled against a fixed board size. Symbols get dense ids, cells are
+ * addressed row-major, and every covered area is resolved to cell indices once. The
+ * inverted index maps each cell to the covered areas containing it, so a change to a few
+ * cells only has to look at the areas and lines those cells belong to. same_symbols rules
+ * include every cell and are kept in a single list.
+ *
+ * Rules are numbered in config order and reported as bits of a {@code long}, so at most
+ * 64 win combinations are supported.
+ */
+public final class RuleIndex {
+    private final GameModel model;
+
+    private final int rows;
+    private final int columns;
+    private final String[] symbolNames;
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final boolean[] standard;
+    private final double[] symbolMultipliers;
+
+    private final String[] ruleNames;
+    private final Map<String, Integer> ruleIds = new HashMap<>();
+    private final RuleKind[] ruleKinds;
+    private final int[] ruleThresholds;
+    private final LineDirection[] ruleDirections;
+    private final double[] ruleMultipliers;
+
+    private final int[][] areaCells;
+    private final int[] areaRules;
+    private final int[][] cellAreas;
+    private final int[] countRules;
+    private final int[] runRules;
+
+    public RuleIndex(GameConfig config) {
+        this(new GameModel(config));
+    }
+
+    public RuleIndex(GameModel model) {
+        this.model = model;
+        this.rows = model.getRows();
+        this.columns = model.getColumns();
+
+        this.symbolNames = new String[model.getSymbolCount()];
+        this.standard = new boolean[symbolNames.length];
+        this.symbolMultipliers = new double[symbolNames.length];
+        for (int id = 0; id < symbolNames.length; id++) {
+            CompiledSymbol symbol = model.getSymbol(id);
+            symbolNames[id] = symbol.getName();
+            symbolIds.put(symbol.getName(), id);
+            standard[id] = symbol.isStandard();
+            symbolMultipliers[id] = symbol.getRewardMultiplier();
+        }
+
+        int ruleCount = model.getRuleCount();
+        this.ruleNames = new String[ruleCount];
+        this.ruleKinds = new RuleKind[ruleCount];
+        this.ruleThresholds = new int[ruleCount];
+        this.ruleDirections = new LineDirection[ruleCount];
+        this.ruleMultipliers = new double[ruleCount];
+
+        List<int[]> areas = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        List<Integer> countRuleList = new ArrayList<>();
+        List<Integer> runRuleList = new ArrayList<>();
+        for (int rule = 0; rule < ruleCount; rule++) {
+            CompiledRule compiled = model.getRule(rule);
+            ruleNames[rule] = compiled.getName();
+            ruleIds.put(compiled.getName(), rule);
+            ruleMultipliers[rule] = compiled.getRewardMultiplier();
+            ruleKinds[rule] = compiled.getKind();
+            ruleThresholds[rule] = compiled.getThreshold();
+            ruleDirections[rule] = compiled.getDirection();
+            switch (compiled.getKind()) {
+                case SAME_SYMBOLS:
+                    countRuleList.add(rule);
+                    break;
+                case LINE_RUN:
+                    runRuleList.add(rule);
+                    break;
+                default:
+                    for (int area = 0; area < compiled.getAreaCount(); area++) {
+                        areas.add(compiled.getAreaCells(area));
+                        owners.add(rule);
+                    }
+            }
+        }
+
+        this.areaCells = areas.toArray(new int[0][]);
+        this.areaRules = toArray(owners);
+        this.countRules = toArray(countRuleList);
+        this.runRules = toArray(runRuleList);
+
+        // Invert area -> cells into cell -> areas
+        int cellCount = rows * columns;
+        int[] perCell = new int[cellCount];
+        for (int[] cells : areaCells) {
+            for (int cell : cells) {
+                perCell[cell]++;
+            }
+        }
+        this.cellAreas = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellAreas[cell] = new int[perCell[cell]];
+        }
+        Arrays.fill(perCell, 0);
+        for (int area = 0; area < areaCells.length; area++) {
+            for (int cell : areaCells[area]) {
+                cellAreas[cell][perCell[cell]++] = area;
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Encodes a matrix as row-major symbol ids.
+     */
+    public int[] encode(List<List<String>> matrix) {
+        if (matrix.size() != rows) {
+            throw new IllegalStateException("Matrix has " + matrix.size() + " rows, expected " + rows);
+        }
+        int[] cells = new int[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            List<String> rowSymbols = matrix.get(row);
+            if (rowSymbols.size() != columns) {
+                throw new IllegalStateException("Matrix row " + row + " has " + rowSymbols.size() + " columns, expected " + columns);
+            }
+            for (int col = 0; col < columns; col++) {
+                cells[row * columns + col] = symbolId(rowSymbols.get(col));
+            }
+        }
+        return cells;
+    }
+
+    public List<List<String>> decode(int[] cells) {
+        List<List<String>> matrix = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            List<String> rowList = new ArrayList<>(columns);
+            for (int col = 0; col < columns; col++) {
+                rowList.add(symbolNames[cells[row * columns + col]]);
+            }
+            matrix.add(rowList);
+        }
+        return matrix;
+    }
+
+    /**
+     * Expands per-symbol fired-rule masks into the symbol -> combination names map
+     * used by {@code GameResult}.
+     */
+    public Map<String, List<String>> toWinningCombinations(long[] firedRules) {
+        Map<String, List<String>> winningCombinations = new HashMap<>();
+        for (int symbol = 0; symbol < firedRules.length; symbol++) {
+            long mask = firedRules[symbol];
+            if (mask == 0) {
+                continue;
+            }
+            List<String> names = new ArrayList<>(Long.bitCount(mask));
+            while (mask != 0) {
+                names.add(ruleNames[Long.numberOfTrailingZeros(mask)]);
+                mask &= mask - 1;
+            }
+            winningCombinations.put(symbolNames[symbol], names);
+        }
+        return winningCombinations;
+    }
+
+    /**
+     * Inverse of {@link #toWinningCombinations(long[])}: per-symbol fired-rule masks of a
+     * symbol -> combination names map.
+     */
+    public long[] toFiredRules(Map<String, List<String>> winningCombinations) {
+        long[] firedRules = new long[symbolNames.length];
+        for (Map.Entry<String, List<String>> entry : winningCombinations.entrySet()) {
+            int symbol = symbolId(entry.getKey());
+            for (String name : entry.getValue()) {
+                firedRules[symbol] |= 1L << ruleId(name);
+            }
+        }
+        return firedRules;
+    }
+
+    /**
+     * Bet-independent reward multiplier of a symbol whose rules in {@code firedRules} fired:
+     * the symbol multiplier times every fired combination's multiplier.
+     */
+    public double rewardMultiplier(int symbol, long firedRules) {
+        double multiplier = symbolMultipliers[symbol];
+        long mask = firedRules;
+        while (mask != 0) {
+            multiplier *= ruleMultipliers[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return multiplier;
+    }
+
+    public int ruleId(String name) {
+        Integer rule = ruleIds.get(name);
+        if (rule == null) {
+            throw new IllegalStateException("Unknown win combination: " + name);
+        }
+        return rule;
+    }
+
+    public int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            throw new IllegalStateException("Invalid symbol found in matrix: " + symbol);
+        }
+        return id;
+    }
+
+    public GameModel getModel() {
+        return model;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellCount() {
+        return rows * columns;
+    }
+
+    public int getSymbolCount() {
+        return symbolNames.length;
+    }
+
+    public String getSymbolName(int symbol) {
+        return symbolNames[symbol];
+    }
+
+    public double getSymbolMultiplier(int symbol) {
+        return symbolMultipliers[symbol];
+    }
+
+    public boolean isStandard(int symbol) {
+        return standard[symbol];
+    }
+
+    public int getRuleCount() {
+        return ruleNames.length;
+    }
+
+    public String getRuleName(int rule) {
+        return ruleNames[rule];
+    }
+
+    public double getRuleMultiplier(int rule) {
+        return ruleMultipliers[rule];
+    }
+
+    public RuleKind getRuleKind(int rule) {
+        return ruleKinds[rule];
+    }
+
+    /**
+     * Required symbol count for same_symbols rules, minimum run length for run templates.
+     */
+    public int getRuleThreshold(int rule) {
+        return ruleThresholds[rule];
+    }
+
+    public LineDirection getRuleDirection(int rule) {
+        return ruleDirections[rule];
+    }
+
+    public int getAreaCount() {
+        return areaCells.length;
+    }
+
+    public int[] getAreaCells(int area) {
+        return areaCells[area];
+    }
+
+    public int getAreaRule(int area) {
+        return areaRules[area];
+    }
+
+    /**
+     * Covered areas that include the given cell.
+     */
+    public int[] getCellAreas(int cell) {
+        return cellAreas[cell];
+    }
+
+    /**
+     * same_symbols rules; they include every cell of the board.
+     */
+    public int[] getCountRules() {
+        return countRules;
+    }
+
+    public int[] getRunRules() {
+        return runRules;
+    }
+}
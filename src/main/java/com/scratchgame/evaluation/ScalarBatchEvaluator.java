@@ -0,0 +1,33 @@
+package com.scratchgame.evaluation;
+
+/**
+ * Evaluates a batch one board at a time with an {@link IncrementalEvaluator}. Used where
+ * the bit-sliced evaluator is not available and as its reference.
+ */
+public final class ScalarBatchEvaluator implements BatchEvaluator {
+    private final IncrementalEvaluator evaluator;
+    private final int symbolCount;
+    private final int[] board;
+
+    public ScalarBatchEvaluator(RuleIndex index) {
+        this.evaluator = new IncrementalEvaluator(index);
+        this.symbolCount = index.getSymbolCount();
+        this.board = new int[index.getCellCount()];
+    }
+
+    @Override
+    public void evaluate(BoardBatch batch, long[] firedRules) {
+        for (int b = 0; b < batch.size(); b++) {
+            batch.copyBoard(b, board);
+            evaluator.reset(board);
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                firedRules[b * symbolCount + symbol] = evaluator.getFiredRules(symbol);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,344 @@
+package com.scratchgame.evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Symbol counts and longest runs of one very large board, computed tile by tile on a
+ * {@link ForkJoinPool}. The result is exactly that of a full count plus
+ * {@link LineRunDetector#longestRuns}.
+ *
+ * The board is cut into square tiles that are scanned in parallel. Each tile counts its
+ * symbols and finds its longest runs in every {@link LineDirection} as if it were a board
+ * of its own. It also records, on its border, the run ending at each exit cell (whose
+ * next cell in the direction lies outside the tile) and the run starting at each entry
+ * cell (whose previous cell lies outside). A sequential pass over the tile borders then
+ * stitches runs that cross tiles. It visits tiles in an order that finishes a run's
+ * previous tiles first: top to bottom, and left to right, except right to left for
+ * {@link LineDirection#DIAGONAL_RTL}. At each entry cell continuing the run ending
+ * next to it, the two parts join; when the part inside the tile reaches its exit cell,
+ * that cell's run grows by the part that came before. The pass touches border cells only.
+ *
+ * Scratch buffers are allocated per board, so one instance may evaluate boards on several
+ * threads at once.
+ */
+public final class TiledBoardEvaluator {
+    public static final int DEFAULT_TILE_SIZE = 128;
+    private static final LineDirection[] DIRECTIONS = LineDirection.values();
+    // Tiles scanned by one task before the range is split no further
+    private static final int TILES_PER_TASK = 1;
+
+    private final int rows;
+    private final int columns;
+    private final int symbolCount;
+    private final int tileSize;
+    private final int tileRows;
+    private final int tileColumns;
+    private final ForkJoinPool pool;
+
+    public TiledBoardEvaluator(int rows, int columns, int symbolCount, int tileSize, ForkJoinPool pool) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be positive");
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.symbolCount = symbolCount;
+        this.tileSize = tileSize;
+        this.tileRows = (rows + tileSize - 1) / tileSize;
+        this.tileColumns = (columns + tileSize - 1) / tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Buffers of one evaluation: the per tile results of the parallel scan and, per
+     * direction and indexed by border slot, the runs ending at exit cells and starting at
+     * entry cells. A few bytes per border cell, small next to the board itself.
+     */
+    private final class Scratch {
+        final int[][] tileCounts;
+        final int[][][] tileLongest;
+        final int[][] exitRuns;
+        final int[][] entryRuns;
+
+        Scratch(boolean runs) {
+            int tiles = tileRows * tileColumns;
+            tileCounts = new int[tiles][symbolCount];
+            tileLongest = runs ? new int[tiles][DIRECTIONS.length][symbolCount] : null;
+            exitRuns = runs ? new int[DIRECTIONS.length][tiles * 4 * tileSize] : null;
+            entryRuns = runs ? new int[DIRECTIONS.length][tiles * 4 * tileSize] : null;
+        }
+    }
+
+    /**
+     * Writes the count of every symbol and, unless {@code longestRuns} is null, the
+     * longest runs indexed by {@code [direction.ordinal()][symbolId]}, as
+     * {@link LineRunDetector#longestRuns} returns them.
+     */
+    public void evaluate(int[] cells, int[] symbolCounts, int[][] longestRuns) {
+        if (cells.length != rows * columns) {
+            throw new IllegalArgumentException("Board has " + cells.length + " cells, expected " + rows * columns);
+        }
+        boolean runs = longestRuns != null;
+        Scratch scratch = new Scratch(runs);
+        pool.invoke(new ScanTask(scratch, cells, runs, 0, tileRows * tileColumns));
+
+        for (int[] tileCounts : scratch.tileCounts) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                symbolCounts[symbol] += tileCounts[symbol];
+            }
+        }
+        if (!runs) {
+            return;
+        }
+        for (LineDirection direction : DIRECTIONS) {
+            int[] longest = longestRuns[direction.ordinal()];
+            for (int[][] tileLongest : scratch.tileLongest) {
+                int[] tileRuns = tileLongest[direction.ordinal()];
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    longest[symbol] = Math.max(longest[symbol], tileRuns[symbol]);
+                }
+            }
+            stitch(scratch, cells, direction, longest);
+        }
+    }
+
+    private final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Scratch scratch;
+        private final int[] cells;
+        private final boolean runs;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scratch scratch, int[] cells, boolean runs, int from, int to) {
+            this.scratch = scratch;
+            this.cells = cells;
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILES_PER_TASK) {
+                for (int tile = from; tile < to; tile++) {
+                    scanTile(scratch, cells, tile, runs);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(scratch, cells, runs, from, middle), new ScanTask(scratch, cells, runs, middle, to));
+        }
+    }
+
+    private void scanTile(Scratch scratch, int[] cells, int tile, boolean runs) {
+        int r0 = tile / tileColumns * tileSize;
+        int c0 = tile % tileColumns * tileSize;
+        int r1 = Math.min(rows, r0 + tileSize);
+        int c1 = Math.min(columns, c0 + tileSize);
+        int[] counts = scratch.tileCounts[tile];
+        if (!runs) {
+            for (int row = r0; row < r1; row++) {
+                for (int col = c0; col < c1; col++) {
+                    counts[cells[row * columns + col]]++;
+                }
+            }
+            return;
+        }
+
+        int[][] longest = scratch.tileLongest[tile];
+        int[][] exitRuns = scratch.exitRuns;
+        int[] horizontalLongest = longest[LineDirection.HORIZONTAL.ordinal()];
+        int[] verticalLongest = longest[LineDirection.VERTICAL.ordinal()];
+        int[] ltrLongest = longest[LineDirection.DIAGONAL_LTR.ordinal()];
+        int[] rtlLongest = longest[LineDirection.DIAGONAL_RTL.ordinal()];
+        int[] horizontalExits = exitRuns[LineDirection.HORIZONTAL.ordinal()];
+        int[] verticalExits = exitRuns[LineDirection.VERTICAL.ordinal()];
+        int[] ltrExits = exitRuns[LineDirection.DIAGONAL_LTR.ordinal()];
+        int[] rtlExits = exitRuns[LineDirection.DIAGONAL_RTL.ordinal()];
+
+        // The sweep of LineRunDetector, confined to the tile
+        int width = c1 - c0;
+        int[] vertical = new int[width];
+        int[] ltr = new int[width];
+        int[] rtl = new int[width];
+        int[] nextVertical = new int[width];
+        int[] nextLtr = new int[width];
+        int[] nextRtl = new int[width];
+        for (int row = r0; row < r1; row++) {
+            int base = row * columns;
+            int above = base - columns;
+            int horizontal = 0;
+            for (int col = c0; col < c1; col++) {
+                int symbol = cells[base + col];
+                counts[symbol]++;
+                int i = col - c0;
+
+                horizontal = col > c0 && cells[base + col - 1] == symbol ? horizontal + 1 : 1;
+                int v = row > r0 && cells[above + col] == symbol ? vertical[i] + 1 : 1;
+                int l = row > r0 && col > c0 && cells[above + col - 1] == symbol ? ltr[i - 1] + 1 : 1;
+                int r = row > r0 && col < c1 - 1 && cells[above + col + 1] == symbol ? rtl[i + 1] + 1 : 1;
+                nextVertical[i] = v;
+                nextLtr[i] = l;
+                nextRtl[i] = r;
+
+                horizontalLongest[symbol] = Math.max(horizontalLongest[symbol], horizontal);
+                verticalLongest[symbol] = Math.max(verticalLongest[symbol], v);
+                ltrLongest[symbol] = Math.max(ltrLongest[symbol], l);
+                rtlLongest[symbol] = Math.max(rtlLongest[symbol], r);
+
+                boolean lastRow = row == r1 - 1;
+                if (col == c1 - 1) {
+                    horizontalExits[slot(tile, row, col)] = horizontal;
+                }
+                if (lastRow) {
+                    verticalExits[slot(tile, row, col)] = v;
+                }
+                if (lastRow || col == c1 - 1) {
+                    ltrExits[slot(tile, row, col)] = l;
+                }
+                if (lastRow || col == c0) {
+                    rtlExits[slot(tile, row, col)] = r;
+                }
+            }
+            int[] swap = vertical;
+            vertical = nextVertical;
+            nextVertical = swap;
+            swap = ltr;
+            ltr = nextLtr;
+            nextLtr = swap;
+            swap = rtl;
+            rtl = nextRtl;
+            nextRtl = swap;
+        }
+
+        // Runs starting at each entry cell, walked forward to the first change or the tile edge
+        for (LineDirection direction : DIRECTIONS) {
+            int[] entries = scratch.entryRuns[direction.ordinal()];
+            int rowStep = direction.getRowStep();
+            int columnStep = direction.getColumnStep();
+            for (int row = r0; row < r1; row++) {
+                for (int col = c0; col < c1; col++) {
+                    if (!isEntry(direction, row, col, r0, c0, c1)) {
+                        continue;
+                    }
+                    int symbol = cells[row * columns + col];
+                    int length = 1;
+                    int r = row + rowStep;
+                    int c = col + columnStep;
+                    while (r < r1 && c >= c0 && c < c1 && cells[r * columns + c] == symbol) {
+                        length++;
+                        r += rowStep;
+                        c += columnStep;
+                    }
+                    entries[slot(tile, row, col)] = length;
+                }
+            }
+        }
+    }
+
+    /**
+     * True when the cell before this one in the direction lies outside the tile.
+     */
+    private static boolean isEntry(LineDirection direction, int row, int col, int r0, int c0, int c1) {
+        switch (direction) {
+            case HORIZONTAL:
+                return col == c0;
+            case VERTICAL:
+                return row == r0;
+            case DIAGONAL_LTR:
+                return row == r0 || col == c0;
+            default:
+                return row == r0 || col == c1 - 1;
+        }
+    }
+
+    private void stitch(Scratch scratch, int[] cells, LineDirection direction, int[] longest) {
+        int[] exits = scratch.exitRuns[direction.ordinal()];
+        int[] entries = scratch.entryRuns[direction.ordinal()];
+        int rowStep = direction.getRowStep();
+        int columnStep = direction.getColumnStep();
+        boolean rightToLeft = columnStep < 0;
+
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int k = 0; k < tileColumns; k++) {
+                int tileColumn = rightToLeft ? tileColumns - 1 - k : k;
+                int tile = tileRow * tileColumns + tileColumn;
+                int r0 = tileRow * tileSize;
+                int c0 = tileColumn * tileSize;
+                int r1 = Math.min(rows, r0 + tileSize);
+                int c1 = Math.min(columns, c0 + tileSize);
+
+                // Entry cells lie on the top row and on one side column
+                for (int col = c0; col < c1; col++) {
+                    join(cells, direction, tile, r0, col, r0, c0, r1, c1, exits, entries, longest);
+                }
+                if (rowStep == 0 || columnStep != 0) {
+                    int col = columnStep < 0 ? c1 - 1 : c0;
+                    for (int row = rowStep == 0 ? r0 : r0 + 1; row < r1; row++) {
+                        join(cells, direction, tile, row, col, r0, c0, r1, c1, exits, entries, longest);
+                    }
+                }
+            }
+        }
+    }
+
+    private void join(int[] cells, LineDirection direction, int tile, int row, int col,
+                      int r0, int c0, int r1, int c1, int[] exits, int[] entries, int[] longest) {
+        if (!isEntry(direction, row, col, r0, c0, c1)) {
+            return;
+        }
+        int previousRow = row - direction.getRowStep();
+        int previousCol = col - direction.getColumnStep();
+        if (previousRow < 0 || previousCol < 0 || previousCol >= columns) {
+            return;
+        }
+        int symbol = cells[row * columns + col];
+        if (cells[previousRow * columns + previousCol] != symbol) {
+            return;
+        }
+        int previousTile = previousRow / tileSize * tileColumns + previousCol / tileSize;
+        int entryRun = entries[slot(tile, row, col)];
+        int run = exits[slot(previousTile, previousRow, previousCol)] + entryRun;
+        if (run > longest[symbol]) {
+            longest[symbol] = run;
+        }
+
+        // A run crossing the whole tile carries on into its exit cell
+        int lastRow = row + (entryRun - 1) * direction.getRowStep();
+        int lastCol = col + (entryRun - 1) * direction.getColumnStep();
+        int nextRow = lastRow + direction.getRowStep();
+        int nextCol = lastCol + direction.getColumnStep();
+        if (nextRow >= r1 || nextCol < c0 || nextCol >= c1) {
+            exits[slot(tile, lastRow, lastCol)] = run;
+        }
+    }
+
+    /**
+     * Position of a border cell of the tile in the per-direction run buffers: top row,
+     * bottom row, left column and right column, each {@code tileSize} long.
+     */
+    private int slot(int tile, int row, int col) {
+        int r0 = tile / tileColumns * tileSize;
+        int c0 = tile % tileColumns * tileSize;
+        int base = tile * 4 * tileSize;
+        if (row == r0) {
+            return base + col - c0;
+        }
+        if (row == Math.min(rows, r0 + tileSize) - 1) {
+            return base + tileSize + col - c0;
+        }
+        if (col == c0) {
+            return base + 2 * tileSize + row - r0;
+        }
+        return base + 3 * tileSize + row - r0;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+}
@@ -0,0 +1,102 @@
+package com.scratchgame.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bet amounts drawn by a load generator, in major units.
+ */
+public interface BetDistribution {
+
+    double next(Random random);
+
+    static BetDistribution fixed(double bet) {
+        return random -> bet;
+    }
+
+    /**
+     * Uniform between {@code min} and {@code max}, rounded to cents.
+     */
+    static BetDistribution uniform(double min, double max) {
+        if (!(min > 0 && max >= min)) {
+            throw new IllegalArgumentException("Uniform bets need 0 < min <= max");
+        }
+        return random -> Math.round((min + random.nextDouble() * (max - min)) * 100) / 100.0;
+    }
+
+    /**
+     * Log-normal with the given median and shape, rounded to cents and at least one cent:
+     * a few players bet far more than the rest.
+     */
+    static BetDistribution logNormal(double median, double sigma) {
+        if (!(median > 0 && sigma >= 0)) {
+            throw new IllegalArgumentException("Log-normal bets need a positive median and non-negative sigma");
+        }
+        return random -> Math.max(0.01, Math.round(median * Math.exp(sigma * random.nextGaussian()) * 100) / 100.0);
+    }
+
+    /**
+     * Fixed amounts with integer weights.
+     */
+    static BetDistribution choice(double[] bets, int[] weights) {
+        if (bets.length == 0 || bets.length != weights.length) {
+            throw new IllegalArgumentException("Each bet needs one weight");
+        }
+        int[] cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Bet weights must not be negative");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Bet weights must not all be zero");
+        }
+        int sum = total;
+        return random -> {
+            int draw = random.nextInt(sum);
+            int i = 0;
+            while (cumulative[i] <= draw) {
+                i++;
+            }
+            return bets[i];
+        };
+    }
+
+    /**
+     * Parses {@code fixed:1}, {@code uniform:1,10}, {@code lognormal:2,0.8} or
+     * {@code choice:1=70,5=20,20=10}.
+     */
+    static BetDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? "fixed" : spec.substring(0, colon);
+        String[] values = (colon < 0 ? spec : spec.substring(colon + 1)).split(",");
+        try {
+            switch (kind) {
+                case "fixed":
+                    return fixed(Double.parseDouble(values[0]));
+                case "uniform":
+                    return uniform(Double.parseDouble(values[0]), Double.parseDouble(values[1]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(values[0]), Double.parseDouble(values[1]));
+                case "choice":
+                    List<Double> bets = new ArrayList<>();
+                    List<Integer> weights = new ArrayList<>();
+                    for (String value : values) {
+                        String[] pair = value.split("=");
+                        bets.add(Double.parseDouble(pair[0]));
+                        weights.add(Integer.parseInt(pair[1]));
+                    }
+                    return choice(bets.stream().mapToDouble(Double::doubleValue).toArray(),
+                            weights.stream().mapToInt(Integer::intValue).toArray());
+                default:
+                    throw new IllegalArgumentException("Unknown bet distribution: " + kind);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Incomplete bet distribution: " + spec);
+        }
+    }
+}
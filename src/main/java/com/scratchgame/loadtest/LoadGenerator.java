@@ -0,0 +1,355 @@
+package com.scratchgame.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.server.AdmissionController;
+import com.scratchgame.server.AdmissionStatus;
+import com.scratchgame.server.RoundCallback;
+import com.scratchgame.server.ShardRouter;
+import com.scratchgame.server.ShardedGameEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Repeatable load test of a {@link ShardedGameEngine} on one machine.
+ *
+ * In open-loop mode, rounds arrive at a fixed rate whether or not earlier ones have
+ * finished, as independent players would. Each round's latency is measured from its
+ * scheduled arrival rather than from when the generator got round to sending it. A
+ * stalled engine therefore shows up in the percentiles instead of silently slowing the
+ * arrivals (coordinated omission). In closed-loop mode, a fixed number of clients each
+ * submit a round and wait for it before submitting the next.
+ *
+ * Bets come from a {@link BetDistribution}. Latencies go to a {@link LatencyHistogram}
+ * for the whole run and to a fresh one every second, and both are reported.
+ */
+public final class LoadGenerator {
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    // Longest wait for admitted rounds to finish once arrivals stop
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    private final ShardedGameEngine engine;
+    private final BetDistribution bets;
+    private double rate = 1000;
+    private int clients = 1;
+    private int durationSeconds = 10;
+    private long seed;
+    private PrintStream progress;
+
+    public LoadGenerator(ShardedGameEngine engine, BetDistribution bets) {
+        this.engine = engine;
+        this.bets = bets;
+    }
+
+    /**
+     * Arrivals per second in open-loop mode.
+     */
+    public void setRate(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.rate = rate;
+    }
+
+    /**
+     * Concurrent clients in closed-loop mode.
+     */
+    public void setClients(int clients) {
+        if (clients <= 0) {
+            throw new IllegalArgumentException("Client count must be positive");
+        }
+        this.clients = clients;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * Seed of the bet draws.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Stream that receives one line per second while running, or null for none.
+     */
+    public void setProgress(PrintStream progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Counters and histograms of one run, recorded from the shard threads.
+     */
+    private final class Run {
+        final LatencyHistogram total = new LatencyHistogram();
+        final AtomicReference<LatencyHistogram> second = new AtomicReference<>(new LatencyHistogram());
+        final LongAdder offered = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final AtomicLong secondCompleted = new AtomicLong();
+        final AtomicLong secondRejected = new AtomicLong();
+        final List<LoadReport.Interval> intervals = new ArrayList<>();
+
+        void completed(long latency) {
+            total.record(latency);
+            second.get().record(latency);
+            completed.increment();
+            secondCompleted.incrementAndGet();
+        }
+
+        void rejected() {
+            rejected.increment();
+            secondRejected.incrementAndGet();
+        }
+
+        /**
+         * Closes the current second; a round recorded during the swap may land in either.
+         */
+        synchronized void tick() {
+            LatencyHistogram histogram = second.getAndSet(new LatencyHistogram());
+            LoadReport.Interval interval = new LoadReport.Interval();
+            interval.second = intervals.size() + 1;
+            interval.completed = secondCompleted.getAndSet(0);
+            interval.rejected = secondRejected.getAndSet(0);
+            interval.latencyMicros = quantiles(histogram);
+            intervals.add(interval);
+            if (progress != null) {
+                progress.printf("%4ds %10d rounds %8d rejected  p50 %8.0f us  p99 %8.0f us  max %8.0f us%n",
+                        interval.second, interval.completed, interval.rejected, interval.latencyMicros.get("p50"),
+                        interval.latencyMicros.get("p99"), interval.latencyMicros.get("max"));
+            }
+        }
+    }
+
+    /**
+     * Runs for the configured duration, then waits for admitted rounds to finish.
+     *
+     * @throws IllegalStateException when admitted rounds are still unfinished after the wait
+     */
+    public LoadReport run(Mode mode) throws InterruptedException {
+        Run run = new Run();
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        ticker.scheduleAtFixedRate(run::tick, 1, 1, TimeUnit.SECONDS);
+        try {
+            if (mode == Mode.OPEN) {
+                runOpen(run, start);
+            } else {
+                runClosed(run, start);
+            }
+        } finally {
+            ticker.shutdownNow();
+            ticker.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (run.secondCompleted.get() > 0 || run.secondRejected.get() > 0) {
+            run.tick();
+        }
+
+        LoadReport report = new LoadReport();
+        report.mode = mode.name().toLowerCase(Locale.ROOT);
+        report.durationSeconds = elapsed;
+        report.offered = run.offered.sum();
+        report.completed = run.completed.sum();
+        report.rejected = run.rejected.sum();
+        report.failed = run.failed.sum();
+        report.throughput = report.completed / elapsed;
+        report.meanLatencyMicros = run.total.getMean() / 1e3;
+        report.latencyMicros = quantiles(run.total);
+        report.perSecond = run.intervals;
+        return report;
+    }
+
+    private RoundCallback callback(Run run, long arrivalNanos, AtomicLong finished) {
+        return new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                run.completed(System.nanoTime() - arrivalNanos);
+                finished.incrementAndGet();
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                run.failed.increment();
+                finished.incrementAndGet();
+            }
+        };
+    }
+
+    private void runOpen(Run run, long start) throws InterruptedException {
+        Random random = new Random(seed);
+        long deadline = start + durationSeconds * 1_000_000_000L;
+        double interval = 1e9 / rate;
+        AtomicLong finished = new AtomicLong();
+        long admitted = 0;
+        try (ShardRouter router = engine.newRouter()) {
+            for (long i = 0; ; i++) {
+                long arrival = start + (long) (i * interval);
+                if (arrival >= deadline) {
+                    break;
+                }
+                // When behind schedule, send at once; latency still counts from the arrival
+                for (long now = System.nanoTime(); now < arrival; now = System.nanoTime()) {
+                    LockSupport.parkNanos(arrival - now);
+                }
+                run.offered.increment();
+                if (router.submit(bets.next(random), callback(run, arrival, finished)) == AdmissionStatus.ADMITTED) {
+                    admitted++;
+                } else {
+                    run.rejected();
+                }
+            }
+        }
+        awaitFinished(finished, admitted);
+    }
+
+    /**
+     * Reused by one closed-loop client for all its rounds; only one is ever outstanding, and
+     * the semaphore orders the write of {@code submitted} before the shard reads it.
+     */
+    private static final class ClientCallback implements RoundCallback {
+        private final Run run;
+        private final Semaphore done = new Semaphore(0);
+        private long submitted;
+
+        ClientCallback(Run run) {
+            this.run = run;
+        }
+
+        @Override
+        public void completed(GameResult result) {
+            run.completed(System.nanoTime() - submitted);
+            done.release();
+        }
+
+        @Override
+        public void failed(RuntimeException error) {
+            run.failed.increment();
+            done.release();
+        }
+    }
+
+    private void runClosed(Run run, long start) throws InterruptedException {
+        long deadline = start + durationSeconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            long client = c;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed + client);
+                ClientCallback callback = new ClientCallback(run);
+                try (ShardRouter router = engine.newRouter()) {
+                    while (System.nanoTime() < deadline) {
+                        run.offered.increment();
+                        callback.submitted = System.nanoTime();
+                        if (router.submit(client, bets.next(random), callback) == AdmissionStatus.ADMITTED) {
+                            callback.done.acquireUninterruptibly();
+                        } else {
+                            run.rejected();
+                            Thread.yield();
+                        }
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load client failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitFinished(AtomicLong finished, long admitted) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (finished.get() < admitted) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException((admitted - finished.get()) + " admitted rounds did not finish");
+            }
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    static Map<String, Double> quantiles(LatencyHistogram histogram) {
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        for (double q : QUANTILES) {
+            String label = String.valueOf(q * 100);
+            quantiles.put("p" + (label.endsWith(".0") ? label.substring(0, label.length() - 2) : label),
+                    histogram.getValueAtQuantile(q) / 1e3);
+        }
+        quantiles.put("max", histogram.getMax() / 1e3);
+        return quantiles;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("--config")) {
+            System.out.println("Usage: java -cp scratch-game.jar com.scratchgame.loadtest.LoadGenerator"
+                    + " --config <config-file> [--mode open|closed] [--rate <rounds/s>] [--clients <clients>]"
+                    + " [--duration <seconds>] [--bets fixed:1|uniform:1,10|lognormal:2,0.8|choice:1=70,5=30]"
+                    + " [--shards <shards>] [--queue-capacity <rounds>] [--admission on|off] [--seed <seed>]");
+            System.exit(1);
+        }
+
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            GameConfig config = mapper.readValue(new File(options.get("--config")), GameConfig.class);
+            Mode mode = Mode.valueOf(options.getOrDefault("--mode", "open").toUpperCase(Locale.ROOT));
+            long seed = Long.parseLong(options.getOrDefault("--seed", "0"));
+            AdmissionController admission = "on".equals(options.getOrDefault("--admission", "off"))
+                    ? new AdmissionController() : null;
+            try (ShardedGameEngine engine = new ShardedGameEngine(config,
+                    Integer.parseInt(options.getOrDefault("--shards", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                    Integer.parseInt(options.getOrDefault("--queue-capacity", String.valueOf(ShardedGameEngine.DEFAULT_QUEUE_CAPACITY))),
+                    seed, admission)) {
+                LoadGenerator generator = new LoadGenerator(engine, BetDistribution.parse(options.getOrDefault("--bets", "fixed:1")));
+                generator.setRate(Double.parseDouble(options.getOrDefault("--rate", "1000")));
+                generator.setClients(Integer.parseInt(options.getOrDefault("--clients", "1")));
+                generator.setDurationSeconds(Integer.parseInt(options.getOrDefault("--duration", "10")));
+                generator.setSeed(seed);
+                generator.setProgress(System.err);
+                LoadReport report = generator.run(mode);
+                System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } catch (IllegalArgumentException | IllegalStateException | ArithmeticException e) {
+            System.err.println("Load test error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
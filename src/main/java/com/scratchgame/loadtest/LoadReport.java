@@ -0,0 +1,130 @@
+package com.scratchgame.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency of one {@link LoadGenerator} run, in total and per second, in the
+ * snake_case JSON style of the simulation reports. Latencies are in microseconds.
+ */
+public class LoadReport {
+    String mode;
+
+    @JsonProperty("duration_seconds")
+    double durationSeconds;
+
+    long offered;
+
+    long completed;
+
+    long rejected;
+
+    long failed;
+
+    double throughput;
+
+    @JsonProperty("mean_latency_micros")
+    double meanLatencyMicros;
+
+    @JsonProperty("latency_micros")
+    Map<String, Double> latencyMicros;
+
+    @JsonProperty("per_second")
+    List<Interval> perSecond;
+
+    LoadReport() {
+    }
+
+    /**
+     * "open" or "closed".
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * Rounds submitted, whether admitted or not.
+     */
+    public long getOffered() {
+        return offered;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Rounds the engine turned away at submission.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Admitted rounds the game could not play.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Completed rounds per second.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getMeanLatencyMicros() {
+        return meanLatencyMicros;
+    }
+
+    /**
+     * Latency quantiles keyed p50, p90, p99, p99.9 and max.
+     */
+    public Map<String, Double> getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public List<Interval> getPerSecond() {
+        return perSecond;
+    }
+
+    /**
+     * One second of a run.
+     */
+    public static class Interval {
+        int second;
+
+        long completed;
+
+        long rejected;
+
+        @JsonProperty("latency_micros")
+        Map<String, Double> latencyMicros;
+
+        Interval() {
+        }
+
+        public int getSecond() {
+            return second;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public Map<String, Double> getLatencyMicros() {
+            return latencyMicros;
+        }
+    }
+}
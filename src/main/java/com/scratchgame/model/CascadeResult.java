@@ -0,0 +1,22 @@
+package com.scratchgame.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Result of a cascading round. The inherited matrix and winning combinations describe the
+ * first board, the reward is the sum over all steps, and each step records the board it
+ * paid on before its winning cells were cleared.
+ */
+public class CascadeResult extends GameResult {
+    @JsonProperty("cascade_steps")
+    private List<CascadeStep> cascadeSteps;
+
+    public List<CascadeStep> getCascadeSteps() {
+        return cascadeSteps;
+    }
+
+    public void setCascadeSteps(List<CascadeStep> cascadeSteps) {
+        this.cascadeSteps = cascadeSteps;
+    }
+}
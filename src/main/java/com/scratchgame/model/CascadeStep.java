@@ -0,0 +1,37 @@
+package com.scratchgame.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Map;
+
+public class CascadeStep {
+    private List<List<String>> matrix;
+    private double reward;
+    
+    @JsonProperty("applied_winning_combinations")
+    private Map<String, List<String>> appliedWinningCombinations;
+
+    public List<List<String>> getMatrix() {
+        return matrix;
+    }
+
+    public void setMatrix(List<List<String>> matrix) {
+        this.matrix = matrix;
+    }
+
+    public double getReward() {
+        return reward;
+    }
+
+    public void setReward(double reward) {
+        this.reward = reward;
+    }
+
+    public Map<String, List<String>> getAppliedWinningCombinations() {
+        return appliedWinningCombinations;
+    }
+
+    public void setAppliedWinningCombinations(Map<String, List<String>> appliedWinningCombinations) {
+        this.appliedWinningCombinations = appliedWinningCombinations;
+    }
+}
@@ -1,6 +1,8 @@
 package com.scratchgame.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +15,12 @@ public class GameConfig {
     private Map<String, WinCombination> winCombinations;
     
     private Probabilities probabilities;
+    
+    private EngineSettings engine;
+    
+    // Left out when absent so configs without a jackpot keep their checkpoint hash
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private JackpotSettings jackpot;
 
     public int getColumns() {
         return columns;
@@ -54,12 +62,31 @@ public class GameConfig {
         this.probabilities = probabilities;
     }
 
+    public EngineSettings getEngine() {
+        return engine;
+    }
+
+    public void setEngine(EngineSettings engine) {
+        this.engine = engine;
+    }
+
+    public JackpotSettings getJackpot() {
+        return jackpot;
+    }
+
+    public void setJackpot(JackpotSettings jackpot) {
+        this.jackpot = jackpot;
+    }
+
     public static class Probabilities {
         @JsonProperty("standard_symbols")
         private List<StandardSymbolProbability> standardSymbols;
         
         @JsonProperty("bonus_symbols")
         private BonusSymbolProbability bonusSymbols;
+        
+        @JsonProperty("reel_strips")
+        private List<List<String>> reelStrips;
 
         public List<StandardSymbolProbability> getStandardSymbols() {
             return standardSymbols;
@@ -76,6 +103,19 @@ public class GameConfig {
         public void setBonusSymbols(BonusSymbolProbability bonusSymbols) {
             this.bonusSymbols = bonusSymbols;
         }
+
+        /**
+         * One strip of standard symbols per column, or null to draw every cell from its
+         * {@code standard_symbols} weights. Each round stops every strip at a uniformly
+         * drawn position and the column shows the symbols from the stop downwards.
+         */
+        public List<List<String>> getReelStrips() {
+            return reelStrips;
+        }
+
+        public void setReelStrips(List<List<String>> reelStrips) {
+            this.reelStrips = reelStrips;
+        }
     }
 
     public static class StandardSymbolProbability {
@@ -119,4 +159,156 @@ public class GameConfig {
             this.symbols = symbols;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Optional evaluation settings; they change how fast a round is evaluated, not its outcome.
+     */
+    public static class EngineSettings {
+        public static final int DEFAULT_MONEY_SCALE = 2;
+        
+        @JsonProperty("payout_table")
+        private boolean payoutTable;
+        
+        @JsonProperty("payout_table_memory_mb")
+        private long payoutTableMemoryMb = 64;
+        
+        @JsonProperty("evaluation_cache")
+        private boolean evaluationCache;
+        
+        @JsonProperty("evaluation_cache_entries")
+        private int evaluationCacheEntries = 100_000;
+        
+        @JsonProperty("evaluation_cache_min_hit_rate")
+        private double evaluationCacheMinHitRate = 0.05;
+        
+        @JsonProperty("tiled_evaluation_min_cells")
+        private int tiledEvaluationMinCells = 250_000;
+        
+        @JsonProperty("tile_size")
+        private int tileSize = 128;
+        
+        @JsonProperty("money_scale")
+        private int moneyScale = DEFAULT_MONEY_SCALE;
+        
+        @JsonProperty("rounding")
+        private RoundingMode rounding = RoundingMode.HALF_EVEN;
+
+        public boolean isPayoutTable() {
+            return payoutTable;
+        }
+
+        public void setPayoutTable(boolean payoutTable) {
+            this.payoutTable = payoutTable;
+        }
+
+        public long getPayoutTableMemoryMb() {
+            return payoutTableMemoryMb;
+        }
+
+        public void setPayoutTableMemoryMb(long payoutTableMemoryMb) {
+            this.payoutTableMemoryMb = payoutTableMemoryMb;
+        }
+
+        public boolean isEvaluationCache() {
+            return evaluationCache;
+        }
+
+        public void setEvaluationCache(boolean evaluationCache) {
+            this.evaluationCache = evaluationCache;
+        }
+
+        public int getEvaluationCacheEntries() {
+            return evaluationCacheEntries;
+        }
+
+        public void setEvaluationCacheEntries(int evaluationCacheEntries) {
+            this.evaluationCacheEntries = evaluationCacheEntries;
+        }
+
+        public double getEvaluationCacheMinHitRate() {
+            return evaluationCacheMinHitRate;
+        }
+
+        public void setEvaluationCacheMinHitRate(double evaluationCacheMinHitRate) {
+            this.evaluationCacheMinHitRate = evaluationCacheMinHitRate;
+        }
+
+        public int getTiledEvaluationMinCells() {
+            return tiledEvaluationMinCells;
+        }
+
+        public void setTiledEvaluationMinCells(int tiledEvaluationMinCells) {
+            this.tiledEvaluationMinCells = tiledEvaluationMinCells;
+        }
+
+        public int getTileSize() {
+            return tileSize;
+        }
+
+        public void setTileSize(int tileSize) {
+            this.tileSize = tileSize;
+        }
+
+        public int getMoneyScale() {
+            return moneyScale;
+        }
+
+        public void setMoneyScale(int moneyScale) {
+            this.moneyScale = moneyScale;
+        }
+
+        public RoundingMode getRounding() {
+            return rounding;
+        }
+
+        public void setRounding(RoundingMode rounding) {
+            this.rounding = rounding;
+        }
+    }
+
+    public static class JackpotSettings {
+        @JsonProperty("contribution_percent")
+        private double contributionPercent = 1.0;
+        
+        @JsonProperty("seed_amount")
+        private double seedAmount;
+        
+        @JsonProperty("trigger_bonus_symbol")
+        private String triggerBonusSymbol;
+        
+        @JsonProperty("trigger_combination")
+        private String triggerCombination;
+
+        public double getContributionPercent() {
+            return contributionPercent;
+        }
+
+        public void setContributionPercent(double contributionPercent) {
+            this.contributionPercent = contributionPercent;
+        }
+
+        public double getSeedAmount() {
+            return seedAmount;
+        }
+
+        public void setSeedAmount(double seedAmount) {
+            this.seedAmount = seedAmount;
+        }
+
+        public String getTriggerBonusSymbol() {
+            return triggerBonusSymbol;
+        }
+
+        public void setTriggerBonusSymbol(String triggerBonusSymbol) {
+            this.triggerBonusSymbol = triggerBonusSymbol;
+        }
+
+        public String getTriggerCombination() {
+            return triggerCombination;
+        }
+
+        public void setTriggerCombination(String triggerCombination) {
+            this.triggerCombination = triggerCombination;
+        }
+    }
+}
\ No newline at end of file
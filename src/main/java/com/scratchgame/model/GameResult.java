@@ -1,5 +1,6 @@
 package com.scratchgame.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,10 @@ public class GameResult {
     
     @JsonProperty("applied_bonus_symbol")
     private String appliedBonusSymbol;
+    
+    // Jackpot won this round, included in the reward; absent when none was won
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double jackpot;
 
     public List<List<String>> getMatrix() {
         return matrix;
@@ -45,4 +50,12 @@ public class GameResult {
     public void setAppliedBonusSymbol(String appliedBonusSymbol) {
         this.appliedBonusSymbol = appliedBonusSymbol;
     }
+
+    public Double getJackpot() {
+        return jackpot;
+    }
+
+    public void setJackpot(Double jackpot) {
+        this.jackpot = jackpot;
+    }
 } 
\ No newline at end of file
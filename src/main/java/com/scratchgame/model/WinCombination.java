@@ -10,6 +10,7 @@ public class WinCombination {
     private String when;
     private Integer count;
     private String group;
+    private String direction;
     
     @JsonProperty("covered_areas")
     private List<List<String>> coveredAreas;
@@ -46,6 +47,14 @@ public class WinCombination {
         this.group = group;
     }
 
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
     public List<List<String>> getCoveredAreas() {
         return coveredAreas;
     }
@@ -0,0 +1,36 @@
+package com.scratchgame.model.runtime;
+
+/**
+ * The {@code impact} of a bonus symbol on the reward of a winning round.
+ */
+public enum BonusImpact {
+    MULTIPLY_REWARD("multiply_reward"),
+    EXTRA_BONUS("extra_bonus"),
+    MISS("miss");
+
+    private final String configValue;
+
+    BonusImpact(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public String getConfigValue() {
+        return configValue;
+    }
+
+    /**
+     * @throws IllegalStateException for a missing or unknown impact, as raised when such a
+     *         bonus was drawn before the model was compiled up front
+     */
+    public static BonusImpact fromConfig(String symbol, String value) {
+        if (value == null) {
+            throw new IllegalStateException("Bonus symbol impact not defined: " + symbol);
+        }
+        for (BonusImpact impact : values()) {
+            if (impact.configValue.equals(value)) {
+                return impact;
+            }
+        }
+        throw new IllegalStateException("Unknown bonus impact type: " + value);
+    }
+}
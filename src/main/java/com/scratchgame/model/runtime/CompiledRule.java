@@ -0,0 +1,74 @@
+package com.scratchgame.model.runtime;
+
+import com.scratchgame.evaluation.LineDirection;
+
+/**
+ * Immutable runtime form of a win combination, with covered areas resolved to row-major
+ * cell indices.
+ */
+public final class CompiledRule {
+    private static final int[][] NO_AREAS = new int[0][];
+
+    private final int id;
+    private final String name;
+    private final RuleKind kind;
+    private final double rewardMultiplier;
+    private final int threshold;
+    private final LineDirection direction;
+    private final int[][] areas;
+
+    CompiledRule(int id, String name, RuleKind kind, double rewardMultiplier, int threshold,
+                 LineDirection direction, int[][] areas) {
+        this.id = id;
+        this.name = name;
+        this.kind = kind;
+        this.rewardMultiplier = rewardMultiplier;
+        this.threshold = threshold;
+        this.direction = direction;
+        this.areas = areas != null ? areas : NO_AREAS;
+    }
+
+    /**
+     * Position in config order, which is also the rule's bit in fired-rule masks.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RuleKind getKind() {
+        return kind;
+    }
+
+    public double getRewardMultiplier() {
+        return rewardMultiplier;
+    }
+
+    /**
+     * Symbol count for {@link RuleKind#SAME_SYMBOLS}, run length for {@link RuleKind#LINE_RUN}.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Line direction of a {@link RuleKind#LINE_RUN} rule, null otherwise.
+     */
+    public LineDirection getDirection() {
+        return direction;
+    }
+
+    public int getAreaCount() {
+        return areas.length;
+    }
+
+    /**
+     * Cells of a covered area; shared, callers must not modify it.
+     */
+    public int[] getAreaCells(int area) {
+        return areas[area];
+    }
+}
@@ -0,0 +1,59 @@
+package com.scratchgame.model.runtime;
+
+/**
+ * Immutable runtime form of a configured symbol.
+ */
+public final class CompiledSymbol {
+    private final int id;
+    private final String name;
+    private final SymbolType type;
+    private final double rewardMultiplier;
+    private final double extra;
+    private final BonusImpact impact;
+
+    CompiledSymbol(int id, String name, SymbolType type, double rewardMultiplier, double extra, BonusImpact impact) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.rewardMultiplier = rewardMultiplier;
+        this.extra = extra;
+        this.impact = impact;
+    }
+
+    /**
+     * Dense id in config order.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SymbolType getType() {
+        return type;
+    }
+
+    public boolean isStandard() {
+        return type == SymbolType.STANDARD;
+    }
+
+    public double getRewardMultiplier() {
+        return rewardMultiplier;
+    }
+
+    /**
+     * Amount added by an {@link BonusImpact#EXTRA_BONUS} symbol, 0 when not configured.
+     */
+    public double getExtra() {
+        return extra;
+    }
+
+    /**
+     * Impact of a bonus symbol, null for standard symbols.
+     */
+    public BonusImpact getImpact() {
+        return impact;
+    }
+}
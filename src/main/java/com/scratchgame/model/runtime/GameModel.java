@@ -0,0 +1,289 @@
+package com.scratchgame.model.runtime;
+
+import com.scratchgame.evaluation.LineDirection;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinCombination;
+
+import java.util.*;
+
+/**
+ * Immutable runtime model compiled from a parsed {@link GameConfig}.
+ *
+ * The Jackson beans are validated once here and turned into final objects whose type,
+ * rule kind and bonus impact are enums, so the game never branches on configuration
+ * strings while playing. Later changes to the beans do not affect a compiled model.
+ */
+public final class GameModel {
+    private final int rows;
+    private final int columns;
+    private final CompiledSymbol[] symbols;
+    private final CompiledRule[] rules;
+    private final Map<String, CompiledSymbol> symbolsByName;
+    private final Map<String, CompiledRule> rulesByName;
+    private final boolean lineTemplates;
+    // Symbol ids of each column's reel strip, or null in per-cell weight mode
+    private final int[][] reelStrips;
+    // Per cell, the standard symbol weights it draws from, or null for none
+    private final List<Map<String, Integer>> cellWeights;
+
+    /**
+     * @throws IllegalArgumentException for an invalid board, symbol or win combination
+     * @throws IllegalStateException for an invalid covered area position or bonus symbol
+     */
+    public GameModel(GameConfig config) {
+        validate(config);
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
+
+        // Dense symbol ids in config order
+        Map<String, Symbol> configSymbols = config.getSymbols();
+        this.symbols = new CompiledSymbol[configSymbols.size()];
+        Map<String, CompiledSymbol> byName = new HashMap<>();
+        int id = 0;
+        for (Map.Entry<String, Symbol> entry : configSymbols.entrySet()) {
+            symbols[id] = compileSymbol(id, entry.getKey(), entry.getValue());
+            byName.put(entry.getKey(), symbols[id]);
+            id++;
+        }
+        this.symbolsByName = Collections.unmodifiableMap(byName);
+
+        Map<String, WinCombination> combinations = config.getWinCombinations();
+        if (combinations.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " win combinations are supported");
+        }
+        this.rules = new CompiledRule[combinations.size()];
+        Map<String, CompiledRule> rulesByName = new HashMap<>();
+        boolean anyLineTemplate = false;
+        int rule = 0;
+        for (Map.Entry<String, WinCombination> entry : combinations.entrySet()) {
+            rules[rule] = compileRule(rule, entry.getKey(), entry.getValue());
+            rulesByName.put(entry.getKey(), rules[rule]);
+            anyLineTemplate |= rules[rule].getKind() == RuleKind.LINE_RUN;
+            rule++;
+        }
+        this.rulesByName = Collections.unmodifiableMap(rulesByName);
+        this.lineTemplates = anyLineTemplate;
+        this.reelStrips = compileReelStrips(config.getProbabilities().getReelStrips());
+        this.cellWeights = compileCellWeights(config.getProbabilities().getStandardSymbols());
+    }
+
+    private static void validate(GameConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Game configuration cannot be null");
+        }
+        if (config.getRows() <= 0 || config.getColumns() <= 0) {
+            throw new IllegalArgumentException("Matrix dimensions must be positive");
+        }
+        if (config.getSymbols() == null || config.getSymbols().isEmpty()) {
+            throw new IllegalArgumentException("Game must have at least one symbol");
+        }
+        if (config.getWinCombinations() == null || config.getWinCombinations().isEmpty()) {
+            throw new IllegalArgumentException("Game must have at least one winning combination");
+        }
+        if (config.getProbabilities() == null ||
+            (config.getProbabilities().getReelStrips() == null &&
+             (config.getProbabilities().getStandardSymbols() == null ||
+              config.getProbabilities().getStandardSymbols().isEmpty()))) {
+            throw new IllegalArgumentException("Game must have probability configurations");
+        }
+    }
+
+    /**
+     * Resolves the weights of every cell. A cell without an entry of its own draws from the
+     * weights of cell 0:0, as boards always have.
+     */
+    private List<Map<String, Integer>> compileCellWeights(List<GameConfig.StandardSymbolProbability> probabilities) {
+        Map<String, Map<String, Integer>> configured = new HashMap<>();
+        if (probabilities != null) {
+            for (GameConfig.StandardSymbolProbability probability : probabilities) {
+                if (probability.getSymbols() != null) {
+                    configured.put(probability.getRow() + ":" + probability.getColumn(),
+                            Collections.unmodifiableMap(new LinkedHashMap<>(probability.getSymbols())));
+                }
+            }
+        }
+        List<Map<String, Integer>> weights = new ArrayList<>(getCellCount());
+        for (int cell = 0; cell < getCellCount(); cell++) {
+            Map<String, Integer> cellWeights = configured.get(cell / columns + ":" + cell % columns);
+            weights.add(cellWeights != null ? cellWeights : configured.get("0:0"));
+        }
+        return Collections.unmodifiableList(weights);
+    }
+
+    private int[][] compileReelStrips(List<List<String>> strips) {
+        if (strips == null) {
+            return null;
+        }
+        if (strips.size() != columns) {
+            throw new IllegalArgumentException("Expected one reel strip per column (" + columns + "), got " + strips.size());
+        }
+        int[][] compiled = new int[columns][];
+        for (int column = 0; column < columns; column++) {
+            List<String> strip = strips.get(column);
+            if (strip == null || strip.isEmpty()) {
+                throw new IllegalArgumentException("Reel strip " + column + " is empty");
+            }
+            compiled[column] = new int[strip.size()];
+            for (int position = 0; position < compiled[column].length; position++) {
+                CompiledSymbol symbol = symbolsByName.get(strip.get(position));
+                if (symbol == null || !symbol.isStandard()) {
+                    throw new IllegalArgumentException("Reel strip " + column + " has unknown standard symbol: " + strip.get(position));
+                }
+                compiled[column][position] = symbol.getId();
+            }
+        }
+        return compiled;
+    }
+
+    private static CompiledSymbol compileSymbol(int id, String name, Symbol symbol) {
+        SymbolType type = SymbolType.fromConfig(symbol.getType());
+        double extra = symbol.getExtra() != null ? symbol.getExtra() : 0;
+        if (type == SymbolType.STANDARD) {
+            return new CompiledSymbol(id, name, type, symbol.getRewardMultiplier(), extra, null);
+        }
+
+        BonusImpact impact = BonusImpact.fromConfig(name, symbol.getImpact());
+        if (impact == BonusImpact.MULTIPLY_REWARD && symbol.getRewardMultiplier() <= 0) {
+            throw new IllegalStateException("Invalid bonus multiplier for symbol: " + name);
+        }
+        if (impact == BonusImpact.EXTRA_BONUS && (symbol.getExtra() == null || symbol.getExtra() < 0)) {
+            throw new IllegalStateException("Invalid extra bonus for symbol: " + name);
+        }
+        return new CompiledSymbol(id, name, type, symbol.getRewardMultiplier(), extra, impact);
+    }
+
+    private CompiledRule compileRule(int id, String name, WinCombination combination) {
+        if ("same_symbols".equals(combination.getWhen())) {
+            if (combination.getCount() == null) {
+                throw new IllegalArgumentException("Win combination " + name + " needs a count");
+            }
+            return new CompiledRule(id, name, RuleKind.SAME_SYMBOLS, combination.getRewardMultiplier(),
+                    combination.getCount(), null, null);
+        }
+        if (!"linear_symbols".equals(combination.getWhen())) {
+            throw new IllegalArgumentException("Win combination " + name + " has unknown type: " + combination.getWhen());
+        }
+
+        if (combination.getDirection() != null) {
+            LineDirection direction = LineDirection.fromConfig(combination.getDirection());
+            if (combination.getCoveredAreas() != null) {
+                throw new IllegalArgumentException("Win combination " + name + " cannot define both direction and covered_areas");
+            }
+            if (combination.getCount() == null || combination.getCount() < 1) {
+                throw new IllegalArgumentException("Win combination " + name + " needs a positive run length in count");
+            }
+            return new CompiledRule(id, name, RuleKind.LINE_RUN, combination.getRewardMultiplier(),
+                    combination.getCount(), direction, null);
+        }
+
+        int[][] areas = null;
+        if (combination.getCoveredAreas() != null) {
+            areas = new int[combination.getCoveredAreas().size()][];
+            for (int area = 0; area < areas.length; area++) {
+                areas[area] = parseArea(combination.getCoveredAreas().get(area));
+            }
+        }
+        return new CompiledRule(id, name, RuleKind.COVERED_AREAS, combination.getRewardMultiplier(), 0, null, areas);
+    }
+
+    private int[] parseArea(List<String> area) {
+        int[] cells = new int[area.size()];
+        for (int i = 0; i < cells.length; i++) {
+            String position = area.get(i);
+            String[] coords = position.split(":");
+            if (coords.length != 2) {
+                throw new IllegalStateException("Invalid position format: " + position);
+            }
+            int row;
+            int col;
+            try {
+                row = Integer.parseInt(coords[0]);
+                col = Integer.parseInt(coords[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid position format: " + position);
+            }
+            if (row < 0 || row >= rows || col < 0 || col >= columns) {
+                throw new IllegalStateException("Position out of bounds: " + position);
+            }
+            cells[i] = row * columns + col;
+        }
+        return cells;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellCount() {
+        return rows * columns;
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public CompiledSymbol getSymbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * @return the symbol with this name, or null when it is not configured
+     */
+    public CompiledSymbol findSymbol(String name) {
+        return symbolsByName.get(name);
+    }
+
+    public int getRuleCount() {
+        return rules.length;
+    }
+
+    public CompiledRule getRule(int id) {
+        return rules[id];
+    }
+
+    /**
+     * @return the win combination with this name, or null when it is not configured
+     */
+    public CompiledRule findRule(String name) {
+        return rulesByName.get(name);
+    }
+
+    /**
+     * True when some win combination is a run template with a direction.
+     */
+    public boolean hasLineTemplates() {
+        return lineTemplates;
+    }
+
+    /**
+     * True when boards are drawn from reel strips rather than per-cell weights.
+     */
+    public boolean hasReelStrips() {
+        return reelStrips != null;
+    }
+
+    /**
+     * Standard symbol weights a cell draws from, in config order; cells sharing weights get
+     * the same map. Null when neither the cell nor cell 0:0 has any.
+     */
+    public Map<String, Integer> getCellWeights(int cell) {
+        return cellWeights.get(cell);
+    }
+
+    public int getReelStripLength(int column) {
+        return reelStrips[column].length;
+    }
+
+    /**
+     * Symbol id at a position of a column's reel strip; positions wrap around the strip.
+     */
+    public int getReelSymbol(int column, int position) {
+        int[] strip = reelStrips[column];
+        return strip[Math.floorMod(position, strip.length)];
+    }
+}
@@ -0,0 +1,13 @@
+package com.scratchgame.model.runtime;
+
+/**
+ * How a win combination is evaluated.
+ */
+public enum RuleKind {
+    /** {@code same_symbols}: at least {@code count} cells hold the symbol. */
+    SAME_SYMBOLS,
+    /** {@code linear_symbols} with {@code covered_areas}: every cell of an area holds the symbol. */
+    COVERED_AREAS,
+    /** {@code linear_symbols} with a {@code direction}: a run of {@code count} cells on a line. */
+    LINE_RUN
+}
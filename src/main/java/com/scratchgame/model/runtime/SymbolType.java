@@ -0,0 +1,28 @@
+package com.scratchgame.model.runtime;
+
+/**
+ * The {@code type} of a configured symbol.
+ */
+public enum SymbolType {
+    STANDARD("standard"),
+    BONUS("bonus");
+
+    private final String configValue;
+
+    SymbolType(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public String getConfigValue() {
+        return configValue;
+    }
+
+    public static SymbolType fromConfig(String value) {
+        for (SymbolType type : values()) {
+            if (type.configValue.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown symbol type: " + value);
+    }
+}
@@ -0,0 +1,109 @@
+package com.scratchgame.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on {@code long} values that carry an implied power-of-ten scale.
+ *
+ * Every operation is exact or rounds once with an explicit {@link RoundingMode}, and
+ * overflow raises {@link ArithmeticException} instead of silently wrapping.
+ */
+public final class FixedPoint {
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 10^digits, the scale of a value with {@code digits} decimal places.
+     */
+    public static long scaleOf(int digits) {
+        if (digits < 0 || digits > 18) {
+            throw new IllegalArgumentException("Unsupported number of decimal places: " + digits);
+        }
+        long scale = 1;
+        for (int i = 0; i < digits; i++) {
+            scale *= 10;
+        }
+        return scale;
+    }
+
+    /**
+     * Converts a double to a fixed-point value with {@code digits} decimal places. The double
+     * is read as its shortest decimal representation, so 1.2 becomes exactly 1.200000.
+     *
+     * @throws ArithmeticException if the value is not finite or does not fit a long
+     */
+    public static long fromDouble(double value, int digits, RoundingMode rounding) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Value is not finite: " + value);
+        }
+        return BigDecimal.valueOf(value).movePointRight(digits).setScale(0, rounding).longValueExact();
+    }
+
+    public static double toDouble(long value, long scale) {
+        return (double) value / scale;
+    }
+
+    /**
+     * {@code value * multiplier / scale}, where the multiplier carries {@code scale}.
+     *
+     * @throws ArithmeticException if the result does not fit a long
+     */
+    public static long multiply(long value, long multiplier, long scale, RoundingMode rounding) {
+        long product;
+        try {
+            product = Math.multiplyExact(value, multiplier);
+        } catch (ArithmeticException e) {
+            // Only the intermediate product overflows often; the scaled result may still fit
+            return new BigDecimal(BigInteger.valueOf(value).multiply(BigInteger.valueOf(multiplier)))
+                    .divide(BigDecimal.valueOf(scale), 0, rounding)
+                    .longValueExact();
+        }
+        return divide(product, scale, rounding);
+    }
+
+    /**
+     * Divides by a positive divisor, rounding the quotient with the given mode.
+     */
+    public static long divide(long value, long divisor, RoundingMode rounding) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = value < 0 ? -1 : 1;
+        // Compare the discarded fraction with one half without overflowing
+        long absRemainder = Math.abs(remainder);
+        int half = Long.compare(absRemainder, divisor - absRemainder);
+        boolean awayFromZero;
+        switch (rounding) {
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = half >= 0;
+                break;
+            case HALF_DOWN:
+                awayFromZero = half > 0;
+                break;
+            case HALF_EVEN:
+                awayFromZero = half > 0 || (half == 0 && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
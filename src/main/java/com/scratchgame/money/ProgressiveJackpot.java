@@ -0,0 +1,226 @@
+package com.scratchgame.money;
+
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+
+import java.io.*;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Progressive jackpot pool shared by every game of a server. Each round contributes a
+ * configured percentage of its bet. A round that applies the trigger bonus symbol or the
+ * trigger win combination wins the whole pool, which is then reset to the seed amount.
+ *
+ * Contributions go to a {@link LongAdder}, so rounds on different threads add to separate
+ * cells and never wait for each other. The pool is the seed plus all contributions minus
+ * all payouts. A payout takes a lock, since triggers are rare. It pays whatever the pool
+ * holds at that moment, so each contribution is paid out exactly once even when triggers
+ * race. The pool is kept in units of 1/10000 of a minor unit, so small contributions are
+ * not rounded away. Payouts are whole minor units, and the remainder stays in the pool.
+ *
+ * {@link #save} writes the pool to a file atomically, and {@link #restore} reads it back
+ * after a restart.
+ */
+public final class ProgressiveJackpot {
+    // Pool units per minor unit, and decimal places of the contribution percentage
+    private static final int FRACTION_DIGITS = 4;
+    private static final long FRACTION_SCALE = FixedPoint.scaleOf(FRACTION_DIGITS);
+    private static final int MAGIC = 0x534A4B50;
+    private static final int VERSION = 1;
+
+    private final int minorDigits;
+    private final long minorScale;
+    private final RoundingMode rounding;
+    private final long contributionRate;
+    private final long seedUnits;
+    private final String triggerBonusSymbol;
+    private final String triggerCombination;
+
+    private final LongAdder contributed = new LongAdder();
+    // Guarded by this; base holds the seeds, paid what has been paid out, both in pool units
+    private long base;
+    private long paid;
+    private long payouts;
+
+    /**
+     * @throws IllegalArgumentException if the config has no jackpot, the percentage is not
+     *                                  between 0 and 100, the seed is negative, or no trigger
+     *                                  names a bonus symbol or win combination of the game
+     */
+    public ProgressiveJackpot(GameConfig config) {
+        GameConfig.JackpotSettings settings = config.getJackpot();
+        if (settings == null) {
+            throw new IllegalArgumentException("Game configuration has no jackpot");
+        }
+        GameConfig.EngineSettings engine = config.getEngine();
+        this.minorDigits = engine != null ? engine.getMoneyScale() : GameConfig.EngineSettings.DEFAULT_MONEY_SCALE;
+        this.minorScale = FixedPoint.scaleOf(minorDigits);
+        this.rounding = engine != null ? engine.getRounding() : RoundingMode.HALF_EVEN;
+
+        double percent = settings.getContributionPercent();
+        if (!(percent >= 0 && percent <= 100)) {
+            throw new IllegalArgumentException("Jackpot contribution must be between 0 and 100 percent: " + percent);
+        }
+        this.contributionRate = FixedPoint.fromDouble(percent, FRACTION_DIGITS, rounding);
+        if (!(settings.getSeedAmount() >= 0)) {
+            throw new IllegalArgumentException("Jackpot seed amount must not be negative");
+        }
+        this.seedUnits = Math.multiplyExact(FixedPoint.fromDouble(settings.getSeedAmount(), minorDigits, rounding), FRACTION_SCALE);
+
+        this.triggerBonusSymbol = settings.getTriggerBonusSymbol();
+        this.triggerCombination = settings.getTriggerCombination();
+        if (triggerBonusSymbol == null && triggerCombination == null) {
+            throw new IllegalArgumentException("Jackpot needs a trigger bonus symbol or trigger combination");
+        }
+        if (triggerBonusSymbol != null) {
+            Symbol symbol = config.getSymbols().get(triggerBonusSymbol);
+            if (symbol == null || !"bonus".equals(symbol.getType())) {
+                throw new IllegalArgumentException("Jackpot trigger is not a bonus symbol: " + triggerBonusSymbol);
+            }
+        }
+        if (triggerCombination != null && !config.getWinCombinations().containsKey(triggerCombination)) {
+            throw new IllegalArgumentException("Jackpot trigger is not a win combination: " + triggerCombination);
+        }
+        this.base = seedUnits;
+    }
+
+    /**
+     * Adds the configured share of a bet to the pool.
+     */
+    public void contribute(long betMinor) {
+        contributed.add(Math.multiplyExact(betMinor, contributionRate) / 100);
+    }
+
+    /**
+     * Whether a round with these winning combinations and applied bonus symbol wins the pool.
+     */
+    public boolean isTriggeredBy(Map<String, List<String>> winningCombinations, String bonusSymbol) {
+        if (triggerBonusSymbol != null && triggerBonusSymbol.equals(bonusSymbol)) {
+            return true;
+        }
+        if (triggerCombination != null && winningCombinations != null) {
+            for (List<String> combinations : winningCombinations.values()) {
+                if (combinations.contains(triggerCombination)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pays out the pool in whole minor units and reseeds it.
+     *
+     * @return the amount won, in minor units
+     */
+    public synchronized long payOut() {
+        long won = (base + contributed.sum() - paid) / FRACTION_SCALE;
+        paid += won * FRACTION_SCALE;
+        base += seedUnits;
+        payouts++;
+        return won;
+    }
+
+    /**
+     * Current pool in major units.
+     */
+    public synchronized double getPool() {
+        return FixedPoint.toDouble((base + contributed.sum() - paid) / FRACTION_SCALE, minorScale);
+    }
+
+    public synchronized long getPayouts() {
+        return payouts;
+    }
+
+    /**
+     * Total paid out in major units since the pool was created or restored.
+     */
+    public synchronized double getTotalPaid() {
+        return FixedPoint.toDouble(paid / FRACTION_SCALE, minorScale);
+    }
+
+    public int getMinorDigits() {
+        return minorDigits;
+    }
+
+    /**
+     * Writes the pool and payout count, replacing any previous file atomically.
+     */
+    public void save(Path file) throws IOException {
+        long pool;
+        long count;
+        synchronized (this) {
+            pool = base + contributed.sum() - paid;
+            count = payouts;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(minorDigits);
+        out.writeLong(pool);
+        out.writeLong(count);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Replaces the pool and payout count with those saved in {@code file}. Contributions
+     * made before the restore are discarded, so call it before play starts.
+     *
+     * @return false, leaving the pool unchanged, when the file does not exist
+     * @throws IllegalStateException if the file is corrupt or was saved with another money scale
+     */
+    public boolean restore(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < Long.BYTES) {
+            throw new IllegalStateException("Jackpot state " + file + " is corrupt");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong()) {
+            throw new IllegalStateException("Jackpot state " + file + " is corrupt");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IllegalStateException("Jackpot state " + file + " is corrupt");
+        }
+        if (in.readInt() != minorDigits) {
+            throw new IllegalStateException("Jackpot state " + file + " was saved with another money scale");
+        }
+        long pool = in.readLong();
+        long count = in.readLong();
+        synchronized (this) {
+            base = pool;
+            paid = 0;
+            contributed.reset();
+            payouts = count;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+package com.scratchgame.money;
+
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.BonusImpact;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Computes rewards in {@code long} minor units (cents for two decimal places).
+ *
+ * Every symbol and win combination multiplier is scaled to {@value #MULTIPLIER_DIGITS}
+ * decimal places once, at load time, and kept with its trailing zeros stripped. A reward is
+ * the bet times the exact product of those multipliers, rounded once to minor units with the
+ * configured rounding mode, so payouts such as 100 x 1.2 x 1.5 come out as exactly 180.00.
+ * The product stays in a {@code long} while it fits and falls back to {@link BigDecimal}
+ * otherwise. Overflow of the reward itself raises {@link ArithmeticException}.
+ */
+public final class RewardCalculator {
+    public static final int MULTIPLIER_DIGITS = 6;
+    private static final long MULTIPLIER_SCALE = FixedPoint.scaleOf(MULTIPLIER_DIGITS);
+    private static final int MAX_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+
+    static {
+        for (int digits = 0; digits <= MAX_DIGITS; digits++) {
+            POWERS_OF_TEN[digits] = FixedPoint.scaleOf(digits);
+        }
+    }
+
+    private final RuleIndex index;
+    private final int minorDigits;
+    private final long minorScale;
+    private final RoundingMode rounding;
+    private final long[] symbolMultipliers;
+    private final long[] symbolExtras;
+    // Multipliers as unscaled value and decimal places, with trailing zeros stripped
+    private final long[] symbolUnscaled;
+    private final int[] symbolDigits;
+    private final long[] ruleUnscaled;
+    private final int[] ruleDigits;
+
+    /**
+     * @throws ArithmeticException if a multiplier or extra does not fit the fixed-point range
+     */
+    public RewardCalculator(GameConfig config, RuleIndex index) {
+        GameConfig.EngineSettings engine = config.getEngine();
+        this.index = index;
+        this.minorDigits = engine != null ? engine.getMoneyScale() : GameConfig.EngineSettings.DEFAULT_MONEY_SCALE;
+        this.minorScale = FixedPoint.scaleOf(minorDigits);
+        this.rounding = engine != null ? engine.getRounding() : RoundingMode.HALF_EVEN;
+
+        int symbols = index.getSymbolCount();
+        this.symbolMultipliers = new long[symbols];
+        this.symbolExtras = new long[symbols];
+        this.symbolUnscaled = new long[symbols];
+        this.symbolDigits = new int[symbols];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            String name = index.getSymbolName(symbol);
+            symbolMultipliers[symbol] = scaleMultiplier(index.getSymbolMultiplier(symbol), "symbol " + name);
+            symbolExtras[symbol] = toMinor(index.getModel().getSymbol(symbol).getExtra());
+            symbolDigits[symbol] = strip(symbolMultipliers[symbol], symbolUnscaled, symbol);
+        }
+        int rules = index.getRuleCount();
+        this.ruleUnscaled = new long[rules];
+        this.ruleDigits = new int[rules];
+        for (int rule = 0; rule < rules; rule++) {
+            long scaled = scaleMultiplier(index.getRuleMultiplier(rule), "win combination " + index.getRuleName(rule));
+            ruleDigits[rule] = strip(scaled, ruleUnscaled, rule);
+        }
+    }
+
+    /**
+     * Stores the multiplier without trailing zeros at {@code unscaled[slot]}, so that
+     * products of typical multipliers such as 5 x 1.5 stay small.
+     *
+     * @return the decimal places left
+     */
+    private static int strip(long scaled, long[] unscaled, int slot) {
+        int digits = MULTIPLIER_DIGITS;
+        while (digits > 0 && scaled % 10 == 0) {
+            scaled /= 10;
+            digits--;
+        }
+        unscaled[slot] = scaled;
+        return digits;
+    }
+
+    private long scaleMultiplier(double multiplier, String owner) {
+        try {
+            return FixedPoint.fromDouble(multiplier, MULTIPLIER_DIGITS, rounding);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Reward multiplier out of range for " + owner + ": " + multiplier);
+        }
+    }
+
+    /**
+     * Converts an amount such as a bet to minor units with the configured rounding.
+     */
+    public long toMinor(double amount) {
+        return FixedPoint.fromDouble(amount, minorDigits, rounding);
+    }
+
+    public double toMajor(long minorUnits) {
+        return FixedPoint.toDouble(minorUnits, minorScale);
+    }
+
+    /**
+     * Reward of one winning symbol: bet x symbol multiplier x the multiplier of every rule
+     * in {@code firedRules}, rounded once.
+     */
+    public long reward(long betMinor, int symbol, long firedRules) {
+        long product = betMinor;
+        int digits = symbolDigits[symbol];
+        try {
+            product = Math.multiplyExact(product, symbolUnscaled[symbol]);
+            long mask = firedRules;
+            while (mask != 0) {
+                int rule = Long.numberOfTrailingZeros(mask);
+                product = Math.multiplyExact(product, ruleUnscaled[rule]);
+                digits += ruleDigits[rule];
+                mask &= mask - 1;
+            }
+        } catch (ArithmeticException e) {
+            return exactReward(betMinor, symbol, firedRules);
+        }
+        if (digits > MAX_DIGITS) {
+            return exactReward(betMinor, symbol, firedRules);
+        }
+        return FixedPoint.divide(product, POWERS_OF_TEN[digits], rounding);
+    }
+
+    /**
+     * The same product in {@link BigDecimal}, for when it does not fit a {@code long}.
+     */
+    private long exactReward(long betMinor, int symbol, long firedRules) {
+        BigDecimal product = BigDecimal.valueOf(betMinor)
+                .multiply(BigDecimal.valueOf(symbolUnscaled[symbol], symbolDigits[symbol]));
+        long mask = firedRules;
+        while (mask != 0) {
+            int rule = Long.numberOfTrailingZeros(mask);
+            product = product.multiply(BigDecimal.valueOf(ruleUnscaled[rule], ruleDigits[rule]));
+            mask &= mask - 1;
+        }
+        return product.setScale(0, rounding).longValueExact();
+    }
+
+    /**
+     * Total reward of per-symbol fired-rule masks.
+     */
+    public long reward(long betMinor, long[] firedRules) {
+        return reward(betMinor, firedRules, 0);
+    }
+
+    /**
+     * Total reward of the per-symbol masks stored from {@code offset} on, as laid out by
+     * batch evaluators.
+     */
+    public long reward(long betMinor, long[] firedRules, int offset) {
+        long total = 0;
+        for (int symbol = 0; symbol < symbolMultipliers.length; symbol++) {
+            long rules = firedRules[offset + symbol];
+            if (rules != 0) {
+                total = Math.addExact(total, reward(betMinor, symbol, rules));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Whether the bonus symbol's multiplier or extra could be applied to the reward without
+     * leaving the {@code long} range of minor units.
+     */
+    public boolean bonusFits(long rewardMinor, int bonusSymbol, BonusImpact impact) {
+        switch (impact) {
+            case MULTIPLY_REWARD:
+                long multiplier = symbolMultipliers[bonusSymbol];
+                if (multiplier == 0 || Math.abs(rewardMinor) <= Long.MAX_VALUE / multiplier) {
+                    return true;
+                }
+                BigDecimal product = BigDecimal.valueOf(rewardMinor).multiply(BigDecimal.valueOf(multiplier))
+                        .divide(BigDecimal.valueOf(MULTIPLIER_SCALE), 0, rounding);
+                return product.toBigInteger().bitLength() < Long.SIZE;
+            case EXTRA_BONUS:
+                // Extras are validated non-negative
+                return rewardMinor <= Long.MAX_VALUE - symbolExtras[bonusSymbol];
+            default:
+                return true;
+        }
+    }
+
+    public int getMinorDigits() {
+        return minorDigits;
+    }
+
+    public RoundingMode getRounding() {
+        return rounding;
+    }
+
+    public RuleIndex getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,187 @@
+package com.scratchgame.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit on the rounds a {@link ShardedGameEngine} holds at once, so overload is
+ * turned away at the door instead of queueing until every client times out.
+ *
+ * Rounds are admitted while fewer than the limit are in flight. Every
+ * {@code windowSize} completions, the mean latency from admission to completion is
+ * compared with the smoothed service time of {@code play()}. Latency within the
+ * tolerated number of service times (and never below a fixed floor) means queues are
+ * short: the limit grows by one, but only if the window actually hit it. Higher latency
+ * means rounds are waiting: the limit shrinks by the backoff factor. Latency, and so p99,
+ * stays near the tolerance however large the spike, and the excess is rejected at once.
+ */
+public final class AdmissionController {
+    public static final int DEFAULT_INITIAL_LIMIT = 64;
+    public static final int DEFAULT_MAX_LIMIT = 4096;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 8;
+    public static final long DEFAULT_LATENCY_FLOOR_MICROS = 1000;
+    public static final double DEFAULT_BACKOFF = 0.9;
+    public static final int DEFAULT_WINDOW_SIZE = 256;
+    // Weight of the newest window in the service time average
+    private static final double SERVICE_SMOOTHING = 0.2;
+
+    private final int maxLimit;
+    private int minLimit = 1;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private long latencyFloorNanos = DEFAULT_LATENCY_FLOOR_MICROS * 1000;
+    private double backoff = DEFAULT_BACKOFF;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile boolean limitReached;
+    private final AtomicLong samples = new AtomicLong();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private double smoothedServiceNanos;
+
+    public AdmissionController() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * The setters below tune the controller; call them before handing it to an engine.
+     */
+    public AdmissionController(int initialLimit, int maxLimit) {
+        if (initialLimit <= 0 || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < initial <= max");
+        }
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        if (minLimit <= 0 || minLimit > limit) {
+            throw new IllegalArgumentException("Minimum limit must be between 1 and the initial limit");
+        }
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Latency, in service times, above which the limit shrinks.
+     */
+    public void setLatencyTolerance(double latencyTolerance) {
+        if (!(latencyTolerance >= 1)) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1");
+        }
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Latency below which the limit never shrinks. It covers the fixed cost of handing a
+     * round to a shard thread, which for a fast game exceeds many service times.
+     */
+    public void setLatencyFloorMicros(long latencyFloorMicros) {
+        if (latencyFloorMicros < 0) {
+            throw new IllegalArgumentException("Latency floor must not be negative");
+        }
+        this.latencyFloorNanos = latencyFloorMicros * 1000;
+    }
+
+    /**
+     * Factor applied to the limit when it shrinks, between 0 and 1.
+     */
+    public void setBackoff(double backoff) {
+        if (!(backoff > 0 && backoff < 1)) {
+            throw new IllegalArgumentException("Backoff must be between 0 and 1");
+        }
+        this.backoff = backoff;
+    }
+
+    /**
+     * Completions between limit adjustments.
+     */
+    public void setWindowSize(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Takes a slot for one round, or returns false at once when the limit is reached.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                limitReached = true;
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of a round that was never queued.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns the slot of a finished round and records its timings.
+     *
+     * @param latency from admission to completion
+     * @param service time spent in {@code play()}
+     */
+    void release(long latency, long service) {
+        inFlight.decrementAndGet();
+        latencyNanos.add(latency);
+        serviceNanos.add(service);
+        if (samples.incrementAndGet() % windowSize == 0) {
+            adjust();
+        }
+    }
+
+    private synchronized void adjust() {
+        // The sums may hold a few samples of the next window; the means barely move
+        double meanLatency = (double) latencyNanos.sumThenReset() / windowSize;
+        double meanService = (double) serviceNanos.sumThenReset() / windowSize;
+        smoothedServiceNanos = smoothedServiceNanos == 0 ? meanService
+                : smoothedServiceNanos + SERVICE_SMOOTHING * (meanService - smoothedServiceNanos);
+
+        int current = limit;
+        if (meanLatency > Math.max(latencyTolerance * smoothedServiceNanos, latencyFloorNanos)) {
+            limit = Math.max(minLimit, (int) (current * backoff));
+        } else if (limitReached) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+        limitReached = false;
+    }
+
+    /**
+     * Current concurrency limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Rounds turned away by the limit so far.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Smoothed time a round spends in {@code play()}, as of the last adjustment.
+     */
+    public synchronized double getServiceMicros() {
+        return smoothedServiceNanos / 1e3;
+    }
+}
@@ -0,0 +1,18 @@
+package com.scratchgame.server;
+
+/**
+ * Outcome of submitting a round to a {@link ShardedGameEngine}. Only an admitted round
+ * reaches its callback; a rejected one was never queued and can be retried or refused at
+ * once.
+ */
+public enum AdmissionStatus {
+    ADMITTED,
+    /**
+     * The engine is at its adaptive concurrency limit.
+     */
+    OVER_LIMIT,
+    /**
+     * The shard's queue from this router is full.
+     */
+    QUEUE_FULL
+}
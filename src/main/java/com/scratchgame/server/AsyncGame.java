@@ -0,0 +1,170 @@
+package com.scratchgame.server;
+
+import com.scratchgame.CompiledGame;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.money.ProgressiveJackpot;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking front end to {@link ScratchGame#play(double)} for asynchronous services.
+ *
+ * Rounds run as tasks on a configurable {@link Executor}. The config is compiled once into
+ * a {@link CompiledGame}, and every executor thread lazily builds its own game on it with
+ * its own random source, so rounds on different threads share no generator state and no
+ * thread waits on an in-flight round; when the config has a jackpot, all of them
+ * contribute to one {@link ProgressiveJackpot}.
+ */
+public final class AsyncGame {
+    private final Executor executor;
+    private final ProgressiveJackpot jackpot;
+    private final ThreadLocal<ScratchGame> games;
+
+    /**
+     * Plays on the common fork/join pool.
+     */
+    public AsyncGame(GameConfig config) {
+        this(config, ForkJoinPool.commonPool());
+    }
+
+    public AsyncGame(GameConfig config, Executor executor) {
+        // Compiled up front, so a bad config fails here rather than in the first round
+        CompiledGame compiled = new CompiledGame(config);
+        this.executor = executor;
+        this.jackpot = config.getJackpot() != null ? new ProgressiveJackpot(config) : null;
+        this.games = ThreadLocal.withInitial(() -> {
+            ScratchGame game = compiled.newGame();
+            game.setJackpot(jackpot);
+            return game;
+        });
+    }
+
+    /**
+     * Plays one round on the executor. The future fails with the game's exception when the
+     * round cannot be paid, or with a {@link RejectedExecutionException} when the executor
+     * refuses the task.
+     */
+    public CompletableFuture<GameResult> playAsync(double bet) {
+        return CompletableFuture.supplyAsync(() -> games.get().play(bet), executor);
+    }
+
+    /**
+     * The jackpot shared by every thread's game, or null when the config has none.
+     */
+    public ProgressiveJackpot getJackpot() {
+        return jackpot;
+    }
+
+    /**
+     * A publisher that plays one round per bet for each subscriber, in order and only as
+     * fast as the subscriber requests results. The bets are read from a fresh iterator
+     * per subscription, on the executor.
+     */
+    public RoundFlow.Publisher<GameResult> publish(Iterable<Double> bets) {
+        return subscriber -> {
+            RoundSubscription subscription = new RoundSubscription(subscriber, bets.iterator());
+            subscriber.onSubscribe(subscription);
+            // Completes an empty stream without waiting for a request
+            subscription.schedule();
+        };
+    }
+
+    /**
+     * Delivers rounds from one drain loop at a time on the executor: a request that finds
+     * the loop idle schedules it, and a running loop picks up new demand before it exits.
+     * Bets are therefore read, and signals sent, by one thread at a time.
+     */
+    private final class RoundSubscription implements RoundFlow.Subscription, Runnable {
+        private final RoundFlow.Subscriber<? super GameResult> subscriber;
+        private final Iterator<Double> bets;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private boolean done;
+
+        RoundSubscription(RoundFlow.Subscriber<? super GameResult> subscriber, Iterator<Double> bets) {
+            this.subscriber = subscriber;
+            this.bets = bets;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " results; the count must be positive");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (!done) {
+                if (cancelled) {
+                    done = true;
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish(invalidRequest);
+                    return;
+                }
+                if (!bets.hasNext()) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (demand.get() == 0) {
+                    return;
+                }
+                GameResult result;
+                try {
+                    result = games.get().play(bets.next());
+                } catch (RuntimeException e) {
+                    finish(e);
+                    return;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(result);
+            }
+        }
+
+        private void finish(Throwable error) {
+            done = true;
+            cancelled = true;
+            subscriber.onError(error);
+        }
+    }
+}
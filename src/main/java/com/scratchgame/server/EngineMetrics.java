@@ -0,0 +1,107 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Counters of a {@link ShardedGameEngine} summed over its shards when read, in the
+ * snake_case JSON style of the simulation reports. Amounts are in major units.
+ */
+public class EngineMetrics {
+    int shards;
+
+    long rounds;
+
+    long wins;
+
+    long failures;
+
+    @JsonProperty("total_bet")
+    double totalBet;
+
+    @JsonProperty("total_reward")
+    double totalReward;
+
+    @JsonProperty("mean_service_micros")
+    double meanServiceMicros;
+
+    @JsonProperty("shard_rounds")
+    long[] shardRounds;
+
+    // Absent when the engine has no jackpot
+    @JsonProperty("jackpot_pool")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Double jackpotPool;
+
+    @JsonProperty("jackpot_payouts")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Long jackpotPayouts;
+
+    EngineMetrics() {
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Rounds played, not counting failed ones.
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Rounds the game rejected.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    public double getTotalBet() {
+        return totalBet;
+    }
+
+    public double getTotalReward() {
+        return totalReward;
+    }
+
+    @JsonProperty("rtp")
+    public double getRtp() {
+        return totalBet > 0 ? totalReward / totalBet : 0;
+    }
+
+    @JsonProperty("hit_rate")
+    public double getHitRate() {
+        return rounds > 0 ? (double) wins / rounds : 0;
+    }
+
+    /**
+     * Mean time a shard spent in {@code play()} per round.
+     */
+    public double getMeanServiceMicros() {
+        return meanServiceMicros;
+    }
+
+    public long[] getShardRounds() {
+        return shardRounds;
+    }
+
+    /**
+     * Current jackpot pool, or null when the engine has no jackpot.
+     */
+    public Double getJackpotPool() {
+        return jackpotPool;
+    }
+
+    /**
+     * Jackpots won, or null when the engine has no jackpot.
+     */
+    public Long getJackpotPayouts() {
+        return jackpotPayouts;
+    }
+}
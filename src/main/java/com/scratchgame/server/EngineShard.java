@@ -0,0 +1,208 @@
+package com.scratchgame.server;
+
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One thread of a {@link ShardedGameEngine} with its own game, RNG and counters. It
+ * drains one {@link SpscQueue} per attached {@link ShardRouter} and parks when they are
+ * all empty.
+ *
+ * Counters are written by the shard thread alone with ordered stores, so recording a
+ * round needs no lock or atomic read-modify-write; readers sum them across shards.
+ */
+final class EngineShard implements Runnable {
+    // Requests taken from one queue before moving on to the next
+    private static final int DRAIN_LIMIT = 64;
+    private static final int IDLE_SPINS = 64;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int index;
+    private final ScratchGame game;
+    private final List<SpscQueue<RoundRequest>> inbound = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private volatile Thread thread;
+
+    private final AtomicLong rounds = new AtomicLong();
+    private final AtomicLong wins = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong serviceNanos = new AtomicLong();
+    private final AtomicLong totalBetBits = new AtomicLong();
+    private final AtomicLong totalRewardBits = new AtomicLong();
+    // Shard-thread copies of the published counters
+    private long roundCount;
+    private long winCount;
+    private long failureCount;
+    private long serviceTime;
+    private double totalBet;
+    private double totalReward;
+
+    EngineShard(int index, ScratchGame game) {
+        this.index = index;
+        this.game = game;
+    }
+
+    void start(String name) {
+        Thread shardThread = new Thread(this, name);
+        shardThread.setDaemon(true);
+        this.thread = shardThread;
+        shardThread.start();
+    }
+
+    void attach(SpscQueue<RoundRequest> queue) {
+        inbound.add(queue);
+    }
+
+    /**
+     * Unparks the shard if it is waiting for work; called by producers after each offer.
+     */
+    void wake() {
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (running) {
+            if (drain() > 0) {
+                idle = 0;
+            } else if (++idle < IDLE_SPINS) {
+                Thread.yield();
+            } else {
+                sleeping = true;
+                if (running && !hasPending()) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+        // Whatever is still queued was accepted but will never be played
+        IllegalStateException shutDown = new IllegalStateException("Engine is shut down");
+        for (SpscQueue<RoundRequest> queue : inbound) {
+            for (RoundRequest request = queue.poll(); request != null; request = queue.poll()) {
+                if (request.admission != null) {
+                    request.admission.cancel();
+                }
+                fail(request, shutDown);
+            }
+        }
+    }
+
+    private int drain() {
+        int served = 0;
+        for (SpscQueue<RoundRequest> queue : inbound) {
+            if (queue.isClosed() && queue.isEmpty()) {
+                // Its router is closed and will offer nothing more
+                inbound.remove(queue);
+                continue;
+            }
+            for (int i = 0; i < DRAIN_LIMIT; i++) {
+                RoundRequest request = queue.poll();
+                if (request == null) {
+                    break;
+                }
+                serve(request);
+                served++;
+            }
+        }
+        return served;
+    }
+
+    private void serve(RoundRequest request) {
+        long start = System.nanoTime();
+        GameResult result;
+        try {
+            result = game.play(request.bet);
+        } catch (RuntimeException e) {
+            // Any failure of one round must not stop the shard and strand its queues
+            failures.lazySet(++failureCount);
+            if (request.admission != null) {
+                request.admission.cancel();
+            }
+            fail(request, e);
+            return;
+        }
+        long end = System.nanoTime();
+        if (request.admission != null) {
+            request.admission.release(end - request.admittedNanos, end - start);
+        }
+        serviceTime += end - start;
+        totalBet += request.bet;
+        totalReward += result.getReward();
+        serviceNanos.lazySet(serviceTime);
+        totalBetBits.lazySet(Double.doubleToRawLongBits(totalBet));
+        totalRewardBits.lazySet(Double.doubleToRawLongBits(totalReward));
+        if (result.getReward() > 0) {
+            wins.lazySet(++winCount);
+        }
+        rounds.lazySet(++roundCount);
+        try {
+            request.callback.completed(result);
+        } catch (RuntimeException e) {
+            // A faulty callback is the caller's bug; the shard carries on with the next round
+        }
+    }
+
+    private static void fail(RoundRequest request, RuntimeException error) {
+        try {
+            request.callback.failed(error);
+        } catch (RuntimeException e) {
+            // As for completed: never let a callback stop the shard
+        }
+    }
+
+    private boolean hasPending() {
+        for (SpscQueue<RoundRequest> queue : inbound) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    long getRounds() {
+        return rounds.get();
+    }
+
+    long getWins() {
+        return wins.get();
+    }
+
+    long getFailures() {
+        return failures.get();
+    }
+
+    long getServiceNanos() {
+        return serviceNanos.get();
+    }
+
+    double getTotalBet() {
+        return Double.longBitsToDouble(totalBetBits.get());
+    }
+
+    double getTotalReward() {
+        return Double.longBitsToDouble(totalRewardBits.get());
+    }
+}
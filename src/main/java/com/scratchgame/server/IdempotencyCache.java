@@ -0,0 +1,238 @@
+package com.scratchgame.server;
+
+import com.scratchgame.model.GameResult;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded record of recent rounds keyed by client request ID, so that a retried request
+ * gets back the round it already played instead of a second payout.
+ *
+ * Entries are spread over lock-striped segments, each an insertion-ordered
+ * {@link LinkedHashMap}. A segment holds its oldest entry at the head, so entries older than
+ * the time-to-live are dropped from the head on each access, and the oldest entry is evicted
+ * when the segment is full. Both are O(1) per entry. Entries whose round is still in flight
+ * are never dropped, so a segment may briefly exceed its share of the size by the rounds
+ * in flight.
+ *
+ * The first request for an ID records a pending entry and plays the round outside the lock.
+ * Concurrent duplicates find that entry and wait for the same result, so only one round is
+ * played. A round that fails pays nothing and is forgotten, so its retry plays afresh. An
+ * ID evicted for space or age may be played again, so the time-to-live should exceed the
+ * longest client retry window.
+ */
+public final class IdempotencyCache {
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final long DEFAULT_TTL_SECONDS = 600;
+
+    private static final int SEGMENTS = 16;
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public IdempotencyCache(int maxEntries, long ttl, TimeUnit unit) {
+        this(maxEntries, unit.toNanos(ttl), System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency cache needs a positive size");
+        }
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("Idempotency cache needs a positive time-to-live");
+        }
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        int perSegment = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * A round in flight or played for one request ID.
+     */
+    private static final class CachedRound {
+        final double bet;
+        final long createdNanos;
+        final CompletableFuture<GameResult> result = new CompletableFuture<>();
+
+        CachedRound(double bet, long createdNanos) {
+            this.bet = bet;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    /**
+     * Plays {@code round} for the bet unless this request ID was played recently, in which
+     * case the earlier result is returned, waiting for it if still in flight.
+     *
+     * @throws IllegalArgumentException when the ID was already used with a different bet
+     * @throws RuntimeException whatever the round threw, to the caller that played it and to
+     *                          duplicates that waited for it
+     */
+    public GameResult play(String requestId, double bet, DoubleFunction<GameResult> round) {
+        if (requestId == null || requestId.isEmpty()) {
+            throw new IllegalArgumentException("Request ID must not be empty");
+        }
+        Segment segment = segmentFor(requestId);
+        CachedRound entry;
+        boolean first = false;
+        synchronized (segment) {
+            long now = clock.getAsLong();
+            segment.expire(now);
+            entry = segment.get(requestId);
+            if (entry == null) {
+                entry = new CachedRound(bet, now);
+                segment.put(requestId, entry);
+                first = true;
+            }
+        }
+
+        if (!first) {
+            if (Double.compare(entry.bet, bet) != 0) {
+                throw new IllegalArgumentException(
+                        "Request " + requestId + " was already played with bet " + entry.bet + ", not " + bet);
+            }
+            hits.increment();
+            return await(entry);
+        }
+
+        misses.increment();
+        try {
+            GameResult result = round.apply(bet);
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            synchronized (segment) {
+                segment.remove(requestId, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static GameResult await(CachedRound entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Segment segmentFor(String requestId) {
+        int hash = requestId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Duplicates answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Rounds played for a new request ID.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Entries dropped because their segment was full.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Entries dropped because they outlived the time-to-live.
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Segment extends LinkedHashMap<String, CachedRound> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, false);
+            this.capacity = capacity;
+        }
+
+        /**
+         * Drops expired entries, which all sit at the head in insertion order, except those
+         * still in flight.
+         */
+        void expire(long now) {
+            Iterator<CachedRound> entries = values().iterator();
+            while (entries.hasNext()) {
+                CachedRound entry = entries.next();
+                if (now - entry.createdNanos < ttlNanos) {
+                    return;
+                }
+                if (entry.result.isDone()) {
+                    entries.remove();
+                    expirations.increment();
+                }
+            }
+        }
+
+        /**
+         * Evicts the oldest played entry once the segment is full; a duplicate of a round in
+         * flight must still find it.
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedRound> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+            Iterator<CachedRound> entries = values().iterator();
+            while (entries.hasNext()) {
+                if (entries.next().result.isDone()) {
+                    entries.remove();
+                    evictions.increment();
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.scratchgame.server;
+
+import com.scratchgame.CompiledGame;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.money.ProgressiveJackpot;
+
+/**
+ * Thread-safe front end to {@link ScratchGame#play(double)} that plays each client request
+ * ID at most once. A client that retries after a timeout gets back the original round
+ * instead of a second payout. See {@link IdempotencyCache} for how long IDs are remembered.
+ *
+ * The config is compiled once, and each calling thread lazily builds its own game on it, as
+ * in {@link AsyncGame}; all of them share the config's jackpot, if any.
+ */
+public final class IdempotentGame {
+    private final IdempotencyCache cache;
+    private final ProgressiveJackpot jackpot;
+    private final ThreadLocal<ScratchGame> games;
+
+    public IdempotentGame(GameConfig config) {
+        this(config, new IdempotencyCache());
+    }
+
+    public IdempotentGame(GameConfig config, IdempotencyCache cache) {
+        // Compiled up front, so a bad config fails here rather than in the first round
+        CompiledGame compiled = new CompiledGame(config);
+        this.cache = cache;
+        this.jackpot = config.getJackpot() != null ? new ProgressiveJackpot(config) : null;
+        this.games = ThreadLocal.withInitial(() -> {
+            ScratchGame game = compiled.newGame();
+            game.setJackpot(jackpot);
+            return game;
+        });
+    }
+
+    /**
+     * Plays one round for the request, or returns the round already played for it.
+     *
+     * @throws IllegalArgumentException when the request ID is empty or was used with another bet
+     */
+    public GameResult play(String requestId, double bet) {
+        return cache.play(requestId, bet, amount -> games.get().play(amount));
+    }
+
+    /**
+     * The jackpot shared by every thread's game, or null when the config has none.
+     */
+    public ProgressiveJackpot getJackpot() {
+        return jackpot;
+    }
+
+    public IdempotencyCache getCache() {
+        return cache;
+    }
+}
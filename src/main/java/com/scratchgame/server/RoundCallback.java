@@ -0,0 +1,18 @@
+package com.scratchgame.server;
+
+import com.scratchgame.model.GameResult;
+
+/**
+ * Receives the outcome of a submitted round on the shard thread that played it, so
+ * implementations should hand off anything slow. An exception thrown from either method
+ * is ignored by the shard.
+ */
+public interface RoundCallback {
+
+    void completed(GameResult result);
+
+    /**
+     * The round was not played: the game threw or the engine shut down first.
+     */
+    void failed(RuntimeException error);
+}
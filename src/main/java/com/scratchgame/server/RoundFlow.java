@@ -0,0 +1,46 @@
+package com.scratchgame.server;
+
+/**
+ * Reactive-streams interfaces with the shape and rules of Java 9's
+ * {@code java.util.concurrent.Flow}, which the Java 8 build cannot reference. Each method
+ * maps one to one, so an adapter to {@code Flow} or {@code org.reactivestreams} is a few
+ * lines of delegation.
+ */
+public final class RoundFlow {
+
+    private RoundFlow() {
+    }
+
+    public interface Publisher<T> {
+
+        /**
+         * Starts a new stream for the subscriber, calling its {@code onSubscribe} first.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Signals for one subscription arrive one at a time, never concurrently.
+     */
+    public interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable error);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+
+        /**
+         * Allows {@code n} more items; a non-positive {@code n} ends the stream with an
+         * {@link IllegalArgumentException}.
+         */
+        void request(long n);
+
+        void cancel();
+    }
+}
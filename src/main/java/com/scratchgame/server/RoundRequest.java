@@ -0,0 +1,19 @@
+package com.scratchgame.server;
+
+/**
+ * One bet waiting in a shard's inbound queue.
+ */
+final class RoundRequest {
+    final double bet;
+    final RoundCallback callback;
+    // Holder of the round's admission slot, or null when the engine has no limit
+    final AdmissionController admission;
+    final long admittedNanos;
+
+    RoundRequest(double bet, RoundCallback callback, AdmissionController admission, long admittedNanos) {
+        this.bet = bet;
+        this.callback = callback;
+        this.admission = admission;
+        this.admittedNanos = admittedNanos;
+    }
+}
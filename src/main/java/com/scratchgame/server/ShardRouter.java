@@ -0,0 +1,91 @@
+package com.scratchgame.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A producer's handle on a {@link ShardedGameEngine}: one single-producer queue into every
+ * shard. A router is not thread-safe; each thread submitting rounds takes its own from
+ * {@link ShardedGameEngine#newRouter()} and closes it when done.
+ */
+public final class ShardRouter implements AutoCloseable {
+    private final ShardedGameEngine engine;
+    private final EngineShard[] shards;
+    private final List<SpscQueue<RoundRequest>> queues;
+    private int next;
+    private boolean closed;
+
+    ShardRouter(ShardedGameEngine engine, EngineShard[] shards, int queueCapacity) {
+        this.engine = engine;
+        this.shards = shards;
+        this.queues = new ArrayList<>(shards.length);
+        for (EngineShard shard : shards) {
+            SpscQueue<RoundRequest> queue = new SpscQueue<>(queueCapacity);
+            queues.add(queue);
+            shard.attach(queue);
+        }
+    }
+
+    /**
+     * Queues a round on the shard owning {@code key}, so rounds of one key (an account or
+     * session id) are played in submission order by one game.
+     *
+     * @return whether the round was admitted; a rejected round is never played
+     * @throws IllegalStateException when the router or engine is closed
+     */
+    public AdmissionStatus submit(long key, double bet, RoundCallback callback) {
+        return offer(engine.shardOf(key), bet, callback);
+    }
+
+    /**
+     * Queues a round on the next shard in turn.
+     *
+     * @return whether the round was admitted; a rejected round is never played
+     * @throws IllegalStateException when the router or engine is closed
+     */
+    public AdmissionStatus submit(double bet, RoundCallback callback) {
+        int shard = next;
+        next = shard + 1 == shards.length ? 0 : shard + 1;
+        return offer(shard, bet, callback);
+    }
+
+    private AdmissionStatus offer(int shard, double bet, RoundCallback callback) {
+        if (closed || engine.isClosed()) {
+            throw new IllegalStateException("Engine is shut down");
+        }
+        AdmissionController admission = engine.getAdmissionController();
+        if (admission != null && !admission.tryAcquire()) {
+            return AdmissionStatus.OVER_LIMIT;
+        }
+        if (!queues.get(shard).offer(new RoundRequest(bet, callback, admission, System.nanoTime()))) {
+            if (admission != null) {
+                admission.cancel();
+            }
+            return AdmissionStatus.QUEUE_FULL;
+        }
+        shards[shard].wake();
+        return AdmissionStatus.ADMITTED;
+    }
+
+    /**
+     * Rounds queued by this router that its shards have not yet taken.
+     */
+    public int getQueued() {
+        int queued = 0;
+        for (SpscQueue<RoundRequest> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Stops routing; rounds already queued are still played.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (SpscQueue<RoundRequest> queue : queues) {
+            queue.close();
+        }
+    }
+}
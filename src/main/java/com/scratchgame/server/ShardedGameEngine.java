@@ -0,0 +1,163 @@
+package com.scratchgame.server;
+
+import com.scratchgame.ScratchGame;
+import com.scratchgame.SeedSequence;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.money.ProgressiveJackpot;
+
+/**
+ * Shared-nothing runtime for serving rounds: one shard thread per core, each owning a
+ * {@link ScratchGame} with its own RNG, scratch buffers and counters.
+ *
+ * A single shared game would make every request contend for its generator state and
+ * bounce the cache lines of any shared counter between cores. Here a request travels
+ * through a single-producer single-consumer queue from the submitting thread's
+ * {@link ShardRouter} to one shard, which plays it and calls back on its own thread.
+ * {@link #getMetrics()} sums the shards' counters only when asked. An optional
+ * {@link AdmissionController} bounds the rounds in flight and turns the excess away at
+ * submission. When the config has a jackpot, all shards contribute to one
+ * {@link ProgressiveJackpot}, the only state they share.
+ */
+public final class ShardedGameEngine implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final EngineShard[] shards;
+    private final int queueCapacity;
+    private final AdmissionController admission;
+    private final ProgressiveJackpot jackpot;
+    private volatile boolean closed;
+
+    /**
+     * One unseeded shard per available processor.
+     */
+    public ShardedGameEngine(GameConfig config) {
+        this(config, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, null, null);
+    }
+
+    /**
+     * @param queueCapacity capacity of each router's queue into each shard
+     * @param seed          null for unseeded games; otherwise shard i plays a game seeded
+     *                      from {@code seed} and i, so a keyed stream of rounds replays
+     * @param admission     limit on rounds in flight across all routers, or null to admit
+     *                      every round that fits its queue
+     */
+    public ShardedGameEngine(GameConfig config, int shardCount, int queueCapacity, Long seed,
+                             AdmissionController admission) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.admission = admission;
+        this.jackpot = config.getJackpot() != null ? new ProgressiveJackpot(config) : null;
+        this.shards = new EngineShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            ScratchGame game = seed == null ? new ScratchGame(config) : new ScratchGame(config, shardSeed(seed, i));
+            game.setJackpot(jackpot);
+            shards[i] = new EngineShard(i, game);
+        }
+        for (EngineShard shard : shards) {
+            shard.start("scratch-shard-" + shard.getIndex());
+        }
+    }
+
+    /**
+     * Seed of shard i's game.
+     */
+    public static long shardSeed(long seed, int shard) {
+        return SeedSequence.derive(seed, shard);
+    }
+
+    /**
+     * A new producer handle; each submitting thread needs its own.
+     *
+     * @throws IllegalStateException when the engine is closed
+     */
+    public ShardRouter newRouter() {
+        if (closed) {
+            throw new IllegalStateException("Engine is shut down");
+        }
+        return new ShardRouter(this, shards, queueCapacity);
+    }
+
+    /**
+     * Shard that plays the rounds submitted under {@code key}.
+     */
+    public int shardOf(long key) {
+        long mixed = key * GOLDEN_GAMMA;
+        return (int) (((mixed >>> 32) * shards.length) >>> 32);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Sums the shards' counters. Each shard's figures are read without stopping it, so a
+     * snapshot taken under load may be a few rounds behind on some counters.
+     */
+    public EngineMetrics getMetrics() {
+        EngineMetrics metrics = new EngineMetrics();
+        metrics.shards = shards.length;
+        metrics.shardRounds = new long[shards.length];
+        long serviceNanos = 0;
+        for (EngineShard shard : shards) {
+            long rounds = shard.getRounds();
+            metrics.shardRounds[shard.getIndex()] = rounds;
+            metrics.rounds += rounds;
+            metrics.wins += shard.getWins();
+            metrics.failures += shard.getFailures();
+            metrics.totalBet += shard.getTotalBet();
+            metrics.totalReward += shard.getTotalReward();
+            serviceNanos += shard.getServiceNanos();
+        }
+        metrics.meanServiceMicros = metrics.rounds > 0 ? serviceNanos / 1e3 / metrics.rounds : 0;
+        if (jackpot != null) {
+            metrics.jackpotPool = jackpot.getPool();
+            metrics.jackpotPayouts = jackpot.getPayouts();
+        }
+        return metrics;
+    }
+
+    /**
+     * The jackpot shared by the shards, or null when the config has none. Restore it
+     * before submitting rounds, and save it on shutdown.
+     */
+    public ProgressiveJackpot getJackpot() {
+        return jackpot;
+    }
+
+    /**
+     * The engine's admission limit, or null when it has none.
+     */
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the shards and waits for them. Rounds still queued fail with an
+     * {@link IllegalStateException}; a submit racing with close may be neither played nor
+     * failed. An interrupt while waiting stops the wait and leaves the thread interrupted.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (EngineShard shard : shards) {
+            shard.stop();
+        }
+        try {
+            for (EngineShard shard : shards) {
+                shard.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.scratchgame.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free ring buffer for exactly one producer thread and one consumer thread.
+ *
+ * Each side owns one index and only reads the other's when its cached copy says the ring
+ * looks full or empty, so in the steady state the two threads do not touch each other's
+ * cache lines.
+ */
+final class SpscQueue<E> {
+    private final Object[] buffer;
+    private final int mask;
+    // Next slot to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+    private long cachedTail;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    SpscQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Queue capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side: false when the ring is full.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        if (position - cachedHead >= buffer.length) {
+            cachedHead = head.get();
+            if (position - cachedHead >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) position & mask] = element;
+        // A full store, so a consumer about to park either sees the element or is woken
+        tail.set(position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side: null when the ring is empty.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head.get();
+        if (position >= cachedTail) {
+            cachedTail = tail.get();
+            if (position >= cachedTail) {
+                return null;
+            }
+        }
+        int slot = (int) position & mask;
+        E element = (E) buffer[slot];
+        buffer[slot] = null;
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Consumer side: true when nothing is waiting.
+     */
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    /**
+     * Producer side: no more elements will be offered.
+     */
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,54 @@
+package com.scratchgame.simulation;
+
+/**
+ * Chooses a virtual player's next bet in a {@link SessionSimulator} session.
+ *
+ * Amounts are in minor units of the config's money scale, as returned by
+ * {@link SessionSimulator#toMinor(double)}. One strategy serves every player on every
+ * thread, so implementations must keep their state in the arguments, not in fields.
+ */
+public interface BetStrategy {
+
+    /**
+     * @param balance the player's balance before the bet
+     * @param previousBet the previous round's bet, or 0 before the first round
+     * @param previousReward the previous round's reward, or 0 before the first round
+     * @return the next bet, which must be positive; a bet above the balance ruins the player
+     */
+    long nextBet(long balance, long previousBet, long previousReward);
+
+    /**
+     * The same bet every round.
+     */
+    static BetStrategy flat(long bet) {
+        if (bet <= 0) {
+            throw new IllegalArgumentException("Bet must be positive");
+        }
+        return (balance, previousBet, previousReward) -> bet;
+    }
+
+    /**
+     * Doubles the bet after each losing round, up to {@code maxBet}, and returns to
+     * {@code baseBet} after a win.
+     */
+    static BetStrategy martingale(long baseBet, long maxBet) {
+        if (baseBet <= 0 || maxBet < baseBet) {
+            throw new IllegalArgumentException("Martingale needs 0 < base bet <= max bet");
+        }
+        return (balance, previousBet, previousReward) -> previousBet == 0 || previousReward > 0
+                ? baseBet : Math.min(maxBet, previousBet * 2);
+    }
+
+    /**
+     * Bets a fraction of the current balance, but never less than {@code minimumBet}.
+     */
+    static BetStrategy proportional(double fraction, long minimumBet) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Bet fraction must be in (0, 1]");
+        }
+        if (minimumBet <= 0) {
+            throw new IllegalArgumentException("Minimum bet must be positive");
+        }
+        return (balance, previousBet, previousReward) -> Math.max(minimumBet, (long) (balance * fraction));
+    }
+}
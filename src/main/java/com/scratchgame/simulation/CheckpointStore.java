@@ -0,0 +1,134 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+/**
+ * Directory of per-segment checkpoints of a simulation, one file per finished
+ * {@link SimulationShard} holding its statistics.
+ *
+ * A checkpoint records the config hash and the shard's seed, rounds and bet, so a
+ * checkpoint from a different simulation is refused instead of merged. The hash leaves out
+ * the engine settings that only change speed (payout table, caches, tiling), so switching
+ * them keeps the checkpoints; the money scale and rounding change rewards and are hashed. Files are written
+ * to a temporary name, synced and renamed, and end with a CRC32; a torn or corrupt file
+ * reads as missing and its segment is played again. A checkpoint is a few kilobytes
+ * written once per segment, so it costs nothing measurable next to the segment's rounds.
+ */
+public final class CheckpointStore {
+    private static final int MAGIC = 0x53434B50;
+    private static final int VERSION = 4;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path directory;
+    private final long configHash;
+
+    public CheckpointStore(Path directory, GameConfig config) throws IOException {
+        this.directory = directory;
+        this.configHash = hash(MAPPER.writeValueAsBytes(outcomeSettings(config)));
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * A copy of the config with the engine settings reduced to those that change rewards.
+     */
+    private static GameConfig outcomeSettings(GameConfig config) {
+        GameConfig copy = MAPPER.convertValue(config, GameConfig.class);
+        GameConfig.EngineSettings configured = config.getEngine() != null ? config.getEngine() : new GameConfig.EngineSettings();
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setMoneyScale(configured.getMoneyScale());
+        engine.setRounding(configured.getRounding());
+        copy.setEngine(engine);
+        return copy;
+    }
+
+    private static long hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public Path pathOf(SimulationShard shard) {
+        return directory.resolve(String.format("segment-%06d.ckpt", shard.getIndex()));
+    }
+
+    /**
+     * @return the checkpointed statistics of the segment, or null when it has no complete checkpoint
+     * @throws IllegalStateException if the checkpoint belongs to a different simulation
+     */
+    public SimulationStatistics load(SimulationShard shard) throws IOException {
+        Path path = pathOf(shard);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < Long.BYTES) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong()) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            return null;
+        }
+        if (in.readLong() != configHash || in.readInt() != shard.getIndex() || in.readLong() != shard.getSeed()
+                || in.readLong() != shard.getRounds()
+                || Double.doubleToLongBits(in.readDouble()) != Double.doubleToLongBits(shard.getBetAmount())) {
+            throw new IllegalStateException("Checkpoint " + path + " belongs to a different simulation");
+        }
+        return SimulationStatistics.readFrom(in);
+    }
+
+    /**
+     * Writes the segment's checkpoint, replacing any previous one atomically.
+     */
+    public void save(SimulationShard shard, SimulationStatistics statistics) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(configHash);
+        out.writeInt(shard.getIndex());
+        out.writeLong(shard.getSeed());
+        out.writeLong(shard.getRounds());
+        out.writeDouble(shard.getBetAmount());
+        statistics.writeTo(out);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+
+        Path path = pathOf(shard);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,66 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.GameConfig;
+
+import java.io.IOException;
+
+/**
+ * Simulation run in this process as a sequence of seeded segments, each checkpointed
+ * when it finishes.
+ *
+ * A restarted run loads the segments that already have a checkpoint and plays only the
+ * rest. Segment results are merged in segment order either way, so an interrupted and
+ * resumed run gives bit for bit the statistics of an uninterrupted one.
+ */
+public final class CheckpointedSimulation {
+    private final GameConfig config;
+    private final SimulationShard[] segments;
+    private final CheckpointStore store;
+    private int resumedSegments;
+    private int playedSegments;
+
+    public CheckpointedSimulation(GameConfig config, SimulationShard[] segments, CheckpointStore store) {
+        if (segments.length == 0) {
+            throw new IllegalArgumentException("Simulation needs at least one segment");
+        }
+        this.config = config;
+        this.segments = segments.clone();
+        this.store = store;
+    }
+
+    public SimulationStatistics run() throws IOException {
+        resumedSegments = 0;
+        playedSegments = 0;
+        SimulationStatistics merged = null;
+        for (SimulationShard segment : segments) {
+            SimulationStatistics statistics = store.load(segment);
+            if (statistics != null) {
+                resumedSegments++;
+            } else {
+                statistics = segment.run(config);
+                store.save(segment, statistics);
+                playedSegments++;
+            }
+            if (merged == null) {
+                merged = statistics;
+            } else {
+                merged.merge(statistics);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Segments of the last run loaded from checkpoints.
+     */
+    public int getResumedSegments() {
+        return resumedSegments;
+    }
+
+    /**
+     * Segments of the last run played and checkpointed.
+     */
+    public int getPlayedSegments() {
+        return playedSegments;
+    }
+}
@@ -0,0 +1,120 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Result of an {@link ImportanceSampler} run: likelihood-ratio weighted estimates with
+ * their confidence intervals, in the snake_case JSON style of
+ * {@link com.scratchgame.model.GameResult}.
+ */
+public class ImportanceEstimate {
+    private long rounds;
+
+    @JsonProperty("effective_sample_size")
+    private double effectiveSampleSize;
+
+    @JsonProperty("confidence_level")
+    private double confidenceLevel;
+
+    private Estimate rtp;
+
+    @JsonProperty("hit_frequency")
+    private Estimate hitFrequency;
+
+    @JsonProperty("exceedance_probabilities")
+    private Map<String, Estimate> exceedanceProbabilities;
+
+    @JsonProperty("win_combination_probabilities")
+    private Map<String, Estimate> winCombinationProbabilities;
+
+    ImportanceEstimate(long rounds, double effectiveSampleSize, double confidenceLevel, Estimate rtp,
+                       Estimate hitFrequency, Map<String, Estimate> exceedanceProbabilities,
+                       Map<String, Estimate> winCombinationProbabilities) {
+        this.rounds = rounds;
+        this.effectiveSampleSize = effectiveSampleSize;
+        this.confidenceLevel = confidenceLevel;
+        this.rtp = rtp;
+        this.hitFrequency = hitFrequency;
+        this.exceedanceProbabilities = exceedanceProbabilities;
+        this.winCombinationProbabilities = winCombinationProbabilities;
+    }
+
+    /**
+     * One estimated quantity: the weighted mean, its standard error and confidence interval.
+     */
+    public static class Estimate {
+        private double value;
+
+        @JsonProperty("standard_error")
+        private double standardError;
+
+        private double lower;
+        private double upper;
+
+        Estimate(double value, double standardError, double z) {
+            this.value = value;
+            this.standardError = standardError;
+            this.lower = value - z * standardError;
+            this.upper = value + z * standardError;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public double getStandardError() {
+            return standardError;
+        }
+
+        public double getLower() {
+            return lower;
+        }
+
+        public double getUpper() {
+            return upper;
+        }
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Kish effective sample size, (sum of weights)^2 / sum of squared weights: how many
+     * unweighted rounds the weighted sample is worth.
+     */
+    public double getEffectiveSampleSize() {
+        return effectiveSampleSize;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    /**
+     * Expected payout in multiples of the bet.
+     */
+    public Estimate getRtp() {
+        return rtp;
+    }
+
+    public Estimate getHitFrequency() {
+        return hitFrequency;
+    }
+
+    /**
+     * Probabilities of paying more than k times the bet, keyed like "10x".
+     */
+    public Map<String, Estimate> getExceedanceProbabilities() {
+        return exceedanceProbabilities;
+    }
+
+    /**
+     * Probability that each win combination fires for some symbol in a round.
+     */
+    public Map<String, Estimate> getWinCombinationProbabilities() {
+        return winCombinationProbabilities;
+    }
+}
@@ -0,0 +1,247 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.WeightedRandomGenerator;
+import com.scratchgame.evaluation.BatchEvaluator;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.money.RewardCalculator;
+
+import java.util.*;
+
+/**
+ * Variance-reduction simulation that draws boards from biased per-cell weights and
+ * corrects every round by its likelihood ratio.
+ *
+ * Each cell's proposal weight for a symbol is its configured probability raised to
+ * {@code 1 - tilt}, times an optional per-symbol boost: a tilt of 0 keeps the game's
+ * weights, a tilt of 1 draws uniformly, and boosts push specific rare symbols. A round
+ * drawn with proposal probability q where the game would have drawn it with probability
+ * p is weighted by p / q, so the weighted means are unbiased estimates under the game's
+ * own weights while rare boards are drawn often enough to be measured. Each estimate
+ * comes with its standard error and a 95% confidence interval, and the run reports its
+ * effective sample size. Variances are accumulated with Welford's method over the rounds
+ * that contribute, then combined with the rounds that contribute zero, so heavy
+ * likelihood-ratio weights do not cancel them away.
+ *
+ * Bonus symbols are not drawn, as they leave the reward unchanged (see
+ * {@link com.scratchgame.ScratchGame#play(double)}).
+ */
+public final class ImportanceSampler {
+    public static final double CONFIDENCE_LEVEL = 0.95;
+    private static final double Z = 1.959963984540054;
+    // Proposal weights are integers for WeightedRandomGenerator; this is their total
+    private static final double PROPOSAL_RESOLUTION = 1 << 30;
+    private static final int BATCH_SIZE = SimulationPipeline.DEFAULT_BATCH_SIZE;
+
+    private final RuleIndex index;
+    private final RewardCalculator calculator;
+    private final int cellCount;
+    // Per cell, in proposal generator order
+    private final List<Map<String, Integer>> proposalWeights;
+    private final int[][] symbolIds;
+    private final double[][] logRatios;
+
+    /**
+     * @param tilt between 0 (the game's weights) and 1 (uniform over each cell's symbols)
+     * @param symbolBoosts extra positive factors on the proposal weight of named symbols
+     */
+    public ImportanceSampler(GameConfig config, double tilt, Map<String, Double> symbolBoosts) {
+        if (!(tilt >= 0 && tilt <= 1)) {
+            throw new IllegalArgumentException("Tilt must be between 0 and 1");
+        }
+        for (Map.Entry<String, Double> boost : symbolBoosts.entrySet()) {
+            if (!(boost.getValue() > 0) || Double.isInfinite(boost.getValue())) {
+                throw new IllegalArgumentException("Boost for symbol " + boost.getKey() + " must be positive");
+            }
+        }
+        this.index = new RuleIndex(config);
+        if (index.getModel().hasReelStrips()) {
+            throw new IllegalArgumentException("Importance sampling needs per-cell weights, not reel strips");
+        }
+        this.calculator = new RewardCalculator(config, index);
+        this.cellCount = index.getCellCount();
+
+        this.proposalWeights = new ArrayList<>(cellCount);
+        this.symbolIds = new int[cellCount][];
+        this.logRatios = new double[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            Map<String, Integer> weights = index.getModel().getCellWeights(cell);
+            if (weights == null) {
+                throw new IllegalArgumentException("No symbol probabilities for cell " + cell);
+            }
+            compileCell(cell, weights, tilt, symbolBoosts);
+        }
+    }
+
+    private void compileCell(int cell, Map<String, Integer> weights, double tilt, Map<String, Double> symbolBoosts) {
+        List<String> symbols = new ArrayList<>();
+        List<Double> probabilities = new ArrayList<>();
+        double total = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() > 0) {
+                symbols.add(entry.getKey());
+                probabilities.add((double) entry.getValue());
+                total += entry.getValue();
+            }
+        }
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("Invalid probability distribution: total weight must be positive");
+        }
+
+        double[] biased = new double[symbols.size()];
+        double biasedTotal = 0;
+        for (int i = 0; i < biased.length; i++) {
+            probabilities.set(i, probabilities.get(i) / total);
+            biased[i] = Math.pow(probabilities.get(i), 1 - tilt) * symbolBoosts.getOrDefault(symbols.get(i), 1.0);
+            biasedTotal += biased[i];
+        }
+
+        // Quantize the proposal and take the ratios from the quantized weights actually drawn
+        Map<String, Integer> proposal = new LinkedHashMap<>();
+        long proposalTotal = 0;
+        for (int i = 0; i < biased.length; i++) {
+            int weight = (int) Math.max(1, Math.round(biased[i] / biasedTotal * PROPOSAL_RESOLUTION));
+            proposal.put(symbols.get(i), weight);
+            proposalTotal += weight;
+        }
+        proposalWeights.add(proposal);
+        symbolIds[cell] = new int[biased.length];
+        logRatios[cell] = new double[biased.length];
+        for (int i = 0; i < biased.length; i++) {
+            CompiledSymbol symbol = index.getModel().findSymbol(symbols.get(i));
+            if (symbol == null) {
+                throw new IllegalArgumentException("Symbol configuration not found: " + symbols.get(i));
+            }
+            symbolIds[cell][i] = symbol.getId();
+            logRatios[cell][i] = Math.log(probabilities.get(i) / ((double) proposal.get(symbols.get(i)) / proposalTotal));
+        }
+    }
+
+    /**
+     * Plays {@code rounds} weighted rounds at the given bet.
+     */
+    public ImportanceEstimate run(double betAmount, long rounds, long seed) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be positive");
+        }
+        if (rounds <= 0) {
+            throw new IllegalArgumentException("Rounds must be positive");
+        }
+        Random random = new Random(seed);
+        WeightedRandomGenerator[] generators = new WeightedRandomGenerator[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            generators[cell] = new WeightedRandomGenerator(proposalWeights.get(cell), random);
+        }
+        BatchEvaluator evaluator = BatchEvaluator.create(index);
+        int symbolCount = index.getSymbolCount();
+        int ruleCount = index.getRuleCount();
+        double[] multiples = SimulationReport.EXCEEDANCE_MULTIPLES;
+
+        BoardBatch boards = new BoardBatch(cellCount, BATCH_SIZE);
+        long[] firedRules = new long[BATCH_SIZE * symbolCount];
+        double[] logWeights = new double[BATCH_SIZE];
+        long betMinor = calculator.toMinor(betAmount);
+
+        // Welford moments of weight x value over the rounds where it may be non-zero, for:
+        // rtp, hit, each exceedance, each rule
+        int quantities = 2 + multiples.length + ruleCount;
+        Moments moments = new Moments(quantities);
+        double weightSum = 0;
+        double weightSquares = 0;
+
+        long remaining = rounds;
+        while (remaining > 0) {
+            int count = (int) Math.min(BATCH_SIZE, remaining);
+            boards.setSize(count);
+            Arrays.fill(logWeights, 0, count, 0);
+            for (int cell = 0; cell < cellCount; cell++) {
+                byte[] column = boards.getColumn(cell);
+                int[] ids = symbolIds[cell];
+                double[] ratios = logRatios[cell];
+                WeightedRandomGenerator generator = generators[cell];
+                for (int board = 0; board < count; board++) {
+                    int drawn = generator.nextIndex();
+                    column[board] = (byte) ids[drawn];
+                    logWeights[board] += ratios[drawn];
+                }
+            }
+            evaluator.evaluate(boards, firedRules);
+
+            for (int board = 0; board < count; board++) {
+                double weight = Math.exp(logWeights[board]);
+                weightSum += weight;
+                weightSquares += weight * weight;
+
+                int offset = board * symbolCount;
+                long rules = 0;
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    rules |= firedRules[offset + symbol];
+                }
+                if (rules == 0) {
+                    continue;
+                }
+                double multiple = (double) calculator.reward(betMinor, firedRules, offset) / betMinor;
+                moments.add(0, weight * multiple);
+                if (multiple > 0) {
+                    moments.add(1, weight);
+                }
+                for (int k = 0; k < multiples.length; k++) {
+                    if (multiple > multiples[k]) {
+                        moments.add(2 + k, weight);
+                    }
+                }
+                while (rules != 0) {
+                    moments.add(2 + multiples.length + Long.numberOfTrailingZeros(rules), weight);
+                    rules &= rules - 1;
+                }
+            }
+            remaining -= count;
+        }
+
+        Map<String, ImportanceEstimate.Estimate> exceedance = new LinkedHashMap<>();
+        for (int k = 0; k < multiples.length; k++) {
+            exceedance.put(SimulationReport.label(multiples[k]) + "x", moments.estimate(2 + k, rounds));
+        }
+        Map<String, ImportanceEstimate.Estimate> combinations = new LinkedHashMap<>();
+        for (int rule = 0; rule < ruleCount; rule++) {
+            combinations.put(index.getRuleName(rule), moments.estimate(2 + multiples.length + rule, rounds));
+        }
+        return new ImportanceEstimate(rounds, weightSum * weightSum / weightSquares, CONFIDENCE_LEVEL,
+                moments.estimate(0, rounds), moments.estimate(1, rounds), exceedance, combinations);
+    }
+
+    /**
+     * Per-quantity count, mean and sum of squared deviations of the values added; rounds
+     * that added nothing count as zeros.
+     */
+    private static final class Moments {
+        final long[] counts;
+        final double[] means;
+        final double[] m2s;
+
+        Moments(int quantities) {
+            this.counts = new long[quantities];
+            this.means = new double[quantities];
+            this.m2s = new double[quantities];
+        }
+
+        void add(int quantity, double value) {
+            long count = ++counts[quantity];
+            double delta = value - means[quantity];
+            means[quantity] += delta / count;
+            m2s[quantity] += delta * (value - means[quantity]);
+        }
+
+        ImportanceEstimate.Estimate estimate(int quantity, long rounds) {
+            long count = counts[quantity];
+            double added = means[quantity];
+            // Chan's formula with the group of rounds - count zeros
+            double mean = added * count / rounds;
+            double m2 = m2s[quantity] + added * added * count * (double) (rounds - count) / rounds;
+            double variance = rounds > 1 ? m2 / (rounds - 1) : 0;
+            return new ImportanceEstimate.Estimate(mean, Math.sqrt(variance / rounds), Z);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.GameConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays the shards of a simulation on a thread pool in this process.
+ *
+ * Every shard is played by its own pipeline into its own statistics, so threads share
+ * nothing while playing; the statistics are merged in shard order at the end, giving the
+ * same result as {@link SimulationCoordinator} for the same shards.
+ */
+public final class ParallelSimulation {
+
+    private ParallelSimulation() {
+    }
+
+    public static SimulationStatistics run(GameConfig config, SimulationShard[] shards, int threads)
+            throws InterruptedException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("Simulation needs at least one shard");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SimulationStatistics>> results = new ArrayList<>();
+            for (SimulationShard shard : shards) {
+                results.add(executor.submit(() -> shard.run(config)));
+            }
+            SimulationStatistics merged = null;
+            for (Future<SimulationStatistics> result : results) {
+                SimulationStatistics statistics = result.get();
+                if (merged == null) {
+                    merged = statistics;
+                } else {
+                    merged.merge(statistics);
+                }
+            }
+            return merged;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Shard failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.scratchgame.simulation;
+
+/**
+ * How every virtual player in a {@link SessionSimulator} run plays: the starting balance,
+ * the bet strategy and the stop rules. Amounts are in minor units.
+ *
+ * A session ends with the first of: ruin, when the next bet exceeds the balance; the win
+ * goal, when the balance reaches it; or the round limit.
+ */
+public final class SessionPlan {
+    private final long startingBalance;
+    private final BetStrategy strategy;
+    private final int maxRounds;
+    private final long winGoal;
+
+    /**
+     * @param maxRounds rounds after which the player stops
+     * @param winGoal balance at which the player stops, or 0 for none
+     */
+    public SessionPlan(long startingBalance, BetStrategy strategy, int maxRounds, long winGoal) {
+        if (startingBalance <= 0) {
+            throw new IllegalArgumentException("Starting balance must be positive");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Round limit must be positive");
+        }
+        if (winGoal < 0) {
+            throw new IllegalArgumentException("Win goal cannot be negative");
+        }
+        this.startingBalance = startingBalance;
+        this.strategy = strategy;
+        this.maxRounds = maxRounds;
+        this.winGoal = winGoal;
+    }
+
+    public long getStartingBalance() {
+        return startingBalance;
+    }
+
+    public BetStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    public long getWinGoal() {
+        return winGoal;
+    }
+}
@@ -0,0 +1,82 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * How the sessions of a {@link SessionSimulator} run ended, in the snake_case JSON style
+ * of {@link SimulationReport}. Balances are in major units, session lengths in rounds.
+ */
+public class SessionReport {
+    long players;
+
+    @JsonProperty("risk_of_ruin")
+    double riskOfRuin;
+
+    @JsonProperty("win_goal_rate")
+    double winGoalRate;
+
+    @JsonProperty("round_limit_rate")
+    double roundLimitRate;
+
+    @JsonProperty("mean_session_length")
+    double meanSessionLength;
+
+    @JsonProperty("session_length_quantiles")
+    Map<String, Double> sessionLengthQuantiles;
+
+    @JsonProperty("mean_final_balance")
+    double meanFinalBalance;
+
+    @JsonProperty("final_balance_quantiles")
+    Map<String, Double> finalBalanceQuantiles;
+
+    @JsonProperty("big_win_rates")
+    Map<String, Double> bigWinRates;
+
+    SessionReport() {
+    }
+
+    public long getPlayers() {
+        return players;
+    }
+
+    /**
+     * Fraction of players who could no longer cover their next bet.
+     */
+    public double getRiskOfRuin() {
+        return riskOfRuin;
+    }
+
+    public double getWinGoalRate() {
+        return winGoalRate;
+    }
+
+    public double getRoundLimitRate() {
+        return roundLimitRate;
+    }
+
+    public double getMeanSessionLength() {
+        return meanSessionLength;
+    }
+
+    public Map<String, Double> getSessionLengthQuantiles() {
+        return sessionLengthQuantiles;
+    }
+
+    public double getMeanFinalBalance() {
+        return meanFinalBalance;
+    }
+
+    public Map<String, Double> getFinalBalanceQuantiles() {
+        return finalBalanceQuantiles;
+    }
+
+    /**
+     * Fractions of sessions with a round paying more than k times its bet, keyed like "100x".
+     */
+    public Map<String, Double> getBigWinRates() {
+        return bigWinRates;
+    }
+}
@@ -0,0 +1,331 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ReelStripGenerator;
+import com.scratchgame.SeedSequence;
+import com.scratchgame.WeightedRandomGenerator;
+import com.scratchgame.analysis.QuantileSketch;
+import com.scratchgame.evaluation.BatchEvaluator;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.CompiledSymbol;
+import com.scratchgame.money.RewardCalculator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays whole sessions of virtual players, each starting with a balance and betting by a
+ * {@link SessionPlan} until ruin, the win goal or the round limit, and reports how
+ * sessions end.
+ *
+ * The compiled game (rule index, reward calculator, and per-cell weights or reel strips)
+ * is built once and shared read-only by all threads. Players are played in blocks of
+ * {@link #PLAYERS_PER_BLOCK}: every round, one board is drawn per player still playing in
+ * the block, the boards are evaluated as one batch, and players whose session ended drop
+ * out of the next batch. Each block draws from its own seed derived from the run seed and
+ * the blocks are merged in order, so a run depends on the seed, not on the thread count.
+ *
+ * Bonus symbols are not drawn, as they leave the reward unchanged (see
+ * {@link com.scratchgame.ScratchGame#play(double)}).
+ */
+public final class SessionSimulator {
+    public static final int PLAYERS_PER_BLOCK = SimulationPipeline.DEFAULT_BATCH_SIZE;
+    private static final double[] BIG_WIN_MULTIPLES = {10, 100, 1000};
+    private static final byte RUIN = 0;
+    private static final byte WIN_GOAL = 1;
+    private static final byte ROUND_LIMIT = 2;
+
+    private final RuleIndex index;
+    private final RewardCalculator calculator;
+    private final int cellCount;
+    // Per cell, the symbol id of each position of its weights
+    private final int[][] cellSymbolIds;
+    private final ReelStripGenerator reelStrips;
+
+    public SessionSimulator(GameConfig config) {
+        this.index = new RuleIndex(config);
+        this.calculator = new RewardCalculator(config, index);
+        this.cellCount = index.getCellCount();
+        if (index.getSymbolCount() > BoardBatch.MAX_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + BoardBatch.MAX_SYMBOLS + " symbols fit a board batch");
+        }
+
+        this.reelStrips = index.getModel().hasReelStrips() ? new ReelStripGenerator(index.getModel()) : null;
+        this.cellSymbolIds = new int[cellCount][];
+        if (reelStrips == null) {
+            compileCells();
+        }
+    }
+
+    private void compileCells() {
+        for (int cell = 0; cell < cellCount; cell++) {
+            Map<String, Integer> weights = index.getModel().getCellWeights(cell);
+            if (weights == null) {
+                throw new IllegalArgumentException("No symbol probabilities for cell " + cell);
+            }
+            cellSymbolIds[cell] = new int[weights.size()];
+            int position = 0;
+            for (String name : weights.keySet()) {
+                CompiledSymbol symbol = index.getModel().findSymbol(name);
+                if (symbol == null) {
+                    throw new IllegalArgumentException("Symbol configuration not found: " + name);
+                }
+                cellSymbolIds[cell][position++] = symbol.getId();
+            }
+        }
+    }
+
+    /**
+     * Converts an amount to the minor units of the config's money scale.
+     */
+    public long toMinor(double amount) {
+        return calculator.toMinor(amount);
+    }
+
+    /**
+     * Plays {@code players} sessions on {@code threads} threads.
+     */
+    public SessionReport run(SessionPlan plan, long players, long seed, int threads) throws InterruptedException {
+        if (players <= 0) {
+            throw new IllegalArgumentException("Player count must be positive");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        long blocks = (players + PLAYERS_PER_BLOCK - 1) / PLAYERS_PER_BLOCK;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many players: " + players);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Tally>> results = new ArrayList<>();
+            for (int block = 0; block < blocks; block++) {
+                int size = (int) Math.min(PLAYERS_PER_BLOCK, players - (long) block * PLAYERS_PER_BLOCK);
+                long blockSeed = SeedSequence.derive(seed, block);
+                results.add(executor.submit(() -> playBlock(plan, size, blockSeed)));
+            }
+            Tally total = new Tally();
+            for (Future<Tally> result : results) {
+                total.merge(result.get());
+            }
+            return report(total);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Session block failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Tally playBlock(SessionPlan plan, int players, long seed) {
+        Random random = new Random(seed);
+        WeightedRandomGenerator[] generators = new WeightedRandomGenerator[cellCount];
+        for (int cell = 0; cell < cellCount && reelStrips == null; cell++) {
+            generators[cell] = new WeightedRandomGenerator(index.getModel().getCellWeights(cell), random);
+        }
+        BatchEvaluator evaluator = BatchEvaluator.create(index);
+        int symbolCount = index.getSymbolCount();
+        BoardBatch boards = new BoardBatch(cellCount, players);
+        long[] firedRules = new long[players * symbolCount];
+        BetStrategy strategy = plan.getStrategy();
+
+        long[] balances = new long[players];
+        long[] previousBets = new long[players];
+        long[] previousRewards = new long[players];
+        double[] biggestWins = new double[players];
+        Arrays.fill(balances, plan.getStartingBalance());
+        // Players still playing, as positions in the per-player arrays, with their bets this round
+        int[] playing = new int[players];
+        long[] bets = new long[players];
+        for (int player = 0; player < players; player++) {
+            playing[player] = player;
+        }
+        int playingCount = players;
+        Tally tally = new Tally();
+
+        for (int round = 0; playingCount > 0; round++) {
+            // Retire players whose session ends before this round
+            int stillPlaying = 0;
+            for (int k = 0; k < playingCount; k++) {
+                int player = playing[k];
+                long balance = balances[player];
+                byte outcome = -1;
+                long bet = 0;
+                if (plan.getWinGoal() > 0 && balance >= plan.getWinGoal()) {
+                    outcome = WIN_GOAL;
+                } else if (round == plan.getMaxRounds()) {
+                    outcome = ROUND_LIMIT;
+                } else {
+                    bet = strategy.nextBet(balance, previousBets[player], previousRewards[player]);
+                    if (bet <= 0) {
+                        throw new IllegalStateException("Bet strategy returned a non-positive bet: " + bet);
+                    }
+                    if (bet > balance) {
+                        outcome = RUIN;
+                    }
+                }
+                if (outcome >= 0) {
+                    tally.add(outcome, round, calculator.toMajor(balance), biggestWins[player]);
+                } else {
+                    playing[stillPlaying] = player;
+                    bets[stillPlaying] = bet;
+                    stillPlaying++;
+                }
+            }
+            playingCount = stillPlaying;
+            if (playingCount == 0) {
+                break;
+            }
+
+            boards.setSize(playingCount);
+            if (reelStrips != null) {
+                reelStrips.drawBoards(random, boards, playingCount);
+            }
+            for (int cell = 0; cell < cellCount && reelStrips == null; cell++) {
+                byte[] column = boards.getColumn(cell);
+                int[] ids = cellSymbolIds[cell];
+                WeightedRandomGenerator generator = generators[cell];
+                for (int k = 0; k < playingCount; k++) {
+                    column[k] = (byte) ids[generator.nextIndex()];
+                }
+            }
+            evaluator.evaluate(boards, firedRules);
+
+            for (int k = 0; k < playingCount; k++) {
+                int player = playing[k];
+                long reward = calculator.reward(bets[k], firedRules, k * symbolCount);
+                balances[player] = Math.addExact(balances[player] - bets[k], reward);
+                previousBets[player] = bets[k];
+                previousRewards[player] = reward;
+                biggestWins[player] = Math.max(biggestWins[player], (double) reward / bets[k]);
+            }
+        }
+        return tally;
+    }
+
+    private SessionReport report(Tally tally) {
+        SessionReport report = new SessionReport();
+        report.players = tally.players;
+        report.riskOfRuin = (double) tally.outcomes[RUIN] / tally.players;
+        report.winGoalRate = (double) tally.outcomes[WIN_GOAL] / tally.players;
+        report.roundLimitRate = (double) tally.outcomes[ROUND_LIMIT] / tally.players;
+        report.meanSessionLength = (double) tally.roundSum / tally.players;
+        report.meanFinalBalance = tally.balanceSum / tally.players;
+        report.sessionLengthQuantiles = new LinkedHashMap<>();
+        report.finalBalanceQuantiles = new LinkedHashMap<>();
+        for (double q : SimulationReport.QUANTILES) {
+            // Lengths are whole rounds; the sketch only resolves them to 1%
+            report.sessionLengthQuantiles.put(SimulationReport.percentileLabel(q), (double) Math.round(tally.lengths.quantile(q)));
+            report.finalBalanceQuantiles.put(SimulationReport.percentileLabel(q), tally.balances.quantile(q));
+        }
+        report.bigWinRates = new LinkedHashMap<>();
+        for (int k = 0; k < BIG_WIN_MULTIPLES.length; k++) {
+            report.bigWinRates.put(SimulationReport.label(BIG_WIN_MULTIPLES[k]) + "x",
+                    (double) tally.bigWins[k] / tally.players);
+        }
+        return report;
+    }
+
+    /**
+     * How the sessions of some players ended.
+     */
+    private static final class Tally {
+        long players;
+        final long[] outcomes = new long[3];
+        long roundSum;
+        double balanceSum;
+        final QuantileSketch lengths = new QuantileSketch();
+        final QuantileSketch balances = new QuantileSketch();
+        final long[] bigWins = new long[BIG_WIN_MULTIPLES.length];
+
+        void add(byte outcome, int rounds, double finalBalance, double biggestWin) {
+            players++;
+            outcomes[outcome]++;
+            roundSum += rounds;
+            balanceSum += finalBalance;
+            lengths.add(rounds);
+            balances.add(finalBalance);
+            for (int k = 0; k < BIG_WIN_MULTIPLES.length; k++) {
+                if (biggestWin > BIG_WIN_MULTIPLES[k]) {
+                    bigWins[k]++;
+                }
+            }
+        }
+
+        void merge(Tally other) {
+            players += other.players;
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                outcomes[outcome] += other.outcomes[outcome];
+            }
+            roundSum += other.roundSum;
+            balanceSum += other.balanceSum;
+            lengths.merge(other.lengths);
+            balances.merge(other.balances);
+            for (int k = 0; k < bigWins.length; k++) {
+                bigWins[k] += other.bigWins[k];
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("--config") || !options.containsKey("--starting-balance")
+                || !options.containsKey("--betting-amount") || !options.containsKey("--players")) {
+            System.out.println("Usage: java -cp scratch-game.jar com.scratchgame.simulation.SessionSimulator"
+                    + " --config <config-file> --starting-balance <amount> --betting-amount <amount> --players <players>"
+                    + " [--strategy flat|martingale|proportional] [--max-bet <amount>] [--bet-fraction <fraction>]"
+                    + " [--max-rounds <rounds>] [--win-goal <amount>] [--seed <seed>] [--threads <threads>]");
+            System.exit(1);
+        }
+
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            GameConfig config = mapper.readValue(new File(options.get("--config")), GameConfig.class);
+            SessionSimulator simulator = new SessionSimulator(config);
+            long startingBalance = simulator.toMinor(Double.parseDouble(options.get("--starting-balance")));
+            long bet = simulator.toMinor(Double.parseDouble(options.get("--betting-amount")));
+            BetStrategy strategy;
+            String name = options.getOrDefault("--strategy", "flat");
+            if ("flat".equals(name)) {
+                strategy = BetStrategy.flat(bet);
+            } else if ("martingale".equals(name)) {
+                strategy = BetStrategy.martingale(bet, options.containsKey("--max-bet")
+                        ? simulator.toMinor(Double.parseDouble(options.get("--max-bet"))) : startingBalance);
+            } else if ("proportional".equals(name)) {
+                strategy = BetStrategy.proportional(Double.parseDouble(options.getOrDefault("--bet-fraction", "0.05")), bet);
+            } else {
+                throw new IllegalArgumentException("Unknown bet strategy: " + name);
+            }
+            SessionPlan plan = new SessionPlan(startingBalance, strategy,
+                    Integer.parseInt(options.getOrDefault("--max-rounds", "1000")),
+                    options.containsKey("--win-goal") ? simulator.toMinor(Double.parseDouble(options.get("--win-goal"))) : 0);
+
+            SessionReport report = simulator.run(plan, Long.parseLong(options.get("--players")),
+                    Long.parseLong(options.getOrDefault("--seed", "0")),
+                    Integer.parseInt(options.getOrDefault("--threads",
+                            String.valueOf(Runtime.getRuntime().availableProcessors()))));
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } catch (IllegalArgumentException | IllegalStateException | ArithmeticException e) {
+            System.err.println("Simulation error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
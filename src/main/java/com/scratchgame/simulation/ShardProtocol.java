@@ -0,0 +1,50 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Messages between {@link SimulationCoordinator} and {@link SimulationWorker}, each a
+ * type byte followed by its payload:
+ *
+ * coordinator to worker: CONFIG (length-prefixed config JSON, once), SHARD, DONE;
+ * worker to coordinator: RESULT (shard index and statistics) or ERROR (shard index and
+ * message) for every SHARD.
+ */
+final class ShardProtocol {
+    static final byte CONFIG = 1;
+    static final byte SHARD = 2;
+    static final byte DONE = 3;
+    static final byte RESULT = 4;
+    static final byte ERROR = 5;
+
+    private static final int MAX_CONFIG_BYTES = 16 * 1024 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ShardProtocol() {
+    }
+
+    static void writeConfig(DataOutput out, GameConfig config) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(config);
+        out.writeByte(CONFIG);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    /**
+     * Reads the config after its type byte.
+     */
+    static GameConfig readConfig(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_CONFIG_BYTES) {
+            throw new IOException("Invalid config length: " + length);
+        }
+        byte[] json = new byte[length];
+        in.readFully(json);
+        return MAPPER.readValue(json, GameConfig.class);
+    }
+}
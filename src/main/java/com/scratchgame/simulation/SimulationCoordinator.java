@@ -0,0 +1,359 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.GameModel;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of a simulation split into {@link SimulationShard}s and played by
+ * {@link SimulationWorker} processes over sockets.
+ *
+ * Every connecting worker receives the config, then one shard at a time. A shard whose
+ * worker disconnects, dies or exceeds the shard timeout goes back to the queue for
+ * another worker, so shards must be small enough to finish well within the timeout; the
+ * command line sizes them by rounds for that reason. A run with shards outstanding and
+ * no worker connected for a whole shard timeout fails instead of waiting forever. Shard
+ * results are merged in shard order once all have arrived, so a
+ * run is reproducible from its seed whichever workers played it. With a
+ * {@link CheckpointStore}, every result is checkpointed as it arrives and a restarted
+ * coordinator only issues the shards without a checkpoint.
+ */
+public final class SimulationCoordinator implements Closeable {
+    public static final long DEFAULT_SHARD_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    // Default shard size of the command line, minutes of play for a single worker
+    public static final long DEFAULT_SHARD_ROUNDS = 10_000_000;
+    private static final long POLL_MILLIS = 50;
+
+    private final GameConfig config;
+    private final SimulationShard[] shards;
+    private final SimulationStatistics[] results;
+    private final CheckpointStore checkpoints;
+    private int resumed;
+    private final BlockingQueue<SimulationShard> pending = new LinkedBlockingQueue<>();
+    private final CountDownLatch remaining;
+    private final ServerSocket server;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final List<Process> localWorkers = new ArrayList<>();
+    private final AtomicInteger reissued = new AtomicInteger();
+    private volatile long shardTimeoutMillis = DEFAULT_SHARD_TIMEOUT_MILLIS;
+    private volatile String failure;
+    private SimulationStatistics merged;
+    private volatile boolean closed;
+    // Last time awaitResult saw a connected worker
+    private long connectedNanos = System.nanoTime();
+
+    /**
+     * Listens on the loopback interface; port 0 picks a free port.
+     */
+    public SimulationCoordinator(GameConfig config, SimulationShard[] shards, int port) throws IOException {
+        this(config, shards, InetAddress.getLoopbackAddress(), port);
+    }
+
+    public SimulationCoordinator(GameConfig config, SimulationShard[] shards, InetAddress bindAddress, int port) throws IOException {
+        this(config, shards, null, bindAddress, port);
+    }
+
+    /**
+     * @param checkpoints store to resume from and checkpoint to, or null
+     * @throws IllegalArgumentException or IllegalStateException for an invalid config, before
+     *                                  any shard is issued
+     */
+    public SimulationCoordinator(GameConfig config, SimulationShard[] shards, CheckpointStore checkpoints,
+                                 InetAddress bindAddress, int port) throws IOException {
+        // Fail fast on an invalid config instead of in every worker
+        new GameModel(config);
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("Simulation needs at least one shard");
+        }
+        this.config = config;
+        this.shards = shards.clone();
+        this.results = new SimulationStatistics[shards.length];
+        this.checkpoints = checkpoints;
+        this.remaining = new CountDownLatch(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i].getIndex() != i) {
+                throw new IllegalArgumentException("Shard " + i + " has index " + shards[i].getIndex());
+            }
+            SimulationStatistics checkpointed = checkpoints != null ? checkpoints.load(shards[i]) : null;
+            if (checkpointed != null) {
+                complete(i, checkpointed);
+                resumed++;
+            } else {
+                pending.add(shards[i]);
+            }
+        }
+
+        this.server = new ServerSocket(port, 50, bindAddress);
+        Thread acceptor = new Thread(this::acceptWorkers, "simulation-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptWorkers() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                // Closed with the coordinator
+                return;
+            }
+            Thread handler = new Thread(() -> serve(socket), "simulation-worker-" + socket.getPort());
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    private void serve(Socket socket) {
+        connections.add(socket);
+        SimulationShard shard = null;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, shardTimeoutMillis));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            ShardProtocol.writeConfig(out, config);
+            out.flush();
+
+            while (!closed && remaining.getCount() > 0) {
+                shard = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    continue;
+                }
+                out.writeByte(ShardProtocol.SHARD);
+                shard.writeTo(out);
+                out.flush();
+
+                byte type = in.readByte();
+                int index = in.readInt();
+                if (index != shard.getIndex()) {
+                    throw new IOException("Worker answered shard " + index + " for shard " + shard.getIndex());
+                }
+                if (type == ShardProtocol.RESULT) {
+                    SimulationStatistics statistics = SimulationStatistics.readFrom(in);
+                    checkpoint(shard, statistics);
+                    complete(index, statistics);
+                } else if (type == ShardProtocol.ERROR) {
+                    failure = "Shard " + index + " failed: " + in.readUTF();
+                } else {
+                    throw new IOException("Unexpected message type: " + type);
+                }
+                shard = null;
+            }
+            out.writeByte(ShardProtocol.DONE);
+            out.flush();
+        } catch (IOException e) {
+            // The worker died, hung or broke the protocol; its shard goes to another worker
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (shard != null && !closed) {
+                reissued.incrementAndGet();
+                pending.add(shard);
+            }
+            connections.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private void checkpoint(SimulationShard shard, SimulationStatistics statistics) {
+        if (checkpoints == null) {
+            return;
+        }
+        try {
+            checkpoints.save(shard, statistics);
+        } catch (IOException e) {
+            failure = "Could not checkpoint shard " + shard.getIndex() + ": " + e.getMessage();
+        }
+    }
+
+    private void complete(int index, SimulationStatistics statistics) {
+        synchronized (results) {
+            if (results[index] == null) {
+                results[index] = statistics;
+                remaining.countDown();
+            }
+        }
+    }
+
+    /**
+     * Waits for every shard and merges their statistics in shard order.
+     *
+     * @throws IllegalStateException if a shard fails in a worker, no worker is connected for
+     *                               a whole shard timeout, or the timeout passes first
+     */
+    public SimulationStatistics awaitResult(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!remaining.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure != null) {
+                throw new IllegalStateException(failure);
+            }
+            long now = System.nanoTime();
+            if (!connections.isEmpty()) {
+                connectedNanos = now;
+            } else if (now - connectedNanos > TimeUnit.MILLISECONDS.toNanos(shardTimeoutMillis)) {
+                throw new IllegalStateException("No workers left with " + remaining.getCount() + " shards outstanding");
+            }
+            if (now - deadline > 0) {
+                throw new IllegalStateException("Simulation timed out with " + remaining.getCount() + " shards outstanding");
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+
+        synchronized (results) {
+            if (merged == null) {
+                merged = results[0];
+                for (int i = 1; i < results.length; i++) {
+                    merged.merge(results[i]);
+                }
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Starts worker JVMs on this machine with the current classpath, connected to this
+     * coordinator. They are destroyed by {@link #close()}.
+     */
+    public List<Process> startLocalWorkers(int count) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> started = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    SimulationWorker.class.getName(), server.getInetAddress().getHostAddress(), String.valueOf(getPort()));
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+            started.add(builder.start());
+        }
+        synchronized (localWorkers) {
+            localWorkers.addAll(started);
+        }
+        return started;
+    }
+
+    /**
+     * How long a worker may take to answer a shard before it is treated as dead, and how
+     * long a run may go without any connected worker. Applies to workers that connect
+     * afterwards.
+     */
+    public void setShardTimeoutMillis(long shardTimeoutMillis) {
+        if (shardTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Shard timeout must be positive");
+        }
+        this.shardTimeoutMillis = shardTimeoutMillis;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Shards handed out again after their worker was lost.
+     */
+    public int getReissuedShards() {
+        return reissued.get();
+    }
+
+    /**
+     * Shards loaded from checkpoints instead of being issued.
+     */
+    public int getResumedShards() {
+        return resumed;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(server);
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        synchronized (localWorkers) {
+            for (Process worker : localWorkers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing left to do with a connection that fails to close
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("--config") || !options.containsKey("--betting-amount")
+                || !options.containsKey("--rounds")) {
+            System.out.println("Usage: java -cp scratch-game.jar com.scratchgame.simulation.SimulationCoordinator"
+                    + " --config <config-file> --betting-amount <amount> --rounds <rounds>"
+                    + " [--seed <seed>] [--shards <shards>] [--port <port>] [--workers <local workers>]"
+                    + " [--shard-timeout <seconds>] [--checkpoint-dir <directory>]");
+            System.exit(1);
+        }
+
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            GameConfig config = mapper.readValue(new File(options.get("--config")), GameConfig.class);
+            long rounds = Long.parseLong(options.get("--rounds"));
+            int workers = Integer.parseInt(options.getOrDefault("--workers", "0"));
+            // Enough shards to keep every worker busy, each small enough to beat the shard timeout
+            long sizedShards = Math.max(Math.max(1, workers) * 4L, (rounds + DEFAULT_SHARD_ROUNDS - 1) / DEFAULT_SHARD_ROUNDS);
+            int shardCount = Integer.parseInt(options.getOrDefault("--shards",
+                    String.valueOf(Math.min(Integer.MAX_VALUE, sizedShards))));
+            SimulationShard[] shards = SimulationShard.split(Long.parseLong(options.getOrDefault("--seed", "0")),
+                    rounds, shardCount, Double.parseDouble(options.get("--betting-amount")));
+
+            CheckpointStore checkpoints = options.containsKey("--checkpoint-dir")
+                    ? new CheckpointStore(Paths.get(options.get("--checkpoint-dir")), config) : null;
+
+            try (SimulationCoordinator coordinator = new SimulationCoordinator(config, shards, checkpoints,
+                    InetAddress.getLoopbackAddress(), Integer.parseInt(options.getOrDefault("--port", "0")))) {
+                if (options.containsKey("--shard-timeout")) {
+                    coordinator.setShardTimeoutMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(options.get("--shard-timeout"))));
+                }
+                System.err.println("Coordinator listening on port " + coordinator.getPort());
+                coordinator.startLocalWorkers(workers);
+                SimulationStatistics statistics = coordinator.awaitResult(TimeUnit.DAYS.toMillis(365));
+
+                System.err.println("Resumed shards: " + coordinator.getResumedShards()
+                        + ", reissued shards: " + coordinator.getReissuedShards());
+                SimulationReport report = SimulationReport.of(statistics, new GameModel(config));
+                System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } catch (IllegalArgumentException | IllegalStateException | ArithmeticException e) {
+            System.err.println("Simulation error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.ScratchGame;
+import com.scratchgame.evaluation.BatchEvaluator;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.money.RewardCalculator;
+
+/**
+ * Plays rounds in fixed-size batches kept as structure-of-arrays, for simulations that
+ * only need aggregates rather than a {@link com.scratchgame.model.GameResult} per round.
+ *
+ * Each batch runs in stages over reused arrays: generation fills one symbol column per
+ * cell, the {@link BatchEvaluator} writes per-symbol fired-rule masks, rewards are
+ * computed into a {@code long[]} of minor units, and winning rounds draw a bonus symbol
+ * into an {@code int[]}. No object is allocated per round. As in
+ * {@link ScratchGame#play(double)}, the drawn bonus symbol is reported but does not change
+ * the reward.
+ *
+ * A pipeline draws from its game's generators and is not thread-safe; run one pipeline
+ * per game instance and merge their statistics.
+ */
+public final class SimulationPipeline {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final ScratchGame game;
+    private final RewardCalculator calculator;
+    private final BatchEvaluator evaluator;
+    private final int symbolCount;
+    private final int batchSize;
+
+    private final BoardBatch boards;
+    private final long[] symbolRules;
+    private final long[] rewards;
+    private final long[] firedRules;
+    private final int[] bonusIndices;
+    private int size;
+
+    public SimulationPipeline(ScratchGame game) {
+        this(game, DEFAULT_BATCH_SIZE);
+    }
+
+    public SimulationPipeline(ScratchGame game, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        RuleIndex index = game.getRuleIndex();
+        this.game = game;
+        this.calculator = game.getRewardCalculator();
+        this.evaluator = BatchEvaluator.create(index);
+        this.symbolCount = index.getSymbolCount();
+        this.batchSize = batchSize;
+        this.boards = new BoardBatch(index.getCellCount(), batchSize);
+        this.symbolRules = new long[batchSize * symbolCount];
+        this.rewards = new long[batchSize];
+        this.firedRules = new long[batchSize];
+        this.bonusIndices = new int[batchSize];
+    }
+
+    /**
+     * Plays {@code rounds} rounds at the given bet and reduces them into new statistics.
+     */
+    public SimulationStatistics run(double betAmount, long rounds) {
+        SimulationStatistics statistics = newStatistics();
+        run(betAmount, rounds, statistics);
+        return statistics;
+    }
+
+    /**
+     * Plays {@code rounds} rounds at the given bet and adds them to the statistics.
+     */
+    public void run(double betAmount, long rounds, SimulationStatistics statistics) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Bet amount must be positive");
+        }
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Rounds cannot be negative");
+        }
+        long betMinor = calculator.toMinor(betAmount);
+        long remaining = rounds;
+        while (remaining > 0) {
+            int count = (int) Math.min(batchSize, remaining);
+            playBatch(betMinor, count);
+            statistics.add(betMinor, rewards, firedRules, bonusIndices, count);
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Plays one batch of {@code count} rounds into the pipeline arrays, which stay valid
+     * until the next batch.
+     */
+    public void playBatch(long betMinor, int count) {
+        if (count > batchSize) {
+            throw new IllegalArgumentException("Batch holds at most " + batchSize + " rounds");
+        }
+        game.drawBoards(boards, count);
+        evaluator.evaluate(boards, symbolRules);
+
+        for (int round = 0; round < count; round++) {
+            int offset = round * symbolCount;
+            long rules = 0;
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                rules |= symbolRules[offset + symbol];
+            }
+            firedRules[round] = rules;
+            rewards[round] = rules == 0 ? 0 : calculator.reward(betMinor, symbolRules, offset);
+        }
+
+        for (int round = 0; round < count; round++) {
+            bonusIndices[round] = rewards[round] > 0 ? game.drawBonusIndex() : -1;
+        }
+        size = count;
+    }
+
+    public SimulationStatistics newStatistics() {
+        return new SimulationStatistics(game.getRuleIndex().getRuleCount(), game.getBonusSymbolCount(),
+                calculator.getMinorDigits());
+    }
+
+    /**
+     * Rounds in the last batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Boards of the last batch, one symbol column per cell.
+     */
+    public BoardBatch getBoards() {
+        return boards;
+    }
+
+    /**
+     * Fired-rule masks of the last batch, indexed by {@code round * symbolCount + symbol}.
+     */
+    public long[] getSymbolRules() {
+        return symbolRules;
+    }
+
+    /**
+     * Rewards of the last batch in minor units.
+     */
+    public long[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Union of the rules fired on each round of the last batch.
+     */
+    public long[] getFiredRules() {
+        return firedRules;
+    }
+
+    /**
+     * Bonus symbol drawn on each round of the last batch, as its position in the bonus
+     * probabilities, or -1 when none was drawn.
+     */
+    public int[] getBonusIndices() {
+        return bonusIndices;
+    }
+
+    public String getEvaluatorName() {
+        return evaluator.getName();
+    }
+}
@@ -0,0 +1,136 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.scratchgame.analysis.PayoutHistogram;
+import com.scratchgame.model.runtime.GameModel;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Payout distribution report of a simulation, serialized in the same snake_case JSON
+ * style as {@link com.scratchgame.model.GameResult}. Quantiles, exceedance probabilities
+ * and histogram bounds are in multiples of the bet.
+ */
+public class SimulationReport {
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 0.9999, 0.99999};
+    static final double[] EXCEEDANCE_MULTIPLES = {1, 2, 5, 10, 20, 50, 100, 1000, 10000};
+
+    private long rounds;
+    private double rtp;
+
+    @JsonProperty("hit_frequency")
+    private double hitFrequency;
+
+    @JsonProperty("mean_payout")
+    private double meanPayout;
+
+    @JsonProperty("standard_deviation")
+    private double standardDeviation;
+
+    @JsonProperty("max_win")
+    private double maxWin;
+
+    @JsonProperty("payout_quantiles")
+    private Map<String, Double> payoutQuantiles;
+
+    @JsonProperty("exceedance_probabilities")
+    private Map<String, Double> exceedanceProbabilities;
+
+    @JsonProperty("payout_histogram")
+    private Map<String, Long> payoutHistogram;
+
+    @JsonProperty("win_combination_frequencies")
+    private Map<String, Double> winCombinationFrequencies;
+
+    /**
+     * Builds the report of statistics simulated on the given model.
+     */
+    public static SimulationReport of(SimulationStatistics statistics, GameModel model) {
+        SimulationReport report = new SimulationReport();
+        report.rounds = statistics.getRounds();
+        report.rtp = statistics.getRtp();
+        report.hitFrequency = statistics.getHitRate();
+        report.meanPayout = statistics.getMeanPayout();
+        report.standardDeviation = statistics.getStandardDeviation();
+        report.maxWin = statistics.getMaxRewardMinor() / Math.pow(10, statistics.getMinorDigits());
+
+        report.payoutQuantiles = new LinkedHashMap<>();
+        for (double q : QUANTILES) {
+            report.payoutQuantiles.put(percentileLabel(q), statistics.getPayoutQuantile(q));
+        }
+        report.exceedanceProbabilities = new LinkedHashMap<>();
+        for (double multiple : EXCEEDANCE_MULTIPLES) {
+            report.exceedanceProbabilities.put(label(multiple) + "x", statistics.getExceedanceProbability(multiple));
+        }
+
+        // Non-empty buckets keyed by their inclusive upper bound
+        PayoutHistogram histogram = statistics.getHistogram();
+        report.payoutHistogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < histogram.getBucketCount(); bucket++) {
+            if (histogram.getCount(bucket) != 0) {
+                double bound = histogram.getUpperBound(bucket);
+                report.payoutHistogram.put(Double.isInfinite(bound) ? "inf" : label(bound) + "x", histogram.getCount(bucket));
+            }
+        }
+
+        report.winCombinationFrequencies = new LinkedHashMap<>();
+        for (int rule = 0; rule < model.getRuleCount(); rule++) {
+            double frequency = report.rounds == 0 ? 0 : (double) statistics.getRuleHits(rule) / report.rounds;
+            report.winCombinationFrequencies.put(model.getRule(rule).getName(), frequency);
+        }
+        return report;
+    }
+
+    /**
+     * Key of a quantile, like "p99.9" for 0.999.
+     */
+    static String percentileLabel(double q) {
+        return "p" + new BigDecimal(Double.toString(q)).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
+    static String label(double value) {
+        return new BigDecimal(Double.toString(value)).stripTrailingZeros().toPlainString();
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public double getHitFrequency() {
+        return hitFrequency;
+    }
+
+    public double getMeanPayout() {
+        return meanPayout;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getMaxWin() {
+        return maxWin;
+    }
+
+    public Map<String, Double> getPayoutQuantiles() {
+        return payoutQuantiles;
+    }
+
+    public Map<String, Double> getExceedanceProbabilities() {
+        return exceedanceProbabilities;
+    }
+
+    public Map<String, Long> getPayoutHistogram() {
+        return payoutHistogram;
+    }
+
+    public Map<String, Double> getWinCombinationFrequencies() {
+        return winCombinationFrequencies;
+    }
+}
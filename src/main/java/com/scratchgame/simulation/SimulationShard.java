@@ -0,0 +1,82 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.ScratchGame;
+import com.scratchgame.SeedSequence;
+import com.scratchgame.model.GameConfig;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One slice of a seeded simulation run.
+ *
+ * A shard's statistics depend only on the config and the shard itself, so a shard
+ * re-issued after a worker dies, or run on a different machine, gives the same result.
+ */
+public final class SimulationShard {
+    private final int index;
+    private final long seed;
+    private final long rounds;
+    private final double betAmount;
+
+    public SimulationShard(int index, long seed, long rounds, double betAmount) {
+        this.index = index;
+        this.seed = seed;
+        this.rounds = rounds;
+        this.betAmount = betAmount;
+    }
+
+    /**
+     * Splits {@code rounds} into {@code shardCount} shards whose seeds derive from the run seed.
+     */
+    public static SimulationShard[] split(long runSeed, long rounds, int shardCount, double betAmount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Rounds cannot be negative");
+        }
+        SimulationShard[] shards = new SimulationShard[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            // The first rounds % shardCount shards take one extra round
+            long shardRounds = rounds / shardCount + (shard < rounds % shardCount ? 1 : 0);
+            shards[shard] = new SimulationShard(shard, SeedSequence.derive(runSeed, shard), shardRounds, betAmount);
+        }
+        return shards;
+    }
+
+    /**
+     * Plays the shard on a freshly seeded game.
+     */
+    public SimulationStatistics run(GameConfig config) {
+        return new SimulationPipeline(new ScratchGame(config, seed)).run(betAmount, rounds);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(index);
+        out.writeLong(seed);
+        out.writeLong(rounds);
+        out.writeDouble(betAmount);
+    }
+
+    public static SimulationShard readFrom(DataInput in) throws IOException {
+        return new SimulationShard(in.readInt(), in.readLong(), in.readLong(), in.readDouble());
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public double getBetAmount() {
+        return betAmount;
+    }
+}
@@ -0,0 +1,272 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.analysis.PayoutHistogram;
+import com.scratchgame.analysis.QuantileSketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Aggregate statistics of simulated rounds, reduced straight from the arrays filled by
+ * {@link SimulationPipeline}.
+ *
+ * Amounts are kept in minor units. Besides sums and counts, the distribution of payouts in
+ * multiples of the bet is kept in a {@link QuantileSketch} and a {@link PayoutHistogram},
+ * both of fixed size. The payout variance is kept as a running mean and sum of squared
+ * deviations (Welford), and partial results are combined with Chan's parallel formula, so
+ * it stays accurate when the mean is large next to the spread. Instances are not
+ * thread-safe; give each worker its own and {@link #merge} them at the end.
+ * {@link #writeTo} and {@link #readFrom} carry them between processes.
+ */
+public final class SimulationStatistics {
+    private final long[] ruleHits;
+    private final long[] bonusHits;
+    private final int minorDigits;
+    private final double minorScale;
+    private final QuantileSketch sketch = new QuantileSketch();
+    private PayoutHistogram histogram = new PayoutHistogram();
+
+    private long rounds;
+    private long winningRounds;
+    private long totalBetMinor;
+    private long totalPaidMinor;
+    private long maxRewardMinor;
+    // Mean payout per round and sum of squared deviations from it, in major units
+    private double payoutMean;
+    private double payoutM2;
+
+    public SimulationStatistics(int ruleCount, int bonusSymbolCount, int minorDigits) {
+        this.ruleHits = new long[ruleCount];
+        this.bonusHits = new long[bonusSymbolCount];
+        this.minorDigits = minorDigits;
+        this.minorScale = Math.pow(10, minorDigits);
+    }
+
+    /**
+     * Adds the first {@code count} rounds of a batch.
+     *
+     * @param rewards reward of each round in minor units
+     * @param firedRules union of the rules fired on each round, one bit per rule
+     * @param bonusIndices bonus symbol drawn on each round, or -1 when none was drawn
+     */
+    public void add(long betMinor, long[] rewards, long[] firedRules, int[] bonusIndices, int count) {
+        long paid = 0;
+        long wins = 0;
+        long max = maxRewardMinor;
+        double winMean = 0;
+        double winM2 = 0;
+        for (int round = 0; round < count; round++) {
+            long reward = rewards[round];
+            if (reward == 0) {
+                continue;
+            }
+            paid = Math.addExact(paid, reward);
+            wins++;
+            max = Math.max(max, reward);
+            double major = reward / minorScale;
+            double delta = major - winMean;
+            winMean += delta / wins;
+            winM2 += delta * (major - winMean);
+            double multiple = (double) reward / betMinor;
+            sketch.add(multiple);
+            histogram.add(multiple);
+
+            long rules = firedRules[round];
+            while (rules != 0) {
+                ruleHits[Long.numberOfTrailingZeros(rules)]++;
+                rules &= rules - 1;
+            }
+            if (bonusIndices[round] >= 0) {
+                bonusHits[bonusIndices[round]]++;
+            }
+        }
+
+        sketch.add(0, count - wins);
+        histogram.add(0, count - wins);
+        // The losing rounds are a group of zero payouts with no spread
+        combineMoments(count, winMean * wins / count, winM2 + winMean * winMean * wins * (count - wins) / count);
+        rounds += count;
+        winningRounds += wins;
+        totalBetMinor = Math.addExact(totalBetMinor, Math.multiplyExact(betMinor, count));
+        totalPaidMinor = Math.addExact(totalPaidMinor, paid);
+        maxRewardMinor = max;
+    }
+
+    /**
+     * Folds the mean and squared deviations of {@code count} further rounds into this
+     * instance's, by Chan's formula; call before {@link #rounds} counts them.
+     */
+    private void combineMoments(long count, double mean, double m2) {
+        if (count == 0) {
+            return;
+        }
+        double total = (double) rounds + count;
+        double delta = mean - payoutMean;
+        payoutMean += delta * count / total;
+        payoutM2 += m2 + delta * delta * rounds * count / total;
+    }
+
+    /**
+     * Adds the rounds counted by another instance of the same game.
+     */
+    public void merge(SimulationStatistics other) {
+        if (other.ruleHits.length != ruleHits.length || other.bonusHits.length != bonusHits.length) {
+            throw new IllegalArgumentException("Statistics of different games cannot be merged");
+        }
+        combineMoments(other.rounds, other.payoutMean, other.payoutM2);
+        rounds += other.rounds;
+        winningRounds += other.winningRounds;
+        totalBetMinor = Math.addExact(totalBetMinor, other.totalBetMinor);
+        totalPaidMinor = Math.addExact(totalPaidMinor, other.totalPaidMinor);
+        maxRewardMinor = Math.max(maxRewardMinor, other.maxRewardMinor);
+        for (int rule = 0; rule < ruleHits.length; rule++) {
+            ruleHits[rule] += other.ruleHits[rule];
+        }
+        for (int bonus = 0; bonus < bonusHits.length; bonus++) {
+            bonusHits[bonus] += other.bonusHits[bonus];
+        }
+        sketch.merge(other.sketch);
+        histogram.merge(other.histogram);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(ruleHits.length);
+        out.writeInt(bonusHits.length);
+        out.writeInt(minorDigits);
+        out.writeLong(rounds);
+        out.writeLong(winningRounds);
+        out.writeLong(totalBetMinor);
+        out.writeLong(totalPaidMinor);
+        out.writeLong(maxRewardMinor);
+        out.writeDouble(payoutMean);
+        out.writeDouble(payoutM2);
+        for (long hits : ruleHits) {
+            out.writeLong(hits);
+        }
+        for (long hits : bonusHits) {
+            out.writeLong(hits);
+        }
+        sketch.writeTo(out);
+        histogram.writeTo(out);
+    }
+
+    /**
+     * Reads statistics written by {@link #writeTo}.
+     */
+    public static SimulationStatistics readFrom(DataInput in) throws IOException {
+        int ruleCount = in.readInt();
+        int bonusSymbolCount = in.readInt();
+        if (ruleCount < 0 || ruleCount > Long.SIZE || bonusSymbolCount < 0) {
+            throw new IOException("Corrupt simulation statistics");
+        }
+        SimulationStatistics statistics = new SimulationStatistics(ruleCount, bonusSymbolCount, in.readInt());
+        statistics.rounds = in.readLong();
+        statistics.winningRounds = in.readLong();
+        statistics.totalBetMinor = in.readLong();
+        statistics.totalPaidMinor = in.readLong();
+        statistics.maxRewardMinor = in.readLong();
+        statistics.payoutMean = in.readDouble();
+        statistics.payoutM2 = in.readDouble();
+        for (int rule = 0; rule < ruleCount; rule++) {
+            statistics.ruleHits[rule] = in.readLong();
+        }
+        for (int bonus = 0; bonus < bonusSymbolCount; bonus++) {
+            statistics.bonusHits[bonus] = in.readLong();
+        }
+        QuantileSketch sketch = QuantileSketch.readFrom(in);
+        if (sketch.getRelativeAccuracy() != statistics.sketch.getRelativeAccuracy()) {
+            throw new IOException("Corrupt simulation statistics");
+        }
+        statistics.sketch.merge(sketch);
+        statistics.histogram = PayoutHistogram.readFrom(in);
+        return statistics;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getWinningRounds() {
+        return winningRounds;
+    }
+
+    public long getTotalBetMinor() {
+        return totalBetMinor;
+    }
+
+    public long getTotalPaidMinor() {
+        return totalPaidMinor;
+    }
+
+    public long getMaxRewardMinor() {
+        return maxRewardMinor;
+    }
+
+    /**
+     * Return to player: total paid over total bet.
+     */
+    public double getRtp() {
+        return totalBetMinor == 0 ? 0 : (double) totalPaidMinor / totalBetMinor;
+    }
+
+    public double getHitRate() {
+        return rounds == 0 ? 0 : (double) winningRounds / rounds;
+    }
+
+    /**
+     * Mean payout per round in major units.
+     */
+    public double getMeanPayout() {
+        return rounds == 0 ? 0 : totalPaidMinor / minorScale / rounds;
+    }
+
+    /**
+     * Population variance of the payout per round in major units.
+     */
+    public double getPayoutVariance() {
+        return rounds == 0 ? 0 : payoutM2 / rounds;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getPayoutVariance());
+    }
+
+    /**
+     * Payout at quantile {@code q} in multiples of the bet, within the sketch's relative accuracy.
+     */
+    public double getPayoutQuantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    /**
+     * Fraction of rounds paying more than {@code multiple} times the bet; exact at the
+     * histogram's bucket bounds.
+     */
+    public double getExceedanceProbability(double multiple) {
+        return rounds == 0 ? 0 : (double) histogram.countAbove(multiple) / rounds;
+    }
+
+    public PayoutHistogram getHistogram() {
+        return histogram;
+    }
+
+    public int getMinorDigits() {
+        return minorDigits;
+    }
+
+    /**
+     * Winning rounds on which the rule fired for some symbol.
+     */
+    public long getRuleHits(int rule) {
+        return ruleHits[rule];
+    }
+
+    /**
+     * Winning rounds on which the bonus symbol at this position of the bonus probabilities
+     * was drawn.
+     */
+    public long getBonusHits(int bonusIndex) {
+        return bonusHits[bonusIndex];
+    }
+}
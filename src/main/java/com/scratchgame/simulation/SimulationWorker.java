@@ -0,0 +1,81 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.GameConfig;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * Worker process of a distributed simulation: connects to a {@link SimulationCoordinator},
+ * receives the config, then plays shards and returns their statistics until told it is
+ * done.
+ */
+public final class SimulationWorker {
+
+    private SimulationWorker() {
+    }
+
+    /**
+     * Serves shards from the coordinator until it sends DONE or closes the connection.
+     *
+     * @return the number of shards played
+     */
+    public static int run(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if (in.readByte() != ShardProtocol.CONFIG) {
+                throw new IOException("Expected the game configuration first");
+            }
+            GameConfig config = ShardProtocol.readConfig(in);
+
+            int played = 0;
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    return played;
+                }
+                if (type == ShardProtocol.DONE) {
+                    return played;
+                }
+                if (type != ShardProtocol.SHARD) {
+                    throw new IOException("Unexpected message type: " + type);
+                }
+
+                SimulationShard shard = SimulationShard.readFrom(in);
+                try {
+                    SimulationStatistics statistics = shard.run(config);
+                    out.writeByte(ShardProtocol.RESULT);
+                    out.writeInt(shard.getIndex());
+                    statistics.writeTo(out);
+                } catch (IllegalArgumentException | IllegalStateException | ArithmeticException e) {
+                    out.writeByte(ShardProtocol.ERROR);
+                    out.writeInt(shard.getIndex());
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+                played++;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java -cp scratch-game.jar com.scratchgame.simulation.SimulationWorker <host> <port>");
+            System.exit(1);
+        }
+        try {
+            run(args[0], Integer.parseInt(args[1]));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + args[1]);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Worker error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
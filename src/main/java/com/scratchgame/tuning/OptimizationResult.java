@@ -0,0 +1,54 @@
+package com.scratchgame.tuning;
+
+import com.scratchgame.model.GameConfig;
+
+/**
+ * Best config found by a {@link WeightOptimizer} run, with the figures it was scored on.
+ */
+public final class OptimizationResult {
+    private final GameConfig config;
+    private final double rtp;
+    private final double hitFrequency;
+    private final double score;
+    private final long evaluations;
+
+    OptimizationResult(GameConfig config, double rtp, double hitFrequency, double score, long evaluations) {
+        this.config = config;
+        this.rtp = rtp;
+        this.hitFrequency = hitFrequency;
+        this.score = score;
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * The input config with the tuned standard_symbols weights, ready to write as config.json.
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    /**
+     * Simulated hit frequency, or NaN when only an exact RTP was needed.
+     */
+    public double getHitFrequency() {
+        return hitFrequency;
+    }
+
+    /**
+     * Sum of squared log-ratios of the scored figures to their targets; 0 hits them exactly.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Candidates scored over all chains.
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
@@ -0,0 +1,320 @@
+package com.scratchgame.tuning;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.analysis.SameSymbolsAnalysis;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.simulation.SimulationPipeline;
+import com.scratchgame.simulation.SimulationStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches the {@code standard_symbols} weights for a target RTP and, optionally, a target
+ * hit frequency.
+ *
+ * Independent simulated-annealing chains run on a thread pool. Each step scales one
+ * symbol's weight, either in one configured cell or in every configured cell at once, and
+ * candidates are scored by the squared log-ratios of their RTP and hit frequency to the
+ * targets. When every win combination is {@code same_symbols}, the RTP comes exactly from
+ * {@link SameSymbolsAnalysis}; the hit frequency, and the RTP of other games, come from a
+ * simulation that replays the same seed for every candidate, so neighbouring candidates
+ * are compared on common random numbers rather than on noise.
+ *
+ * Only positive weights are tuned; a symbol configured at weight 0 stays disabled. The
+ * result is a copy of the whole config with just its standard_symbols replaced.
+ *
+ * Chains draw from their own seeds and the best chain wins by score, then by index, so
+ * the result depends on the seed and chain count but not on the thread count. Bonus
+ * weights are kept as configured, as bonus symbols change neither target (see
+ * {@link ScratchGame#play(double)}).
+ */
+public final class WeightOptimizer {
+    public static final int DEFAULT_EVALUATION_ROUNDS = 20_000;
+    // Each cell's weights are written out as integers summing to about this much
+    static final double WEIGHT_RESOLUTION = 10_000;
+    private static final double EVALUATION_BET = 100;
+    private static final double INITIAL_TEMPERATURE = 0.05;
+    private static final double FINAL_TEMPERATURE = 1e-5;
+    private static final double STEP = 0.3;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final GameConfig config;
+    private final double targetRtp;
+    private final double targetHitFrequency;
+    private final boolean exactRtp;
+    // Per configured cell, in standard_symbols order
+    private final String[][] cellSymbols;
+    private final double[][] initialWeights;
+    // Per configured cell, the positions of its positive weights
+    private final int[][] tunable;
+    private int evaluationRounds = DEFAULT_EVALUATION_ROUNDS;
+    private long seed;
+
+    /**
+     * @param targetRtp expected payout as a fraction of the bet, e.g. 0.96
+     * @param targetHitFrequency fraction of winning rounds, or NaN to tune the RTP alone
+     */
+    public WeightOptimizer(GameConfig config, double targetRtp, double targetHitFrequency) {
+        if (!(targetRtp > 0) || Double.isInfinite(targetRtp)) {
+            throw new IllegalArgumentException("Target RTP must be positive");
+        }
+        if (!Double.isNaN(targetHitFrequency) && !(targetHitFrequency > 0 && targetHitFrequency <= 1)) {
+            throw new IllegalArgumentException("Target hit frequency must be in (0, 1]");
+        }
+        this.config = config;
+        this.targetRtp = targetRtp;
+        this.targetHitFrequency = targetHitFrequency;
+        // Also validates the config up front rather than in the first chain
+        this.exactRtp = new SameSymbolsAnalysis(config).isCompleteRtp();
+
+        List<GameConfig.StandardSymbolProbability> cells = config.getProbabilities().getStandardSymbols();
+        this.cellSymbols = new String[cells.size()][];
+        this.initialWeights = new double[cells.size()][];
+        this.tunable = new int[cells.size()][];
+        for (int cell = 0; cell < cells.size(); cell++) {
+            Map<String, Integer> weights = cells.get(cell).getSymbols();
+            cellSymbols[cell] = weights.keySet().toArray(new String[0]);
+            initialWeights[cell] = new double[weights.size()];
+            int[] positive = new int[weights.size()];
+            int count = 0;
+            for (int i = 0; i < cellSymbols[cell].length; i++) {
+                initialWeights[cell][i] = weights.get(cellSymbols[cell][i]);
+                if (initialWeights[cell][i] > 0) {
+                    positive[count++] = i;
+                }
+            }
+            if (count == 0) {
+                throw new IllegalArgumentException("Cell " + cells.get(cell).getRow() + ":"
+                        + cells.get(cell).getColumn() + " has no positive standard symbol weight");
+            }
+            tunable[cell] = Arrays.copyOf(positive, count);
+        }
+    }
+
+    /**
+     * Rounds simulated per candidate; more rounds score more precisely and more slowly.
+     */
+    public void setEvaluationRounds(int evaluationRounds) {
+        if (evaluationRounds <= 0) {
+            throw new IllegalArgumentException("Evaluation rounds must be positive");
+        }
+        this.evaluationRounds = evaluationRounds;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Runs {@code chains} annealing chains of {@code iterations} steps each on
+     * {@code threads} threads and returns the best config found.
+     */
+    public OptimizationResult optimize(int iterations, int chains, int threads) throws InterruptedException {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Iterations cannot be negative");
+        }
+        if (chains <= 0) {
+            throw new IllegalArgumentException("Chain count must be positive");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chains));
+        try {
+            List<Future<OptimizationResult>> results = new ArrayList<>();
+            for (int chain = 0; chain < chains; chain++) {
+                long chainSeed = seed + (chain + 1) * 0x9E3779B97F4A7C15L;
+                results.add(executor.submit(() -> runChain(iterations, new Random(chainSeed))));
+            }
+            OptimizationResult best = null;
+            long evaluations = 0;
+            for (Future<OptimizationResult> result : results) {
+                OptimizationResult chainResult = result.get();
+                evaluations += chainResult.getEvaluations();
+                if (best == null || chainResult.getScore() < best.getScore()) {
+                    best = chainResult;
+                }
+            }
+            return new OptimizationResult(best.getConfig(), best.getRtp(), best.getHitFrequency(),
+                    best.getScore(), evaluations);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Optimizer chain failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private OptimizationResult runChain(int iterations, Random random) {
+        double[][] current = copy(initialWeights);
+        Candidate currentScore = evaluate(current);
+        double[][] best = current;
+        Candidate bestScore = currentScore;
+        long evaluations = 1;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double temperature = INITIAL_TEMPERATURE
+                    * Math.pow(FINAL_TEMPERATURE / INITIAL_TEMPERATURE, (double) iteration / iterations);
+            double[][] next = neighbour(current, random);
+            Candidate nextScore = evaluate(next);
+            evaluations++;
+            double delta = nextScore.score - currentScore.score;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                current = next;
+                currentScore = nextScore;
+                if (currentScore.score < bestScore.score) {
+                    best = current;
+                    bestScore = currentScore;
+                }
+            }
+        }
+        return new OptimizationResult(candidateConfig(best), bestScore.rtp,
+                bestScore.hitFrequency, bestScore.score, evaluations);
+    }
+
+    /**
+     * Scales one symbol's weight by a log-normal factor, in one configured cell or in all.
+     * Zero weights stay zero under scaling.
+     */
+    private double[][] neighbour(double[][] weights, Random random) {
+        double[][] next = copy(weights);
+        int cell = random.nextInt(weights.length);
+        String symbol = cellSymbols[cell][tunable[cell][random.nextInt(tunable[cell].length)]];
+        double factor = Math.exp(random.nextGaussian() * STEP);
+        boolean everyCell = random.nextBoolean();
+        for (int c = 0; c < next.length; c++) {
+            if (c != cell && !everyCell) {
+                continue;
+            }
+            for (int i = 0; i < cellSymbols[c].length; i++) {
+                if (cellSymbols[c][i].equals(symbol)) {
+                    next[c][i] *= factor;
+                }
+            }
+        }
+        return next;
+    }
+
+    private Candidate evaluate(double[][] weights) {
+        // Payout tables and caches only slow down a one-off game
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        if (config.getEngine() != null) {
+            engine.setMoneyScale(config.getEngine().getMoneyScale());
+            engine.setRounding(config.getEngine().getRounding());
+        }
+        GameConfig candidate = candidateConfig(weights);
+        candidate.setEngine(engine);
+
+        double rtp = exactRtp ? new SameSymbolsAnalysis(candidate).getExpectedMultiplier() : Double.NaN;
+        double hitFrequency = Double.NaN;
+        if (!exactRtp || !Double.isNaN(targetHitFrequency)) {
+            SimulationStatistics statistics = new SimulationPipeline(new ScratchGame(candidate, seed))
+                    .run(EVALUATION_BET, evaluationRounds);
+            rtp = exactRtp ? rtp : statistics.getRtp();
+            hitFrequency = statistics.getHitRate();
+        }
+
+        double rtpError = Math.log(rtp / targetRtp);
+        double score = rtpError * rtpError;
+        if (!Double.isNaN(targetHitFrequency)) {
+            double hitError = Math.log(hitFrequency / targetHitFrequency);
+            score += hitError * hitError;
+        }
+        return new Candidate(rtp, hitFrequency, score);
+    }
+
+    /**
+     * A deep copy of the original config with these weights, as integers, in its
+     * standard_symbols.
+     */
+    private GameConfig candidateConfig(double[][] weights) {
+        GameConfig candidate = MAPPER.convertValue(config, GameConfig.class);
+        List<GameConfig.StandardSymbolProbability> cells = candidate.getProbabilities().getStandardSymbols();
+        for (int cell = 0; cell < weights.length; cell++) {
+            double total = 0;
+            for (double weight : weights[cell]) {
+                total += weight;
+            }
+            Map<String, Integer> symbols = new LinkedHashMap<>();
+            for (int i = 0; i < weights[cell].length; i++) {
+                double weight = weights[cell][i];
+                // A tuned weight never rounds down to disabling its symbol
+                symbols.put(cellSymbols[cell][i], weight > 0 ? (int) Math.max(1, Math.round(weight / total * WEIGHT_RESOLUTION)) : 0);
+            }
+            cells.get(cell).setSymbols(symbols);
+        }
+        return candidate;
+    }
+
+    private static double[][] copy(double[][] weights) {
+        double[][] copy = new double[weights.length][];
+        for (int cell = 0; cell < weights.length; cell++) {
+            copy[cell] = weights[cell].clone();
+        }
+        return copy;
+    }
+
+    private static final class Candidate {
+        final double rtp;
+        final double hitFrequency;
+        final double score;
+
+        Candidate(double rtp, double hitFrequency, double score) {
+            this.rtp = rtp;
+            this.hitFrequency = hitFrequency;
+            this.score = score;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("--config") || !options.containsKey("--target-rtp")
+                || !options.containsKey("--output")) {
+            System.out.println("Usage: java -cp scratch-game.jar com.scratchgame.tuning.WeightOptimizer"
+                    + " --config <config-file> --target-rtp <rtp> --output <config-file>"
+                    + " [--target-hit-frequency <fraction>] [--iterations <steps>] [--chains <chains>]"
+                    + " [--threads <threads>] [--rounds <rounds per candidate>] [--seed <seed>]");
+            System.exit(1);
+        }
+
+        try {
+            ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+            GameConfig config = mapper.readValue(new File(options.get("--config")), GameConfig.class);
+            int threads = Integer.parseInt(options.getOrDefault("--threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            WeightOptimizer optimizer = new WeightOptimizer(config, Double.parseDouble(options.get("--target-rtp")),
+                    Double.parseDouble(options.getOrDefault("--target-hit-frequency", "NaN")));
+            optimizer.setEvaluationRounds(Integer.parseInt(options.getOrDefault("--rounds",
+                    String.valueOf(DEFAULT_EVALUATION_ROUNDS))));
+            optimizer.setSeed(Long.parseLong(options.getOrDefault("--seed", "0")));
+
+            OptimizationResult result = optimizer.optimize(Integer.parseInt(options.getOrDefault("--iterations", "1000")),
+                    Integer.parseInt(options.getOrDefault("--chains", String.valueOf(threads))), threads);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(options.get("--output")), result.getConfig());
+            System.err.println("RTP: " + result.getRtp() + ", hit frequency: " + result.getHitFrequency()
+                    + ", candidates evaluated: " + result.getEvaluations());
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } catch (IllegalArgumentException | IllegalStateException | ArithmeticException e) {
+            System.err.println("Optimizer error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
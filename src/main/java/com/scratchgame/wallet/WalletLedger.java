@@ -0,0 +1,251 @@
+package com.scratchgame.wallet;
+
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.money.FixedPoint;
+
+import java.io.*;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleFunction;
+
+/**
+ * Account balances in minor units, made durable by a {@link WriteAheadLog}.
+ *
+ * Accounts are spread over lock-striped segments, so rounds on different accounts rarely
+ * contend. A round holds its account's stripe lock while it checks the balance, plays, and
+ * appends one log record with the bet and reward. The debit and credit therefore land
+ * together, and rounds on one account are logged in the order they are applied. The caller
+ * then waits for the record to be synced with the lock released, so rounds on other
+ * accounts share the same fsync (group commit). A call returns only once its change is
+ * durable.
+ *
+ * On open the log is replayed to rebuild every balance. If a sync fails, the call that was
+ * waiting throws, and so does every later change. The balance in memory may then be ahead
+ * of the log, and the ledger must be reopened to recover from the log alone.
+ */
+public final class WalletLedger implements Closeable {
+    private static final int STRIPES = 64;
+    private static final byte DEPOSIT = 1;
+    private static final byte WITHDRAWAL = 2;
+    private static final byte ROUND = 3;
+
+    private final int minorDigits;
+    private final long minorScale;
+    private final RoundingMode rounding;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder rounds = new LongAdder();
+    private final WriteAheadLog log;
+
+    /**
+     * Opens the ledger logged at {@code logFile}, replaying it, with the money scale and
+     * rounding of the config's engine settings.
+     *
+     * @throws IllegalStateException if the log holds a record this ledger cannot read
+     */
+    public WalletLedger(Path logFile, GameConfig config) throws IOException {
+        GameConfig.EngineSettings engine = config.getEngine();
+        this.minorDigits = engine != null ? engine.getMoneyScale() : GameConfig.EngineSettings.DEFAULT_MONEY_SCALE;
+        this.minorScale = FixedPoint.scaleOf(minorDigits);
+        this.rounding = engine != null ? engine.getRounding() : RoundingMode.HALF_EVEN;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.log = new WriteAheadLog(logFile, this::replay);
+    }
+
+    private static final class Account {
+        long balance;
+    }
+
+    private static final class Stripe {
+        final Map<String, Account> accounts = new HashMap<>();
+    }
+
+    private Stripe stripeFor(String account) {
+        int hash = account.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Credits the account, opening it if new.
+     *
+     * @return the balance after the deposit
+     */
+    public double deposit(String account, double amount) throws IOException {
+        long amountMinor = positiveMinor(amount, "Deposit");
+        Stripe stripe = stripeFor(checkAccount(account));
+        long position;
+        long balance;
+        synchronized (stripe) {
+            Account entry = stripe.accounts.get(account);
+            long current = entry != null ? entry.balance : 0;
+            balance = Math.addExact(current, amountMinor);
+            position = log.append(encode(DEPOSIT, account, amountMinor, 0));
+            if (entry == null) {
+                entry = new Account();
+                stripe.accounts.put(account, entry);
+            }
+            entry.balance = balance;
+        }
+        log.awaitDurable(position);
+        return toMajor(balance);
+    }
+
+    /**
+     * @return the balance after the withdrawal
+     * @throws IllegalStateException if the balance does not cover the amount
+     */
+    public double withdraw(String account, double amount) throws IOException {
+        long amountMinor = positiveMinor(amount, "Withdrawal");
+        Stripe stripe = stripeFor(checkAccount(account));
+        long position;
+        long balance;
+        synchronized (stripe) {
+            Account entry = fundedAccount(stripe, account, amountMinor);
+            balance = entry.balance - amountMinor;
+            position = log.append(encode(WITHDRAWAL, account, amountMinor, 0));
+            entry.balance = balance;
+        }
+        log.awaitDurable(position);
+        return toMajor(balance);
+    }
+
+    /**
+     * Plays one round for the account: debits the bet and credits the round's reward as one
+     * logged change, and returns once that change is durable.
+     *
+     * @throws IllegalStateException if the balance does not cover the bet; no round is played
+     * @throws RuntimeException whatever the round threw; the balance is unchanged
+     */
+    public GameResult play(String account, double bet, DoubleFunction<GameResult> round) throws IOException {
+        long betMinor = positiveMinor(bet, "Bet");
+        Stripe stripe = stripeFor(checkAccount(account));
+        long position;
+        GameResult result;
+        synchronized (stripe) {
+            Account entry = fundedAccount(stripe, account, betMinor);
+            // Played on the amount charged, so the reward matches the debit
+            result = round.apply(toMajor(betMinor));
+            long rewardMinor = FixedPoint.fromDouble(result.getReward(), minorDigits, rounding);
+            long balance = Math.addExact(Math.subtractExact(entry.balance, betMinor), rewardMinor);
+            position = log.append(encode(ROUND, account, betMinor, rewardMinor));
+            entry.balance = balance;
+        }
+        log.awaitDurable(position);
+        rounds.increment();
+        return result;
+    }
+
+    private static String checkAccount(String account) {
+        if (account == null || account.isEmpty()) {
+            throw new IllegalArgumentException("Account must not be empty");
+        }
+        return account;
+    }
+
+    private long positiveMinor(double amount, String what) {
+        long minor = FixedPoint.fromDouble(amount, minorDigits, rounding);
+        if (minor <= 0) {
+            throw new IllegalArgumentException(what + " must be positive: " + amount);
+        }
+        return minor;
+    }
+
+    private static Account fundedAccount(Stripe stripe, String account, long amountMinor) {
+        Account entry = stripe.accounts.get(account);
+        if (entry == null || entry.balance < amountMinor) {
+            throw new IllegalStateException("Insufficient funds in account " + account);
+        }
+        return entry;
+    }
+
+    private static byte[] encode(byte kind, String account, long amount, long reward) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + account.length());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(kind);
+            out.writeUTF(account);
+            out.writeLong(amount);
+            if (kind == ROUND) {
+                out.writeLong(reward);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies one logged change; runs only while the constructor opens the log.
+     */
+    private void replay(byte[] record) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            byte kind = in.readByte();
+            String account = in.readUTF();
+            long amount = in.readLong();
+            Account entry = stripeFor(account).accounts.computeIfAbsent(account, name -> new Account());
+            switch (kind) {
+                case DEPOSIT:
+                    entry.balance = Math.addExact(entry.balance, amount);
+                    break;
+                case WITHDRAWAL:
+                    entry.balance = Math.subtractExact(entry.balance, amount);
+                    break;
+                case ROUND:
+                    entry.balance = Math.addExact(Math.subtractExact(entry.balance, amount), in.readLong());
+                    rounds.increment();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown ledger record type " + kind);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed ledger record", e);
+        }
+    }
+
+    private double toMajor(long minor) {
+        return FixedPoint.toDouble(minor, minorScale);
+    }
+
+    /**
+     * Balance in major units; 0 for an account never funded.
+     */
+    public double getBalance(String account) {
+        Stripe stripe = stripeFor(checkAccount(account));
+        synchronized (stripe) {
+            Account entry = stripe.accounts.get(account);
+            return entry != null ? toMajor(entry.balance) : 0;
+        }
+    }
+
+    public int getAccountCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.accounts.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rounds settled, including those replayed from the log.
+     */
+    public long getRounds() {
+        return rounds.sum();
+    }
+
+    public WriteAheadLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}
@@ -0,0 +1,267 @@
+package com.scratchgame.wallet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of records, made durable by fsync with group commit.
+ *
+ * {@link #append} only copies a record into an in-memory buffer and returns its end
+ * position. {@link #awaitDurable} then blocks until the log is synced at least that far.
+ * The first waiter to find no sync running becomes the leader: it takes everything buffered
+ * so far, writes and syncs it with the lock released, then wakes the others. Records
+ * appended meanwhile go out together in the next sync. Under load, one fsync covers many
+ * rounds, so durable throughput grows with concurrency instead of being capped at one round
+ * per disk flush.
+ *
+ * Each record is stored as its length, its bytes and a CRC32. When the log is opened, its
+ * records are replayed in order up to the first torn or corrupt one, and the file is
+ * truncated there: a crash mid-write loses only records that no caller was told were
+ * durable.
+ */
+public final class WriteAheadLog implements Closeable {
+    // Length and checksum around each record
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    // The buffer of the last sync, reused for appends during the next one
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private long appendedPosition;
+    private long durablePosition;
+    private boolean syncing;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Opens or creates the log, passing each intact record to {@code replay} in order.
+     */
+    public WriteAheadLog(Path path, Consumer<byte[]> replay) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = replay(replay);
+            if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            appendedPosition = end;
+            durablePosition = end;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the position after the last intact record
+     */
+    private long replay(Consumer<byte[]> replay) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        while (position + FRAME_BYTES <= size) {
+            header.clear();
+            if (!readFully(header, position)) {
+                break;
+            }
+            int length = header.getInt(0);
+            if (length < 0 || length > MAX_RECORD_BYTES || position + FRAME_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+            if (!readFully(body, position + Integer.BYTES)) {
+                break;
+            }
+            byte[] record = Arrays.copyOf(body.array(), length);
+            if (body.getInt(length) != checksum(record)) {
+                break;
+            }
+            replay.accept(record);
+            records.increment();
+            position += FRAME_BYTES + length;
+        }
+        return position;
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Buffers one record; it is durable once {@link #awaitDurable} returns for the position.
+     *
+     * @return the log position just past the record
+     * @throws IOException if an earlier sync failed or the log is closed
+     */
+    public long append(byte[] record) throws IOException {
+        if (record.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Log record of " + record.length + " bytes is too large");
+        }
+        int checksum = checksum(record);
+        lock.lock();
+        try {
+            checkOpen();
+            if (pending.remaining() < FRAME_BYTES + record.length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + FRAME_BYTES + record.length));
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            pending.putInt(record.length).put(record).putInt(checksum);
+            appendedPosition += FRAME_BYTES + record.length;
+            records.increment();
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the log is synced to disk at least up to {@code position}, syncing it
+     * on behalf of every waiter if no other thread is.
+     *
+     * @throws IOException if the write or sync failed, for this and every later call
+     */
+    public void awaitDurable(long position) throws IOException {
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (failure != null) {
+                    throw new IOException("Write-ahead log " + path + " failed", failure);
+                }
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                ByteBuffer batch = pending;
+                long target = appendedPosition;
+                pending = spare;
+                spare = null;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    batch.flip();
+                    while (batch.hasRemaining()) {
+                        channel.write(batch);
+                    }
+                    channel.force(false);
+                    syncs.increment();
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                    batch.clear();
+                    spare = batch;
+                    syncing = false;
+                    if (error != null) {
+                        failure = error;
+                    } else {
+                        durablePosition = target;
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends one record and waits until it is durable.
+     */
+    public void write(byte[] record) throws IOException {
+        awaitDurable(append(record));
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Write-ahead log " + path + " is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Write-ahead log " + path + " failed", failure);
+        }
+    }
+
+    /**
+     * Records appended or replayed since the log was opened.
+     */
+    public long getRecords() {
+        return records.sum();
+    }
+
+    /**
+     * Fsyncs issued; records per sync is the group-commit factor.
+     */
+    public long getSyncs() {
+        return syncs.sum();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Syncs everything appended, then closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        long end;
+        boolean failed;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            end = appendedPosition;
+            failed = failure != null;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (!failed) {
+                awaitDurable(end);
+            }
+        } finally {
+            lock.lock();
+            try {
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            channel.close();
+        }
+    }
+}
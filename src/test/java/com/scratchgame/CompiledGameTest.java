@@ -0,0 +1,48 @@
+package com.scratchgame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for games sharing one compiled config.
+ */
+public class CompiledGameTest {
+
+    @Test
+    @DisplayName("Seeded games on a shared compiled config replay games built from the config")
+    void testSeededGamesReplay() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        CompiledGame compiled = new CompiledGame(config);
+        ScratchGame first = compiled.newGame(7);
+        ScratchGame second = compiled.newGame(7);
+        ScratchGame reference = new ScratchGame(config, 7);
+
+        for (int round = 0; round < 200; round++) {
+            GameResult expected = reference.play(10);
+            for (ScratchGame game : new ScratchGame[] {first, second}) {
+                GameResult result = game.play(10);
+                assertEquals(expected.getMatrix(), result.getMatrix());
+                assertEquals(expected.getReward(), result.getReward());
+                assertEquals(expected.getAppliedBonusSymbol(), result.getAppliedBonusSymbol());
+            }
+        }
+        assertSame(compiled.getRuleIndex(), first.getRuleIndex());
+        assertSame(first.getRewardCalculator(), second.getRewardCalculator());
+    }
+
+    @Test
+    @DisplayName("An invalid config fails when compiled")
+    void testInvalidConfig() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        config.getProbabilities().getStandardSymbols().get(0).getSymbols().replaceAll((symbol, weight) -> 0);
+
+        assertThrows(IllegalStateException.class, () -> new CompiledGame(config));
+    }
+}
@@ -0,0 +1,134 @@
+package com.scratchgame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for cascading rounds.
+ */
+public class ScratchGameCascadeTest {
+
+    @Test
+    @DisplayName("Should clear winning cells, drop the cells above and pay every step")
+    void testCascadeSteps() {
+        ScratchGame game = new ScratchGame(createRefillConfig("MISS"));
+        game.setTestMatrix(Arrays.asList(
+                Arrays.asList("C", "C", "D"),
+                Arrays.asList("A", "A", "D"),
+                Arrays.asList("A", "A", "C")
+        ));
+
+        CascadeResult result = game.playCascade(100);
+
+        List<CascadeStep> steps = result.getCascadeSteps();
+        assertEquals(2, steps.size());
+        assertEquals(Collections.singletonList("same_symbol_4_times"), steps.get(0).getAppliedWinningCombinations().get("A"));
+        assertEquals(500, steps.get(0).getReward(), 1e-9);
+        // A's are cleared, the C's above them fall onto the bottom row and MISS refills the top
+        assertEquals(Arrays.asList(
+                Arrays.asList("MISS", "MISS", "D"),
+                Arrays.asList("MISS", "MISS", "D"),
+                Arrays.asList("C", "C", "C")
+        ), steps.get(1).getMatrix());
+        assertEquals(Collections.singletonList("bottom_row"), steps.get(1).getAppliedWinningCombinations().get("C"));
+        assertEquals(400, steps.get(1).getReward(), 1e-9);
+        assertEquals(900, result.getReward(), 1e-9);
+        assertEquals(steps.get(0).getAppliedWinningCombinations(), result.getAppliedWinningCombinations());
+    }
+
+    @Test
+    @DisplayName("Should stop after the configured number of steps")
+    void testMaxCascadeSteps() {
+        // Every refill is A again, so the board never stops winning
+        ScratchGame game = new ScratchGame(createRefillConfig("A"));
+        game.setMaxCascadeSteps(5);
+
+        CascadeResult result = game.playCascade(10);
+
+        assertEquals(5, result.getCascadeSteps().size());
+        // Each all-A board pays 10 x 5 x 1 (same symbols) x 2 (bottom row)
+        assertEquals(5 * 100.0, result.getReward(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should return no steps for a non-positive bet")
+    void testNonPositiveBet() {
+        ScratchGame game = new ScratchGame(createRefillConfig("A"));
+
+        CascadeResult result = game.playCascade(0);
+
+        assertEquals(0, result.getReward());
+        assertTrue(result.getCascadeSteps().isEmpty());
+        assertNull(result.getAppliedBonusSymbol());
+    }
+
+    @Test
+    @DisplayName("Should report the same combinations as a full evaluation at every step")
+    void testStepsMatchFullEvaluation() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        ScratchGame cascading = new ScratchGame(config);
+        ScratchGame reference = new ScratchGame(config);
+
+        for (int round = 0; round < 300; round++) {
+            CascadeResult result = cascading.playCascade(100);
+            double total = 0;
+            for (CascadeStep step : result.getCascadeSteps()) {
+                reference.setTestMatrix(step.getMatrix());
+                assertEquals(reference.play(100).getAppliedWinningCombinations(), step.getAppliedWinningCombinations());
+                assertFalse(step.getAppliedWinningCombinations().isEmpty());
+                total += step.getReward();
+            }
+            assertEquals(total, result.getReward(), 1e-6);
+        }
+    }
+
+    private GameConfig createRefillConfig(String refillSymbol) {
+        GameConfig config = new GameConfig();
+        config.setRows(3);
+        config.setColumns(3);
+
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        symbols.put("A", createSymbol("standard", 5));
+        symbols.put("B", createSymbol("standard", 3));
+        symbols.put("C", createSymbol("standard", 2));
+        symbols.put("D", createSymbol("standard", 1));
+        Symbol miss = createSymbol("bonus", 0);
+        miss.setImpact("miss");
+        symbols.put("MISS", miss);
+        config.setSymbols(symbols);
+
+        WinCombination sameSymbols = new WinCombination();
+        sameSymbols.setWhen("same_symbols");
+        sameSymbols.setCount(4);
+        sameSymbols.setRewardMultiplier(1);
+        WinCombination bottomRow = new WinCombination();
+        bottomRow.setWhen("linear_symbols");
+        bottomRow.setRewardMultiplier(2);
+        bottomRow.setCoveredAreas(Collections.singletonList(Arrays.asList("2:0", "2:1", "2:2")));
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("same_symbol_4_times", sameSymbols);
+        combinations.put("bottom_row", bottomRow);
+        config.setWinCombinations(combinations);
+
+        GameConfig.StandardSymbolProbability probability = new GameConfig.StandardSymbolProbability();
+        probability.setSymbols(Collections.singletonMap(refillSymbol, 100));
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(probability));
+        config.setProbabilities(probabilities);
+        return config;
+    }
+
+    private Symbol createSymbol(String type, double rewardMultiplier) {
+        Symbol symbol = new Symbol();
+        symbol.setType(type);
+        symbol.setRewardMultiplier(rewardMultiplier);
+        return symbol;
+    }
+}
@@ -0,0 +1,128 @@
+package com.scratchgame;
+
+import com.scratchgame.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for linear_symbols rules declared as run templates instead of covered areas.
+ */
+public class ScratchGameLineTemplateTest {
+
+    @Test
+    @DisplayName("Should detect template runs on a large board")
+    void testTemplateRunsOnLargeBoard() {
+        int size = 200;
+        GameConfig config = createTemplateConfig(size);
+        ScratchGame game = new ScratchGame(config);
+
+        // Checkerboard of A and B never lines up horizontally or vertically
+        List<List<String>> matrix = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            List<String> rowList = new ArrayList<>();
+            for (int col = 0; col < size; col++) {
+                rowList.add((row + col) % 2 == 0 ? "A" : "B");
+            }
+            matrix.add(rowList);
+        }
+        // Break the checkerboard with a vertical run of 5 B's
+        for (int row = 100; row < 105; row++) {
+            matrix.get(row).set(7, "B");
+        }
+
+        game.setTestMatrix(matrix);
+        GameResult result = game.play(10);
+
+        Map<String, List<String>> applied = result.getAppliedWinningCombinations();
+        assertTrue(applied.get("B").contains("vertical_run_5"));
+        assertFalse(applied.get("B").contains("horizontal_run_5"));
+        assertFalse(applied.get("A").contains("vertical_run_5"));
+        // Checkerboard diagonals are one long run for each symbol
+        assertTrue(applied.get("A").contains("diagonal_run_5"));
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown template direction")
+    void testUnknownDirection() {
+        GameConfig config = createTemplateConfig(3);
+        config.getWinCombinations().get("horizontal_run_5").setDirection("sideways");
+
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(config));
+    }
+
+    @Test
+    @DisplayName("Should reject a template without a run length")
+    void testMissingRunLength() {
+        GameConfig config = createTemplateConfig(3);
+        config.getWinCombinations().get("horizontal_run_5").setCount(null);
+
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(config));
+    }
+
+    @Test
+    @DisplayName("Should reject a template that also enumerates covered areas")
+    void testTemplateWithCoveredAreas() {
+        GameConfig config = createTemplateConfig(3);
+        config.getWinCombinations().get("horizontal_run_5").setCoveredAreas(
+                Collections.singletonList(Arrays.asList("0:0", "0:1", "0:2")));
+
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(config));
+    }
+
+    private GameConfig createTemplateConfig(int size) {
+        GameConfig config = new GameConfig();
+        config.setRows(size);
+        config.setColumns(size);
+
+        Map<String, Symbol> symbols = new HashMap<>();
+        symbols.put("A", createSymbol(2.0));
+        symbols.put("B", createSymbol(1.0));
+        config.setSymbols(symbols);
+
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("same_symbol_3_times", createSameSymbols(3));
+        combinations.put("horizontal_run_5", createTemplate("horizontal", 5));
+        combinations.put("vertical_run_5", createTemplate("vertical", 5));
+        combinations.put("diagonal_run_5", createTemplate("diagonal_ltr", 5));
+        config.setWinCombinations(combinations);
+
+        GameConfig.StandardSymbolProbability probability = new GameConfig.StandardSymbolProbability();
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("A", 1);
+        weights.put("B", 1);
+        probability.setSymbols(weights);
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(probability));
+        config.setProbabilities(probabilities);
+
+        return config;
+    }
+
+    private Symbol createSymbol(double rewardMultiplier) {
+        Symbol symbol = new Symbol();
+        symbol.setType("standard");
+        symbol.setRewardMultiplier(rewardMultiplier);
+        return symbol;
+    }
+
+    private WinCombination createSameSymbols(int count) {
+        WinCombination combination = new WinCombination();
+        combination.setWhen("same_symbols");
+        combination.setCount(count);
+        combination.setRewardMultiplier(1.0);
+        return combination;
+    }
+
+    private WinCombination createTemplate(String direction, int length) {
+        WinCombination combination = new WinCombination();
+        combination.setWhen("linear_symbols");
+        combination.setDirection(direction);
+        combination.setCount(length);
+        combination.setRewardMultiplier(2.0);
+        return combination;
+    }
+}
@@ -0,0 +1,126 @@
+package com.scratchgame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.analysis.SameSymbolsAnalysis;
+import com.scratchgame.evaluation.BoardBatch;
+import com.scratchgame.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reel-strip board generation.
+ */
+public class ScratchGameReelStripTest {
+    static final List<List<String>> STRIPS = Arrays.asList(
+            Arrays.asList("A", "B", "C", "D", "E", "F", "F", "E"),
+            Arrays.asList("F", "E", "D", "C", "B", "A", "F", "F"),
+            Arrays.asList("C", "F", "A", "F", "E", "B", "D", "E"),
+            Arrays.asList("E", "E", "F", "D", "A", "C", "B", "F"));
+
+    /**
+     * config.json with its per-cell weights replaced by {@link #STRIPS}.
+     */
+    static GameConfig reelConfig() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        config.getProbabilities().setStandardSymbols(null);
+        config.getProbabilities().setReelStrips(STRIPS);
+        return config;
+    }
+
+    /**
+     * True when every column of the board is a window of consecutive strip positions.
+     */
+    private static boolean showsStripWindows(List<List<String>> matrix) {
+        for (int column = 0; column < STRIPS.size(); column++) {
+            List<String> strip = STRIPS.get(column);
+            boolean found = false;
+            for (int stop = 0; stop < strip.size() && !found; stop++) {
+                found = true;
+                for (int row = 0; row < matrix.size(); row++) {
+                    found &= strip.get((stop + row) % strip.size()).equals(matrix.get(row).get(column));
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("Should fill each column from one stop of its strip")
+    void testColumnsFollowStrips() throws Exception {
+        ScratchGame game = new ScratchGame(reelConfig(), 5);
+        for (int round = 0; round < 200; round++) {
+            assertTrue(showsStripWindows(game.play(10).getMatrix()));
+        }
+
+        BoardBatch batch = new BoardBatch(16, 64);
+        game.drawBoards(batch, 64);
+        int[] cells = new int[16];
+        for (int board = 0; board < 64; board++) {
+            batch.copyBoard(board, cells);
+            assertTrue(showsStripWindows(game.getRuleIndex().decode(cells)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refill cascades from the strip above the stop")
+    void testCascadeRefill() throws Exception {
+        // Column 0 stopped at position 1 shows B C D D over a bottom row of D's; clearing the
+        // bottom row brings in the strip symbol above the stop, A, which pays the row again
+        GameConfig config = reelConfig();
+        WinCombination bottom = new WinCombination();
+        bottom.setWhen("linear_symbols");
+        bottom.setGroup("bottom");
+        bottom.setRewardMultiplier(1);
+        bottom.setCoveredAreas(Collections.singletonList(Arrays.asList("3:0", "3:1", "3:2", "3:3")));
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("bottom_row", bottom);
+        config.setWinCombinations(combinations);
+        config.getProbabilities().setReelStrips(Arrays.asList(
+                Arrays.asList("A", "B", "C", "D", "D"),
+                Collections.singletonList("D"), Collections.singletonList("D"), Collections.singletonList("D")));
+        ScratchGame cascading = new ScratchGame(config, 1);
+        List<CascadeStep> steps = new ArrayList<>();
+        for (int round = 0; round < 50 && steps.size() < 2; round++) {
+            steps = cascading.playCascade(10).getCascadeSteps();
+        }
+        assertTrue(steps.size() >= 2);
+        List<String> before = new ArrayList<>();
+        List<String> after = new ArrayList<>();
+        for (int row = 0; row < 4; row++) {
+            before.add(steps.get(0).getMatrix().get(row).get(0));
+            after.add(steps.get(1).getMatrix().get(row).get(0));
+        }
+        assertEquals(Arrays.asList("B", "C", "D", "D"), before);
+        assertEquals(Arrays.asList("A", "B", "C", "D"), after);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid reel strips")
+    void testInvalidStrips() throws Exception {
+        GameConfig tooFew = reelConfig();
+        tooFew.getProbabilities().setReelStrips(STRIPS.subList(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(tooFew));
+
+        GameConfig bonus = reelConfig();
+        List<List<String>> strips = new ArrayList<>(STRIPS);
+        strips.set(2, Arrays.asList("A", "10x"));
+        bonus.getProbabilities().setReelStrips(strips);
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(bonus));
+
+        GameConfig empty = reelConfig();
+        strips = new ArrayList<>(STRIPS);
+        strips.set(0, Collections.emptyList());
+        empty.getProbabilities().setReelStrips(strips);
+        assertThrows(IllegalArgumentException.class, () -> new ScratchGame(empty));
+
+        assertThrows(IllegalArgumentException.class, () -> new SameSymbolsAnalysis(reelConfig()));
+    }
+}
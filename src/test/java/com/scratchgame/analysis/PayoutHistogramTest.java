@@ -0,0 +1,57 @@
+package com.scratchgame.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the log-bucketed payout histogram.
+ */
+public class PayoutHistogramTest {
+
+    @Test
+    @DisplayName("Should count payouts above a bound exactly")
+    void testCountAbove() {
+        PayoutHistogram histogram = new PayoutHistogram();
+        histogram.add(0, 10);
+        histogram.add(1);
+        histogram.add(2);
+        histogram.add(2.0001);
+        histogram.add(10);
+        histogram.add(5e12);
+
+        assertEquals(5, histogram.countAbove(0));
+        assertEquals(4, histogram.countAbove(1));
+        assertEquals(3, histogram.countAbove(2));
+        assertEquals(1, histogram.countAbove(10));
+        assertEquals(1, histogram.countAbove(1e9));
+    }
+
+    @Test
+    @DisplayName("Should place bound values in the bucket they close")
+    void testBuckets() {
+        PayoutHistogram histogram = new PayoutHistogram();
+        histogram.add(0.05);
+        assertEquals(0, histogram.getUpperBound(0));
+        assertEquals(Double.POSITIVE_INFINITY, histogram.getUpperBound(histogram.getBucketCount() - 1));
+        for (int bucket = 0; bucket < histogram.getBucketCount(); bucket++) {
+            assertEquals(histogram.getUpperBound(bucket) == 0.05 ? 1 : 0, histogram.getCount(bucket));
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge bucket counts")
+    void testMerge() {
+        PayoutHistogram first = new PayoutHistogram();
+        PayoutHistogram second = new PayoutHistogram();
+        first.add(3);
+        second.add(3, 4);
+        second.add(700);
+
+        first.merge(second);
+
+        assertEquals(6, first.countAbove(2));
+        assertEquals(1, first.countAbove(500));
+    }
+}
@@ -0,0 +1,80 @@
+package com.scratchgame.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the relative-error quantile sketch.
+ */
+public class QuantileSketchTest {
+
+    @Test
+    @DisplayName("Should answer quantiles within the relative accuracy")
+    void testAccuracy() {
+        Random random = new Random(3);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            // Heavy-tailed, with a third of the values zero
+            values[i] = i % 3 == 0 ? 0 : Math.exp(random.nextGaussian() * 3);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99, 0.999}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            if (exact == 0) {
+                assertEquals(0, estimate);
+            } else {
+                assertEquals(exact, estimate, exact * QuantileSketch.DEFAULT_RELATIVE_ACCURACY * 1.0001);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge into the sketch of the combined values")
+    void testMerge() {
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        QuantileSketch combined = new QuantileSketch();
+        Random random = new Random(8);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble() * 1000;
+            (i % 2 == 0 ? first : second).add(value);
+            combined.add(value);
+        }
+
+        first.merge(second);
+
+        assertEquals(combined.getCount(), first.getCount());
+        for (double q = 0; q <= 1; q += 0.05) {
+            assertEquals(combined.quantile(q), first.quantile(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new QuantileSketch(0.05)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip through the sparse binary form")
+    void testRoundTrip() throws IOException {
+        QuantileSketch sketch = new QuantileSketch(0.02);
+        sketch.add(0, 5);
+        sketch.add(1.5, 3);
+        sketch.add(250);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+
+        QuantileSketch copy = QuantileSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(9, copy.getCount());
+        assertEquals(sketch.quantile(0.5), copy.quantile(0.5));
+        assertEquals(sketch.quantile(1), copy.quantile(1));
+        assertEquals(0, copy.quantile(0.2));
+    }
+}
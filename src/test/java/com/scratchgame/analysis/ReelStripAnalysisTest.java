@@ -0,0 +1,88 @@
+package com.scratchgame.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.simulation.SimulationShard;
+import com.scratchgame.simulation.SimulationStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for exact reel-strip enumeration.
+ */
+public class ReelStripAnalysisTest {
+
+    private static GameConfig reelConfig() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        config.getProbabilities().setStandardSymbols(null);
+        config.getProbabilities().setReelStrips(Arrays.asList(
+                Arrays.asList("A", "B", "C", "D", "E", "F", "F", "E"),
+                Arrays.asList("F", "E", "D", "C", "B", "A", "F"),
+                Arrays.asList("C", "F", "A", "F", "E", "B"),
+                Arrays.asList("E", "E", "F", "D", "A")));
+        return config;
+    }
+
+    @Test
+    @DisplayName("Should match the game's reward over every stop combination")
+    void testMatchesPlay() throws Exception {
+        GameConfig config = reelConfig();
+        ReelStripAnalysis analysis = new ReelStripAnalysis(config);
+        assertEquals(8 * 7 * 6 * 5, analysis.getCombinations());
+
+        ScratchGame game = new ScratchGame(config);
+        List<List<String>> strips = config.getProbabilities().getReelStrips();
+        double paid = 0;
+        long wins = 0;
+        int[] stops = new int[4];
+        for (int combination = 0; combination < analysis.getCombinations(); combination++) {
+            List<List<String>> matrix = new ArrayList<>();
+            for (int row = 0; row < 4; row++) {
+                List<String> cells = new ArrayList<>();
+                for (int column = 0; column < 4; column++) {
+                    List<String> strip = strips.get(column);
+                    cells.add(strip.get((stops[column] + row) % strip.size()));
+                }
+                matrix.add(cells);
+            }
+            game.setTestMatrix(matrix);
+            double reward = game.play(100).getReward();
+            paid += reward / 100;
+            wins += reward > 0 ? 1 : 0;
+            for (int column = 3; column >= 0 && ++stops[column] == strips.get(column).size(); column--) {
+                stops[column] = 0;
+            }
+        }
+
+        assertEquals(paid / analysis.getCombinations(), analysis.getRtp(), 1e-9 * analysis.getRtp());
+        assertEquals((double) wins / analysis.getCombinations(), analysis.getHitFrequency(), 1e-12);
+        assertTrue(analysis.getWinCombinationProbability("same_symbol_3_times") > 0);
+    }
+
+    @Test
+    @DisplayName("Should agree with reel-strip simulation")
+    void testMatchesSimulation() throws Exception {
+        GameConfig config = reelConfig();
+        ReelStripAnalysis analysis = new ReelStripAnalysis(config);
+        SimulationStatistics statistics = SimulationShard.split(17, 200_000, 1, 100)[0].run(config);
+
+        double standardError = statistics.getStandardDeviation() / Math.sqrt(statistics.getRounds()) / 100;
+        assertEquals(analysis.getRtp(), statistics.getRtp(), 5 * standardError);
+        assertEquals(analysis.getHitFrequency(), statistics.getHitRate(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should reject games without strips or with too many stop combinations")
+    void testLimits() throws Exception {
+        GameConfig config = reelConfig();
+        assertThrows(IllegalArgumentException.class, () -> new ReelStripAnalysis(config, 100));
+        GameConfig weighted = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        assertThrows(IllegalArgumentException.class, () -> new ReelStripAnalysis(weighted));
+    }
+}
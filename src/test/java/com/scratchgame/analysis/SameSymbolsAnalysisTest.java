@@ -0,0 +1,153 @@
+package com.scratchgame.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the analytical same_symbols engine.
+ */
+public class SameSymbolsAnalysisTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        config.getWinCombinations().values().removeIf(combination -> !"same_symbols".equals(combination.getWhen()));
+    }
+
+    private static Map<String, Integer> weights(Object... entries) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            weights.put((String) entries[i], (Integer) entries[i + 1]);
+        }
+        return weights;
+    }
+
+    @Test
+    @DisplayName("Should match the game's expected reward over every 2x2 board")
+    void testMatchesEnumeration() {
+        config.setRows(2);
+        config.setColumns(2);
+        WinCombination twoOfAKind = new WinCombination();
+        twoOfAKind.setWhen("same_symbols");
+        twoOfAKind.setCount(2);
+        twoOfAKind.setRewardMultiplier(0.5);
+        twoOfAKind.setGroup("same_symbols");
+        config.getWinCombinations().put("same_symbol_2_times", twoOfAKind);
+
+        // Position-specific weights, one cell falling back to 0:0
+        List<GameConfig.StandardSymbolProbability> cells = new ArrayList<>();
+        Object[][] cellWeights = {
+                {"A", 5, "B", 3, "C", 2},
+                {"A", 1, "B", 1, "C", 1, "MISS", 1},
+                {"A", 2, "C", 7}
+        };
+        for (int cell = 0; cell < cellWeights.length; cell++) {
+            GameConfig.StandardSymbolProbability probability = new GameConfig.StandardSymbolProbability();
+            probability.setRow(cell / 2);
+            probability.setColumn(cell % 2);
+            probability.setSymbols(weights(cellWeights[cell]));
+            cells.add(probability);
+        }
+        config.getProbabilities().setStandardSymbols(cells);
+        config.getProbabilities().setBonusSymbols(null);
+
+        SameSymbolsAnalysis analysis = new SameSymbolsAnalysis(config);
+
+        // Enumerate every board the cells can draw and pay it through the game
+        ScratchGame game = new ScratchGame(config);
+        List<Map<String, Integer>> perCell = Arrays.asList(
+                weights(cellWeights[0]), weights(cellWeights[1]), weights(cellWeights[2]), weights(cellWeights[0]));
+        double expected = 0;
+        for (String a : perCell.get(0).keySet()) {
+            for (String b : perCell.get(1).keySet()) {
+                for (String c : perCell.get(2).keySet()) {
+                    for (String d : perCell.get(3).keySet()) {
+                        String[] board = {a, b, c, d};
+                        double probability = 1;
+                        for (int cell = 0; cell < 4; cell++) {
+                            Map<String, Integer> w = perCell.get(cell);
+                            probability *= (double) w.get(board[cell]) / w.values().stream().mapToInt(Integer::intValue).sum();
+                        }
+                        game.setTestMatrix(Arrays.asList(Arrays.asList(a, b), Arrays.asList(c, d)));
+                        expected += probability * game.play(100).getReward() / 100;
+                    }
+                }
+            }
+        }
+
+        assertTrue(analysis.isCompleteRtp());
+        assertEquals(expected, analysis.getExpectedMultiplier(), 1e-6);
+        double contributions = 0;
+        for (String rule : config.getWinCombinations().keySet()) {
+            contributions += analysis.getRuleContribution(rule);
+        }
+        assertEquals(analysis.getExpectedMultiplier(), contributions, 1e-12);
+    }
+
+    @Test
+    @DisplayName("Should agree with simulation on the default board")
+    void testMatchesSimulation() {
+        SameSymbolsAnalysis analysis = new SameSymbolsAnalysis(config);
+        ScratchGame game = new ScratchGame(config, 12);
+        int rounds = 200_000;
+        double sum = 0;
+        double squares = 0;
+        for (int round = 0; round < rounds; round++) {
+            double multiple = game.play(1).getReward();
+            sum += multiple;
+            squares += multiple * multiple;
+        }
+        double mean = sum / rounds;
+        double standardError = Math.sqrt((squares / rounds - mean * mean) / rounds);
+
+        assertEquals(mean, analysis.getExpectedMultiplier(), 5 * standardError);
+    }
+
+    @Test
+    @DisplayName("Should build count distributions for a 20x20 board")
+    void testLargeBoard() {
+        config.setRows(20);
+        config.setColumns(20);
+
+        SameSymbolsAnalysis analysis = new SameSymbolsAnalysis(config);
+
+        double[] distribution = analysis.getCountDistribution("A");
+        assertEquals(401, distribution.length);
+        assertEquals(1, Arrays.stream(distribution).sum(), 1e-12);
+        // Every cell falls back to 0:0, so counts are binomial(400, p)
+        Map<String, Integer> first = config.getProbabilities().getStandardSymbols().get(0).getSymbols();
+        double p = (double) first.get("A") / first.values().stream().mapToInt(Integer::intValue).sum();
+        config.getProbabilities().getStandardSymbols().removeIf(cell -> cell.getRow() != 0 || cell.getColumn() != 0);
+        double[] binomial = new SameSymbolsAnalysis(config).getCountDistribution("A");
+        assertEquals(400 * p, mean(binomial), 1e-9);
+        assertTrue(analysis.getFiringProbability("A", "same_symbol_3_times") > 0.99);
+        assertFalse(new SameSymbolsAnalysis(configWithLine()).isCompleteRtp());
+    }
+
+    private static double mean(double[] distribution) {
+        double mean = 0;
+        for (int count = 0; count < distribution.length; count++) {
+            mean += count * distribution[count];
+        }
+        return mean;
+    }
+
+    private static GameConfig configWithLine() {
+        try {
+            return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.server.AdmissionController;
+import com.scratchgame.server.AdmissionStatus;
+import com.scratchgame.server.RoundCallback;
+import com.scratchgame.server.ShardRouter;
+import com.scratchgame.server.ShardedGameEngine;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency of a ShardedGameEngine through a load spike, with and without admission control.
+ * Closed-loop throughput is measured first. Then an open-loop producer offers SPIKE_FACTOR
+ * times that rate for MEASURE_SECONDS. Latency is measured from each round's scheduled
+ * arrival, so a producer that falls behind does not hide queueing. Without a limit, the
+ * queues grow for the whole spike. With the AdmissionController, the excess is rejected at
+ * once and p99 stays near the latency floor.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.AdmissionBenchmark
+ */
+public class AdmissionBenchmark {
+    private static final int MEASURE_SECONDS = 3;
+    private static final double SPIKE_FACTOR = 1.5;
+    private static final int UNBOUNDED_QUEUE = 1 << 22;
+    private static final double BET = 100;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        int shards = Runtime.getRuntime().availableProcessors();
+
+        double capacity;
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, shards, ShardedGameEngine.DEFAULT_QUEUE_CAPACITY, null, null)) {
+            capacity = closedLoop(engine, 1);
+            capacity = closedLoop(engine, MEASURE_SECONDS);
+        }
+        double rate = capacity * SPIKE_FACTOR;
+        System.out.printf("config: %s, shards: %d, capacity: %.0f rounds/s, offered: %.0f rounds/s%n",
+                configFile, shards, capacity, rate);
+        System.out.printf("%-10s %10s %10s %12s %12s %12s%n", "mode", "admitted", "rejected", "p50 us", "p99 us", "max us");
+
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, shards, UNBOUNDED_QUEUE, null, null)) {
+            openLoop("unlimited", engine, rate);
+        }
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, shards, UNBOUNDED_QUEUE, null, new AdmissionController())) {
+            openLoop("adaptive", engine, rate);
+        }
+    }
+
+    private static double closedLoop(ShardedGameEngine engine, int seconds) {
+        AtomicLong completed = new AtomicLong();
+        RoundCallback callback = new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                completed.incrementAndGet();
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                completed.incrementAndGet();
+            }
+        };
+        long submitted = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        try (ShardRouter router = engine.newRouter()) {
+            while (System.nanoTime() < deadline) {
+                if (submitted - completed.get() < 256 && router.submit(BET, callback) == AdmissionStatus.ADMITTED) {
+                    submitted++;
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+        while (completed.get() < submitted) {
+            Thread.yield();
+        }
+        return submitted / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void openLoop(String mode, ShardedGameEngine engine, double rate) {
+        int arrivals = (int) (rate * MEASURE_SECONDS);
+        long[] latencies = new long[arrivals];
+        AtomicLong completed = new AtomicLong();
+        long admitted = 0;
+        long rejected = 0;
+        long start = System.nanoTime();
+        double interval = 1e9 / rate;
+        try (ShardRouter router = engine.newRouter()) {
+            for (int i = 0; i < arrivals; i++) {
+                long scheduled = start + (long) (i * interval);
+                while (System.nanoTime() < scheduled) {
+                    LockSupport.parkNanos(scheduled - System.nanoTime());
+                }
+                int index = (int) admitted;
+                RoundCallback callback = new RoundCallback() {
+                    @Override
+                    public void completed(GameResult result) {
+                        latencies[index] = System.nanoTime() - scheduled;
+                        completed.incrementAndGet();
+                    }
+
+                    @Override
+                    public void failed(RuntimeException error) {
+                        latencies[index] = System.nanoTime() - scheduled;
+                        completed.incrementAndGet();
+                    }
+                };
+                if (router.submit(BET, callback) == AdmissionStatus.ADMITTED) {
+                    admitted++;
+                } else {
+                    rejected++;
+                }
+            }
+        }
+        while (completed.get() < admitted) {
+            Thread.yield();
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, (int) admitted);
+        Arrays.sort(sorted);
+        System.out.printf("%-10s %10d %10d %12.0f %12.0f %12.0f%n", mode, admitted, rejected,
+                percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3, sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (q * sorted.length))];
+    }
+}
@@ -0,0 +1,106 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.WeightedRandomGenerator;
+import com.scratchgame.evaluation.*;
+import com.scratchgame.model.GameConfig;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares boards evaluated per second on a config (config.json by default):
+ * ScratchGame's scalar findWinningCombinations, the scalar batch evaluator and the
+ * bit-sliced batch evaluator. Boards are drawn from the config's cell probabilities.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.BatchEvaluatorBenchmark
+ */
+public class BatchEvaluatorBenchmark {
+    private static final int BATCH_SIZE = 4096;
+    private static final int WARMUP_SECONDS = 2;
+    private static final int MEASURE_SECONDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        ScratchGame game = new ScratchGame(config);
+        RuleIndex index = game.getRuleIndex();
+        BoardBatch batch = drawBatch(config, index);
+
+        // The scalar evaluator behind ScratchGame.play
+        Method findWinningCombinations = ScratchGame.class.getDeclaredMethod("findWinningCombinations", int[].class);
+        findWinningCombinations.setAccessible(true);
+        int[][] boards = new int[batch.size()][index.getCellCount()];
+        for (int board = 0; board < boards.length; board++) {
+            batch.copyBoard(board, boards[board]);
+        }
+
+        System.out.printf("config: %s (%dx%d)%n", configFile, config.getRows(), config.getColumns());
+        runScalar(game, findWinningCombinations, boards, WARMUP_SECONDS);
+        System.out.printf("%-24s boards/s: %.0f%n", "findWinningCombinations",
+                runScalar(game, findWinningCombinations, boards, MEASURE_SECONDS));
+
+        long[] firedRules = new long[batch.size() * index.getSymbolCount()];
+        BatchEvaluator[] evaluators = {new ScalarBatchEvaluator(index), new BitSlicedBatchEvaluator(index)};
+        for (BatchEvaluator evaluator : evaluators) {
+            runBatch(evaluator, batch, firedRules, WARMUP_SECONDS);
+            System.out.printf("%-24s boards/s: %.0f%n", evaluator.getName() + " batch",
+                    runBatch(evaluator, batch, firedRules, MEASURE_SECONDS));
+        }
+    }
+
+    private static BoardBatch drawBatch(GameConfig config, RuleIndex index) {
+        Map<String, WeightedRandomGenerator> generators = new HashMap<>();
+        for (GameConfig.StandardSymbolProbability probability : config.getProbabilities().getStandardSymbols()) {
+            generators.put(probability.getRow() + ":" + probability.getColumn(), new WeightedRandomGenerator(probability.getSymbols()));
+        }
+        BoardBatch batch = new BoardBatch(index.getCellCount(), BATCH_SIZE);
+        for (int cell = 0; cell < index.getCellCount(); cell++) {
+            WeightedRandomGenerator generator = generators.get(cell / index.getColumns() + ":" + cell % index.getColumns());
+            if (generator == null) {
+                generator = generators.get("0:0");
+            }
+            for (int board = 0; board < BATCH_SIZE; board++) {
+                batch.set(board, cell, index.symbolId(generator.nextSymbol()));
+            }
+        }
+        batch.setSize(BATCH_SIZE);
+        return batch;
+    }
+
+    private static double runScalar(ScratchGame game, Method findWinningCombinations, int[][] boards, int seconds) throws Exception {
+        long evaluated = 0;
+        int wins = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            for (int[] board : boards) {
+                wins += ((Map<?, ?>) findWinningCombinations.invoke(game, (Object) board)).size();
+            }
+            evaluated += boards.length;
+            now = System.nanoTime();
+        } while (now < deadline);
+        if (wins == 42) {
+            System.out.println();
+        }
+        return evaluated / ((now - start) / 1e9);
+    }
+
+    private static double runBatch(BatchEvaluator evaluator, BoardBatch batch, long[] firedRules, int seconds) {
+        long evaluated = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            evaluator.evaluate(batch, firedRules);
+            evaluated += batch.size();
+            now = System.nanoTime();
+        } while (now < deadline);
+        return evaluated / ((now - start) / 1e9);
+    }
+}
@@ -0,0 +1,53 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.CascadeResult;
+import com.scratchgame.model.GameConfig;
+
+import java.io.File;
+
+/**
+ * Measures cascading rounds per second on a config (config.json by default).
+ * On the shipped 4x4 config every board holds at least three of some symbol, so rounds
+ * run until the step cap and steps per second is the figure to compare.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.CascadeBenchmark
+ */
+public class CascadeBenchmark {
+    private static final int WARMUP_SECONDS = 3;
+    private static final int MEASURE_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        ScratchGame game = new ScratchGame(config);
+
+        run(game, WARMUP_SECONDS);
+        long[] totals = run(game, MEASURE_SECONDS);
+
+        double seconds = totals[2] / 1e9;
+        System.out.printf("config: %s (%dx%d)%n", configFile, config.getRows(), config.getColumns());
+        System.out.printf("cascading rounds/s: %.0f%n", totals[0] / seconds);
+        System.out.printf("cascade steps/s:    %.0f%n", totals[1] / seconds);
+        System.out.printf("steps per round:    %.3f%n", (double) totals[1] / totals[0]);
+    }
+
+    private static long[] run(ScratchGame game, int seconds) {
+        long rounds = 0;
+        long steps = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            for (int i = 0; i < 1000; i++) {
+                CascadeResult result = game.playCascade(100);
+                steps += result.getCascadeSteps().size();
+            }
+            rounds += 1000;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return new long[]{rounds, steps, now - start};
+    }
+}
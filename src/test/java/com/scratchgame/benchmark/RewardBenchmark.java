@@ -0,0 +1,111 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.evaluation.IncrementalEvaluator;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.money.RewardCalculator;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Compares reward arithmetic on the fired rules of random boards of a config
+ * (config.json by default): doubles, fixed-point minor units and BigDecimal.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.RewardBenchmark
+ */
+public class RewardBenchmark {
+    private static final int BOARDS = 4096;
+    private static final int WARMUP_SECONDS = 2;
+    private static final int MEASURE_SECONDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        RuleIndex index = new RuleIndex(config);
+        RewardCalculator calculator = new RewardCalculator(config, index);
+
+        // Fired rules of random boards over the standard symbols
+        int standardSymbols = 0;
+        while (standardSymbols < index.getSymbolCount() && index.isStandard(standardSymbols)) {
+            standardSymbols++;
+        }
+        Random random = new Random(1);
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(index);
+        long[][] boards = new long[BOARDS][index.getSymbolCount()];
+        for (long[] firedRules : boards) {
+            int[] cells = new int[index.getCellCount()];
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = random.nextInt(standardSymbols);
+            }
+            evaluator.reset(cells);
+            for (int symbol = 0; symbol < firedRules.length; symbol++) {
+                firedRules[symbol] = evaluator.getFiredRules(symbol);
+            }
+        }
+
+        BigDecimal[] symbolMultipliers = new BigDecimal[index.getSymbolCount()];
+        for (int symbol = 0; symbol < symbolMultipliers.length; symbol++) {
+            symbolMultipliers[symbol] = BigDecimal.valueOf(index.getSymbolMultiplier(symbol));
+        }
+        BigDecimal[] ruleMultipliers = new BigDecimal[index.getRuleCount()];
+        for (int rule = 0; rule < ruleMultipliers.length; rule++) {
+            ruleMultipliers[rule] = BigDecimal.valueOf(index.getRuleMultiplier(rule));
+        }
+
+        String[] names = {"double", "fixed-point", "BigDecimal"};
+        for (int mode = 0; mode < names.length; mode++) {
+            run(mode, boards, index, calculator, symbolMultipliers, ruleMultipliers, WARMUP_SECONDS);
+            double rate = run(mode, boards, index, calculator, symbolMultipliers, ruleMultipliers, MEASURE_SECONDS);
+            System.out.printf("%-12s rewards/s: %.0f%n", names[mode], rate);
+        }
+    }
+
+    private static double run(int mode, long[][] boards, RuleIndex index, RewardCalculator calculator,
+                              BigDecimal[] symbolMultipliers, BigDecimal[] ruleMultipliers, int seconds) {
+        long rewards = 0;
+        double sink = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            for (long[] firedRules : boards) {
+                if (mode == 0) {
+                    double reward = 0;
+                    for (int symbol = 0; symbol < firedRules.length; symbol++) {
+                        if (firedRules[symbol] != 0) {
+                            reward += 100 * index.rewardMultiplier(symbol, firedRules[symbol]);
+                        }
+                    }
+                    sink += reward;
+                } else if (mode == 1) {
+                    sink += calculator.reward(10_000, firedRules);
+                } else {
+                    BigDecimal reward = BigDecimal.ZERO;
+                    for (int symbol = 0; symbol < firedRules.length; symbol++) {
+                        long mask = firedRules[symbol];
+                        if (mask == 0) {
+                            continue;
+                        }
+                        BigDecimal symbolReward = BigDecimal.valueOf(100).multiply(symbolMultipliers[symbol]);
+                        while (mask != 0) {
+                            symbolReward = symbolReward.multiply(ruleMultipliers[Long.numberOfTrailingZeros(mask)]);
+                            mask &= mask - 1;
+                        }
+                        reward = reward.add(symbolReward);
+                    }
+                    sink += reward.doubleValue();
+                }
+            }
+            rewards += boards.length;
+            now = System.nanoTime();
+        } while (now < deadline);
+        if (sink == 42) {
+            System.out.println();
+        }
+        return rewards / ((now - start) / 1e9);
+    }
+}
@@ -0,0 +1,111 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.server.AdmissionStatus;
+import com.scratchgame.server.RoundCallback;
+import com.scratchgame.server.ShardRouter;
+import com.scratchgame.server.ShardedGameEngine;
+
+import java.io.File;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rounds served per second, and per core, as the number of cores grows: a
+ * ShardedGameEngine with one shard and one producer thread per core, against the same
+ * number of threads calling play() on one shared, synchronized ScratchGame. Each producer
+ * keeps up to IN_FLIGHT rounds outstanding. Core counts double up to the number of
+ * available processors, or to the second argument.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.ShardedEngineBenchmark
+ */
+public class ShardedEngineBenchmark {
+    private static final int WARMUP_SECONDS = 2;
+    private static final int MEASURE_SECONDS = 3;
+    private static final int IN_FLIGHT = 256;
+    private static final double BET = 100;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        int maxCores = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+
+        System.out.printf("config: %s, available processors: %d%n", configFile, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-6s %-8s %14s %14s%n", "cores", "mode", "rounds/s", "per core");
+        for (int cores = 1; cores <= maxCores; cores *= 2) {
+            try (ShardedGameEngine engine = new ShardedGameEngine(config, cores, ShardedGameEngine.DEFAULT_QUEUE_CAPACITY, null, null)) {
+                runSharded(engine, cores, WARMUP_SECONDS);
+                double rate = runSharded(engine, cores, MEASURE_SECONDS);
+                System.out.printf("%-6d %-8s %14.0f %14.0f%n", cores, "sharded", rate, rate / cores);
+            }
+            ScratchGame shared = new ScratchGame(config);
+            runShared(shared, cores, WARMUP_SECONDS);
+            double rate = runShared(shared, cores, MEASURE_SECONDS);
+            System.out.printf("%-6d %-8s %14.0f %14.0f%n", cores, "shared", rate, rate / cores);
+        }
+    }
+
+    private static double runSharded(ShardedGameEngine engine, int producers, int seconds) throws Exception {
+        AtomicLong served = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                Semaphore window = new Semaphore(IN_FLIGHT);
+                RoundCallback callback = new RoundCallback() {
+                    @Override
+                    public void completed(GameResult result) {
+                        window.release();
+                    }
+
+                    @Override
+                    public void failed(RuntimeException error) {
+                        window.release();
+                    }
+                };
+                long rounds = 0;
+                try (ShardRouter router = engine.newRouter()) {
+                    while (System.nanoTime() < deadline) {
+                        window.acquireUninterruptibly();
+                        while (router.submit(BET, callback) != AdmissionStatus.ADMITTED) {
+                            Thread.yield();
+                        }
+                        rounds++;
+                    }
+                }
+                window.acquireUninterruptibly(IN_FLIGHT);
+                served.addAndGet(rounds);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return served.get() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static double runShared(ScratchGame game, int threads, int seconds) throws Exception {
+        AtomicLong served = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                long rounds = 0;
+                while (System.nanoTime() < deadline) {
+                    synchronized (game) {
+                        game.play(BET);
+                    }
+                    rounds++;
+                }
+                served.addAndGet(rounds);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return served.get() / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,86 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.simulation.SimulationPipeline;
+import com.scratchgame.simulation.SimulationStatistics;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Compares rounds simulated per second on a config (config.json by default): a loop over
+ * ScratchGame.play that builds a GameResult per round, and the structure-of-arrays
+ * SimulationPipeline. For per-cell weight configs, the pipeline also runs on reel strips
+ * that repeat each symbol of the 0:0 weights as often as its weight, which shows the
+ * same symbols per cell for one random draw per column.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.SimulationBenchmark
+ */
+public class SimulationBenchmark {
+    private static final int WARMUP_SECONDS = 2;
+    private static final int MEASURE_SECONDS = 3;
+    private static final double BET = 100;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        ScratchGame game = new ScratchGame(config);
+
+        System.out.printf("config: %s (%dx%d)%n", configFile, config.getRows(), config.getColumns());
+        runPlay(game, WARMUP_SECONDS);
+        System.out.printf("%-10s rounds/s: %.0f%n", "play", runPlay(game, MEASURE_SECONDS));
+
+        SimulationPipeline pipeline = new SimulationPipeline(game);
+        runPipeline(pipeline, WARMUP_SECONDS);
+        System.out.printf("%-10s rounds/s: %.0f (%s evaluator)%n", "pipeline",
+                runPipeline(pipeline, MEASURE_SECONDS), pipeline.getEvaluatorName());
+
+        if (config.getProbabilities().getReelStrips() == null) {
+            Map<String, Integer> weights = config.getProbabilities().getStandardSymbols().get(0).getSymbols();
+            List<String> strip = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                strip.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+            }
+            config.getProbabilities().setReelStrips(Collections.nCopies(config.getColumns(), strip));
+            SimulationPipeline reels = new SimulationPipeline(new ScratchGame(config));
+            runPipeline(reels, WARMUP_SECONDS);
+            System.out.printf("%-10s rounds/s: %.0f%n", "reels", runPipeline(reels, MEASURE_SECONDS));
+        }
+    }
+
+    private static double runPlay(ScratchGame game, int seconds) {
+        long rounds = 0;
+        double paid = 0;
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            for (int i = 0; i < 1024; i++) {
+                GameResult result = game.play(BET);
+                paid += result.getReward();
+            }
+            rounds += 1024;
+            now = System.nanoTime();
+        } while (now < deadline);
+        if (paid == 42) {
+            System.out.println();
+        }
+        return rounds / ((now - start) / 1e9);
+    }
+
+    private static double runPipeline(SimulationPipeline pipeline, int seconds) {
+        SimulationStatistics statistics = pipeline.newStatistics();
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long now;
+        do {
+            pipeline.run(BET, 16 * pipeline.getBatchSize(), statistics);
+            now = System.nanoTime();
+        } while (now < deadline);
+        return statistics.getRounds() / ((now - start) / 1e9);
+    }
+}
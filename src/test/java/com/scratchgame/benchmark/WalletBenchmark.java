@@ -0,0 +1,84 @@
+package com.scratchgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.wallet.WalletLedger;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable rounds per second of a WalletLedger as the number of concurrent players grows.
+ * Every round waits for its log record to be synced to disk. Group commit lets one fsync
+ * cover all rounds appended while the previous one ran. Throughput should therefore
+ * grow with the player count, and so should the rounds-per-fsync column, until the CPU
+ * or the disk bandwidth saturates.
+ *
+ * The log is written to a temporary file in the directory given as the second argument,
+ * default the system temporary directory. Use a directory on the disk being measured,
+ * since a tmpfs makes fsync free.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.scratchgame.benchmark.WalletBenchmark
+ */
+public class WalletBenchmark {
+    private static final int MEASURE_SECONDS = 3;
+    private static final int[] PLAYERS = {1, 4, 16, 64};
+    private static final double BET = 1;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "config.json";
+        GameConfig config = new ObjectMapper().readValue(new File(configFile), GameConfig.class);
+        Path directory = args.length > 1 ? Paths.get(args[1]) : Paths.get(System.getProperty("java.io.tmpdir"));
+
+        System.out.printf("config: %s, log directory: %s%n", configFile, directory);
+        System.out.printf("%-8s %14s %14s %16s%n", "players", "rounds/s", "fsyncs/s", "rounds/fsync");
+        for (int players : PLAYERS) {
+            Path log = Files.createTempFile(directory, "wallet-benchmark", ".log");
+            try (WalletLedger ledger = new WalletLedger(log, config)) {
+                run(ledger, config, players);
+            } finally {
+                Files.deleteIfExists(log);
+            }
+        }
+    }
+
+    private static void run(WalletLedger ledger, GameConfig config, int players) throws Exception {
+        for (int p = 0; p < players; p++) {
+            ledger.deposit("player-" + p, 1e12);
+        }
+        long syncsBefore = ledger.getLog().getSyncs();
+        LongAdder rounds = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(players);
+        long deadline = System.nanoTime() + MEASURE_SECONDS * 1_000_000_000L;
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            String account = "player-" + p;
+            long seed = p;
+            futures.add(executor.submit(() -> {
+                ScratchGame game = new ScratchGame(config, seed);
+                while (System.nanoTime() < deadline) {
+                    ledger.play(account, BET, game::play);
+                    rounds.increment();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long syncs = ledger.getLog().getSyncs() - syncsBefore;
+        System.out.printf("%-8d %14.0f %14.0f %16.1f%n", players, rounds.sum() / seconds, syncs / seconds,
+                (double) rounds.sum() / Math.max(1, syncs));
+    }
+}
@@ -0,0 +1,111 @@
+package com.scratchgame.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the bit-sliced batch evaluator agrees with the scalar one.
+ */
+public class BatchEvaluatorTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        WinCombination run = new WinCombination();
+        run.setWhen("linear_symbols");
+        run.setDirection("diagonal_rtl");
+        run.setCount(3);
+        run.setRewardMultiplier(4);
+        config.getWinCombinations().put("rtl_run_3", run);
+        WinCombination horizontalRun = new WinCombination();
+        horizontalRun.setWhen("linear_symbols");
+        horizontalRun.setDirection("horizontal");
+        horizontalRun.setCount(2);
+        horizontalRun.setRewardMultiplier(1);
+        config.getWinCombinations().put("horizontal_run_2", horizontalRun);
+    }
+
+    @Test
+    @DisplayName("Should match the scalar evaluator on random boards")
+    void testMatchesScalar() {
+        RuleIndex index = new RuleIndex(config);
+        // Not a multiple of 64, so the last group is partial
+        BoardBatch batch = randomBatch(index, 1000, 3, new Random(17));
+        long[] expected = new long[batch.size() * index.getSymbolCount()];
+        long[] actual = new long[expected.length];
+
+        new ScalarBatchEvaluator(index).evaluate(batch, expected);
+        new BitSlicedBatchEvaluator(index).evaluate(batch, actual);
+
+        assertArrayEquals(expected, actual);
+        boolean anyWin = false;
+        for (long rules : expected) {
+            anyWin |= rules != 0;
+        }
+        assertTrue(anyWin);
+    }
+
+    @Test
+    @DisplayName("Should include bonus symbols on the board without letting them win")
+    void testBonusSymbols() {
+        RuleIndex index = new RuleIndex(config);
+        BoardBatch batch = randomBatch(index, 200, index.getSymbolCount(), new Random(5));
+        long[] expected = new long[batch.size() * index.getSymbolCount()];
+        long[] actual = new long[expected.length];
+
+        new ScalarBatchEvaluator(index).evaluate(batch, expected);
+        new BitSlicedBatchEvaluator(index).evaluate(batch, actual);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should overwrite results of a previous batch")
+    void testReuse() {
+        RuleIndex index = new RuleIndex(config);
+        BatchEvaluator evaluator = new BitSlicedBatchEvaluator(index);
+        long[] firedRules = new long[64 * index.getSymbolCount()];
+        evaluator.evaluate(randomBatch(index, 64, 2, new Random(1)), firedRules);
+
+        BoardBatch second = randomBatch(index, 64, 6, new Random(2));
+        long[] expected = new long[firedRules.length];
+        new ScalarBatchEvaluator(index).evaluate(second, expected);
+        evaluator.evaluate(second, firedRules);
+
+        assertArrayEquals(expected, firedRules);
+    }
+
+    @Test
+    @DisplayName("Should pick the implementation from the system property")
+    void testCreate() {
+        RuleIndex index = new RuleIndex(config);
+        assertEquals("bitsliced", BatchEvaluator.create(index).getName());
+        System.setProperty(BatchEvaluator.IMPLEMENTATION_PROPERTY, "scalar");
+        try {
+            assertEquals("scalar", BatchEvaluator.create(index).getName());
+        } finally {
+            System.clearProperty(BatchEvaluator.IMPLEMENTATION_PROPERTY);
+        }
+    }
+
+    private BoardBatch randomBatch(RuleIndex index, int size, int symbols, Random random) {
+        BoardBatch batch = new BoardBatch(index.getCellCount(), size);
+        for (int board = 0; board < size; board++) {
+            for (int cell = 0; cell < index.getCellCount(); cell++) {
+                batch.set(board, cell, random.nextInt(symbols));
+            }
+        }
+        batch.setSize(size);
+        return batch;
+    }
+}
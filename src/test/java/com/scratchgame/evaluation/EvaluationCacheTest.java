@@ -0,0 +1,118 @@
+package com.scratchgame.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded evaluation cache and its use by ScratchGame.
+ */
+public class EvaluationCacheTest {
+
+    @Test
+    @DisplayName("Should count hits and misses of packed boards")
+    void testHitsAndMisses() {
+        EvaluationCache cache = new EvaluationCache(11, 16, 100, 0, 1000);
+        int[] board = new int[16];
+        board[3] = 10;
+
+        assertNull(cache.get(cache.signature(board)));
+        cache.put(cache.signature(board), new EvaluationCache.Evaluation(new long[11], 0));
+        assertNotNull(cache.get(cache.signature(board.clone())));
+        board[15] = 1;
+        assertNull(cache.get(cache.signature(board)));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+        assertEquals(1, cache.getSize());
+        assertTrue(cache.getEstimatedMemoryBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used boards beyond its size")
+    void testEviction() {
+        EvaluationCache cache = new EvaluationCache(4, 9, 16, 0, 1000);
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            int[] board = new int[9];
+            for (int cell = 0; cell < board.length; cell++) {
+                board[cell] = random.nextInt(4);
+            }
+            cache.put(cache.signature(board), new EvaluationCache.Evaluation(new long[4], 0));
+        }
+
+        assertTrue(cache.getSize() <= 16);
+        assertEquals(1000 - cache.getSize(), cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should switch itself off when the hit rate stays too low after warming up")
+    void testAutoDisable() {
+        EvaluationCache cache = new EvaluationCache(11, 16, 1000, 0.5, 100);
+        // The warm-up window and all but the last low window leave the cache on
+        int windows = 1 + EvaluationCache.LOW_WINDOWS_TO_DISABLE;
+        for (int i = 0; i < windows * 100; i++) {
+            if (i % 100 == 0) {
+                assertTrue(cache.isEnabled());
+            }
+            int[] board = new int[16];
+            board[0] = i % 11;
+            board[1] = i / 11 % 11;
+            board[2] = i / 121;
+            EvaluationCache.Signature signature = cache.signature(board);
+            if (cache.get(signature) == null) {
+                cache.put(signature, new EvaluationCache.Evaluation(new long[11], 0));
+            }
+        }
+
+        assertFalse(cache.isEnabled());
+        assertEquals(0, cache.getSize());
+        assertNull(cache.get(cache.signature(new int[16])));
+    }
+
+    @Test
+    @DisplayName("Should give the same rounds as direct evaluation")
+    void testScratchGameWithCache() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        ScratchGame direct = new ScratchGame(config);
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setEvaluationCache(true);
+        engine.setEvaluationCacheMinHitRate(0);
+        config.setEngine(engine);
+        ScratchGame cached = new ScratchGame(config);
+        RuleIndex index = cached.getRuleIndex();
+
+        // A handful of boards replayed many times, as in a skewed distribution
+        Random random = new Random(5);
+        List<List<List<String>>> boards = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int[] cells = new int[index.getCellCount()];
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = random.nextInt(3);
+            }
+            boards.add(index.decode(cells));
+        }
+        for (int round = 0; round < 400; round++) {
+            List<List<String>> board = boards.get(round % boards.size());
+            direct.setTestMatrix(board);
+            cached.setTestMatrix(board);
+            GameResult expected = direct.play(100);
+            GameResult actual = cached.play(100);
+            assertEquals(expected.getAppliedWinningCombinations(), actual.getAppliedWinningCombinations());
+            assertEquals(expected.getReward(), actual.getReward());
+        }
+
+        EvaluationCache cache = cached.getEvaluationCache();
+        assertEquals(20, cache.getMisses());
+        assertEquals(380, cache.getHits());
+    }
+}
@@ -0,0 +1,114 @@
+package com.scratchgame.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that incremental updates agree with a full evaluation of the same board.
+ */
+public class IncrementalEvaluatorTest {
+    private GameConfig config;
+    private ScratchGame game;
+    private RuleIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        WinCombination run = new WinCombination();
+        run.setWhen("linear_symbols");
+        run.setDirection("diagonal_rtl");
+        run.setCount(3);
+        run.setRewardMultiplier(4);
+        config.getWinCombinations().put("rtl_run_3", run);
+        game = new ScratchGame(config);
+        index = game.getRuleIndex();
+    }
+
+    @Test
+    @DisplayName("Should index every covered area under each of its cells")
+    void testCellToAreaIndex() {
+        int center = 1 * index.getColumns() + 1;
+        Set<String> rules = new HashSet<>();
+        for (int area : index.getCellAreas(center)) {
+            rules.add(index.getRuleName(index.getAreaRule(area)));
+        }
+        assertEquals(new HashSet<>(Arrays.asList("same_symbols_horizontally", "same_symbols_vertically",
+                "same_symbols_diagonally_left_to_right", "same_symbols_diagonally_right_to_left")), rules);
+        // The 4x4 board's last row and column are outside every shipped covered area
+        assertEquals(0, index.getCellAreas(index.getCellCount() - 1).length);
+        assertEquals(7, index.getCountRules().length);
+    }
+
+    @Test
+    @DisplayName("Should match a full evaluation after random cell changes")
+    void testIncrementalMatchesFullEvaluation() {
+        Random random = new Random(7);
+        int standardSymbols = 6;
+        int[] board = new int[index.getCellCount()];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = random.nextInt(standardSymbols);
+        }
+        IncrementalEvaluator incremental = new IncrementalEvaluator(index);
+        incremental.reset(board);
+        IncrementalEvaluator full = new IncrementalEvaluator(index);
+
+        for (int step = 0; step < 500; step++) {
+            int changes = 1 + random.nextInt(3);
+            int[] cells = new int[changes];
+            int[] symbols = new int[changes];
+            for (int i = 0; i < changes; i++) {
+                cells[i] = random.nextInt(board.length);
+                // Mostly few symbols so that wins actually appear and disappear
+                symbols[i] = random.nextInt(3);
+                board[cells[i]] = symbols[i];
+            }
+            incremental.update(cells, symbols, changes);
+            full.reset(board);
+
+            for (int symbol = 0; symbol < index.getSymbolCount(); symbol++) {
+                assertEquals(full.getCount(symbol), incremental.getCount(symbol));
+                assertEquals(full.getFiredRules(symbol), incremental.getFiredRules(symbol),
+                        "fired rules of " + index.getSymbolName(symbol) + " at step " + step);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the same combinations as ScratchGame")
+    void testMatchesScratchGame() {
+        Random random = new Random(11);
+        int[] board = new int[index.getCellCount()];
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(index);
+        evaluator.reset(board);
+
+        for (int step = 0; step < 200; step++) {
+            int cell = random.nextInt(board.length);
+            board[cell] = random.nextInt(3);
+            evaluator.set(cell, board[cell]);
+
+            game.setTestMatrix(index.decode(board));
+            GameResult result = game.play(100);
+            assertEquals(result.getAppliedWinningCombinations(), evaluator.toWinningCombinations());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject symbol ids outside the index")
+    void testRejectsUnknownSymbol() {
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(index);
+        evaluator.reset(new int[index.getCellCount()]);
+
+        assertThrows(IllegalArgumentException.class, () -> evaluator.set(0, index.getSymbolCount()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.scratchgame.evaluation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the single-sweep run detector used by linear run templates.
+ */
+public class LineRunDetectorTest {
+
+    @Test
+    @DisplayName("Should find the longest run in every direction")
+    void testLongestRunsOnSmallBoard() {
+        // 0 0 0 1
+        // 1 0 1 1
+        // 1 1 0 1
+        // 1 2 2 0
+        int[] cells = {
+            0, 0, 0, 1,
+            1, 0, 1, 1,
+            1, 1, 0, 1,
+            1, 2, 2, 0
+        };
+
+        int[][] runs = LineRunDetector.longestRuns(cells, 4, 4, 3);
+
+        assertEquals(3, runs[LineDirection.HORIZONTAL.ordinal()][0]);
+        assertEquals(2, runs[LineDirection.HORIZONTAL.ordinal()][1]);
+        assertEquals(2, runs[LineDirection.HORIZONTAL.ordinal()][2]);
+        assertEquals(3, runs[LineDirection.VERTICAL.ordinal()][1]);
+        assertEquals(4, runs[LineDirection.DIAGONAL_LTR.ordinal()][0]);
+        assertEquals(4, runs[LineDirection.DIAGONAL_RTL.ordinal()][1]);
+    }
+
+    @Test
+    @DisplayName("Should match a brute force scan on random rectangular boards")
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int iteration = 0; iteration < 200; iteration++) {
+            int rows = 1 + random.nextInt(12);
+            int columns = 1 + random.nextInt(12);
+            int symbolCount = 1 + random.nextInt(4);
+            int[] cells = new int[rows * columns];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = random.nextInt(symbolCount);
+            }
+
+            int[][] runs = LineRunDetector.longestRuns(cells, rows, columns, symbolCount);
+
+            int[][] steps = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            for (LineDirection direction : LineDirection.values()) {
+                int[] step = steps[direction.ordinal()];
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    assertEquals(bruteForce(cells, rows, columns, symbol, step[0], step[1]),
+                            runs[direction.ordinal()][symbol], direction + " run of " + symbol);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a board whose size does not match its dimensions")
+    void testRejectsMismatchedBoard() {
+        assertThrows(IllegalArgumentException.class, () -> LineRunDetector.longestRuns(new int[5], 2, 3, 1));
+    }
+
+    private int bruteForce(int[] cells, int rows, int columns, int symbol, int rowStep, int colStep) {
+        int longest = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int length = 0;
+                int r = row;
+                int c = col;
+                while (r >= 0 && r < rows && c >= 0 && c < columns && cells[r * columns + c] == symbol) {
+                    length++;
+                    r += rowStep;
+                    c += colStep;
+                }
+                longest = Math.max(longest, length);
+            }
+        }
+        return longest;
+    }
+}
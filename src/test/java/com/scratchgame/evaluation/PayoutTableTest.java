@@ -0,0 +1,105 @@
+package com.scratchgame.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the precomputed payout table on a 3x3 board with three standard symbols.
+ */
+public class PayoutTableTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The shipped rules on a 3x3 board where every cell draws A, B or C
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        config.setRows(3);
+        config.setColumns(3);
+        for (GameConfig.StandardSymbolProbability probability : config.getProbabilities().getStandardSymbols()) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            weights.put("A", 1);
+            weights.put("B", 2);
+            weights.put("C", 3);
+            probability.setSymbols(weights);
+        }
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setPayoutTable(true);
+        config.setEngine(engine);
+    }
+
+    @Test
+    @DisplayName("Should agree with direct evaluation on every board")
+    void testMatchesDirectEvaluation() {
+        ScratchGame tableGame = new ScratchGame(config);
+        PayoutTable table = tableGame.getPayoutTable();
+        assertNotNull(table, "Table should be active within the default budget");
+        assertEquals(19683, table.getEntryCount());
+
+        config.setEngine(null);
+        ScratchGame directGame = new ScratchGame(config);
+        assertNull(directGame.getPayoutTable());
+
+        RuleIndex index = tableGame.getRuleIndex();
+        int[] symbols = {index.symbolId("A"), index.symbolId("B"), index.symbolId("C")};
+        int[] cells = new int[index.getCellCount()];
+        for (long code = 0; code < table.getEntryCount(); code++) {
+            long remaining = code;
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = symbols[(int) (remaining % 3)];
+                remaining /= 3;
+            }
+            assertEquals(code, table.encode(cells));
+
+            List<List<String>> matrix = index.decode(cells);
+            directGame.setTestMatrix(matrix);
+            tableGame.setTestMatrix(matrix);
+            GameResult direct = directGame.play(100);
+            GameResult fromTable = tableGame.play(100);
+            assertEquals(direct.getAppliedWinningCombinations(), fromTable.getAppliedWinningCombinations());
+            assertEquals(direct.getReward(), fromTable.getReward());
+
+            int outcome = table.outcomeOf(code);
+            assertEquals(direct.getReward(), 100 * table.getMultiplier(outcome), 1e-9);
+            assertEquals(outcome == 0, table.getFiredRules(outcome) == 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay off when the table exceeds the memory budget")
+    void testMemoryBudget() {
+        config.getEngine().setPayoutTableMemoryMb(0);
+
+        ScratchGame game = new ScratchGame(config);
+
+        assertNull(game.getPayoutTable());
+        assertTrue(game.play(100).getMatrix().size() == 3);
+    }
+
+    @Test
+    @DisplayName("Should report boards that cannot be tabulated")
+    void testRequiredBytes() {
+        assertEquals(4L * 10077696, PayoutTable.requiredBytes(6, 9));
+        assertEquals(Long.MAX_VALUE, PayoutTable.requiredBytes(6, 16));
+    }
+
+    @Test
+    @DisplayName("Should generate playable rounds from the table")
+    void testPlayWithTable() {
+        ScratchGame game = new ScratchGame(config);
+        for (int round = 0; round < 1000; round++) {
+            GameResult result = game.play(10);
+            assertEquals(3, result.getMatrix().size());
+            assertEquals(result.getReward() > 0, !result.getAppliedWinningCombinations().isEmpty());
+        }
+    }
+}
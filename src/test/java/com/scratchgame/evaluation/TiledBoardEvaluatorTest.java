@@ -0,0 +1,136 @@
+package com.scratchgame.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the tiled fork/join board evaluator.
+ */
+public class TiledBoardEvaluatorTest {
+
+    @Test
+    @DisplayName("Should match the sequential sweep with runs crossing tile borders")
+    void testMatchesSequentialSweep() {
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 300; iteration++) {
+            int rows = 1 + random.nextInt(20);
+            int columns = 1 + random.nextInt(20);
+            int symbolCount = 1 + random.nextInt(3);
+            int tileSize = 1 + random.nextInt(6);
+            // Mostly symbol 0, so long runs cross several tiles
+            int[] cells = new int[rows * columns];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = random.nextInt(6) == 0 ? random.nextInt(symbolCount) : 0;
+            }
+
+            TiledBoardEvaluator evaluator = new TiledBoardEvaluator(rows, columns, symbolCount, tileSize, ForkJoinPool.commonPool());
+            int[] counts = new int[symbolCount];
+            int[][] runs = new int[LineDirection.values().length][symbolCount];
+            evaluator.evaluate(cells, counts, runs);
+
+            int[] expectedCounts = new int[symbolCount];
+            for (int symbol : cells) {
+                expectedCounts[symbol]++;
+            }
+            String board = rows + "x" + columns + " in tiles of " + tileSize;
+            assertArrayEquals(expectedCounts, counts, board);
+            int[][] expectedRuns = LineRunDetector.longestRuns(cells, rows, columns, symbolCount);
+            for (LineDirection direction : LineDirection.values()) {
+                assertArrayEquals(expectedRuns[direction.ordinal()], runs[direction.ordinal()], direction + " on " + board);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should stitch runs spanning the whole board and evaluate boards concurrently")
+    void testUniformBoardAndConcurrentUse() throws Exception {
+        TiledBoardEvaluator evaluator = new TiledBoardEvaluator(50, 30, 2, 8, ForkJoinPool.commonPool());
+        int[] counts = new int[2];
+        int[][] runs = new int[LineDirection.values().length][2];
+        evaluator.evaluate(new int[50 * 30], counts, runs);
+        assertEquals(1500, counts[0]);
+        assertEquals(30, runs[LineDirection.HORIZONTAL.ordinal()][0]);
+        assertEquals(50, runs[LineDirection.VERTICAL.ordinal()][0]);
+        assertEquals(30, runs[LineDirection.DIAGONAL_LTR.ordinal()][0]);
+        assertEquals(30, runs[LineDirection.DIAGONAL_RTL.ordinal()][0]);
+
+        // A second board through the same instance, counting only
+        int[] cells = new int[50 * 30];
+        Arrays.fill(cells, 0, 700, 1);
+        counts = new int[2];
+        evaluator.evaluate(cells, counts, null);
+        assertArrayEquals(new int[]{800, 700}, counts);
+
+        // Two threads sharing the instance, each with its own boards
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int iteration = 0; iteration < 200; iteration++) {
+                    int[] board = new int[50 * 30];
+                    for (int i = 0; i < board.length; i++) {
+                        board[i] = random.nextInt(4) == 0 ? 1 : 0;
+                    }
+                    int[] boardCounts = new int[2];
+                    int[][] boardRuns = new int[LineDirection.values().length][2];
+                    evaluator.evaluate(board, boardCounts, boardRuns);
+                    int[][] expected = LineRunDetector.longestRuns(board, 50, 30, 2);
+                    for (LineDirection direction : LineDirection.values()) {
+                        assertArrayEquals(expected[direction.ordinal()], boardRuns[direction.ordinal()]);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should give the game the same wins as sequential evaluation")
+    void testGameMatchesSequential() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        GameConfig sequentialConfig = mapper.readValue(new File("config.json"), GameConfig.class);
+        GameConfig tiledConfig = mapper.readValue(new File("config.json"), GameConfig.class);
+        for (LineDirection direction : LineDirection.values()) {
+            for (GameConfig config : Arrays.asList(sequentialConfig, tiledConfig)) {
+                WinCombination run = new WinCombination();
+                run.setWhen("linear_symbols");
+                run.setGroup(direction.getConfigValue() + "_run");
+                run.setDirection(direction.getConfigValue());
+                run.setCount(3);
+                run.setRewardMultiplier(2);
+                config.getWinCombinations().put(direction.getConfigValue() + "_run_3", run);
+            }
+        }
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setTiledEvaluationMinCells(1);
+        engine.setTileSize(3);
+        tiledConfig.setEngine(engine);
+        ScratchGame sequential = new ScratchGame(sequentialConfig, 3);
+        ScratchGame tiled = new ScratchGame(tiledConfig, 3);
+
+        for (int round = 0; round < 500; round++) {
+            GameResult expected = sequential.play(100);
+            tiled.setTestMatrix(expected.getMatrix());
+            GameResult actual = tiled.play(100);
+            assertEquals(expected.getAppliedWinningCombinations(), actual.getAppliedWinningCombinations());
+            assertEquals(expected.getReward(), actual.getReward());
+        }
+    }
+}
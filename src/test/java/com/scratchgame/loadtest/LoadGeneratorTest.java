@@ -0,0 +1,88 @@
+package com.scratchgame.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.server.ShardedGameEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the load generator, its histogram and its bet distributions.
+ */
+public class LoadGeneratorTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should report histogram quantiles within 1/64 of the exact value")
+    void testHistogramAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1000);
+        }
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            double exact = q * 1_000_000 * 1000;
+            assertEquals(exact, histogram.getValueAtQuantile(q), exact / 64);
+        }
+        assertEquals(1_000_000_000L, histogram.getValueAtQuantile(1));
+        assertEquals(1_000_000L, histogram.getCount());
+        for (long value : new long[]{0, 127, 128, 129, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value <= LatencyHistogram.highestValueAt(index));
+            assertTrue(index == 0 || value > LatencyHistogram.highestValueAt(index - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should parse bet distributions and reject malformed ones")
+    void testBetDistributions() {
+        Random random = new Random(1);
+        assertEquals(2.5, BetDistribution.parse("fixed:2.5").next(random));
+        for (int i = 0; i < 1000; i++) {
+            double uniform = BetDistribution.parse("uniform:1,10").next(random);
+            assertTrue(uniform >= 1 && uniform <= 10);
+            assertTrue(BetDistribution.parse("lognormal:2,0.8").next(random) >= 0.01);
+        }
+        BetDistribution choice = BetDistribution.parse("choice:1=3,5=1,20=0");
+        int ones = 0;
+        for (int i = 0; i < 4000; i++) {
+            double bet = choice.next(random);
+            assertNotEquals(20.0, bet);
+            ones += bet == 1 ? 1 : 0;
+        }
+        assertEquals(3000, ones, 150);
+        assertThrows(IllegalArgumentException.class, () -> BetDistribution.parse("uniform:5"));
+        assertThrows(IllegalArgumentException.class, () -> BetDistribution.parse("pareto:1,2"));
+        assertThrows(IllegalArgumentException.class, () -> BetDistribution.parse("choice:1=0"));
+    }
+
+    @Test
+    @DisplayName("Should account for every offered round in open and closed runs")
+    void testRuns() throws Exception {
+        try (ShardedGameEngine engine = new ShardedGameEngine(config(), 2, 1024, 7L, null)) {
+            LoadGenerator generator = new LoadGenerator(engine, BetDistribution.parse("uniform:1,10"));
+            generator.setDurationSeconds(1);
+            generator.setRate(2000);
+            LoadReport open = generator.run(LoadGenerator.Mode.OPEN);
+            assertEquals("open", open.getMode());
+            assertEquals(2000, open.getOffered());
+            assertEquals(open.getOffered(), open.getCompleted() + open.getRejected() + open.getFailed());
+            assertTrue(open.getLatencyMicros().get("p50") <= open.getLatencyMicros().get("p99.9"));
+            assertTrue(open.getLatencyMicros().get("p99.9") <= open.getLatencyMicros().get("max"));
+            assertEquals(open.getCompleted(), open.getPerSecond().stream().mapToLong(LoadReport.Interval::getCompleted).sum());
+
+            generator.setClients(3);
+            LoadReport closed = generator.run(LoadGenerator.Mode.CLOSED);
+            assertTrue(closed.getCompleted() > 0);
+            assertEquals(closed.getOffered(), closed.getCompleted() + closed.getRejected() + closed.getFailed());
+            assertEquals(closed.getCompleted(), closed.getPerSecond().stream().mapToLong(LoadReport.Interval::getCompleted).sum());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.scratchgame.model.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.evaluation.LineDirection;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling the parsed configuration into the runtime model.
+ */
+public class GameModelTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should compile symbols and rules into typed values")
+    void testCompile() {
+        GameModel model = new GameModel(config);
+
+        assertEquals(16, model.getCellCount());
+        assertEquals(SymbolType.STANDARD, model.findSymbol("A").getType());
+        assertNull(model.findSymbol("A").getImpact());
+        assertEquals(BonusImpact.MULTIPLY_REWARD, model.findSymbol("10x").getImpact());
+        assertEquals(BonusImpact.EXTRA_BONUS, model.findSymbol("+1000").getImpact());
+        assertEquals(1000, model.findSymbol("+1000").getExtra());
+        assertEquals(BonusImpact.MISS, model.findSymbol("MISS").getImpact());
+        assertNull(model.findSymbol("Z"));
+
+        CompiledRule sameSymbols = model.findRule("same_symbol_5_times");
+        assertEquals(RuleKind.SAME_SYMBOLS, sameSymbols.getKind());
+        assertEquals(5, sameSymbols.getThreshold());
+        CompiledRule horizontal = model.findRule("same_symbols_horizontally");
+        assertEquals(RuleKind.COVERED_AREAS, horizontal.getKind());
+        assertArrayEquals(new int[]{0, 1, 2}, horizontal.getAreaCells(0));
+        assertFalse(model.hasLineTemplates());
+    }
+
+    @Test
+    @DisplayName("Should not see changes made to the configuration after compiling")
+    void testImmutable() {
+        GameModel model = new GameModel(config);
+
+        config.getSymbols().get("A").setRewardMultiplier(1000);
+        config.getSymbols().remove("B");
+        config.getWinCombinations().get("same_symbol_3_times").setCount(9);
+
+        assertEquals(5, model.findSymbol("A").getRewardMultiplier());
+        assertNotNull(model.findSymbol("B"));
+        assertEquals(3, model.findRule("same_symbol_3_times").getThreshold());
+    }
+
+    @Test
+    @DisplayName("Should compile run templates with their direction")
+    void testLineTemplate() {
+        WinCombination run = new WinCombination();
+        run.setWhen("linear_symbols");
+        run.setDirection("vertical");
+        run.setCount(3);
+        config.getWinCombinations().put("vertical_run_3", run);
+
+        GameModel model = new GameModel(config);
+
+        CompiledRule rule = model.findRule("vertical_run_3");
+        assertEquals(RuleKind.LINE_RUN, rule.getKind());
+        assertEquals(LineDirection.VERTICAL, rule.getDirection());
+        assertTrue(model.hasLineTemplates());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown types at construction")
+    void testRejectsUnknownValues() {
+        config.getSymbols().get("A").setType("wild");
+        assertThrows(IllegalArgumentException.class, () -> new GameModel(config));
+
+        config.getSymbols().get("A").setType("standard");
+        config.getWinCombinations().get("same_symbol_3_times").setWhen("scatter");
+        assertThrows(IllegalArgumentException.class, () -> new GameModel(config));
+
+        config.getWinCombinations().get("same_symbol_3_times").setWhen("same_symbols");
+        config.getSymbols().get("10x").setImpact("double_up");
+        assertThrows(IllegalStateException.class, () -> new GameModel(config));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid bonus values at construction")
+    void testRejectsInvalidBonus() {
+        Symbol extra = config.getSymbols().get("+500");
+        extra.setExtra(-1.0);
+        assertThrows(IllegalStateException.class, () -> new GameModel(config));
+
+        extra.setExtra(500.0);
+        config.getSymbols().get("5x").setRewardMultiplier(0);
+        assertThrows(IllegalStateException.class, () -> new GameModel(config));
+
+        config.getSymbols().get("5x").setRewardMultiplier(5);
+        config.getWinCombinations().get("same_symbols_vertically").setCoveredAreas(
+                Collections.singletonList(Arrays.asList("0:0", "4:0")));
+        assertThrows(IllegalStateException.class, () -> new GameModel(config));
+    }
+}
@@ -0,0 +1,55 @@
+package com.scratchgame.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for fixed-point conversion, rounding and overflow.
+ */
+public class FixedPointTest {
+
+    @Test
+    @DisplayName("Should round like BigDecimal for every rounding mode")
+    void testDivideMatchesBigDecimal() {
+        long[] values = {0, 1, 4, 5, 6, 15, 25, 149, 150, 151, -1, -5, -15, -25, -151, 999_999, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        long[] divisors = {1, 2, 10, 100, 1_000_000};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long value : values) {
+                for (long divisor : divisors) {
+                    long expected = BigDecimal.valueOf(value).divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact();
+                    assertEquals(expected, FixedPoint.divide(value, divisor, mode), value + " / " + divisor + " " + mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should read doubles as their decimal representation")
+    void testFromDouble() {
+        assertEquals(1_200_000, FixedPoint.fromDouble(1.2, 6, RoundingMode.HALF_EVEN));
+        assertEquals(10, FixedPoint.fromDouble(0.1, 2, RoundingMode.HALF_EVEN));
+        assertEquals(2, FixedPoint.fromDouble(0.015, 2, RoundingMode.HALF_EVEN));
+        assertEquals(1, FixedPoint.fromDouble(0.015, 2, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.fromDouble(Double.MAX_VALUE, 6, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.fromDouble(Double.NaN, 6, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    @DisplayName("Should multiply exactly where doubles drift")
+    void testMultiply() {
+        // 0.1 x 3 in cents with a six-digit multiplier
+        assertEquals(30, FixedPoint.multiply(10, 3_000_000, 1_000_000, RoundingMode.HALF_EVEN));
+        // An intermediate product beyond a long whose result still fits
+        assertEquals(4_000_000_000_000L, FixedPoint.multiply(4_000_000_000_000L, 1_000_000_000_000L, 1_000_000_000_000L, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE, 2_000_000, 1_000_000, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.divide(5, 10, RoundingMode.UNNECESSARY));
+    }
+}
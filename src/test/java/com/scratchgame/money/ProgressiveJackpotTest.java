@@ -0,0 +1,187 @@
+package com.scratchgame.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.server.AsyncGame;
+import com.scratchgame.server.IdempotentGame;
+import com.scratchgame.server.ShardedGameEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the progressive jackpot pool and its payout in play().
+ */
+public class ProgressiveJackpotTest {
+
+    private static GameConfig config(String triggerBonusSymbol, String triggerCombination) throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        GameConfig.JackpotSettings jackpot = new GameConfig.JackpotSettings();
+        jackpot.setContributionPercent(1);
+        jackpot.setSeedAmount(100);
+        jackpot.setTriggerBonusSymbol(triggerBonusSymbol);
+        jackpot.setTriggerCombination(triggerCombination);
+        config.setJackpot(jackpot);
+        return config;
+    }
+
+    private static List<List<String>> board(String symbol) {
+        List<List<String>> matrix = new ArrayList<>();
+        for (int row = 0; row < 4; row++) {
+            matrix.add(Arrays.asList(symbol, symbol, symbol, symbol));
+        }
+        return matrix;
+    }
+
+    @Test
+    @DisplayName("Should grow the pool with every bet and pay it into the triggering round")
+    void testContributionAndPayout() throws Exception {
+        GameConfig config = config(null, "same_symbol_9_times");
+        ProgressiveJackpot jackpot = new ProgressiveJackpot(config);
+        ScratchGame game = new ScratchGame(config, 1);
+        game.setJackpot(jackpot);
+        assertEquals(100, jackpot.getPool());
+
+        List<List<String>> noTrigger = Arrays.asList(
+                Arrays.asList("A", "B", "C", "D"),
+                Arrays.asList("E", "F", "A", "B"),
+                Arrays.asList("C", "D", "E", "F"),
+                Arrays.asList("B", "A", "F", "E"));
+        game.setTestMatrix(noTrigger);
+        for (int i = 0; i < 10; i++) {
+            assertNull(game.play(50).getJackpot());
+        }
+        // 1% of 10 bets of 50
+        assertEquals(105, jackpot.getPool(), 1e-9);
+
+        game.setTestMatrix(board("A"));
+        GameResult win = game.play(50);
+        assertEquals(105.5, win.getJackpot(), 1e-9);
+        assertTrue(win.getReward() >= 105.5);
+        assertEquals(100, jackpot.getPool(), 1e-9);
+        assertEquals(1, jackpot.getPayouts());
+
+        // Fractions of a cent accumulate instead of being rounded away
+        game.setTestMatrix(noTrigger);
+        for (int i = 0; i < 3; i++) {
+            game.play(0.5);
+        }
+        assertEquals(100.01, jackpot.getPool(), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> new ProgressiveJackpot(config(null, "no_such_combination")));
+        assertThrows(IllegalArgumentException.class, () -> new ProgressiveJackpot(config("A", null)));
+        assertThrows(IllegalArgumentException.class, () -> new ProgressiveJackpot(config(null, null)));
+    }
+
+    @Test
+    @DisplayName("Should pay each contribution exactly once when triggers race")
+    void testConcurrentPayouts() throws Exception {
+        ProgressiveJackpot jackpot = new ProgressiveJackpot(config("+1000", null));
+        int threads = 4;
+        int rounds = 20_000;
+        AtomicLong won = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 1; i <= rounds; i++) {
+                    // A bet of 1.00 contributes exactly one cent
+                    jackpot.contribute(100);
+                    if (i % 1000 == 0) {
+                        won.addAndGet(jackpot.payOut());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        long payouts = jackpot.getPayouts();
+        assertEquals(threads * rounds / 1000, payouts);
+        long seeded = (payouts + 1) * 10_000;
+        assertEquals(seeded + threads * rounds, won.get() + Math.round(jackpot.getPool() * 100));
+        assertEquals(won.get() / 100.0, jackpot.getTotalPaid(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should share one pool between the games of each front end")
+    void testFrontEnds() throws Exception {
+        GameConfig config = config("+1000", null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AsyncGame async = new AsyncGame(config, executor);
+        List<CompletableFuture<GameResult>> rounds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rounds.add(async.playAsync(100));
+        }
+        for (CompletableFuture<GameResult> round : rounds) {
+            round.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertBalanced(async.getJackpot(), 50);
+
+        IdempotentGame idempotent = new IdempotentGame(config);
+        for (int i = 0; i < 50; i++) {
+            idempotent.play("request-" + i, 100);
+            idempotent.play("request-" + i, 100);
+        }
+        assertBalanced(idempotent.getJackpot(), 50);
+
+        config.setJackpot(null);
+        assertNull(new AsyncGame(config).getJackpot());
+        assertNull(new IdempotentGame(config).getJackpot());
+    }
+
+    /**
+     * Every bet of 100 added 1 to the pool, which was seeded at 100 and again after each payout.
+     */
+    private static void assertBalanced(ProgressiveJackpot jackpot, int bets) {
+        double seeded = 100 * (jackpot.getPayouts() + 1);
+        assertEquals(seeded + bets, jackpot.getPool() + jackpot.getTotalPaid(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should restore the pool after a restart and show it in engine metrics")
+    void testRestore(@TempDir Path dir) throws Exception {
+        GameConfig config = config("+1000", null);
+        Path state = dir.resolve("jackpot.state");
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, 2, 64, 7L, null)) {
+            ProgressiveJackpot jackpot = engine.getJackpot();
+            assertFalse(jackpot.restore(state));
+            for (int i = 0; i < 1000; i++) {
+                jackpot.contribute(250);
+            }
+            assertEquals(125, engine.getMetrics().getJackpotPool(), 1e-9);
+            assertEquals(0, engine.getMetrics().getJackpotPayouts());
+            jackpot.save(state);
+        }
+
+        ProgressiveJackpot restarted = new ProgressiveJackpot(config);
+        assertTrue(restarted.restore(state));
+        assertEquals(125, restarted.getPool(), 1e-9);
+
+        byte[] bytes = Files.readAllBytes(state);
+        bytes[12] ^= 1;
+        Files.write(state, bytes);
+        assertThrows(IllegalStateException.class, () -> restarted.restore(state));
+
+        config.setJackpot(null);
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, 1, 64, 7L, null)) {
+            assertNull(engine.getJackpot());
+            assertNull(engine.getMetrics().getJackpotPool());
+            assertFalse(new ObjectMapper().writeValueAsString(engine.getMetrics()).contains("jackpot"));
+        }
+    }
+}
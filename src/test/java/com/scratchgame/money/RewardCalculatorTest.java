@@ -0,0 +1,149 @@
+package com.scratchgame.money;
+
+import com.scratchgame.ScratchGame;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.*;
+import com.scratchgame.model.runtime.BonusImpact;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for rewards computed in minor units.
+ */
+public class RewardCalculatorTest {
+
+    @Test
+    @DisplayName("Should pay decimal multipliers to the cent")
+    void testExactDecimalReward() {
+        GameConfig config = createConfig(1.2, 1.5);
+        ScratchGame game = new ScratchGame(config);
+        game.setTestMatrix(Arrays.asList(
+                Arrays.asList("A", "A", "A"),
+                Arrays.asList("B", "C", "B"),
+                Arrays.asList("C", "B", "C")
+        ));
+
+        // Each symbol appears three times: 0.1 x 1.5 x (1.2 + 3 + 1), where
+        // 0.1 x 1.2 x 1.5 alone is 0.18000000000000002 in doubles
+        assertEquals(0.78, game.play(0.1).getReward());
+        assertEquals(780.0, game.play(100).getReward());
+    }
+
+    @Test
+    @DisplayName("Should round once with the configured mode")
+    void testRoundingMode() {
+        GameConfig config = createConfig(1.5, 1.0);
+        RewardCalculator halfEven = new RewardCalculator(config, new RuleIndex(config));
+        int symbol = halfEven.getIndex().symbolId("A");
+        long rule = 1L << halfEven.getIndex().ruleId("same_symbol_3_times");
+
+        // 0.05 x 1.5 = 0.075
+        assertEquals(8, halfEven.reward(5, symbol, rule));
+
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setRounding(RoundingMode.DOWN);
+        config.setEngine(engine);
+        RewardCalculator down = new RewardCalculator(config, new RuleIndex(config));
+        assertEquals(7, down.reward(5, symbol, rule));
+
+        engine.setMoneyScale(3);
+        RewardCalculator mills = new RewardCalculator(config, new RuleIndex(config));
+        assertEquals(75, mills.reward(50, symbol, rule));
+        assertEquals(0.075, mills.toMajor(75));
+    }
+
+    @Test
+    @DisplayName("Should multiply the multipliers exactly before rounding")
+    void testExactProduct() {
+        GameConfig config = createConfig(1.000001, 1.000001);
+        RewardCalculator calculator = new RewardCalculator(config, new RuleIndex(config));
+        int symbol = calculator.getIndex().symbolId("A");
+        long rule = 1L << calculator.getIndex().ruleId("same_symbol_3_times");
+
+        // 1.000001 x 1.000001 = 1.000002000001, which rounding per multiplier would cut short
+        assertEquals(3_000_006, calculator.reward(3_000_000, symbol, rule));
+        assertEquals(1_000_002_000_001L, calculator.reward(1_000_000_000_000L, symbol, rule));
+    }
+
+    @Test
+    @DisplayName("Should sum the rewards of every winning symbol")
+    void testTotalReward() {
+        GameConfig config = createConfig(1.2, 1.5);
+        RewardCalculator calculator = new RewardCalculator(config, new RuleIndex(config));
+        RuleIndex index = calculator.getIndex();
+        long[] firedRules = new long[index.getSymbolCount()];
+        firedRules[index.symbolId("A")] = 1L << index.ruleId("same_symbol_3_times");
+        firedRules[index.symbolId("B")] = 1L << index.ruleId("same_symbol_3_times");
+
+        // 100.00 x 1.2 x 1.5 + 100.00 x 3 x 1.5
+        assertEquals(18_000 + 45_000, calculator.reward(10_000, firedRules));
+    }
+
+    @Test
+    @DisplayName("Should tell whether a bonus keeps the reward in range")
+    void testBonusFits() {
+        GameConfig config = createConfig(1.2, 1.5);
+        Symbol times = new Symbol();
+        times.setType("bonus");
+        times.setImpact("multiply_reward");
+        times.setRewardMultiplier(2);
+        config.getSymbols().put("10x", times);
+        Symbol extra = new Symbol();
+        extra.setType("bonus");
+        extra.setImpact("extra_bonus");
+        extra.setExtra(1000.0);
+        config.getSymbols().put("+1000", extra);
+        RewardCalculator calculator = new RewardCalculator(config, new RuleIndex(config));
+        int timesId = calculator.getIndex().symbolId("10x");
+        int extraId = calculator.getIndex().symbolId("+1000");
+
+        assertTrue(calculator.bonusFits(Long.MAX_VALUE / 2, timesId, BonusImpact.MULTIPLY_REWARD));
+        assertFalse(calculator.bonusFits(Long.MAX_VALUE / 2 + 1, timesId, BonusImpact.MULTIPLY_REWARD));
+        assertTrue(calculator.bonusFits(Long.MAX_VALUE - 100_000, extraId, BonusImpact.EXTRA_BONUS));
+        assertFalse(calculator.bonusFits(Long.MAX_VALUE - 99_999, extraId, BonusImpact.EXTRA_BONUS));
+    }
+
+    private GameConfig createConfig(double symbolMultiplier, double combinationMultiplier) {
+        GameConfig config = new GameConfig();
+        config.setRows(3);
+        config.setColumns(3);
+
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        symbols.put("A", createSymbol(symbolMultiplier));
+        symbols.put("B", createSymbol(3));
+        symbols.put("C", createSymbol(1));
+        config.setSymbols(symbols);
+
+        WinCombination sameSymbols = new WinCombination();
+        sameSymbols.setWhen("same_symbols");
+        sameSymbols.setCount(4);
+        sameSymbols.setRewardMultiplier(combinationMultiplier);
+        WinCombination threeTimes = new WinCombination();
+        threeTimes.setWhen("same_symbols");
+        threeTimes.setCount(3);
+        threeTimes.setRewardMultiplier(combinationMultiplier);
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("same_symbol_3_times", threeTimes);
+        combinations.put("same_symbol_4_times", sameSymbols);
+        config.setWinCombinations(combinations);
+
+        GameConfig.StandardSymbolProbability probability = new GameConfig.StandardSymbolProbability();
+        probability.setSymbols(Collections.singletonMap("A", 1));
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(probability));
+        config.setProbabilities(probabilities);
+        return config;
+    }
+
+    private Symbol createSymbol(double rewardMultiplier) {
+        Symbol symbol = new Symbol();
+        symbol.setType("standard");
+        symbol.setRewardMultiplier(rewardMultiplier);
+        return symbol;
+    }
+}
@@ -0,0 +1,150 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the adaptive concurrency limit in front of the sharded engine.
+ */
+public class AdmissionControllerTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    private static RoundCallback awaiting(CountDownLatch done) {
+        return new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                done.countDown();
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                done.countDown();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should grow the limit additively while latency is low and cut it when rounds queue")
+    void testAimd() {
+        AdmissionController controller = new AdmissionController(10, 20);
+        controller.setWindowSize(4);
+        controller.setLatencyTolerance(2);
+        controller.setLatencyFloorMicros(0);
+
+        // Saturated window at the service time: one more slot
+        for (int i = 0; i < 10; i++) {
+            assertTrue(controller.tryAcquire());
+        }
+        assertFalse(controller.tryAcquire());
+        assertEquals(1, controller.getRejected());
+        for (int i = 0; i < 4; i++) {
+            controller.release(1000, 1000);
+        }
+        assertEquals(11, controller.getLimit());
+        assertEquals(6, controller.getInFlight());
+
+        // A window that never reached the limit leaves it alone
+        for (int i = 0; i < 4; i++) {
+            controller.release(1000, 1000);
+        }
+        assertEquals(11, controller.getLimit());
+
+        // Latency ten times the service time: multiplicative decrease
+        for (int i = 0; i < 4; i++) {
+            assertTrue(controller.tryAcquire());
+            controller.release(10_000, 1000);
+        }
+        assertEquals(9, controller.getLimit());
+        assertEquals(1.0, controller.getServiceMicros(), 1e-9);
+        assertEquals(2, controller.getInFlight());
+
+        controller.setMinLimit(9);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(controller.tryAcquire());
+            controller.release(10_000, 1000);
+        }
+        assertEquals(9, controller.getLimit());
+        assertThrows(IllegalArgumentException.class, () -> controller.setBackoff(1));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(5, 4));
+    }
+
+    @Test
+    @DisplayName("Should reject rounds past the limit at once and admit them again as rounds finish")
+    void testEngineRejectsOverLimit() throws Exception {
+        AdmissionController controller = new AdmissionController(4, 4);
+        try (ShardedGameEngine engine = new ShardedGameEngine(config(), 1, 64, null, controller);
+             ShardRouter router = engine.newRouter()) {
+            CountDownLatch done = new CountDownLatch(200);
+            int admitted = 0;
+            int overLimit = 0;
+            while (admitted < 200) {
+                AdmissionStatus status = router.submit(10, awaiting(done));
+                if (status == AdmissionStatus.ADMITTED) {
+                    admitted++;
+                } else {
+                    assertEquals(AdmissionStatus.OVER_LIMIT, status);
+                    overLimit++;
+                    Thread.yield();
+                }
+                assertTrue(controller.getInFlight() <= 4);
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(overLimit, controller.getRejected());
+            assertEquals(200, engine.getMetrics().getRounds());
+            assertEquals(0, controller.getInFlight());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a full queue when a shard falls behind")
+    void testQueueFull() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        try (ShardedGameEngine engine = new ShardedGameEngine(config(), 1, 2, null, controller);
+             ShardRouter router = engine.newRouter()) {
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(3);
+            // The first round holds the shard thread until the queue has filled up
+            assertEquals(AdmissionStatus.ADMITTED, router.submit(10, new RoundCallback() {
+                @Override
+                public void completed(GameResult result) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                }
+
+                @Override
+                public void failed(RuntimeException error) {
+                    fail(error);
+                }
+            }));
+            try {
+                assertTrue(blocked.await(10, TimeUnit.SECONDS));
+                assertEquals(AdmissionStatus.ADMITTED, router.submit(10, awaiting(done)));
+                assertEquals(AdmissionStatus.ADMITTED, router.submit(10, awaiting(done)));
+                assertEquals(AdmissionStatus.QUEUE_FULL, router.submit(10, awaiting(done)));
+                // The played round and the rejected one both gave back their slots
+                assertEquals(2, controller.getInFlight());
+            } finally {
+                release.countDown();
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the asynchronous play API and its result publisher.
+ */
+public class AsyncGameTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    /**
+     * Records the signals of one subscription; the test makes the requests.
+     */
+    private static class RecordingSubscriber implements RoundFlow.Subscriber<GameResult> {
+        final List<GameResult> results = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile RoundFlow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(RoundFlow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(GameResult item) {
+            results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            finished.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should play rounds on the configured executor")
+    void testPlayAsync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AsyncGame game = new AsyncGame(config(), executor);
+            List<CompletableFuture<GameResult>> rounds = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                rounds.add(game.playAsync(100));
+            }
+            CompletableFuture.allOf(rounds.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            for (CompletableFuture<GameResult> round : rounds) {
+                assertEquals(4, round.get().getMatrix().size());
+            }
+
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> game.playAsync(Double.POSITIVE_INFINITY).get(10, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof ArithmeticException);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish only as many results as requested, then complete")
+    void testPublisherBackpressure() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncGame game = new AsyncGame(config(), executor);
+            RecordingSubscriber subscriber = new RecordingSubscriber();
+            game.publish(Collections.nCopies(10, 100.0)).subscribe(subscriber);
+
+            subscriber.subscription.request(3);
+            // A task queued behind the drain loop sees everything it delivered
+            executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            assertEquals(3, subscriber.results.size());
+            assertFalse(subscriber.completed);
+
+            subscriber.subscription.request(Long.MAX_VALUE);
+            assertTrue(subscriber.finished.await(10, TimeUnit.SECONDS));
+            assertTrue(subscriber.completed);
+            assertEquals(10, subscriber.results.size());
+            assertNull(subscriber.error);
+
+            RecordingSubscriber empty = new RecordingSubscriber();
+            game.publish(Collections.<Double>emptyList()).subscribe(empty);
+            assertTrue(empty.finished.await(10, TimeUnit.SECONDS));
+            assertTrue(empty.completed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop on cancel and fail invalid requests and rounds")
+    void testCancelAndErrors() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncGame game = new AsyncGame(config(), executor);
+            AtomicInteger delivered = new AtomicInteger();
+            RecordingSubscriber cancelling = new RecordingSubscriber() {
+                @Override
+                public void onNext(GameResult item) {
+                    if (delivered.incrementAndGet() == 2) {
+                        subscription.cancel();
+                    }
+                }
+            };
+            game.publish(Collections.nCopies(100, 100.0)).subscribe(cancelling);
+            cancelling.subscription.request(50);
+            executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            assertEquals(2, delivered.get());
+            assertFalse(cancelling.completed);
+
+            RecordingSubscriber invalid = new RecordingSubscriber();
+            game.publish(Collections.nCopies(5, 100.0)).subscribe(invalid);
+            invalid.subscription.request(0);
+            assertTrue(invalid.finished.await(10, TimeUnit.SECONDS));
+            assertTrue(invalid.error instanceof IllegalArgumentException);
+
+            RecordingSubscriber unpayable = new RecordingSubscriber();
+            game.publish(Arrays.asList(100.0, Double.POSITIVE_INFINITY, 100.0)).subscribe(unpayable);
+            unpayable.subscription.request(3);
+            assertTrue(unpayable.finished.await(10, TimeUnit.SECONDS));
+            assertTrue(unpayable.error instanceof ArithmeticException);
+            assertEquals(1, unpayable.results.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
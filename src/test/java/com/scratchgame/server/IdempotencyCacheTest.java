@@ -0,0 +1,162 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for request deduplication in front of the game.
+ */
+public class IdempotencyCacheTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should return the original round for a retried request ID")
+    void testRetryReturnsOriginalRound() throws Exception {
+        IdempotentGame game = new IdempotentGame(config());
+        GameResult first = game.play("req-1", 100);
+        assertSame(first, game.play("req-1", 100));
+        assertNotSame(first, game.play("req-2", 100));
+        assertThrows(IllegalArgumentException.class, () -> game.play("req-1", 50));
+        assertThrows(IllegalArgumentException.class, () -> game.play("", 100));
+
+        assertEquals(2, game.getCache().getMisses());
+        assertEquals(1, game.getCache().getHits());
+        assertEquals(2, game.getCache().getSize());
+
+        // A failed round pays nothing and is forgotten, so its retry plays
+        assertThrows(ArithmeticException.class, () -> game.play("req-3", Double.POSITIVE_INFINITY));
+        assertEquals(2, game.getCache().getSize());
+    }
+
+    @Test
+    @DisplayName("Should play one round for concurrent duplicates")
+    void testConcurrentDuplicates() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache();
+        IdempotentGame game = new IdempotentGame(config(), cache);
+        int threads = 4;
+        int requests = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<List<GameResult>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<GameResult> results = new ArrayList<>();
+                for (int i = 0; i < requests; i++) {
+                    if (i % 100 == 0) {
+                        barrier.await();
+                    }
+                    results.add(game.play("req-" + i, 100));
+                }
+                return results;
+            }));
+        }
+        List<GameResult> expected = futures.get(0).get(30, TimeUnit.SECONDS);
+        for (Future<List<GameResult>> future : futures) {
+            List<GameResult> results = future.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < requests; i++) {
+                assertSame(expected.get(i), results.get(i));
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(requests, cache.getMisses());
+        assertEquals((long) requests * (threads - 1), cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the time-to-live and evict the oldest when full")
+    void testEviction() {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger played = new AtomicInteger();
+        IdempotencyCache cache = new IdempotencyCache(16, 1000, now::get);
+        GameResult result = new GameResult();
+
+        cache.play("a", 1, bet -> {
+            played.incrementAndGet();
+            return result;
+        });
+        now.set(999);
+        cache.play("a", 1, bet -> {
+            played.incrementAndGet();
+            return result;
+        });
+        assertEquals(1, played.get());
+
+        now.set(1000);
+        cache.play("a", 1, bet -> {
+            played.incrementAndGet();
+            return result;
+        });
+        assertEquals(2, played.get());
+        assertEquals(1, cache.getExpirations());
+
+        // One entry per segment, so a new ID evicts the oldest in its segment
+        for (int i = 0; i < 1000; i++) {
+            cache.play("k" + i, 1, bet -> result);
+        }
+        assertTrue(cache.getSize() <= 16);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep rounds in flight and forget rounds that throw an error")
+    void testInFlightAndErrors() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger played = new AtomicInteger();
+        IdempotencyCache cache = new IdempotencyCache(16, 1000, now::get);
+        GameResult result = new GameResult();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<GameResult> first = executor.submit(() -> cache.play("slow", 1, bet -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            played.incrementAndGet();
+            return result;
+        }));
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        // Neither age nor a full segment drops the pending entry
+        now.set(5000);
+        for (int i = 0; i < 1000; i++) {
+            cache.play("k" + i, 1, bet -> result);
+        }
+        Future<GameResult> duplicate = executor.submit(() -> cache.play("slow", 1, bet -> {
+            played.incrementAndGet();
+            return new GameResult();
+        }));
+        // The duplicate counts its hit before it waits for the first round
+        for (int wait = 0; wait < 30_000 && cache.getHits() == 0; wait++) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, cache.getHits());
+        release.countDown();
+        assertSame(result, first.get(30, TimeUnit.SECONDS));
+        assertSame(result, duplicate.get(30, TimeUnit.SECONDS));
+        assertEquals(1, played.get());
+        executor.shutdown();
+
+        assertThrows(AssertionError.class, () -> cache.play("error", 1, bet -> {
+            throw new AssertionError("round failed");
+        }));
+        assertSame(result, cache.play("error", 1, bet -> result));
+    }
+}
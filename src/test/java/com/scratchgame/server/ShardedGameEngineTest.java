@@ -0,0 +1,189 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sharded serving engine and its queues.
+ */
+public class ShardedGameEngineTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should play rounds from several producers and sum shard metrics on read")
+    void testConcurrentProducers() throws Exception {
+        int producers = 3;
+        int roundsEach = 4000;
+        DoubleAdder paid = new DoubleAdder();
+        CountDownLatch done = new CountDownLatch(producers * roundsEach);
+        RoundCallback callback = new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                paid.add(result.getReward());
+                done.countDown();
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                fail(error);
+            }
+        };
+
+        try (ShardedGameEngine engine = new ShardedGameEngine(config(), 2, 64, null, null)) {
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                executor.execute(() -> {
+                    try (ShardRouter router = engine.newRouter()) {
+                        for (int i = 0; i < roundsEach; i++) {
+                            while (router.submit(i, 100, callback) != AdmissionStatus.ADMITTED) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(done.await(60, TimeUnit.SECONDS));
+
+            EngineMetrics metrics = engine.getMetrics();
+            assertEquals(producers * roundsEach, metrics.getRounds());
+            assertEquals(metrics.getRounds(), Arrays.stream(metrics.getShardRounds()).sum());
+            assertEquals(100.0 * producers * roundsEach, metrics.getTotalBet(), 1e-6);
+            assertEquals(paid.sum(), metrics.getTotalReward(), 1e-6 * paid.sum());
+            assertTrue(metrics.getShardRounds()[0] > 0 && metrics.getShardRounds()[1] > 0);
+            assertTrue(metrics.getMeanServiceMicros() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay a key's rounds from its shard's seed in submission order")
+    void testKeyedRoundsReplay() throws Exception {
+        GameConfig config = config();
+        long key = 5;
+        int rounds = 200;
+        List<GameResult> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(rounds);
+        try (ShardedGameEngine engine = new ShardedGameEngine(config, 3, 16, 11L, null);
+             ShardRouter router = engine.newRouter()) {
+            for (int i = 0; i < rounds; i++) {
+                while (router.submit(key, 10, new RoundCallback() {
+                    @Override
+                    public void completed(GameResult result) {
+                        results.add(result);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void failed(RuntimeException error) {
+                        fail(error);
+                    }
+                }) != AdmissionStatus.ADMITTED) {
+                    Thread.yield();
+                }
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+
+            ScratchGame game = new ScratchGame(config, ShardedGameEngine.shardSeed(11, engine.shardOf(key)));
+            for (GameResult result : results) {
+                GameResult expected = game.play(10);
+                assertEquals(expected.getMatrix(), result.getMatrix());
+                assertEquals(expected.getReward(), result.getReward());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report full queues, keep FIFO order and refuse work once closed")
+    void testQueueAndShutdown() throws Exception {
+        SpscQueue<Integer> queue = new SpscQueue<>(3);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+        assertThrows(IllegalArgumentException.class, () -> new SpscQueue<Integer>(0));
+
+        ShardedGameEngine engine = new ShardedGameEngine(config(), 1, 8, null, null);
+        ShardRouter router = engine.newRouter();
+        AtomicInteger played = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        router.submit(Double.POSITIVE_INFINITY, new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                fail("An infinite bet cannot be paid");
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                played.incrementAndGet();
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, played.get());
+        assertEquals(1, engine.getMetrics().getFailures());
+
+        engine.close();
+        assertThrows(IllegalStateException.class, engine::newRouter);
+        assertThrows(IllegalStateException.class, () -> router.submit(10, null));
+    }
+
+    @Test
+    @DisplayName("Should keep serving and free admission slots when callbacks throw")
+    void testFaultyCallbacks() throws Exception {
+        AdmissionController admission = new AdmissionController();
+        RoundCallback faulty = new RoundCallback() {
+            @Override
+            public void completed(GameResult result) {
+                throw new IllegalStateException("completed");
+            }
+
+            @Override
+            public void failed(RuntimeException error) {
+                throw new NullPointerException("failed");
+            }
+        };
+        CountDownLatch done = new CountDownLatch(1);
+        try (ShardedGameEngine engine = new ShardedGameEngine(config(), 1, 8, null, admission);
+             ShardRouter router = engine.newRouter()) {
+            assertEquals(AdmissionStatus.ADMITTED, router.submit(10, faulty));
+            assertEquals(AdmissionStatus.ADMITTED, router.submit(Double.POSITIVE_INFINITY, faulty));
+            assertEquals(AdmissionStatus.ADMITTED, router.submit(10, new RoundCallback() {
+                @Override
+                public void completed(GameResult result) {
+                    done.countDown();
+                }
+
+                @Override
+                public void failed(RuntimeException error) {
+                    fail(error);
+                }
+            }));
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(2, engine.getMetrics().getRounds());
+            assertEquals(1, engine.getMetrics().getFailures());
+            assertEquals(0, admission.getInFlight());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for checkpointed, resumable simulations.
+ */
+public class CheckpointedSimulationTest {
+    private GameConfig config;
+    private SimulationShard[] segments;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        segments = SimulationShard.split(11, 8_000, 5, 100);
+    }
+
+    private static byte[] bytesOf(SimulationStatistics statistics) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        statistics.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted run with the same result bit for bit")
+    void testResume() throws IOException {
+        SimulationStatistics uninterrupted = new CheckpointedSimulation(config, segments,
+                new CheckpointStore(directory.resolve("full"), config)).run();
+
+        // The first two segments finished before the run died
+        CheckpointStore store = new CheckpointStore(directory.resolve("resumed"), config);
+        new CheckpointedSimulation(config, Arrays.copyOf(segments, 2), store).run();
+        CheckpointedSimulation resumed = new CheckpointedSimulation(config, segments, store);
+        SimulationStatistics statistics = resumed.run();
+
+        assertEquals(2, resumed.getResumedSegments());
+        assertEquals(3, resumed.getPlayedSegments());
+        assertArrayEquals(bytesOf(uninterrupted), bytesOf(statistics));
+    }
+
+    @Test
+    @DisplayName("Should play a segment again when its checkpoint is torn")
+    void testCorruptCheckpoint() throws IOException {
+        CheckpointStore store = new CheckpointStore(directory, config);
+        SimulationStatistics expected = new CheckpointedSimulation(config, segments, store).run();
+        Path checkpoint = store.pathOf(segments[3]);
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length / 2));
+
+        CheckpointedSimulation resumed = new CheckpointedSimulation(config, segments, store);
+        SimulationStatistics statistics = resumed.run();
+
+        assertEquals(1, resumed.getPlayedSegments());
+        assertArrayEquals(bytesOf(expected), bytesOf(statistics));
+    }
+
+    @Test
+    @DisplayName("Should refuse checkpoints of a different simulation")
+    void testDifferentSimulation() throws IOException {
+        new CheckpointedSimulation(config, segments, new CheckpointStore(directory, config)).run();
+
+        SimulationShard[] otherSeed = SimulationShard.split(12, 8_000, 5, 100);
+        assertThrows(IllegalStateException.class, () ->
+                new CheckpointedSimulation(config, otherSeed, new CheckpointStore(directory, config)).run());
+
+        config.getWinCombinations().values().iterator().next().setRewardMultiplier(99);
+        assertThrows(IllegalStateException.class, () ->
+                new CheckpointedSimulation(config, segments, new CheckpointStore(directory, config)).run());
+    }
+
+    @Test
+    @DisplayName("Should keep checkpoints when only speed settings change")
+    void testSpeedSettings() throws IOException {
+        SimulationStatistics expected = new CheckpointedSimulation(config, segments, new CheckpointStore(directory, config)).run();
+
+        GameConfig.EngineSettings engine = new GameConfig.EngineSettings();
+        engine.setPayoutTable(true);
+        engine.setEvaluationCache(true);
+        config.setEngine(engine);
+        CheckpointedSimulation resumed = new CheckpointedSimulation(config, segments, new CheckpointStore(directory, config));
+        assertArrayEquals(bytesOf(expected), bytesOf(resumed.run()));
+        assertEquals(segments.length, resumed.getResumedSegments());
+
+        engine.setMoneyScale(4);
+        assertThrows(IllegalStateException.class, () ->
+                new CheckpointedSimulation(config, segments, new CheckpointStore(directory, config)).run());
+    }
+
+    @Test
+    @DisplayName("Should resume a coordinated run from checkpoints")
+    void testCoordinatorResume() throws Exception {
+        CheckpointStore store = new CheckpointStore(directory, config);
+        SimulationStatistics expected = new CheckpointedSimulation(config, segments, store).run();
+
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(config, segments, store,
+                InetAddress.getLoopbackAddress(), 0)) {
+            assertEquals(segments.length, coordinator.getResumedShards());
+            assertArrayEquals(bytesOf(expected), bytesOf(coordinator.awaitResult(10_000)));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for likelihood-ratio weighted simulation.
+ */
+public class ImportanceSamplerTest {
+
+    /**
+     * 3x3 board of A (weight 99) and B (weight 1); nine of a kind pays 1x for A and 1000x
+     * for B, so paying over 100x has probability 0.01^9.
+     */
+    private static GameConfig rareWinConfig() {
+        GameConfig config = new GameConfig();
+        config.setRows(3);
+        config.setColumns(3);
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        symbols.put("A", standardSymbol(1));
+        symbols.put("B", standardSymbol(1000));
+        config.setSymbols(symbols);
+
+        WinCombination nineOfAKind = new WinCombination();
+        nineOfAKind.setWhen("same_symbols");
+        nineOfAKind.setCount(9);
+        nineOfAKind.setRewardMultiplier(1);
+        nineOfAKind.setGroup("same_symbols");
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("same_symbol_9_times", nineOfAKind);
+        config.setWinCombinations(combinations);
+
+        GameConfig.StandardSymbolProbability cell = new GameConfig.StandardSymbolProbability();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("A", 99);
+        weights.put("B", 1);
+        cell.setSymbols(weights);
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(cell));
+        config.setProbabilities(probabilities);
+        return config;
+    }
+
+    private static Symbol standardSymbol(double multiplier) {
+        Symbol symbol = new Symbol();
+        symbol.setType("standard");
+        symbol.setRewardMultiplier(multiplier);
+        return symbol;
+    }
+
+    @Test
+    @DisplayName("Should estimate a 1e-18 tail probability from a uniform proposal")
+    void testRareTail() {
+        ImportanceEstimate estimate = new ImportanceSampler(rareWinConfig(), 1, Collections.emptyMap())
+                .run(1, 100_000, 21);
+
+        double exact = Math.pow(0.01, 9);
+        ImportanceEstimate.Estimate tail = estimate.getExceedanceProbabilities().get("100x");
+        assertTrue(tail.getValue() > 0);
+        assertEquals(exact, tail.getValue(), 4 * tail.getStandardError());
+        assertEquals(exact, tail.getValue(), exact * 0.3);
+        assertTrue(tail.getLower() < tail.getValue() && tail.getValue() < tail.getUpper());
+
+        double exactRtp = Math.pow(0.99, 9) + 1000 * exact;
+        assertEquals(exactRtp, estimate.getRtp().getValue(), 4 * estimate.getRtp().getStandardError());
+        assertTrue(estimate.getEffectiveSampleSize() < estimate.getRounds());
+    }
+
+    @Test
+    @DisplayName("Should weight every round 1 without tilt or boosts")
+    void testNoBias() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        ImportanceEstimate estimate = new ImportanceSampler(config, 0, Collections.emptyMap()).run(10, 20_000, 4);
+
+        assertEquals(20_000, estimate.getEffectiveSampleSize(), 1e-6);
+        SimulationStatistics plain = SimulationShard.split(4, 200_000, 1, 10)[0].run(config);
+        ImportanceEstimate.Estimate hit = estimate.getHitFrequency();
+        assertEquals(plain.getHitRate(), hit.getValue(), 4 * hit.getStandardError() + 1e-9);
+        ImportanceEstimate.Estimate three = estimate.getWinCombinationProbabilities().get("same_symbol_3_times");
+        // Weights of 1 make each rule's estimate a plain proportion with its sample variance
+        double p = three.getValue();
+        assertEquals(Math.sqrt(p * (1 - p) / (20_000 - 1)), three.getStandardError(), 1e-6 * three.getStandardError());
+    }
+
+    @Test
+    @DisplayName("Should boost named symbols and reject invalid biases")
+    void testBoosts() {
+        Map<String, Double> boosts = new HashMap<>();
+        boosts.put("B", 99.0);
+        ImportanceEstimate estimate = new ImportanceSampler(rareWinConfig(), 0, boosts).run(1, 100_000, 2);
+        double exact = Math.pow(0.01, 9);
+        assertEquals(exact, estimate.getExceedanceProbabilities().get("100x").getValue(), exact * 0.3);
+
+        assertThrows(IllegalArgumentException.class, () -> new ImportanceSampler(rareWinConfig(), 1.5, Collections.emptyMap()));
+        boosts.put("B", 0.0);
+        assertThrows(IllegalArgumentException.class, () -> new ImportanceSampler(rareWinConfig(), 0, boosts));
+    }
+}
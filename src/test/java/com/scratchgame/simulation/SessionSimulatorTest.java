@@ -0,0 +1,118 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinCombination;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bankroll and session simulation.
+ */
+public class SessionSimulatorTest {
+
+    /**
+     * 1x1 board paying twice the bet on W and nothing on L: a coin flip at even money that
+     * wins with probability {@code winWeight / (winWeight + loseWeight)}.
+     */
+    private static GameConfig coinFlipConfig(int winWeight, int loseWeight) {
+        GameConfig config = new GameConfig();
+        config.setRows(1);
+        config.setColumns(1);
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        symbols.put("W", standardSymbol(2));
+        symbols.put("L", standardSymbol(0));
+        config.setSymbols(symbols);
+
+        WinCombination single = new WinCombination();
+        single.setWhen("same_symbols");
+        single.setCount(1);
+        single.setRewardMultiplier(1);
+        single.setGroup("same_symbols");
+        config.setWinCombinations(Collections.singletonMap("same_symbol_1_times", single));
+
+        GameConfig.StandardSymbolProbability cell = new GameConfig.StandardSymbolProbability();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("W", winWeight);
+        weights.put("L", loseWeight);
+        cell.setSymbols(weights);
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(cell));
+        config.setProbabilities(probabilities);
+        return config;
+    }
+
+    private static Symbol standardSymbol(double multiplier) {
+        Symbol symbol = new Symbol();
+        symbol.setType("standard");
+        symbol.setRewardMultiplier(multiplier);
+        return symbol;
+    }
+
+    @Test
+    @DisplayName("Should match the gambler's ruin probability")
+    void testGamblersRuin() throws Exception {
+        SessionSimulator simulator = new SessionSimulator(coinFlipConfig(9, 11));
+        long unit = simulator.toMinor(1);
+        SessionPlan plan = new SessionPlan(5 * unit, BetStrategy.flat(unit), 100_000, 10 * unit);
+        SessionReport report = simulator.run(plan, 20_000, 7, 2);
+
+        // Ruin from 5 before reaching 10 with win probability 0.45
+        double ratio = 11.0 / 9;
+        double exact = (Math.pow(ratio, 5) - Math.pow(ratio, 10)) / (1 - Math.pow(ratio, 10));
+        assertEquals(20_000, report.getPlayers());
+        assertEquals(exact, report.getRiskOfRuin(), 0.02);
+        assertEquals(1 - exact, report.getWinGoalRate(), 0.02);
+        assertEquals(0, report.getRoundLimitRate());
+        assertEquals(10 * (1 - exact), report.getMeanFinalBalance(), 0.2);
+        assertEquals(0, report.getFinalBalanceQuantiles().get("p50"), 1e-9);
+        assertTrue(report.getSessionLengthQuantiles().get("p50") >= 5);
+        assertEquals(0, report.getBigWinRates().get("10x"));
+    }
+
+    @Test
+    @DisplayName("Should give the same report on any thread count and honour the round limit")
+    void testDeterministicAndRoundLimit() throws Exception {
+        GameConfig config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+        SessionSimulator simulator = new SessionSimulator(config);
+        long bet = simulator.toMinor(1);
+        SessionPlan plan = new SessionPlan(20 * bet, BetStrategy.martingale(bet, 8 * bet), 3, 0);
+
+        ObjectMapper mapper = new ObjectMapper();
+        String single = mapper.writeValueAsString(simulator.run(plan, 3_000, 11, 1));
+        SessionReport report = simulator.run(plan, 3_000, 11, 3);
+        assertEquals(single, mapper.writeValueAsString(report));
+        // Every board wins, so nobody is ruined within three rounds
+        assertEquals(1, report.getRoundLimitRate());
+        assertEquals(3, report.getMeanSessionLength(), 1e-9);
+        assertTrue(report.getMeanFinalBalance() > 20);
+    }
+
+    @Test
+    @DisplayName("Should apply bet strategies and reject invalid plans")
+    void testStrategies() {
+        BetStrategy martingale = BetStrategy.martingale(100, 500);
+        assertEquals(100, martingale.nextBet(10_000, 0, 0));
+        assertEquals(400, martingale.nextBet(10_000, 200, 0));
+        assertEquals(500, martingale.nextBet(10_000, 400, 0));
+        assertEquals(100, martingale.nextBet(10_000, 400, 800));
+        BetStrategy proportional = BetStrategy.proportional(0.1, 50);
+        assertEquals(1_000, proportional.nextBet(10_000, 0, 0));
+        assertEquals(50, proportional.nextBet(100, 0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> BetStrategy.flat(0));
+        assertThrows(IllegalArgumentException.class, () -> BetStrategy.martingale(100, 50));
+        assertThrows(IllegalArgumentException.class, () -> BetStrategy.proportional(1.5, 50));
+        assertThrows(IllegalArgumentException.class, () -> new SessionPlan(0, BetStrategy.flat(1), 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SessionPlan(100, BetStrategy.flat(1), 0, 0));
+        SessionSimulator simulator = new SessionSimulator(coinFlipConfig(1, 1));
+        SessionPlan broken = new SessionPlan(100, (balance, previousBet, previousReward) -> 0, 10, 0);
+        assertThrows(IllegalStateException.class, () -> simulator.run(broken, 10, 1, 1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the socket coordinator and its workers.
+ */
+public class SimulationCoordinatorTest {
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    private SimulationStatistics playLocally(SimulationShard[] shards) {
+        SimulationStatistics merged = shards[0].run(config);
+        for (int i = 1; i < shards.length; i++) {
+            merged.merge(shards[i].run(config));
+        }
+        return merged;
+    }
+
+    private static void assertSameStatistics(SimulationStatistics expected, SimulationStatistics actual) {
+        assertEquals(expected.getRounds(), actual.getRounds());
+        assertEquals(expected.getWinningRounds(), actual.getWinningRounds());
+        assertEquals(expected.getTotalBetMinor(), actual.getTotalBetMinor());
+        assertEquals(expected.getTotalPaidMinor(), actual.getTotalPaidMinor());
+        assertEquals(expected.getMaxRewardMinor(), actual.getMaxRewardMinor());
+        assertEquals(expected.getPayoutVariance(), actual.getPayoutVariance(), 0);
+    }
+
+    @Test
+    @DisplayName("Should split rounds into reproducible shards")
+    void testShards() {
+        SimulationShard[] shards = SimulationShard.split(7, 1003, 4, 10);
+        long rounds = 0;
+        for (SimulationShard shard : shards) {
+            rounds += shard.getRounds();
+        }
+        assertEquals(1003, rounds);
+        assertNotEquals(shards[0].getSeed(), shards[1].getSeed());
+
+        assertSameStatistics(shards[2].run(config), shards[2].run(config));
+    }
+
+    @Test
+    @DisplayName("Should merge the shards of several worker JVMs")
+    void testWorkerProcesses() throws Exception {
+        SimulationShard[] shards = SimulationShard.split(42, 20_000, 6, 100);
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(config, shards, 0)) {
+            coordinator.startLocalWorkers(2);
+            SimulationStatistics statistics = coordinator.awaitResult(TIMEOUT_MILLIS);
+            assertSameStatistics(playLocally(shards), statistics);
+        }
+    }
+
+    @Test
+    @DisplayName("Should re-issue the shard of a worker that dies")
+    void testWorkerDies() throws Exception {
+        SimulationShard[] shards = SimulationShard.split(3, 5_000, 4, 100);
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(config, shards, 0)) {
+            // Takes a shard and drops the connection without answering
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), coordinator.getPort())) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                assertEquals(ShardProtocol.CONFIG, in.readByte());
+                ShardProtocol.readConfig(in);
+                assertEquals(ShardProtocol.SHARD, in.readByte());
+                SimulationShard.readFrom(in);
+            }
+
+            AtomicReference<Exception> error = new AtomicReference<>();
+            Thread worker = new Thread(() -> {
+                try {
+                    SimulationWorker.run(InetAddress.getLoopbackAddress().getHostAddress(), coordinator.getPort());
+                } catch (IOException e) {
+                    error.set(e);
+                }
+            });
+            worker.start();
+
+            SimulationStatistics statistics = coordinator.awaitResult(TIMEOUT_MILLIS);
+            worker.join(TIMEOUT_MILLIS);
+            assertNull(error.get());
+            assertEquals(1, coordinator.getReissuedShards());
+            assertSameStatistics(playLocally(shards), statistics);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail the run when no worker is left to play the outstanding shards")
+    void testNoWorkersLeft() throws Exception {
+        SimulationShard[] shards = SimulationShard.split(5, 1_000, 2, 100);
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(config, shards, 0)) {
+            coordinator.setShardTimeoutMillis(200);
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> coordinator.awaitResult(TIMEOUT_MILLIS));
+            assertTrue(error.getMessage().contains("No workers left"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip statistics through their binary form")
+    void testStatisticsRoundTrip() throws IOException {
+        SimulationStatistics statistics = SimulationShard.split(1, 2_000, 1, 5)[0].run(config);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        statistics.writeTo(new DataOutputStream(bytes));
+
+        SimulationStatistics copy = SimulationStatistics.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertSameStatistics(statistics, copy);
+        for (int rule = 0; rule < config.getWinCombinations().size(); rule++) {
+            assertEquals(statistics.getRuleHits(rule), copy.getRuleHits(rule));
+        }
+    }
+}
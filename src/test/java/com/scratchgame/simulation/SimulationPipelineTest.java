@@ -0,0 +1,126 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.evaluation.RuleIndex;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import com.scratchgame.money.RewardCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the structure-of-arrays simulation pipeline.
+ */
+public class SimulationPipelineTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should keep the payout variance accurate across merges and round trips")
+    void testPayoutVariance() throws Exception {
+        // Payouts of 2.00 and 0.00 have variance 1
+        SimulationStatistics withLoss = new SimulationStatistics(1, 1, 2);
+        withLoss.add(100, new long[]{200, 0}, new long[2], new int[]{-1, -1}, 2);
+        assertEquals(1, withLoss.getPayoutVariance(), 1e-12);
+
+        // Payouts a cent apart around 1e9, where squaring them would lose every digit of the spread
+        long base = 100_000_000_000L;
+        SimulationStatistics first = new SimulationStatistics(1, 1, 2);
+        first.add(100, new long[]{base, base + 1}, new long[2], new int[]{-1, -1}, 2);
+        SimulationStatistics second = new SimulationStatistics(1, 1, 2);
+        second.add(100, new long[]{base + 2}, new long[1], new int[]{-1}, 1);
+        first.merge(second);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        first.writeTo(new DataOutputStream(bytes));
+        SimulationStatistics copy = SimulationStatistics.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(2.0 / 3 * 1e-4, copy.getPayoutVariance(), 1e-9);
+        assertEquals(first.getPayoutVariance(), copy.getPayoutVariance(), 0);
+    }
+
+    @Test
+    @DisplayName("Should pay each round what play pays for the same board")
+    void testRewardsMatchPlay() {
+        ScratchGame game = new ScratchGame(config);
+        SimulationPipeline pipeline = new SimulationPipeline(game, 300);
+        RewardCalculator calculator = game.getRewardCalculator();
+        RuleIndex index = game.getRuleIndex();
+        pipeline.playBatch(calculator.toMinor(100), 300);
+
+        ScratchGame reference = new ScratchGame(config);
+        int[] cells = new int[index.getCellCount()];
+        int wins = 0;
+        for (int round = 0; round < pipeline.size(); round++) {
+            pipeline.getBoards().copyBoard(round, cells);
+            reference.setTestMatrix(index.decode(cells));
+            GameResult result = reference.play(100);
+
+            long reward = pipeline.getRewards()[round];
+            assertEquals(result.getReward(), calculator.toMajor(reward), 1e-9);
+            assertEquals(reward > 0, pipeline.getBonusIndices()[round] >= 0);
+            assertEquals(result.getAppliedWinningCombinations().isEmpty(), pipeline.getFiredRules()[round] == 0);
+            wins += reward > 0 ? 1 : 0;
+        }
+        assertTrue(wins > 0);
+    }
+
+    @Test
+    @DisplayName("Should reduce statistics across partial batches")
+    void testStatistics() {
+        ScratchGame game = new ScratchGame(config);
+        SimulationPipeline pipeline = new SimulationPipeline(game, 1024);
+        SimulationStatistics statistics = pipeline.run(10, 5000);
+
+        assertEquals(5000, statistics.getRounds());
+        assertEquals(5_000_000, statistics.getTotalBetMinor());
+        assertTrue(statistics.getWinningRounds() > 0);
+        assertTrue(statistics.getWinningRounds() <= statistics.getRounds());
+        assertTrue(statistics.getMaxRewardMinor() > 0);
+        assertEquals((double) statistics.getTotalPaidMinor() / statistics.getTotalBetMinor(), statistics.getRtp(), 1e-12);
+        assertTrue(statistics.getPayoutVariance() > 0);
+
+        long bonusHits = 0;
+        for (int bonus = 0; bonus < game.getBonusSymbolCount(); bonus++) {
+            bonusHits += statistics.getBonusHits(bonus);
+        }
+        assertEquals(statistics.getWinningRounds(), bonusHits);
+    }
+
+    @Test
+    @DisplayName("Should merge statistics of separate runs")
+    void testMerge() {
+        SimulationPipeline first = new SimulationPipeline(new ScratchGame(config), 128);
+        SimulationPipeline second = new SimulationPipeline(new ScratchGame(config), 256);
+        SimulationStatistics merged = first.run(1, 1000);
+        SimulationStatistics other = second.run(1, 700);
+        long paid = merged.getTotalPaidMinor() + other.getTotalPaidMinor();
+        long wins = merged.getWinningRounds() + other.getWinningRounds();
+
+        merged.merge(other);
+
+        assertEquals(1700, merged.getRounds());
+        assertEquals(paid, merged.getTotalPaidMinor());
+        assertEquals(wins, merged.getWinningRounds());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void testInvalidArguments() {
+        ScratchGame game = new ScratchGame(config);
+        assertThrows(IllegalArgumentException.class, () -> new SimulationPipeline(game, 0));
+        SimulationPipeline pipeline = new SimulationPipeline(game, 16);
+        assertThrows(IllegalArgumentException.class, () -> pipeline.run(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.playBatch(100, 17));
+    }
+}
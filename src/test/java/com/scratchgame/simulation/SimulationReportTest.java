@@ -0,0 +1,67 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.runtime.GameModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for payout distribution reports.
+ */
+public class SimulationReportTest {
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should report the distribution as snake_case JSON")
+    void testReportJson() throws Exception {
+        SimulationStatistics statistics = SimulationShard.split(5, 20_000, 1, 10)[0].run(config);
+        SimulationReport report = SimulationReport.of(statistics, new GameModel(config));
+
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(report));
+
+        assertEquals(20_000, json.get("rounds").asLong());
+        assertEquals(statistics.getHitRate(), json.get("hit_frequency").asDouble());
+        assertEquals(statistics.getStandardDeviation(), json.get("standard_deviation").asDouble());
+        assertTrue(json.get("payout_quantiles").has("p99.9"));
+        assertEquals(statistics.getExceedanceProbability(10), json.get("exceedance_probabilities").get("10x").asDouble());
+        assertTrue(json.get("win_combination_frequencies").has("same_symbol_3_times"));
+
+        long histogramRounds = 0;
+        for (JsonNode count : json.get("payout_histogram")) {
+            histogramRounds += count.asLong();
+        }
+        assertEquals(20_000, histogramRounds);
+        assertTrue(report.getPayoutQuantiles().get("p50") <= report.getPayoutQuantiles().get("p99"));
+        assertTrue(report.getMaxWin() >= report.getPayoutQuantiles().get("p99.999") * 10 * 0.99);
+    }
+
+    @Test
+    @DisplayName("Should merge per-thread statistics into the sequential result")
+    void testParallelMatchesSequential() throws Exception {
+        SimulationShard[] shards = SimulationShard.split(9, 12_000, 6, 10);
+        SimulationStatistics sequential = shards[0].run(config);
+        for (int i = 1; i < shards.length; i++) {
+            sequential.merge(shards[i].run(config));
+        }
+
+        SimulationStatistics parallel = ParallelSimulation.run(config, shards, 3);
+
+        assertEquals(sequential.getTotalPaidMinor(), parallel.getTotalPaidMinor());
+        for (double q : new double[]{0.5, 0.9, 0.999}) {
+            assertEquals(sequential.getPayoutQuantile(q), parallel.getPayoutQuantile(q));
+        }
+        assertEquals(sequential.getExceedanceProbability(100), parallel.getExceedanceProbability(100));
+    }
+}
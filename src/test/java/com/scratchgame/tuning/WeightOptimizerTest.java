@@ -0,0 +1,143 @@
+package com.scratchgame.tuning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.analysis.SameSymbolsAnalysis;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinCombination;
+import com.scratchgame.simulation.SimulationShard;
+import com.scratchgame.simulation.SimulationStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the standard_symbols weight optimizer.
+ */
+public class WeightOptimizerTest {
+
+    /**
+     * 3x3 board of five symbols paying from four of a kind, with uniform weights.
+     */
+    private static GameConfig fiveSymbolConfig(boolean withLine) {
+        GameConfig config = new GameConfig();
+        config.setRows(3);
+        config.setColumns(3);
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        String[] names = {"A", "B", "C", "D", "E"};
+        double[] multipliers = {0.2, 0.3, 0.5, 1, 4};
+        for (int i = 0; i < names.length; i++) {
+            Symbol symbol = new Symbol();
+            symbol.setType("standard");
+            symbol.setRewardMultiplier(multipliers[i]);
+            symbols.put(names[i], symbol);
+            weights.put(names[i], 1);
+        }
+        config.setSymbols(symbols);
+
+        Map<String, WinCombination> combinations = new LinkedHashMap<>();
+        combinations.put("same_symbol_4_times", sameSymbols(4, 1));
+        combinations.put("same_symbol_6_times", sameSymbols(6, 3));
+        if (withLine) {
+            WinCombination horizontal = new WinCombination();
+            horizontal.setWhen("linear_symbols");
+            horizontal.setGroup("horizontally_linear_symbols");
+            horizontal.setRewardMultiplier(2);
+            horizontal.setCoveredAreas(Arrays.asList(
+                    Arrays.asList("0:0", "0:1", "0:2"),
+                    Arrays.asList("1:0", "1:1", "1:2"),
+                    Arrays.asList("2:0", "2:1", "2:2")));
+            combinations.put("same_symbols_horizontally", horizontal);
+        }
+        config.setWinCombinations(combinations);
+
+        GameConfig.StandardSymbolProbability cell = new GameConfig.StandardSymbolProbability();
+        cell.setSymbols(weights);
+        GameConfig.Probabilities probabilities = new GameConfig.Probabilities();
+        probabilities.setStandardSymbols(Collections.singletonList(cell));
+        config.setProbabilities(probabilities);
+        return config;
+    }
+
+    private static WinCombination sameSymbols(int count, double multiplier) {
+        WinCombination combination = new WinCombination();
+        combination.setWhen("same_symbols");
+        combination.setCount(count);
+        combination.setRewardMultiplier(multiplier);
+        combination.setGroup("same_symbols");
+        return combination;
+    }
+
+    @Test
+    @DisplayName("Should tune weights to an exact RTP target")
+    void testExactRtpTarget() throws Exception {
+        GameConfig config = fiveSymbolConfig(false);
+        WeightOptimizer optimizer = new WeightOptimizer(config, 0.96, Double.NaN);
+        OptimizationResult result = optimizer.optimize(500, 2, 2);
+
+        assertEquals(0.96, result.getRtp(), 0.96 * 0.005);
+        assertEquals(2 * 501, result.getEvaluations());
+        // The written config reproduces the reported RTP and still parses as a game config
+        ObjectMapper mapper = new ObjectMapper();
+        GameConfig written = mapper.readValue(mapper.writeValueAsString(result.getConfig()), GameConfig.class);
+        assertEquals(result.getRtp(), new SameSymbolsAnalysis(written).getExpectedMultiplier(), 1e-12);
+        assertTrue(written.getProbabilities().getStandardSymbols().get(0).getSymbols().values().stream().allMatch(w -> w > 0));
+    }
+
+    @Test
+    @DisplayName("Should keep disabled symbols and every other setting of the config")
+    void testKeepsConfig() throws Exception {
+        GameConfig config = fiveSymbolConfig(false);
+        config.getProbabilities().getStandardSymbols().get(0).getSymbols().put("E", 0);
+        GameConfig.JackpotSettings jackpot = new GameConfig.JackpotSettings();
+        jackpot.setContributionPercent(1);
+        jackpot.setSeedAmount(100);
+        jackpot.setTriggerCombination("same_symbol_6_times");
+        config.setJackpot(jackpot);
+
+        OptimizationResult result = new WeightOptimizer(config, 0.5, Double.NaN).optimize(200, 1, 1);
+        Map<String, Integer> weights = result.getConfig().getProbabilities().getStandardSymbols().get(0).getSymbols();
+        assertEquals(0, weights.get("E"));
+        assertTrue(weights.get("A") > 0);
+        assertNotNull(result.getConfig().getJackpot());
+        assertEquals("same_symbol_6_times", result.getConfig().getJackpot().getTriggerCombination());
+        // The input config is left as it was
+        assertEquals(1, config.getProbabilities().getStandardSymbols().get(0).getSymbols().get("A"));
+    }
+
+    @Test
+    @DisplayName("Should tune RTP and hit frequency by simulation, independently of the thread count")
+    void testSimulatedTargets() throws Exception {
+        GameConfig config = fiveSymbolConfig(true);
+        WeightOptimizer optimizer = new WeightOptimizer(config, 0.96, 0.55);
+        optimizer.setEvaluationRounds(5_000);
+        optimizer.setSeed(3);
+        OptimizationResult result = optimizer.optimize(300, 2, 1);
+
+        assertEquals(0.96, result.getRtp(), 0.96 * 0.05);
+        assertEquals(0.55, result.getHitFrequency(), 0.55 * 0.05);
+        SimulationStatistics check = SimulationShard.split(99, 200_000, 1, 10)[0].run(result.getConfig());
+        assertEquals(0.96, check.getRtp(), 0.96 * 0.1);
+        assertEquals(0.55, check.getHitRate(), 0.55 * 0.1);
+
+        OptimizationResult parallel = optimizer.optimize(300, 2, 2);
+        assertEquals(result.getConfig().getProbabilities().getStandardSymbols().get(0).getSymbols(),
+                parallel.getConfig().getProbabilities().getStandardSymbols().get(0).getSymbols());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid targets and settings")
+    void testInvalidArguments() {
+        GameConfig config = fiveSymbolConfig(false);
+        assertThrows(IllegalArgumentException.class, () -> new WeightOptimizer(config, 0, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new WeightOptimizer(config, 0.96, 1.5));
+        WeightOptimizer optimizer = new WeightOptimizer(config, 0.96, Double.NaN);
+        assertThrows(IllegalArgumentException.class, () -> optimizer.setEvaluationRounds(0));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(10, 1, 0));
+    }
+}
@@ -0,0 +1,135 @@
+package com.scratchgame.wallet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.ScratchGame;
+import com.scratchgame.model.GameConfig;
+import com.scratchgame.model.GameResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the wallet ledger and its write-ahead log.
+ */
+public class WalletLedgerTest {
+
+    private static GameConfig config() throws Exception {
+        return new ObjectMapper().readValue(new File("config.json"), GameConfig.class);
+    }
+
+    @Test
+    @DisplayName("Should debit bets, credit rewards and rebuild balances from the log")
+    void testRoundsAndRecovery(@TempDir Path dir) throws Exception {
+        GameConfig config = config();
+        ScratchGame game = new ScratchGame(config, 42);
+        Path log = dir.resolve("wallet.log");
+        double expected = 500;
+        try (WalletLedger ledger = new WalletLedger(log, config)) {
+            assertEquals(500, ledger.deposit("alice", 500));
+            for (int i = 0; i < 50; i++) {
+                GameResult result = ledger.play("alice", 10, game::play);
+                expected += result.getReward() - 10;
+            }
+            assertEquals(expected, ledger.getBalance("alice"), 1e-6);
+            assertEquals(expected - 5, ledger.withdraw("alice", 5), 1e-6);
+            expected -= 5;
+
+            assertThrows(IllegalStateException.class, () -> ledger.play("bob", 1, game::play));
+            assertThrows(IllegalStateException.class, () -> ledger.withdraw("alice", 1e9));
+            assertThrows(IllegalArgumentException.class, () -> ledger.deposit("alice", -1));
+            // A round that throws leaves the balance as it was
+            assertThrows(ArithmeticException.class, () -> ledger.play("alice", 1, bet -> game.play(Double.POSITIVE_INFINITY)));
+            assertEquals(expected, ledger.getBalance("alice"), 1e-6);
+
+            // The round is played on the bet as charged in minor units
+            double[] charged = new double[1];
+            GameResult rounded = ledger.play("alice", 0.125, bet -> game.play(charged[0] = bet));
+            assertEquals(0.12, charged[0]);
+            expected += rounded.getReward() - 0.12;
+            assertEquals(expected, ledger.getBalance("alice"), 1e-6);
+            assertEquals(53, ledger.getLog().getRecords());
+        }
+
+        try (WalletLedger reopened = new WalletLedger(log, config)) {
+            assertEquals(expected, reopened.getBalance("alice"), 1e-6);
+            assertEquals(51, reopened.getRounds());
+            assertEquals(1, reopened.getAccountCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should settle concurrent rounds exactly and share fsyncs between them")
+    void testConcurrentRounds(@TempDir Path dir) throws Exception {
+        GameConfig config = config();
+        int threads = 8;
+        int roundsEach = 200;
+        Path log = dir.resolve("wallet.log");
+        Map<String, Double> expected = new ConcurrentHashMap<>();
+        try (WalletLedger ledger = new WalletLedger(log, config)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String account = "player-" + (t % 4);
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    ScratchGame game = new ScratchGame(config, seed);
+                    ledger.deposit(account, roundsEach * 10);
+                    expected.merge(account, roundsEach * 10.0, Double::sum);
+                    for (int i = 0; i < roundsEach; i++) {
+                        GameResult result = ledger.play(account, 10, game::play);
+                        expected.merge(account, result.getReward() - 10, Double::sum);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            for (Map.Entry<String, Double> account : expected.entrySet()) {
+                assertEquals(account.getValue(), ledger.getBalance(account.getKey()), 1e-6);
+            }
+            assertEquals(threads * roundsEach, ledger.getRounds());
+            assertTrue(ledger.getLog().getSyncs() < ledger.getLog().getRecords());
+        }
+
+        try (WalletLedger reopened = new WalletLedger(log, config)) {
+            for (Map.Entry<String, Double> account : expected.entrySet()) {
+                assertEquals(account.getValue(), reopened.getBalance(account.getKey()), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the end of the log on recovery")
+    void testTornTail(@TempDir Path dir) throws Exception {
+        GameConfig config = config();
+        Path log = dir.resolve("wallet.log");
+        try (WalletLedger ledger = new WalletLedger(log, config)) {
+            ledger.deposit("alice", 100);
+            ledger.deposit("alice", 20);
+        }
+        long intact = Files.size(log);
+        // A crash part way through a third record
+        Files.write(log, new byte[]{0, 0, 0, 40, 1, 0, 5, 'a'}, StandardOpenOption.APPEND);
+
+        try (WalletLedger reopened = new WalletLedger(log, config)) {
+            assertEquals(120, reopened.getBalance("alice"));
+            assertEquals(intact, Files.size(log));
+            reopened.deposit("alice", 1);
+        }
+        try (WalletLedger reopened = new WalletLedger(log, config)) {
+            assertEquals(121, reopened.getBalance("alice"));
+        }
+    }
+}